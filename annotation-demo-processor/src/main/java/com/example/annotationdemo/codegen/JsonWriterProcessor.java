@@ -0,0 +1,482 @@
+package com.example.annotationdemo.codegen;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.DecimalFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/*
+ * 编译期注解处理器 --为带@JsonField字段的类生成XxxJsonWriter
+ * 生成的写入器与运行时反射计划语义一致：非静态字段、ignore的字段不输出、名称为空时用字段名、按order稳定排序
+ * 私有字段通过getter读取，没有可用getter的类不生成代码，运行时自动退回反射
+ */
+@SupportedAnnotationTypes(JsonWriterProcessor.JSON_FIELD)
+public class JsonWriterProcessor extends AbstractProcessor {
+
+    static final String JSON_FIELD = "com.example.annotationdemo.annotations.JsonField";
+
+    private static final String RUNTIME_PACKAGE = "com.example.annotationdemo.processor";
+    private static final String WRITER_INTERFACE = RUNTIME_PACKAGE + ".ClassJsonWriter";
+    private static final String SERVICE_FILE = "META-INF/services/" + WRITER_INTERFACE;
+
+    private static final Set<String> TEMPORAL_TYPES = Set.of(
+            "java.time.LocalDate", "java.time.LocalDateTime", "java.time.LocalTime",
+            "java.time.OffsetDateTime", "java.time.OffsetTime", "java.time.ZonedDateTime",
+            "java.time.Instant", "java.time.YearMonth", "java.time.Year", "java.time.MonthDay");
+
+    private static final Set<String> NUMBER_TYPES = Set.of(
+            "java.math.BigDecimal", "java.math.BigInteger",
+            "double", "java.lang.Double", "float", "java.lang.Float", "long", "java.lang.Long",
+            "int", "java.lang.Integer", "short", "java.lang.Short", "byte", "java.lang.Byte");
+
+    /*
+     * 本次编译生成的写入器全名，最后一轮与已有注册项合并后写入服务注册文件
+     */
+    private final Set<String> generatedWriters = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+
+        Set<TypeElement> classes = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.FIELD) {
+                    classes.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+        for (TypeElement type : classes) {
+            generateWriter(type);
+        }
+        return false;
+    }
+
+    /*
+     * 为单个类生成写入器
+     */
+    private void generateWriter(TypeElement type) {
+        if (!isSupportedType(type)) {
+            note(type, "跳过JsonWriter生成（仅支持非抽象、非泛型的public顶层类），运行时使用反射");
+            return;
+        }
+
+        List<Property> properties = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            AnnotationMirror jsonField = findJsonField(field);
+            if (jsonField != null && booleanValue(jsonField, "ignore")) {
+                continue;
+            }
+            String readExpression = readExpression(type, field);
+            if (readExpression == null) {
+                note(field, "字段没有可用的getter，跳过" + type.getSimpleName() + "的JsonWriter生成，运行时使用反射");
+                return;
+            }
+            String name = (jsonField != null) ? stringValue(jsonField, "name") : "";
+            if (name.isEmpty()) {
+                name = field.getSimpleName().toString();
+            }
+            int order = (jsonField != null) ? intValue(jsonField, "order") : Integer.MAX_VALUE;
+            String format = (jsonField != null) ? stringValue(jsonField, "format") : "";
+            if (!format.isEmpty() && !checkFormat(field, format)) {
+                return;
+            }
+            properties.add(new Property(field, name, order, readExpression, format));
+        }
+        //按order稳定排序，与运行时计划一致
+        properties.sort(Comparator.comparingInt(p -> p.order));
+
+        String packageName = ((PackageElement) type.getEnclosingElement()).getQualifiedName().toString();
+        String writerName = type.getSimpleName() + "JsonWriter";
+        String qualifiedName = packageName.isEmpty() ? writerName : packageName + "." + writerName;
+        try {
+            JavaFileObject source = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer writer = source.openWriter()) {
+                writer.write(renderSource(packageName, writerName, type, properties));
+            }
+            generatedWriters.add(qualifiedName);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "生成" + qualifiedName + "失败: " + e, type);
+        }
+    }
+
+    private boolean isSupportedType(TypeElement type) {
+        return type.getKind() == ElementKind.CLASS
+                && type.getNestingKind() == NestingKind.TOP_LEVEL
+                && type.getModifiers().contains(Modifier.PUBLIC)
+                && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && type.getTypeParameters().isEmpty();
+    }
+
+    /*
+     * 编译期校验format：字段类型必须受支持且pattern合法，与运行时JsonFormatter.compile的规则一致
+     */
+    private boolean checkFormat(VariableElement field, String format) {
+        String typeName = processingEnv.getTypeUtils().erasure(field.asType()).toString();
+        try {
+            if (TEMPORAL_TYPES.contains(typeName) || typeName.equals("java.util.Date")) {
+                DateTimeFormatter.ofPattern(format);
+                return true;
+            }
+            if (NUMBER_TYPES.contains(typeName)) {
+                new DecimalFormat(format);
+                return true;
+            }
+        } catch (IllegalArgumentException e) {
+            error(field, "非法的format \"" + format + "\": " + e.getMessage());
+            return false;
+        }
+        error(field, "format不支持的字段类型: " + typeName);
+        return false;
+    }
+
+    /*
+     * 字段读取表达式：非私有字段直接读取，私有字段使用类型一致的非私有getter
+     */
+    private String readExpression(TypeElement type, VariableElement field) {
+        String fieldName = field.getSimpleName().toString();
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return "value." + fieldName;
+        }
+        String suffix = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        TypeMirror fieldType = field.asType();
+        List<String> candidates = new ArrayList<>();
+        if (fieldType.getKind() == TypeKind.BOOLEAN) {
+            candidates.add("is" + suffix);
+        }
+        candidates.add("get" + suffix);
+
+        for (String candidate : candidates) {
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(candidate)
+                        && method.getParameters().isEmpty()
+                        && !method.getModifiers().contains(Modifier.PRIVATE)
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && processingEnv.getTypeUtils().isSameType(method.getReturnType(), fieldType)) {
+                    return "value." + candidate + "()";
+                }
+            }
+        }
+        return null;
+    }
+
+    /*
+     * 生成写入器源码
+     */
+    private String renderSource(String packageName, String writerName, TypeElement type, List<Property> properties) {
+        String typeName = type.getSimpleName().toString();
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("import java.io.IOException;\n\n");
+        src.append("import ").append(RUNTIME_PACKAGE).append(".ClassJsonWriter;\n");
+        if (properties.stream().anyMatch(p -> !p.format.isEmpty())) {
+            src.append("import ").append(RUNTIME_PACKAGE).append(".JsonFormatter;\n");
+        }
+        src.append("import ").append(RUNTIME_PACKAGE).append(".JsonName;\n");
+        src.append("import ").append(RUNTIME_PACKAGE).append(".JsonOutput;\n");
+        src.append("import ").append(RUNTIME_PACKAGE).append(".JsonSerializer;\n\n");
+        src.append("/*\n * ").append(typeName).append("的JSON写入器 --由").append(getClass().getSimpleName())
+            .append("根据@JsonField生成，请勿手工修改\n */\n");
+        src.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        src.append("public final class ").append(writerName)
+            .append(" implements ClassJsonWriter<").append(typeName).append("> {\n\n");
+
+        for (int i = 0; i < properties.size(); i++) {
+            src.append("    private static final JsonName NAME_").append(i)
+                .append(" = JsonName.of(\"").append(escapeJava(properties.get(i).name)).append("\");\n");
+        }
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            if (!property.format.isEmpty()) {
+                src.append("    private static final JsonFormatter FORMAT_").append(i)
+                    .append(" = JsonFormatter.compile(")
+                    .append(processingEnv.getTypeUtils().erasure(property.field.asType())).append(".class, \"")
+                    .append(escapeJava(property.format)).append("\");\n");
+            }
+        }
+        if (!properties.isEmpty()) {
+            src.append("\n");
+        }
+
+        src.append("    @Override\n");
+        src.append("    public Class<").append(typeName).append("> type() {\n");
+        src.append("        return ").append(typeName).append(".class;\n");
+        src.append("    }\n\n");
+
+        src.append("    @Override\n");
+        src.append("    public void write(").append(typeName)
+            .append(" value, JsonOutput out, JsonSerializer serializer) throws IOException {\n");
+        src.append("        out.write('{');\n");
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            if (i > 0) {
+                src.append("        out.write(',');\n");
+            }
+            src.append("        out.writeName(NAME_").append(i).append(");\n");
+            if (property.format.isEmpty()) {
+                renderValue(src, property, "v" + i);
+            } else {
+                renderFormatted(src, property, "v" + i, "FORMAT_" + i);
+            }
+        }
+        src.append("        out.write('}');\n");
+        src.append("    }\n");
+        src.append("}\n");
+        return src.toString();
+    }
+
+    /*
+     * 按字段类型生成值写入代码，常见类型直接写入，其余交给serializer.writeValue
+     */
+    private void renderValue(StringBuilder src, Property property, String var) {
+        TypeMirror type = property.field.asType();
+        String read = property.readExpression;
+        switch (type.getKind()) {
+            case INT:
+            case SHORT:
+            case BYTE:
+                src.append("        out.writeInt(").append(read).append(");\n");
+                return;
+            case LONG:
+                src.append("        out.writeLong(").append(read).append(");\n");
+                return;
+            case DOUBLE:
+                src.append("        serializer.writeDouble(").append(read).append(", out);\n");
+                return;
+            case FLOAT:
+                src.append("        serializer.writeFloat(").append(read).append(", out);\n");
+                return;
+            case BOOLEAN:
+                src.append("        out.write(").append(read).append(" ? \"true\" : \"false\");\n");
+                return;
+            default:
+                break;
+        }
+
+        String typeName = processingEnv.getTypeUtils().erasure(type).toString();
+        String write;
+        switch (typeName) {
+            case "java.lang.String":
+                write = "out.writeString(" + var + ")";
+                break;
+            case "java.lang.Integer":
+            case "java.lang.Short":
+            case "java.lang.Byte":
+                write = "out.writeInt(" + var + ")";
+                break;
+            case "java.lang.Long":
+                write = "out.writeLong(" + var + ")";
+                break;
+            case "java.lang.Double":
+                write = "serializer.writeDouble(" + var + ", out)";
+                break;
+            case "java.lang.Float":
+                write = "serializer.writeFloat(" + var + ", out)";
+                break;
+            case "java.lang.Boolean":
+                write = "out.write(" + var + " ? \"true\" : \"false\")";
+                break;
+            default:
+                src.append("        serializer.writeValue(").append(read).append(", out);\n");
+                return;
+        }
+        src.append("        ").append(typeName).append(" ").append(var).append(" = ").append(read).append(";\n");
+        src.append("        if (").append(var).append(" == null) {\n");
+        src.append("            out.write(\"null\");\n");
+        src.append("        } else {\n");
+        src.append("            ").append(write).append(";\n");
+        src.append("        }\n");
+    }
+
+    /*
+     * 声明了format的字段交给预编译的JsonFormatter写入
+     */
+    private void renderFormatted(StringBuilder src, Property property, String var, String formatter) {
+        TypeMirror type = property.field.asType();
+        String read = property.readExpression;
+        if (type.getKind().isPrimitive()) {
+            src.append("        ").append(formatter).append(".write(").append(read).append(", out, serializer);\n");
+            return;
+        }
+        src.append("        ").append(processingEnv.getTypeUtils().erasure(type)).append(" ").append(var)
+            .append(" = ").append(read).append(";\n");
+        src.append("        if (").append(var).append(" == null) {\n");
+        src.append("            out.write(\"null\");\n");
+        src.append("        } else {\n");
+        src.append("            ").append(formatter).append(".write(").append(var).append(", out, serializer);\n");
+        src.append("        }\n");
+    }
+
+    /*
+     * 写入META-INF/services注册文件
+     * 增量编译时只有部分类重新生成，先合并输出目录中已有的注册项，仍能解析到的写入器保留
+     */
+    private void writeServiceFile() {
+        if (generatedWriters.isEmpty()) {
+            return;
+        }
+        Set<String> writers = new LinkedHashSet<>();
+        for (String name : readServiceFile()) {
+            if (processingEnv.getElementUtils().getTypeElement(name) != null) {
+                writers.add(name);
+            }
+        }
+        writers.addAll(generatedWriters);
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String name : writers) {
+                    writer.write(name);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "写入" + SERVICE_FILE + "失败: " + e);
+        }
+    }
+
+    /*
+     * 读取输出目录中已有的注册文件，不存在时返回空列表
+     */
+    private List<String> readServiceFile() {
+        List<String> names = new ArrayList<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(file.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    String name = ((comment >= 0) ? line.substring(0, comment) : line).trim();
+                    if (!name.isEmpty()) {
+                        names.add(name);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            //首次编译或输出目录中没有注册文件
+        }
+        return names;
+    }
+
+    private AnnotationMirror findJsonField(VariableElement field) {
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(JSON_FIELD)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * 读取注解属性（包含默认值）
+     */
+    private Object annotationValue(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private String stringValue(AnnotationMirror mirror, String name) {
+        Object value = annotationValue(mirror, name);
+        return (value == null) ? "" : value.toString();
+    }
+
+    private boolean booleanValue(AnnotationMirror mirror, String name) {
+        return Boolean.TRUE.equals(annotationValue(mirror, name));
+    }
+
+    private int intValue(AnnotationMirror mirror, String name) {
+        Object value = annotationValue(mirror, name);
+        return (value instanceof Integer) ? (Integer) value : 0;
+    }
+
+    private static String escapeJava(String str) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /*
+     * 待输出的字段
+     */
+    private static final class Property {
+        final VariableElement field;
+        final String name;
+        final int order;
+        final String readExpression;
+        final String format;
+
+        Property(VariableElement field, String name, int order, String readExpression, String format) {
+            this.field = field;
+            this.name = name;
+            this.order = order;
+            this.readExpression = readExpression;
+            this.format = format;
+        }
+    }
+}
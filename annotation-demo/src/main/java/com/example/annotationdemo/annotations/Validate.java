@@ -29,6 +29,10 @@ public @interface Validate {
     String message() default "";        // 错误消息
     int min() default Integer.MIN_VALUE; // 最小值
     int max() default Integer.MAX_VALUE; // 最大值
+    long minLong() default Long.MIN_VALUE;  // MIN的long边界，设置后代替min
+    long maxLong() default Long.MAX_VALUE;  // MAX的long边界，设置后代替max
+    double minDouble() default Double.NaN;  // MIN的浮点边界，设置后代替min和minLong
+    double maxDouble() default Double.NaN;  // MAX的浮点边界，设置后代替max和maxLong
     String pattern() default "";        // 正则模式
 }
 
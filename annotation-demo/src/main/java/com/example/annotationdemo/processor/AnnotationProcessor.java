@@ -5,6 +5,9 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import com.example.annotationdemo.annotations.ClassInfo;
 import com.example.annotationdemo.annotations.Component;
 import com.example.annotationdemo.annotations.FieldInfo;
@@ -15,16 +18,18 @@ import com.example.annotationdemo.annotations.Validate;
 
 /*
 * 注解处理器 - 演示如何通过反射读取各种注解
+* 扫描结果按级别输出到log4j2：类和组件为INFO，注解明细为DEBUG，关闭DEBUG时不再读取明细
 */
 
 public class AnnotationProcessor {
+
+    private static final Logger LOG = LogManager.getLogger(AnnotationProcessor.class);
     
     /*
      * 扫描并处理指定包下的所有类
      */
     public void scanAndProcess(String packageName) {
-        System.out.println("开始扫描包：" + packageName);
-        System.out.println("=".repeat(50));
+        LOG.info("开始扫描包：{}", packageName);
 
         //模拟扫描到的类
         Class<?>[] classes = {com.example.annotationdemo.models.User.class,
@@ -39,7 +44,10 @@ public class AnnotationProcessor {
      * 处理各级注解
      */
     private void processClass(Class<?> clazz) {
-        System.out.println("\n🔍 处理类: " + clazz.getSimpleName());
+        LOG.info("🔍 处理类: {}", clazz.getSimpleName());
+        if (!LOG.isDebugEnabled()) {
+            return;
+        }
         // 1. 处理类级别注解
         processClassLevelAnnotations(clazz);
         
@@ -57,25 +65,25 @@ public class AnnotationProcessor {
      * 处理类级别注解
      */
     private void processClassLevelAnnotations(Class<?> clazz) {
-        System.out.println("\n📋 类级别注解:");
+        LOG.debug("📋 类级别注解:");
         
         // 检查ClassInfo注解
         if (clazz.isAnnotationPresent(ClassInfo.class)) {
             ClassInfo classInfo = clazz.getAnnotation(ClassInfo.class);
-            System.out.println("  🏷️  ClassInfo:");
-            System.out.println("     作者: " + classInfo.author());
-            System.out.println("     版本: " + classInfo.version());
-            System.out.println("     描述: " + classInfo.description());
-            System.out.println("     创建: " + classInfo.created());
-            System.out.println("     标签: " + Arrays.toString(classInfo.tags()));
+            LOG.debug("  🏷️  ClassInfo:");
+            LOG.debug("     作者: {}", classInfo.author());
+            LOG.debug("     版本: {}", classInfo.version());
+            LOG.debug("     描述: {}", classInfo.description());
+            LOG.debug("     创建: {}", classInfo.created());
+            LOG.debug("     标签: {}", Arrays.toString(classInfo.tags()));
         }
         
         // 检查Component注解
         if (clazz.isAnnotationPresent(Component.class)) {
             Component component = clazz.getAnnotation(Component.class);
-            System.out.println("  🧩 Component:");
-            System.out.println("     名称: " + component.value());
-            System.out.println("     作用域: " + component.scope());
+            LOG.debug("  🧩 Component:");
+            LOG.debug("     名称: {}", component.value());
+            LOG.debug("     作用域: {}", component.scope());
         }
     }
 
@@ -83,38 +91,38 @@ public class AnnotationProcessor {
      * 处理字段级别注解
      */
     private void processFieldLevelAnnotations(Class<?> clazz) {
-        System.out.println("\n🏷️  字段级别注解:");
+        LOG.debug("🏷️  字段级别注解:");
         
         Field[] fields = clazz.getDeclaredFields();
         for (Field field : fields) {
-            System.out.println("  📊 字段: " + field.getName() + " (" + field.getType().getSimpleName() + ")");
+            LOG.debug("  📊 字段: {} ({})", field.getName(), field.getType().getSimpleName());
             
             // FieldInfo注解
             if (field.isAnnotationPresent(FieldInfo.class)) {
                 FieldInfo fieldInfo = field.getAnnotation(FieldInfo.class);
-                System.out.println("     📝 FieldInfo:");
-                System.out.println("       显示名称: " + fieldInfo.name());
-                System.out.println("       描述: " + fieldInfo.description());
-                System.out.println("       必填: " + fieldInfo.required());
-                System.out.println("       长度范围: " + fieldInfo.minLength() + "-" + fieldInfo.maxLength());
+                LOG.debug("     📝 FieldInfo:");
+                LOG.debug("       显示名称: {}", fieldInfo.name());
+                LOG.debug("       描述: {}", fieldInfo.description());
+                LOG.debug("       必填: {}", fieldInfo.required());
+                LOG.debug("       长度范围: {}-{}", fieldInfo.minLength(), fieldInfo.maxLength());
             }
             
             // Validate注解（可能有多个）
             Validate[] validations = field.getAnnotationsByType(Validate.class);
             if (validations.length > 0) {
-                System.out.println("     ✅ Validate验证规则:");
+                LOG.debug("     ✅ Validate验证规则:");
                 for (Validate validate : validations) {
-                    System.out.println("       - 类型: " + validate.type() + ", 消息: " + validate.message());
+                    LOG.debug("       - 类型: {}, 消息: {}", validate.type(), validate.message());
                 }
             }
             
             // JsonField注解
             if (field.isAnnotationPresent(JsonField.class)) {
                 JsonField jsonField = field.getAnnotation(JsonField.class);
-                System.out.println("     📄 JsonField:");
-                System.out.println("       JSON字段名: " + (jsonField.name().isEmpty() ? field.getName() : jsonField.name()));
-                System.out.println("       是否忽略: " + jsonField.ignore());
-                System.out.println("       顺序: " + jsonField.order());
+                LOG.debug("     📄 JsonField:");
+                LOG.debug("       JSON字段名: {}", jsonField.name().isEmpty() ? field.getName() : jsonField.name());
+                LOG.debug("       是否忽略: {}", jsonField.ignore());
+                LOG.debug("       顺序: {}", jsonField.order());
             }
         }
     }
@@ -123,25 +131,25 @@ public class AnnotationProcessor {
      * 处理方法级别注解
      */
     private void processMethodLevelAnnotations(Class<?> clazz) {
-        System.out.println("\n🛠️  方法级别注解:");
+        LOG.debug("🛠️  方法级别注解:");
         
         Method[] methods = clazz.getDeclaredMethods();
         for (Method method : methods) {
             // 跳过合成方法和桥接方法
             if (method.isSynthetic()) continue;
             
-            System.out.println("  ⚙️  方法: " + method.getName() + getParameterString(method));
+            LOG.debug("  ⚙️  方法: {}{}", method.getName(), getParameterString(method));
             
             // MethodInfo注解
             if (method.isAnnotationPresent(MethodInfo.class)) {
                 MethodInfo methodInfo = method.getAnnotation(MethodInfo.class);
-                System.out.println("     📋 MethodInfo:");
-                System.out.println("       描述: " + methodInfo.description());
-                System.out.println("       返回类型: " + methodInfo.returnType());
-                System.out.println("       是否弃用: " + methodInfo.deprecated());
-                System.out.println("       起始版本: " + methodInfo.since());
+                LOG.debug("     📋 MethodInfo:");
+                LOG.debug("       描述: {}", methodInfo.description());
+                LOG.debug("       返回类型: {}", methodInfo.returnType());
+                LOG.debug("       是否弃用: {}", methodInfo.deprecated());
+                LOG.debug("       起始版本: {}", methodInfo.since());
                 if (methodInfo.params().length > 0) {
-                    System.out.println("       参数描述: " + Arrays.toString(methodInfo.params()));
+                    LOG.debug("       参数描述: {}", Arrays.toString(methodInfo.params()));
                 }
             }
         }
@@ -151,7 +159,7 @@ public class AnnotationProcessor {
      * 处理方法参数注解
      */
     private void processParameterAnnotations(Class<?> clazz) {
-        System.out.println("\n🎯 方法参数注解:");
+        LOG.debug("🎯 方法参数注解:");
         
         Method[] methods = clazz.getDeclaredMethods();
         for (Method method : methods) {
@@ -161,15 +169,15 @@ public class AnnotationProcessor {
             for (Parameter param : parameters) {
                 if (param.isAnnotationPresent(ParamInfo.class)) {
                     if (!hasParamAnnotations) {
-                        System.out.println("  🔧 方法: " + method.getName());
+                        LOG.debug("  🔧 方法: {}", method.getName());
                         hasParamAnnotations = true;
                     }
                     ParamInfo paramInfo = param.getAnnotation(ParamInfo.class);
-                    System.out.println("     📍 参数: " + param.getName());
-                    System.out.println("       名称: " + paramInfo.name());
-                    System.out.println("       描述: " + paramInfo.description());
-                    System.out.println("       必须: " + paramInfo.required());
-                    System.out.println("       默认值: " + paramInfo.defaultValue());
+                    LOG.debug("     📍 参数: {}", param.getName());
+                    LOG.debug("       名称: {}", paramInfo.name());
+                    LOG.debug("       描述: {}", paramInfo.description());
+                    LOG.debug("       必须: {}", paramInfo.required());
+                    LOG.debug("       默认值: {}", paramInfo.defaultValue());
                 }
             }
         }
@@ -198,7 +206,7 @@ public class AnnotationProcessor {
      */
     public Object createInstance(Class<?> clazz) throws Exception {
         if (clazz.isAnnotationPresent(Component.class)) {
-            System.out.println("\n🏭 创建组件实例: " + clazz.getSimpleName());
+            LOG.info("🏭 创建组件实例: {}", clazz.getSimpleName());
             return clazz.getDeclaredConstructor().newInstance();
         }
         return null;
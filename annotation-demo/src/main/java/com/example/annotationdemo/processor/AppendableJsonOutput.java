@@ -0,0 +1,241 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/*
+ * 字符输出 --缓冲写满后批量刷新到Appendable
+ */
+final class AppendableJsonOutput extends JsonOutput {
+
+    private final Appendable target;
+    private char[] buffer = JsonBuffers.takeChars();
+    private int position;
+
+    AppendableJsonOutput(Appendable target) {
+        this.target = target;
+    }
+
+    @Override
+    public void write(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = c;
+    }
+
+    @Override
+    public void write(String str) throws IOException {
+        writeRange(str, 0, str.length());
+    }
+
+    /*
+     * 写入字符串的[offset, end)区间
+     */
+    private void writeRange(String str, int offset, int end) throws IOException {
+        while (offset < end) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            int count = Math.min(end - offset, buffer.length - position);
+            str.getChars(offset, offset + count, buffer, position);
+            position += count;
+            offset += count;
+        }
+    }
+
+    /*
+     * 单次扫描：无需转义的连续字符整段拷贝进缓冲区，不产生中间字符串
+     * 不成对的代理字符输出为unicode转义，保证结果在任何编码下都能原样读回
+     */
+    @Override
+    public void writeString(String str) throws IOException {
+        write('"');
+        int length = str.length();
+        int runStart = 0;
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c >= 128) {
+                if (!Character.isSurrogate(c)) {
+                    continue;
+                }
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    i++;
+                    continue;
+                }
+            } else if (ESCAPES[c] == 0) {
+                continue;
+            }
+            if (i > runStart) {
+                writeRange(str, runStart, i);
+            }
+            writeEscape(c);
+            runStart = i + 1;
+        }
+        if (length > runStart) {
+            writeRange(str, runStart, length);
+        }
+        write('"');
+    }
+
+    @Override
+    public void writeString(char c) throws IOException {
+        if (position + 8 > buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = '"';
+        if ((c < 128) ? ESCAPES[c] != 0 : Character.isSurrogate(c)) {
+            //单个代理字符必然不成对
+            writeEscape(c);
+        } else {
+            buffer[position++] = c;
+        }
+        buffer[position++] = '"';
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException {
+        if (position + JsonNumbers.MAX_LONG_LENGTH > buffer.length) {
+            flushBuffer();
+        }
+        position = JsonNumbers.writeLong(value, buffer, position);
+    }
+
+    @Override
+    void writeInts(int[] values, int from, int to) throws IOException {
+        int i = from;
+        while (i < to) {
+            int end = Math.min(to, i + (buffer.length - position) / (JsonNumbers.MAX_LONG_LENGTH + 1));
+            if (end == i) {
+                flushBuffer();
+                continue;
+            }
+            char[] buf = buffer;
+            int pos = position;
+            for (; i < end; i++) {
+                if (i > from) {
+                    buf[pos++] = ',';
+                }
+                pos = JsonNumbers.writeLong(values[i], buf, pos);
+            }
+            position = pos;
+        }
+    }
+
+    @Override
+    void writeLongs(long[] values, int from, int to) throws IOException {
+        int i = from;
+        while (i < to) {
+            int end = Math.min(to, i + (buffer.length - position) / (JsonNumbers.MAX_LONG_LENGTH + 1));
+            if (end == i) {
+                flushBuffer();
+                continue;
+            }
+            char[] buf = buffer;
+            int pos = position;
+            for (; i < end; i++) {
+                if (i > from) {
+                    buf[pos++] = ',';
+                }
+                pos = JsonNumbers.writeLong(values[i], buf, pos);
+            }
+            position = pos;
+        }
+    }
+
+    @Override
+    public void writeDouble(double value) throws IOException {
+        if (position + JsonNumbers.MAX_DOUBLE_LENGTH > buffer.length) {
+            flushBuffer();
+        }
+        int end = JsonNumbers.writeDouble(value, buffer, position);
+        if (end < 0) {
+            write(Double.toString(value));
+        } else {
+            position = end;
+        }
+    }
+
+    @Override
+    public void writeFloat(float value) throws IOException {
+        if (position + JsonNumbers.MAX_DOUBLE_LENGTH > buffer.length) {
+            flushBuffer();
+        }
+        int end = JsonNumbers.writeFloat(value, buffer, position);
+        if (end < 0) {
+            write(Float.toString(value));
+        } else {
+            position = end;
+        }
+    }
+
+    @Override
+    public void writeName(JsonName name) throws IOException {
+        write(name.text);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if (target instanceof Writer) {
+            ((Writer) target).flush();
+        }
+    }
+
+    /*
+     * 目标为StringBuilder时取出完整结果：内容全部还在缓冲区时直接由缓冲区创建字符串，省去一次拷贝
+     */
+    String finishString() throws IOException {
+        StringBuilder builder = (StringBuilder) target;
+        if (builder.length() == 0) {
+            String result = new String(buffer, 0, position);
+            position = 0;
+            return result;
+        }
+        flushBuffer();
+        return builder.toString();
+    }
+
+    @Override
+    void release() {
+        if (buffer != null) {
+            JsonBuffers.releaseChars(buffer);
+            buffer = null;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(buffer, 0, position);
+        } else if (target instanceof Writer) {
+            ((Writer) target).write(buffer, 0, position);
+        } else {
+            target.append(CharBuffer.wrap(buffer, 0, position));
+        }
+        position = 0;
+    }
+
+    /*
+     * 写入单个字符的转义序列
+     */
+    private void writeEscape(char c) throws IOException {
+        if (position + 6 > buffer.length) {
+            flushBuffer();
+        }
+        char escape = (c < 128) ? ESCAPES[c] : 'u';
+        buffer[position++] = '\\';
+        if (escape == 'u') {
+            buffer[position++] = 'u';
+            buffer[position++] = HEX[c >> 12];
+            buffer[position++] = HEX[(c >> 8) & 0xF];
+            buffer[position++] = HEX[(c >> 4) & 0xF];
+            buffer[position++] = HEX[c & 0xF];
+        } else {
+            buffer[position++] = escape;
+        }
+    }
+}
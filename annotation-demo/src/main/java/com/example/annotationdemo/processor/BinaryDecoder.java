@@ -0,0 +1,187 @@
+package com.example.annotationdemo.processor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * 二进制解码器基类 --在ByteBuffer上按绝对位置读取，字段名直接在字节上计算哈希并查找计划
+ */
+abstract class BinaryDecoder {
+
+    static final int NULL = 0;
+    static final int BOOLEAN = 1;
+    static final int INTEGER = 2;
+    static final int FLOAT = 3;
+    static final int STRING = 4;
+    static final int BINARY = 5;
+    static final int ARRAY = 6;
+    static final int MAP = 7;
+    static final int BREAK = 8;
+
+    final ByteBuffer in;
+    int pos;
+    private final int limit;
+    private char[] scratch = new char[64];
+
+    BinaryDecoder(ByteBuffer in) {
+        this.in = in;
+        this.pos = in.position();
+        this.limit = in.limit();
+    }
+
+    /*
+     * 下一个值的类型（不消费）
+     */
+    abstract int peek();
+
+    abstract void readNull();
+
+    abstract boolean readBoolean();
+
+    abstract long readLong();
+
+    abstract double readDouble();
+
+    abstract String readString();
+
+    abstract byte[] readBinary();
+
+    /*
+     * 数组头，返回元素个数；不定长（仅CBOR）返回-1，以readBreakIf结束
+     */
+    abstract int readArrayHeader();
+
+    abstract int readMapHeader();
+
+    /*
+     * 不定长容器遇到结束标记时消费并返回true
+     */
+    boolean readBreakIf() {
+        return false;
+    }
+
+    /*
+     * 读取定长字符串头部并返回字节数，不定长字符串返回-1
+     */
+    abstract int readStringLength();
+
+    abstract void skipValue();
+
+    /*
+     * 读取字段名并在计划中查找，未知字段返回null
+     * ASCII字段名在字节上直接计算String.hashCode并比较，不创建字符串
+     */
+    JsonReadPlan.Property readKey(JsonReadPlan plan) {
+        if (peek() != STRING) {
+            throw error("字段名必须是字符串");
+        }
+        int length = readStringLength();
+        if (length < 0) {
+            return plan.find(readRemainingString());
+        }
+        int start = pos;
+        skipBytes(length);
+        if (length > scratch.length) {
+            scratch = new char[Math.max(length, scratch.length * 2)];
+        }
+        char[] chars = scratch;
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = in.get(start + i);
+            if (b < 0) {
+                return plan.find(utf8(start, length));
+            }
+            chars[i] = (char) b;
+            hash = 31 * hash + b;
+        }
+        return plan.find(chars, 0, length, hash);
+    }
+
+    /*
+     * readStringLength返回-1后读取不定长字符串的剩余部分
+     */
+    String readRemainingString() {
+        throw error("不支持不定长字符串");
+    }
+
+    /*
+     * 确认所有输入都已读完
+     */
+    void expectEnd() {
+        if (pos != limit) {
+            throw error("值之后存在多余的数据");
+        }
+    }
+
+    final int u8() {
+        require(1);
+        return in.get(pos++) & 0xFF;
+    }
+
+    final int u16() {
+        require(2);
+        int value = in.getShort(pos) & 0xFFFF;
+        pos += 2;
+        return value;
+    }
+
+    final int i32() {
+        require(4);
+        int value = in.getInt(pos);
+        pos += 4;
+        return value;
+    }
+
+    final long i64() {
+        require(8);
+        long value = in.getLong(pos);
+        pos += 8;
+        return value;
+    }
+
+    final void skipBytes(long count) {
+        if (count < 0 || count > limit - pos) {
+            throw error("数据不完整");
+        }
+        pos += (int) count;
+    }
+
+    final String utf8(int start, int length) {
+        if (in.hasArray()) {
+            return new String(in.array(), in.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = in.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    final byte[] bytes(int start, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = in.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return bytes;
+    }
+
+    /*
+     * 长度字段转为int，超过2GB或超出剩余数据时报错
+     */
+    final int length(long value) {
+        if (value < 0 || value > limit - pos) {
+            throw error("长度超出数据范围: " + value);
+        }
+        return (int) value;
+    }
+
+    private void require(int count) {
+        if (limit - pos < count) {
+            throw error("数据不完整");
+        }
+    }
+
+    final IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + "（位置" + pos + "）");
+    }
+}
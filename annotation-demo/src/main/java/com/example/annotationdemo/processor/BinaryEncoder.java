@@ -0,0 +1,233 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/*
+ * 二进制编码器基类 --字节直接写入缓冲区，写满后批量输出到OutputStream或ByteBuffer
+ * 字符串先计算UTF-8长度写出长度前缀，再逐字符编码，不经过String.getBytes
+ */
+abstract class BinaryEncoder implements Encoder {
+
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final OutputStream stream;
+    private final ByteBuffer byteBuffer;
+    private byte[] buffer = JsonBuffers.takeBytes();
+    private int position;
+
+    BinaryEncoder(OutputStream stream) {
+        this.stream = stream;
+        this.byteBuffer = null;
+    }
+
+    BinaryEncoder(ByteBuffer byteBuffer) {
+        this.stream = null;
+        this.byteBuffer = byteBuffer;
+    }
+
+    /*
+     * 能放进long的整数写为整数，double能精确还原（含小数位数）的写为double
+     * 其余（超出long的大整数、高精度小数）写为十进制字符串，解码时按数字文本读回，不丢精度
+     */
+    @Override
+    public void writeNumber(String text) throws IOException {
+        BigDecimal number = new BigDecimal(text);
+        if (number.scale() <= 0 && number.compareTo(LONG_MIN) >= 0 && number.compareTo(LONG_MAX) <= 0) {
+            writeLong(number.longValue());
+            return;
+        }
+        double value = number.doubleValue();
+        if (Double.isFinite(value) && BigDecimal.valueOf(value).equals(number)) {
+            writeDouble(value);
+        } else {
+            writeString(number.toString());
+        }
+    }
+
+    @Override
+    public void writeEndArray() {
+        //定长数组没有结束标记
+    }
+
+    @Override
+    public void writeEndObject() {
+        //定长对象没有结束标记
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if (stream != null) {
+            stream.flush();
+        }
+    }
+
+    @Override
+    public void release() {
+        if (buffer != null) {
+            JsonBuffers.releaseBytes(buffer);
+            buffer = null;
+        }
+    }
+
+    /*
+     * 写入长度前缀后的UTF-8字符串
+     */
+    @Override
+    public void writeString(String value) throws IOException {
+        int length = utf8Length(value);
+        writeStringHeader(length);
+        if (length == value.length()) {
+            writeAscii(value);
+        } else {
+            writeUtf8(value);
+        }
+    }
+
+    abstract void writeStringHeader(int length) throws IOException;
+
+    /*
+     * 保证缓冲区至少还有count字节（count不超过16）
+     */
+    final void ensure(int count) throws IOException {
+        if (position + count > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    final void put(int b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    /*
+     * 以下putXxx调用前需要先ensure
+     */
+    final void put1(int b) {
+        buffer[position++] = (byte) b;
+    }
+
+    final void put2(int value) {
+        buffer[position++] = (byte) (value >> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    final void put4(int value) {
+        buffer[position++] = (byte) (value >> 24);
+        buffer[position++] = (byte) (value >> 16);
+        buffer[position++] = (byte) (value >> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    final void put8(long value) {
+        put4((int) (value >> 32));
+        put4((int) value);
+    }
+
+    /*
+     * 批量写入已编码字节（预编码的字段名）
+     */
+    final void putBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                writeToTarget(bytes, 0, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /*
+     * 字符串的UTF-8字节数，不成对的代理字符按'?'计1字节（与String.getBytes一致）
+     */
+    static int utf8Length(String str) {
+        int length = str.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                bytes += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private void writeAscii(String str) throws IOException {
+        int length = str.length();
+        int offset = 0;
+        while (offset < length) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            int count = Math.min(length - offset, buffer.length - position);
+            for (int i = 0; i < count; i++) {
+                buffer[position + i] = (byte) str.charAt(offset + i);
+            }
+            position += count;
+            offset += count;
+        }
+    }
+
+    private void writeUtf8(String str) throws IOException {
+        int length = str.length();
+        byte[] buf = buffer;
+        for (int i = 0; i < length; i++) {
+            if (position + 4 > buf.length) {
+                flushBuffer();
+            }
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                buf[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[position++] = (byte) (0xC0 | (c >> 6));
+                buf[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                    buf[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buf[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buf[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buf[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    buf[position++] = '?';
+                }
+            } else {
+                buf[position++] = (byte) (0xE0 | (c >> 12));
+                buf[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        writeToTarget(buffer, 0, position);
+        position = 0;
+    }
+
+    private void writeToTarget(byte[] bytes, int offset, int length) throws IOException {
+        if (stream != null) {
+            stream.write(bytes, offset, length);
+        } else {
+            byteBuffer.put(bytes, offset, length);
+        }
+    }
+}
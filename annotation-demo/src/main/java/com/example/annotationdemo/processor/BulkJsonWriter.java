@@ -0,0 +1,260 @@
+package com.example.annotationdemo.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/*
+ * 批量序列化 --大列表切成若干块并行写入各自的缓冲，再按原顺序把缓冲直接写到目标
+ * 同时在途的块数有上限，写出一块才提交下一块，内存占用与列表长度无关
+ */
+final class BulkJsonWriter {
+
+    /*
+     * 元素少于此数量时直接在调用线程顺序写入
+     */
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    private static final int MIN_CHUNK_SIZE = 256;
+    private static final int MAX_CHUNK_SIZE = 4096;
+
+    private final JsonSerializer serializer;
+    private final Executor executor;
+    private final int parallelism;
+    private final boolean ndjson;
+    private final Projection projection;
+
+    /*
+     * parallelism为executor可同时执行的块数，不大于1时在调用线程顺序写入
+     */
+    BulkJsonWriter(JsonSerializer serializer, Executor executor, int parallelism, boolean ndjson,
+            Projection projection) {
+        this.serializer = serializer;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.ndjson = ndjson;
+        this.projection = projection;
+    }
+
+    /*
+     * 推断executor的并行度：ForkJoinPool取parallelism，ThreadPoolExecutor取最大线程数
+     * 其他executor（如单线程executor的包装）无法得知并行度，按1处理即顺序写入
+     */
+    static int parallelism(Executor executor) {
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+        }
+        return 1;
+    }
+
+    /*
+     * 以UTF-8字节写入OutputStream
+     */
+    void write(List<?> items, OutputStream out) throws IOException {
+        Object[] elements = snapshot(items);
+        if (!parallel(elements.length)) {
+            JsonOutput output = JsonOutput.utf8(out);
+            try {
+                writeSequential(elements, output);
+                output.flush();
+            } finally {
+                output.release();
+            }
+            return;
+        }
+        if (!ndjson) {
+            out.write('[');
+        }
+        run(elements, (from, to) -> {
+            ByteChunk chunk = new ByteChunk();
+            JsonOutput output = JsonOutput.utf8(chunk);
+            try {
+                writeElements(elements, from, to, output);
+                output.flush();
+            } finally {
+                output.release();
+            }
+            return chunk;
+        }, chunk -> chunk.writeTo(out));
+        if (!ndjson) {
+            out.write(']');
+        }
+        out.flush();
+    }
+
+    /*
+     * 以字符写入Appendable
+     */
+    void write(List<?> items, Appendable out) throws IOException {
+        Object[] elements = snapshot(items);
+        if (!parallel(elements.length)) {
+            JsonOutput output = JsonOutput.of(out);
+            try {
+                writeSequential(elements, output);
+                output.flush();
+            } finally {
+                output.release();
+            }
+            return;
+        }
+        if (!ndjson) {
+            out.append('[');
+        }
+        run(elements, (from, to) -> {
+            CharChunk chunk = new CharChunk();
+            JsonOutput output = JsonOutput.of(chunk);
+            try {
+                writeElements(elements, from, to, output);
+                output.flush();
+            } finally {
+                output.release();
+            }
+            return chunk;
+        }, chunk -> chunk.appendTo(out));
+        if (!ndjson) {
+            out.append(']');
+        }
+    }
+
+    private boolean parallel(int size) {
+        return size >= PARALLEL_THRESHOLD && parallelism > 1;
+    }
+
+    private void writeSequential(Object[] elements, JsonOutput out) throws IOException {
+        if (!ndjson) {
+            out.write('[');
+        }
+        writeElements(elements, 0, elements.length, out);
+        if (!ndjson) {
+            out.write(']');
+        }
+    }
+
+    /*
+     * 写入[from, to)区间的元素：数组模式下除第一个元素外都带前导逗号，NDJSON模式每个元素后跟换行
+     */
+    private void writeElements(Object[] elements, int from, int to, JsonOutput out) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (!ndjson && i > 0) {
+                out.write(',');
+            }
+            serializer.writeValue(elements[i], projection, out);
+            if (ndjson) {
+                out.write('\n');
+            }
+        }
+    }
+
+    /*
+     * 按顺序调度各块：保持最多window个块在途，按块序号依次等待并交给consumer
+     */
+    private <C> void run(Object[] elements, ChunkEncoder<C> encoder, ChunkConsumer<C> consumer) throws IOException {
+        int size = elements.length;
+        int chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / (parallelism * 4)));
+        int chunks = (size + chunkSize - 1) / chunkSize;
+        int window = parallelism * 2;
+
+        ArrayDeque<CompletableFuture<C>> pending = new ArrayDeque<>();
+        int submitted = 0;
+        try {
+            for (int i = 0; i < chunks; i++) {
+                while (submitted < chunks && submitted - i < window) {
+                    int from = submitted * chunkSize;
+                    int to = Math.min(size, from + chunkSize);
+                    pending.add(CompletableFuture.supplyAsync(() -> encode(encoder, from, to), executor));
+                    submitted++;
+                }
+                consumer.accept(join(pending.poll()));
+            }
+        } finally {
+            for (CompletableFuture<C> future : pending) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static <C> C encode(ChunkEncoder<C> encoder, int from, int to) {
+        try {
+            return encoder.encode(from, to);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <C> C join(CompletableFuture<C> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * 先复制元素引用：按下标分块不依赖列表实现，LinkedList也不会被反复遍历
+     */
+    private static Object[] snapshot(List<?> items) {
+        return items.toArray();
+    }
+
+    @FunctionalInterface
+    private interface ChunkEncoder<C> {
+        C encode(int from, int to) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ChunkConsumer<C> {
+        void accept(C chunk) throws IOException;
+    }
+
+    /*
+     * 字节块：writeTo直接写出内部数组，不经过toByteArray拷贝
+     */
+    private static final class ByteChunk extends ByteArrayOutputStream {
+        ByteChunk() {
+            super(JsonOutput.BUFFER_SIZE);
+        }
+    }
+
+    /*
+     * 字符块：按目标类型直接追加内部数组
+     */
+    private static final class CharChunk extends CharArrayWriter {
+        CharChunk() {
+            super(JsonOutput.BUFFER_SIZE);
+        }
+
+        void appendTo(Appendable target) throws IOException {
+            if (target instanceof StringBuilder) {
+                ((StringBuilder) target).append(buf, 0, count);
+            } else if (target instanceof Writer) {
+                ((Writer) target).write(buf, 0, count);
+            } else {
+                target.append(CharBuffer.wrap(buf, 0, count));
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.annotationdemo.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 批量验证 --输入切成若干块并行验证，每块只写自己的计数器和下标数组，最后按块顺序合并
+ * 块之间除停止条件外不共享可变状态，吞吐随核数增长
+ */
+final class BulkValidator {
+
+    /*
+     * 行数少于此数量时直接在调用线程顺序验证
+     */
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    private static final int MIN_CHUNK_SIZE = 256;
+    private static final int MAX_CHUNK_SIZE = 16384;
+
+    private final ValidationProcessor processor;
+    private final ValidationOptions options;
+    private final Executor executor;
+    private final int parallelism;
+
+    /*
+     * 已累计的失败规则数，只在设置了failFast或maxErrors时更新
+     */
+    private final AtomicLong errors = new AtomicLong();
+    private volatile boolean stop;
+
+    BulkValidator(ValidationProcessor processor, ValidationOptions options) {
+        this.processor = processor;
+        this.options = options;
+        this.executor = options.getExecutor();
+        this.parallelism = (executor instanceof ForkJoinPool) ?
+                ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+    }
+
+    ValidationReport validate(Object[] rows) {
+        int size = rows.length;
+        if (size < PARALLEL_THRESHOLD || parallelism <= 1) {
+            return report(List.of(validateChunk(rows, 0, size)), size);
+        }
+        int chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / (parallelism * 4)));
+        List<CompletableFuture<Chunk>> futures = new ArrayList<>((size + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(size, from + chunkSize);
+            futures.add(CompletableFuture.supplyAsync(() -> validateChunk(rows, start, end), executor));
+        }
+        List<Chunk> chunks = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<Chunk> future : futures) {
+                chunks.add(join(future));
+            }
+        } finally {
+            for (CompletableFuture<Chunk> future : futures) {
+                future.cancel(false);
+            }
+        }
+        return report(chunks, size);
+    }
+
+    /*
+     * 验证[from, to)区间的行：同一类型的连续行复用同一个计数数组
+     */
+    private Chunk validateChunk(Object[] rows, int from, int to) {
+        Chunk chunk = new Chunk();
+        boolean bounded = options.isBounded();
+        ValidationPlan plan = null;
+        Validator<Object> validator = null;
+        long[] counts = null;
+        for (int i = from; i < to; i++) {
+            if (bounded && stop) {
+                break;
+            }
+            Object row = rows[i];
+            chunk.rows++;
+            if (row == null) {
+                continue;
+            }
+            if (plan == null || row.getClass() != plan.type) {
+                plan = ValidationPlan.of(row.getClass());
+                validator = processor.validator(plan.type);
+                counts = chunk.counts(plan);
+            }
+            int failures = validator.countFailures(row, counts);
+            if (failures == 0) {
+                continue;
+            }
+            chunk.addInvalid(i, failures);
+            if (bounded && (options.isFailFast() || errors.addAndGet(failures) >= options.getMaxErrors())) {
+                stop = true;
+            }
+        }
+        return chunk;
+    }
+
+    /*
+     * 按块顺序合并：下标保持升序，计数按类型和规则序号累加
+     */
+    private ValidationReport report(List<Chunk> chunks, int size) {
+        long rows = 0;
+        long errorCount = 0;
+        int invalid = 0;
+        Map<ValidationPlan, long[]> totals = new LinkedHashMap<>();
+        for (Chunk chunk : chunks) {
+            rows += chunk.rows;
+            errorCount += chunk.errors;
+            invalid += chunk.invalidCount;
+            for (Map.Entry<ValidationPlan, long[]> entry : chunk.planCounts.entrySet()) {
+                long[] counts = entry.getValue();
+                long[] total = totals.computeIfAbsent(entry.getKey(), plan -> new long[counts.length]);
+                for (int i = 0; i < counts.length; i++) {
+                    total[i] += counts[i];
+                }
+            }
+        }
+        int[] invalidRows = new int[invalid];
+        int offset = 0;
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.invalidRows, 0, invalidRows, offset, chunk.invalidCount);
+            offset += chunk.invalidCount;
+        }
+        Map<ValidationError, Long> failures = new LinkedHashMap<>();
+        for (Map.Entry<ValidationPlan, long[]> entry : totals.entrySet()) {
+            long[] total = entry.getValue();
+            for (int i = 0; i < total.length; i++) {
+                if (total[i] != 0) {
+                    failures.put(entry.getKey().errors[i], total[i]);
+                }
+            }
+        }
+        return new ValidationReport(rows, invalidRows, errorCount, failures, rows < size);
+    }
+
+    private static Chunk join(CompletableFuture<Chunk> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * 单个块的结果
+     */
+    private static final class Chunk {
+        long rows;
+        long errors;
+        int[] invalidRows = new int[16];
+        int invalidCount;
+        final Map<ValidationPlan, long[]> planCounts = new IdentityHashMap<>(4);
+
+        long[] counts(ValidationPlan plan) {
+            return planCounts.computeIfAbsent(plan, p -> new long[p.ruleCount]);
+        }
+
+        void addInvalid(int row, int failures) {
+            if (invalidCount == invalidRows.length) {
+                invalidRows = Arrays.copyOf(invalidRows, invalidCount << 1);
+            }
+            invalidRows[invalidCount++] = row;
+            errors += failures;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.annotationdemo.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * CBOR解码（RFC 8949） --支持定长与不定长的字符串、数组、map，语义标签(tag)读取时跳过
+ */
+final class CborDecoder extends BinaryDecoder {
+
+    CborDecoder(ByteBuffer in) {
+        super(in);
+    }
+
+    @Override
+    int peek() {
+        skipTags();
+        int initial = in.get(pos) & 0xFF;
+        switch (initial >>> 5) {
+            case CborEncoder.MAJOR_UNSIGNED:
+            case CborEncoder.MAJOR_NEGATIVE:
+                return INTEGER;
+            case CborEncoder.MAJOR_BYTES:
+                return BINARY;
+            case CborEncoder.MAJOR_TEXT:
+                return STRING;
+            case CborEncoder.MAJOR_ARRAY:
+                return ARRAY;
+            case CborEncoder.MAJOR_MAP:
+                return MAP;
+            default:
+                break;
+        }
+        switch (initial) {
+            case CborEncoder.FALSE:
+            case CborEncoder.TRUE:
+                return BOOLEAN;
+            case CborEncoder.NULL:
+            case CborEncoder.UNDEFINED:
+                return NULL;
+            case CborEncoder.HALF:
+            case CborEncoder.FLOAT:
+            case CborEncoder.DOUBLE:
+                return FLOAT;
+            case CborEncoder.BREAK:
+                return BREAK;
+            default:
+                throw error("不支持的CBOR简单值: " + initial);
+        }
+    }
+
+    @Override
+    void readNull() {
+        skipTags();
+        int initial = u8();
+        if (initial != CborEncoder.NULL && initial != CborEncoder.UNDEFINED) {
+            throw error("期望null");
+        }
+    }
+
+    @Override
+    boolean readBoolean() {
+        skipTags();
+        int initial = u8();
+        if (initial == CborEncoder.TRUE) {
+            return true;
+        }
+        if (initial == CborEncoder.FALSE) {
+            return false;
+        }
+        throw error("期望布尔值");
+    }
+
+    @Override
+    long readLong() {
+        int kind = peek();
+        if (kind == FLOAT) {
+            double value = readDouble();
+            long integral = (long) value;
+            if (integral != value) {
+                throw error("期望整数: " + value);
+            }
+            return integral;
+        }
+        if (kind != INTEGER) {
+            throw error("期望整数");
+        }
+        int initial = u8();
+        long argument = argument(initial & 0x1F);
+        //超过long范围的无符号值（最高位为1）无法表示
+        if (argument < 0) {
+            throw error("整数超出long范围");
+        }
+        return ((initial >>> 5) == CborEncoder.MAJOR_NEGATIVE) ? -1 - argument : argument;
+    }
+
+    @Override
+    double readDouble() {
+        int kind = peek();
+        if (kind == INTEGER) {
+            return readLong();
+        }
+        if (kind != FLOAT) {
+            throw error("期望数字");
+        }
+        switch (u8()) {
+            case CborEncoder.HALF:
+                return halfToFloat(u16());
+            case CborEncoder.FLOAT:
+                return Float.intBitsToFloat(i32());
+            default:
+                return Double.longBitsToDouble(i64());
+        }
+    }
+
+    @Override
+    String readString() {
+        if (peek() != STRING) {
+            throw error("期望字符串");
+        }
+        int length = readStringLength();
+        if (length < 0) {
+            return readRemainingString();
+        }
+        int start = pos;
+        skipBytes(length);
+        return utf8(start, length);
+    }
+
+    @Override
+    byte[] readBinary() {
+        if (peek() != BINARY) {
+            throw error("期望字节串");
+        }
+        int initial = u8();
+        if ((initial & 0x1F) == 31) {
+            return readChunks(CborEncoder.MAJOR_BYTES);
+        }
+        int length = length(argument(initial & 0x1F));
+        int start = pos;
+        skipBytes(length);
+        return bytes(start, length);
+    }
+
+    @Override
+    int readStringLength() {
+        int initial = u8();
+        if ((initial & 0x1F) == 31) {
+            return -1;
+        }
+        return length(argument(initial & 0x1F));
+    }
+
+    @Override
+    String readRemainingString() {
+        return new String(readChunks(CborEncoder.MAJOR_TEXT), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    int readArrayHeader() {
+        return readContainerHeader(CborEncoder.MAJOR_ARRAY, "期望数组");
+    }
+
+    @Override
+    int readMapHeader() {
+        return readContainerHeader(CborEncoder.MAJOR_MAP, "期望对象");
+    }
+
+    @Override
+    boolean readBreakIf() {
+        if (pos < in.limit() && (in.get(pos) & 0xFF) == CborEncoder.BREAK) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    void skipValue() {
+        int kind = peek();
+        int initial = u8();
+        int info = initial & 0x1F;
+        switch (kind) {
+            case INTEGER:
+                argument(info);
+                break;
+            case STRING:
+            case BINARY:
+                if (info == 31) {
+                    readChunks(initial >>> 5);
+                } else {
+                    skipBytes(argument(info));
+                }
+                break;
+            case ARRAY:
+            case MAP:
+                long count = (info == 31) ? -1 : argument(info);
+                long values = (kind == MAP) ? count * 2 : count;
+                if (count < 0) {
+                    while (!readBreakIf()) {
+                        skipValue();
+                    }
+                } else {
+                    for (long i = 0; i < values; i++) {
+                        skipValue();
+                    }
+                }
+                break;
+            case FLOAT:
+                skipBytes((initial == CborEncoder.HALF) ? 2 : (initial == CborEncoder.FLOAT) ? 4 : 8);
+                break;
+            case BREAK:
+                throw error("意外的break");
+            default:
+                break;
+        }
+    }
+
+    private int readContainerHeader(int major, String message) {
+        skipTags();
+        int initial = in.get(pos) & 0xFF;
+        if ((initial >>> 5) != major) {
+            throw error(message);
+        }
+        pos++;
+        if ((initial & 0x1F) == 31) {
+            return -1;
+        }
+        long count = argument(initial & 0x1F);
+        //每个元素至少占1字节，元素个数超过剩余字节数的数据必然不完整
+        return length(count);
+    }
+
+    /*
+     * 不定长字符串/字节串：拼接各个定长分块直到break
+     */
+    private byte[] readChunks(int major) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (!readBreakIf()) {
+            int initial = u8();
+            if ((initial >>> 5) != major || (initial & 0x1F) == 31) {
+                throw error("不定长字符串中的分块类型错误");
+            }
+            int length = length(argument(initial & 0x1F));
+            int start = pos;
+            skipBytes(length);
+            out.write(bytes(start, length), 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    /*
+     * 头部低5位对应的参数：0-23为值本身，24-27后跟1/2/4/8字节
+     */
+    private long argument(int info) {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return u8();
+            case 25:
+                return u16();
+            case 26:
+                return i32() & 0xFFFFFFFFL;
+            case 27:
+                return i64();
+            default:
+                throw error("非法的CBOR头部参数: " + info);
+        }
+    }
+
+    private void skipTags() {
+        if (pos >= in.limit()) {
+            throw error("数据不完整");
+        }
+        int initial;
+        while (((initial = in.get(pos) & 0xFF) >>> 5) == CborEncoder.MAJOR_TAG) {
+            pos++;
+            argument(initial & 0x1F);
+            if (pos >= in.limit()) {
+                throw error("数据不完整");
+            }
+        }
+    }
+
+    /*
+     * IEEE 754半精度转单精度
+     */
+    private static float halfToFloat(int half) {
+        int exponent = (half >>> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        float value;
+        if (exponent == 0) {
+            value = mantissa * 0x1p-24f;
+        } else if (exponent == 31) {
+            value = (mantissa == 0) ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = Math.scalb(mantissa + 1024, exponent - 25);
+        }
+        return ((half & 0x8000) != 0) ? -value : value;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/*
+ * CBOR编码器（RFC 8949）--整数、浮点按二进制写出，字符串和容器使用定长头部
+ * 能用float精确表示的double写为单精度，其余写为双精度
+ */
+public class CborEncoder extends BinaryEncoder {
+
+    static final int MAJOR_UNSIGNED = 0;
+    static final int MAJOR_NEGATIVE = 1;
+    static final int MAJOR_BYTES = 2;
+    static final int MAJOR_TEXT = 3;
+    static final int MAJOR_ARRAY = 4;
+    static final int MAJOR_MAP = 5;
+    static final int MAJOR_TAG = 6;
+    static final int MAJOR_SIMPLE = 7;
+
+    static final int FALSE = 0xF4;
+    static final int TRUE = 0xF5;
+    static final int NULL = 0xF6;
+    static final int UNDEFINED = 0xF7;
+    static final int HALF = 0xF9;
+    static final int FLOAT = 0xFA;
+    static final int DOUBLE = 0xFB;
+    static final int BREAK = 0xFF;
+
+    public CborEncoder(OutputStream stream) {
+        super(stream);
+    }
+
+    public CborEncoder(ByteBuffer byteBuffer) {
+        super(byteBuffer);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        put(NULL);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        put(value ? TRUE : FALSE);
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException {
+        if (value >= 0) {
+            writeHeader(MAJOR_UNSIGNED, value);
+        } else {
+            writeHeader(MAJOR_NEGATIVE, ~value);
+        }
+    }
+
+    @Override
+    public void writeDouble(double value) throws IOException {
+        float single = (float) value;
+        if (single == value) {
+            writeFloat(single);
+            return;
+        }
+        ensure(9);
+        put1(DOUBLE);
+        put8(Double.doubleToLongBits(value));
+    }
+
+    @Override
+    public void writeFloat(float value) throws IOException {
+        ensure(5);
+        put1(FLOAT);
+        put4(Float.floatToIntBits(value));
+    }
+
+    @Override
+    public void writeStartArray(int size) throws IOException {
+        writeHeader(MAJOR_ARRAY, size);
+    }
+
+    @Override
+    public void writeStartObject(int size) throws IOException {
+        writeHeader(MAJOR_MAP, size);
+    }
+
+    @Override
+    public void writeName(JsonName name) throws IOException {
+        putBytes(name.cbor);
+    }
+
+    @Override
+    public void writeName(String name) throws IOException {
+        writeString(name);
+    }
+
+    @Override
+    void writeStringHeader(int length) throws IOException {
+        writeHeader(MAJOR_TEXT, length);
+    }
+
+    /*
+     * 主类型加参数：小于24直接放在首字节，否则按1/2/4/8字节跟随
+     */
+    private void writeHeader(int major, long value) throws IOException {
+        ensure(9);
+        int type = major << 5;
+        if (value < 24) {
+            put1(type | (int) value);
+        } else if (value <= 0xFF) {
+            put1(type | 24);
+            put1((int) value);
+        } else if (value <= 0xFFFF) {
+            put1(type | 25);
+            put2((int) value);
+        } else if (value <= 0xFFFFFFFFL) {
+            put1(type | 26);
+            put4((int) value);
+        } else {
+            put1(type | 27);
+            put8(value);
+        }
+    }
+
+    /*
+     * 字段名的完整编码（头部加UTF-8），由JsonName预先生成
+     */
+    static byte[] encodeText(byte[] utf8) {
+        int length = utf8.length;
+        int type = MAJOR_TEXT << 5;
+        int header = (length < 24) ? 1 : (length <= 0xFF) ? 2 : (length <= 0xFFFF) ? 3 : 5;
+        byte[] encoded = new byte[header + length];
+        switch (header) {
+            case 1:
+                encoded[0] = (byte) (type | length);
+                break;
+            case 2:
+                encoded[0] = (byte) (type | 24);
+                encoded[1] = (byte) length;
+                break;
+            case 3:
+                encoded[0] = (byte) (type | 25);
+                encoded[1] = (byte) (length >> 8);
+                encoded[2] = (byte) length;
+                break;
+            default:
+                encoded[0] = (byte) (type | 26);
+                encoded[1] = (byte) (length >> 24);
+                encoded[2] = (byte) (length >> 16);
+                encoded[3] = (byte) (length >> 8);
+                encoded[4] = (byte) length;
+                break;
+        }
+        System.arraycopy(utf8, 0, encoded, header, length);
+        return encoded;
+    }
+}
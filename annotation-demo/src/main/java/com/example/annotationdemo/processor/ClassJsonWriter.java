@@ -0,0 +1,21 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+
+/*
+ * 单个类的JSON写入器 --由编译期注解处理器为@JsonField类生成（XxxJsonWriter）
+ * 通过META-INF/services注册，JsonSerializer找到后不再走反射
+ */
+public interface ClassJsonWriter<T> extends JsonValueWriter<T> {
+
+    /*
+     * 写入器对应的类（只匹配完全相同的运行时类型）
+     */
+    Class<T> type();
+
+    /*
+     * 把对象写为JSON对象，嵌套值交给serializer处理
+     */
+    @Override
+    void write(T value, JsonOutput out, JsonSerializer serializer) throws IOException;
+}
@@ -0,0 +1,10 @@
+package com.example.annotationdemo.processor;
+
+/*
+ * ObjectEncoder/ObjectDecoder支持的数据格式，三者共用同一套@JsonField计划
+ */
+public enum DataFormat {
+    JSON,
+    CBOR,
+    MESSAGE_PACK
+}
@@ -0,0 +1,52 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+
+/*
+ * 格式无关的编码器 --ObjectEncoder按@JsonField计划遍历对象，具体格式由实现决定
+ * 对象和数组都先给出元素个数，二进制格式可以写出定长头部
+ */
+public interface Encoder {
+
+    void writeNull() throws IOException;
+
+    void writeBoolean(boolean value) throws IOException;
+
+    void writeLong(long value) throws IOException;
+
+    void writeDouble(double value) throws IOException;
+
+    default void writeFloat(float value) throws IOException {
+        writeDouble(value);
+    }
+
+    void writeString(String value) throws IOException;
+
+    /*
+     * 写入十进制数字文本（BigDecimal、BigInteger、格式化后的数字）
+     */
+    void writeNumber(String text) throws IOException;
+
+    void writeStartArray(int size) throws IOException;
+
+    void writeEndArray() throws IOException;
+
+    void writeStartObject(int size) throws IOException;
+
+    /*
+     * 写入预编码的字段名
+     */
+    void writeName(JsonName name) throws IOException;
+
+    void writeName(String name) throws IOException;
+
+    void writeEndObject() throws IOException;
+
+    void flush() throws IOException;
+
+    /*
+     * 编码结束后归还缓冲区
+     */
+    default void release() {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.annotationdemo.processor;
+
+/*
+ * 字段访问器 --代替Field.get读取字段值
+ * 每个字段只绑定一次，类型化的getInt/getLong/getDouble让基本类型字段读取时无需装箱
+ */
+public interface FieldAccessor {
+
+    /*
+     * 读取字段值（基本类型会被装箱）
+     */
+    Object get(Object target);
+
+    /*
+     * 读取int值
+     */
+    default int getInt(Object target) {
+        return ((Number) get(target)).intValue();
+    }
+
+    /*
+     * 读取long值
+     */
+    default long getLong(Object target) {
+        return ((Number) get(target)).longValue();
+    }
+
+    /*
+     * 读取double值
+     */
+    default double getDouble(Object target) {
+        return ((Number) get(target)).doubleValue();
+    }
+}
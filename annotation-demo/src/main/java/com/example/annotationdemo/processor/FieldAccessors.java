@@ -0,0 +1,608 @@
+package com.example.annotationdemo.processor;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/*
+ * 字段访问器工厂 --按策略为字段绑定访问器，以及为反序列化绑定写入器
+ */
+public final class FieldAccessors {
+
+    /*
+     * 访问策略
+     * 注意：LAMBDA读取的是getter的返回值而不是字段本身，getter中有计算、脱敏或延迟初始化等逻辑时，
+     * 序列化和验证看到的值与Field.get不同；需要与字段值严格一致时使用METHOD_HANDLE
+     */
+    public enum Strategy {
+        REFLECTION,     // 直接使用Field.get（基准）
+        METHOD_HANDLE,  // 绑定到字段的MethodHandle
+        LAMBDA          // 通过LambdaMetafactory生成调用public getter的函数，找不到getter时退回METHOD_HANDLE
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private FieldAccessors() {}
+
+    /*
+     * 使用默认策略（LAMBDA）创建访问器，JsonSerializer和验证都用此方法绑定字段
+     */
+    public static FieldAccessor of(Field field) {
+        return of(field, Strategy.LAMBDA);
+    }
+
+    /*
+     * 使用指定策略创建访问器
+     */
+    public static FieldAccessor of(Field field, Strategy strategy) {
+        switch (strategy) {
+            case REFLECTION:
+                field.setAccessible(true);
+                return new ReflectionAccessor(field);
+            case LAMBDA:
+                Method getter = findGetter(field);
+                if (getter != null) {
+                    FieldAccessor accessor = lambdaAccessor(getter);
+                    if (accessor != null) {
+                        return accessor;
+                    }
+                }
+                return methodHandleAccessor(field);
+            case METHOD_HANDLE:
+            default:
+                return methodHandleAccessor(field);
+        }
+    }
+
+    /*
+     * 为字段创建MethodHandle写入器；static或final字段返回null
+     */
+    public static FieldSetter setter(Field field) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), LOOKUP);
+            MethodHandle setter = lookup.unreflectSetter(field);
+            Class<?> type = field.getType();
+            return new MethodHandleSetter(
+                    setter.asType(MethodType.methodType(void.class, Object.class, Object.class)),
+                    typedSetter(setter, type, int.class),
+                    typedSetter(setter, type, long.class),
+                    typedSetter(setter, type, double.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问字段: " + field, e);
+        }
+    }
+
+    /*
+     * 返回写入target类型值的setter：字段类型相同时直接转换；short/byte/char字段按int写入、float字段按double写入，
+     * 窄化转换与反序列化时的(short)/(byte)/(char)/(float)强制转换一致；其他情况返回null
+     */
+    private static MethodHandle typedSetter(MethodHandle setter, Class<?> fieldType, Class<?> target) {
+        MethodType type = MethodType.methodType(void.class, Object.class, target);
+        if (fieldType == target) {
+            return setter.asType(type);
+        }
+        if ((target == int.class && (fieldType == short.class || fieldType == byte.class || fieldType == char.class))
+                || (target == double.class && fieldType == float.class)) {
+            return MethodHandles.explicitCastArguments(setter, type);
+        }
+        return null;
+    }
+
+    /*
+     * 查找与字段类型一致的public getter（getXxx / isXxx）
+     */
+    static Method findGetter(Field field) {
+        Class<?> owner = field.getDeclaringClass();
+        if (!Modifier.isPublic(owner.getModifiers())) {
+            return null;
+        }
+        String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        String[] candidates = (field.getType() == boolean.class) ?
+                                new String[] {"is" + suffix, "get" + suffix} : new String[] {"get" + suffix};
+        for (String name : candidates) {
+            try {
+                Method method = owner.getMethod(name);
+                if (method.getReturnType() == field.getType() && !Modifier.isStatic(method.getModifiers())) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // 尝试下一个候选名
+            }
+        }
+        return null;
+    }
+
+    /*
+     * 为字段创建MethodHandle访问器
+     */
+    private static FieldAccessor methodHandleAccessor(Field field) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), LOOKUP);
+            MethodHandle getter = lookup.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            Class<?> type = field.getType();
+            return new MethodHandleAccessor(
+                    getter.asType(MethodType.methodType(Object.class, Object.class)),
+                    typedHandle(getter, type, int.class),
+                    typedHandle(getter, type, long.class),
+                    typedHandle(getter, type, double.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问字段: " + field, e);
+        }
+    }
+
+    /*
+     * 基本类型字段可以拓宽转换时返回类型化的handle，否则返回null
+     */
+    private static MethodHandle typedHandle(MethodHandle getter, Class<?> fieldType, Class<?> target) {
+        if (!fieldType.isPrimitive() || fieldType == boolean.class) {
+            return null;
+        }
+        if (target == int.class && (fieldType == long.class || fieldType == float.class || fieldType == double.class)) {
+            return null;
+        }
+        if (target == long.class && (fieldType == float.class || fieldType == double.class)) {
+            return null;
+        }
+        return getter.asType(MethodType.methodType(target, Object.class));
+    }
+
+    /*
+     * 通过LambdaMetafactory为getter生成函数对象；getter所在类对当前类加载器不可见时返回null
+     */
+    private static FieldAccessor lambdaAccessor(Method getter) {
+        Class<?> owner = getter.getDeclaringClass();
+        Class<?> type = getter.getReturnType();
+        if (!isVisible(owner) || !(type.isPrimitive() || isVisible(type))) {
+            return null;
+        }
+        try {
+            MethodHandle impl = LOOKUP.unreflect(getter);
+            if (type == int.class) {
+                ToIntFunction<Object> function = metafactory(ToIntFunction.class, "applyAsInt", int.class, impl, owner);
+                return new IntLambdaAccessor(function);
+            } else if (type == long.class) {
+                ToLongFunction<Object> function = metafactory(ToLongFunction.class, "applyAsLong", long.class, impl, owner);
+                return new LongLambdaAccessor(function);
+            } else if (type == double.class) {
+                ToDoubleFunction<Object> function = metafactory(ToDoubleFunction.class, "applyAsDouble", double.class, impl, owner);
+                return new DoubleLambdaAccessor(function);
+            } else if (type == short.class || type == byte.class || type == char.class) {
+                //返回值拓宽为int，get再按字段类型装箱
+                ToIntFunction<Object> function = metafactory(ToIntFunction.class, "applyAsInt", int.class, impl, owner);
+                if (type == short.class) {
+                    return new ShortLambdaAccessor(function);
+                }
+                return (type == byte.class) ? new ByteLambdaAccessor(function) : new CharLambdaAccessor(function);
+            } else if (type == float.class) {
+                ToDoubleFunction<Object> function = metafactory(ToDoubleFunction.class, "applyAsDouble", double.class, impl, owner);
+                return new FloatLambdaAccessor(function);
+            }
+            Function<Object, Object> function = metafactory(Function.class, "apply", Object.class, impl, owner);
+            return new LambdaAccessor(function);
+        } catch (IllegalAccessException | LambdaConversionException | RuntimeException e) {
+            //无法生成函数对象时退回MethodHandle；Error不在此处理
+            return null;
+        }
+    }
+
+    /*
+     * 基本类型的返回值按returnType拓宽（如short到int），引用类型保持getter的返回类型
+     */
+    @SuppressWarnings("unchecked")
+    private static <F> F metafactory(Class<?> functionType, String methodName, Class<?> returnType,
+                                     MethodHandle impl, Class<?> owner) throws LambdaConversionException {
+        CallSite site = LambdaMetafactory.metafactory(
+                LOOKUP,
+                methodName,
+                MethodType.methodType(functionType),
+                MethodType.methodType(returnType, Object.class),
+                impl,
+                MethodType.methodType(returnType.isPrimitive() ? returnType : impl.type().returnType(), owner));
+        try {
+            return (F) site.getTarget().invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, FieldAccessors.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+
+    /*
+     * Field.get访问器
+     */
+    private static final class ReflectionAccessor implements FieldAccessor {
+        private final Field field;
+
+        ReflectionAccessor(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public Object get(Object target) {
+            try {
+                return field.get(target);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /*
+     * MethodHandle访问器
+     */
+    private static final class MethodHandleAccessor implements FieldAccessor {
+        private final MethodHandle getter;
+        private final MethodHandle intGetter;
+        private final MethodHandle longGetter;
+        private final MethodHandle doubleGetter;
+
+        MethodHandleAccessor(MethodHandle getter, MethodHandle intGetter,
+                             MethodHandle longGetter, MethodHandle doubleGetter) {
+            this.getter = getter;
+            this.intGetter = intGetter;
+            this.longGetter = longGetter;
+            this.doubleGetter = doubleGetter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int getInt(Object target) {
+            if (intGetter == null) {
+                return FieldAccessor.super.getInt(target);
+            }
+            try {
+                return (int) intGetter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public long getLong(Object target) {
+            if (longGetter == null) {
+                return FieldAccessor.super.getLong(target);
+            }
+            try {
+                return (long) longGetter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            if (doubleGetter == null) {
+                return FieldAccessor.super.getDouble(target);
+            }
+            try {
+                return (double) doubleGetter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /*
+     * 引用类型（及boolean）getter访问器
+     */
+    private static final class LambdaAccessor implements FieldAccessor {
+        private final Function<Object, Object> getter;
+
+        LambdaAccessor(Function<Object, Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getter.apply(target);
+        }
+    }
+
+    /*
+     * int getter访问器
+     */
+    private static final class IntLambdaAccessor implements FieldAccessor {
+        private final ToIntFunction<Object> getter;
+
+        IntLambdaAccessor(ToIntFunction<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public int getInt(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public long getLong(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            return getter.applyAsInt(target);
+        }
+    }
+
+    /*
+     * long getter访问器
+     */
+    private static final class LongLambdaAccessor implements FieldAccessor {
+        private final ToLongFunction<Object> getter;
+
+        LongLambdaAccessor(ToLongFunction<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getter.applyAsLong(target);
+        }
+
+        @Override
+        public long getLong(Object target) {
+            return getter.applyAsLong(target);
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            return getter.applyAsLong(target);
+        }
+    }
+
+    /*
+     * double getter访问器
+     */
+    private static final class DoubleLambdaAccessor implements FieldAccessor {
+        private final ToDoubleFunction<Object> getter;
+
+        DoubleLambdaAccessor(ToDoubleFunction<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getter.applyAsDouble(target);
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            return getter.applyAsDouble(target);
+        }
+    }
+
+    /*
+     * short getter访问器
+     */
+    private static final class ShortLambdaAccessor implements FieldAccessor {
+        private final ToIntFunction<Object> getter;
+
+        ShortLambdaAccessor(ToIntFunction<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return (short) getter.applyAsInt(target);
+        }
+
+        @Override
+        public int getInt(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public long getLong(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            return getter.applyAsInt(target);
+        }
+    }
+
+    /*
+     * byte getter访问器
+     */
+    private static final class ByteLambdaAccessor implements FieldAccessor {
+        private final ToIntFunction<Object> getter;
+
+        ByteLambdaAccessor(ToIntFunction<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return (byte) getter.applyAsInt(target);
+        }
+
+        @Override
+        public int getInt(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public long getLong(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            return getter.applyAsInt(target);
+        }
+    }
+
+    /*
+     * char getter访问器，get返回Character；与MethodHandle访问器一致，数值读取返回字符码
+     */
+    private static final class CharLambdaAccessor implements FieldAccessor {
+        private final ToIntFunction<Object> getter;
+
+        CharLambdaAccessor(ToIntFunction<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return (char) getter.applyAsInt(target);
+        }
+
+        @Override
+        public int getInt(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public long getLong(Object target) {
+            return getter.applyAsInt(target);
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            return getter.applyAsInt(target);
+        }
+    }
+
+    /*
+     * float getter访问器，返回值拓宽为double
+     */
+    private static final class FloatLambdaAccessor implements FieldAccessor {
+        private final ToDoubleFunction<Object> getter;
+
+        FloatLambdaAccessor(ToDoubleFunction<Object> getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return (float) getter.applyAsDouble(target);
+        }
+
+        @Override
+        public double getDouble(Object target) {
+            return getter.applyAsDouble(target);
+        }
+    }
+
+    /*
+     * MethodHandle写入器
+     */
+    private static final class MethodHandleSetter implements FieldSetter {
+        private final MethodHandle setter;
+        private final MethodHandle intSetter;
+        private final MethodHandle longSetter;
+        private final MethodHandle doubleSetter;
+
+        MethodHandleSetter(MethodHandle setter, MethodHandle intSetter,
+                           MethodHandle longSetter, MethodHandle doubleSetter) {
+            this.setter = setter;
+            this.intSetter = intSetter;
+            this.longSetter = longSetter;
+            this.doubleSetter = doubleSetter;
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void setInt(Object target, int value) {
+            if (intSetter == null) {
+                FieldSetter.super.setInt(target, value);
+                return;
+            }
+            try {
+                intSetter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void setLong(Object target, long value) {
+            if (longSetter == null) {
+                FieldSetter.super.setLong(target, value);
+                return;
+            }
+            try {
+                longSetter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void setDouble(Object target, double value) {
+            if (doubleSetter == null) {
+                FieldSetter.super.setDouble(target, value);
+                return;
+            }
+            try {
+                doubleSetter.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.annotationdemo.processor;
+
+/*
+ * 字段写入器 --反序列化时代替Field.set写入字段值
+ * 类型化的setInt/setLong/setDouble让基本类型字段写入时无需装箱
+ */
+public interface FieldSetter {
+
+    /*
+     * 写入字段值（基本类型字段会先拆箱）
+     */
+    void set(Object target, Object value);
+
+    /*
+     * 写入int值；short/byte/char字段按强制转换截断后写入
+     */
+    default void setInt(Object target, int value) {
+        set(target, value);
+    }
+
+    /*
+     * 写入long值
+     */
+    default void setLong(Object target, long value) {
+        set(target, value);
+    }
+
+    /*
+     * 写入double值；float字段按(float)转换后写入
+     */
+    default void setDouble(Object target, double value) {
+        set(target, value);
+    }
+}
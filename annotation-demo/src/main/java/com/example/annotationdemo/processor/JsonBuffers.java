@@ -0,0 +1,43 @@
+package com.example.annotationdemo.processor;
+
+/*
+ * 输出缓冲回收 --每个线程保留一个字符缓冲和一个字节缓冲，序列化结束后归还
+ * 小对象序列化不必每次分配8K缓冲；嵌套使用时槽位为空，临时新建即可
+ */
+final class JsonBuffers {
+
+    private static final ThreadLocal<JsonBuffers> LOCAL = ThreadLocal.withInitial(JsonBuffers::new);
+
+    private char[] chars;
+    private byte[] bytes;
+
+    private JsonBuffers() {}
+
+    static char[] takeChars() {
+        JsonBuffers buffers = LOCAL.get();
+        char[] chars = buffers.chars;
+        if (chars == null) {
+            return new char[JsonOutput.BUFFER_SIZE];
+        }
+        buffers.chars = null;
+        return chars;
+    }
+
+    static void releaseChars(char[] chars) {
+        LOCAL.get().chars = chars;
+    }
+
+    static byte[] takeBytes() {
+        JsonBuffers buffers = LOCAL.get();
+        byte[] bytes = buffers.bytes;
+        if (bytes == null) {
+            return new byte[JsonOutput.BUFFER_SIZE];
+        }
+        buffers.bytes = null;
+        return bytes;
+    }
+
+    static void releaseBytes(byte[] bytes) {
+        LOCAL.get().bytes = bytes;
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/*
+ * 序列化结果缓存 --按对象身份+版本缓存UTF-8字节，命中时输出只是一次数组拷贝
+ * 版本由调用方给出：通常是version字段，不可变对象用IMMUTABLE；JsonDiff::hash可以识别任意修改，但每次查找都要遍历整个对象图
+ * 容量按字节计算，LRU淘汰并用TinyLFU频率草图做准入：新条目只有比被淘汰的条目更常用时才会挤掉它
+ * 对象以弱引用作为键，缓存不会阻止对象被回收；线程安全
+ */
+public class JsonCache {
+
+    /*
+     * 不可变对象的版本函数：同一实例始终视为同一版本
+     */
+    public static final ToLongFunction<Object> IMMUTABLE = obj -> 0L;
+
+    private final JsonSerializer serializer;
+    private final long maxBytes;
+    private final ToLongFunction<Object> versions;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ReferenceQueue<Object> cleared = new ReferenceQueue<>();
+    private final FrequencySketch sketch;
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+
+    /*
+     * versions返回对象当前版本，版本变化后旧的缓存结果不再使用
+     */
+    public JsonCache(JsonSerializer serializer, long maxBytes, ToLongFunction<Object> versions) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes必须为正数: " + maxBytes);
+        }
+        this.serializer = serializer;
+        this.maxBytes = maxBytes;
+        this.versions = Objects.requireNonNull(versions);
+        this.sketch = new FrequencySketch(maxBytes);
+    }
+
+    /*
+     * 序列化为UTF-8字节数组（返回副本，调用方可以修改）
+     */
+    public byte[] toJsonBytes(Object obj) {
+        return encoded(obj).clone();
+    }
+
+    public void toJsonBytes(Object obj, OutputStream out) throws IOException {
+        out.write(encoded(obj));
+    }
+
+    /*
+     * 写入ByteBuffer，空间不足时抛出BufferOverflowException
+     */
+    public void toJsonBytes(Object obj, ByteBuffer out) {
+        out.put(encoded(obj));
+    }
+
+    public String toJson(Object obj) {
+        return new String(encoded(obj), StandardCharsets.UTF_8);
+    }
+
+    /*
+     * 移除对象的缓存结果
+     */
+    public synchronized void invalidate(Object obj) {
+        Entry entry = entries.remove(new LookupKey(obj));
+        if (entry != null) {
+            bytes -= entry.bytes.length;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized Stats stats() {
+        expungeCleared();
+        return new Stats(hits, misses, evictions, rejections, entries.size(), bytes);
+    }
+
+    /*
+     * 查找或生成对象的UTF-8字节；标量值不缓存
+     */
+    private byte[] encoded(Object obj) {
+        if (!isCacheable(obj)) {
+            return serializer.toJsonBytes(obj);
+        }
+        long version = versions.applyAsLong(obj);
+        LookupKey lookup = new LookupKey(obj);
+        synchronized (this) {
+            sketch.increment(lookup.hash);
+            Entry entry = entries.get(lookup);
+            if (entry != null && entry.version == version) {
+                hits++;
+                return entry.bytes;
+            }
+            misses++;
+        }
+        //序列化在锁外进行，并发的相同请求可能各自生成一次，结果相同
+        byte[] encoded = serializer.toJsonBytes(obj);
+        store(obj, lookup.hash, version, encoded);
+        return encoded;
+    }
+
+    private synchronized void store(Object obj, int hash, long version, byte[] encoded) {
+        expungeCleared();
+        Entry previous = entries.remove(new LookupKey(obj));
+        if (previous != null) {
+            bytes -= previous.bytes.length;
+        }
+        if (encoded.length > maxBytes) {
+            rejections++;
+            return;
+        }
+        if (bytes + encoded.length > maxBytes && !admit(hash, encoded.length)) {
+            rejections++;
+            return;
+        }
+        WeakKey key = new WeakKey(obj, hash, cleared);
+        entries.put(key, new Entry(key, version, encoded));
+        bytes += encoded.length;
+    }
+
+    /*
+     * TinyLFU准入：候选条目比LRU端的条目更常用时才淘汰它们腾出空间
+     */
+    private boolean admit(int hash, int length) {
+        int frequency = sketch.frequency(hash);
+        Iterator<Entry> iterator = entries.values().iterator();
+        long needed = bytes + length - maxBytes;
+        long freed = 0;
+        while (freed < needed && iterator.hasNext()) {
+            Entry victim = iterator.next();
+            if (sketch.frequency(victim.key.hash) >= frequency) {
+                return false;
+            }
+            freed += victim.bytes.length;
+        }
+        iterator = entries.values().iterator();
+        while (bytes + length > maxBytes && iterator.hasNext()) {
+            Entry victim = iterator.next();
+            iterator.remove();
+            bytes -= victim.bytes.length;
+            evictions++;
+        }
+        return true;
+    }
+
+    /*
+     * 移除对象已被回收的条目
+     */
+    private void expungeCleared() {
+        Object reference;
+        while ((reference = cleared.poll()) != null) {
+            Entry entry = entries.remove(reference);
+            if (entry != null) {
+                bytes -= entry.bytes.length;
+            }
+        }
+    }
+
+    private boolean isCacheable(Object obj) {
+        return obj != null && (obj instanceof Collection || obj instanceof Object[] || serializer.isMergeable(obj));
+    }
+
+    /*
+     * 缓存统计
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long rejections;
+        private final int entries;
+        private final long bytes;
+
+        Stats(long hits, long misses, long evictions, long rejections, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.rejections = rejections;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /*
+         * 因准入策略或超过容量而未缓存的次数
+         */
+        public long getRejections() {
+            return rejections;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return (requests == 0) ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("JsonCache.Stats{hits=%d, misses=%d, hitRate=%.3f, evictions=%d, rejections=%d, entries=%d, bytes=%d}",
+                    hits, misses, getHitRate(), evictions, rejections, entries, bytes);
+        }
+    }
+
+    private static final class Entry {
+        final WeakKey key;
+        final long version;
+        final byte[] bytes;
+
+        Entry(WeakKey key, long version, byte[] bytes) {
+            this.key = key;
+            this.version = version;
+            this.bytes = bytes;
+        }
+    }
+
+    /*
+     * 按身份比较的弱引用键，对象回收后只与自身相等
+     */
+    private static final class WeakKey extends WeakReference<Object> {
+        final int hash;
+
+        WeakKey(Object referent, int hash, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+            Object referent = get();
+            return referent != null && other instanceof LookupKey && ((LookupKey) other).referent == referent;
+        }
+    }
+
+    /*
+     * 查找用的临时键，持有强引用
+     */
+    private static final class LookupKey {
+        final Object referent;
+        final int hash;
+
+        LookupKey(Object referent) {
+            this.referent = referent;
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof WeakKey && ((WeakKey) other).get() == referent;
+        }
+    }
+
+    /*
+     * 计数最小草图（4行，计数上限15），访问次数达到样本量后所有计数减半，让频率随时间衰减
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(long maxBytes) {
+            //按平均每个结果256字节估算条目数
+            int size = Integer.highestOneBit((int) Math.max(256, Math.min(1 << 20, maxBytes / 256)) - 1) << 1;
+            this.counters = new byte[size];
+            this.mask = size - 1;
+            this.sampleSize = size * 10;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int seed : SEEDS) {
+                int index = index(hash, seed);
+                if (counters[index] < 15) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>= 1;
+                }
+                additions >>= 1;
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = 15;
+            for (int seed : SEEDS) {
+                frequency = Math.min(frequency, counters[index(hash, seed)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int seed) {
+            int h = (hash ^ seed) * 0x9E3779B1;
+            return (h ^ (h >>> 15)) & mask;
+        }
+    }
+}
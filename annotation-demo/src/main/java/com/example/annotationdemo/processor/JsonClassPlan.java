@@ -0,0 +1,96 @@
+package com.example.annotationdemo.processor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.example.annotationdemo.annotations.JsonField;
+
+/*
+ * 类的序列化计划 --每个类只解析一次@JsonField元数据
+ * 计划中只保留需要输出的字段（已排序、已绑定访问器、已预编码输出名、已编译format），ignore的字段不会进入计划
+ */
+final class JsonClassPlan {
+
+    /*
+     * 按类缓存计划，ClassValue保证线程安全且不会阻止类加载器被回收
+     */
+    private static final ClassValue<JsonClassPlan> PLANS = new ClassValue<JsonClassPlan>() {
+        @Override
+        protected JsonClassPlan computeValue(Class<?> type) {
+            return new JsonClassPlan(type);
+        }
+    };
+
+    final Class<?> type;
+    final Property[] properties;
+
+    private JsonClassPlan(Class<?> type) {
+        this.type = type;
+        this.properties = resolveProperties(type);
+    }
+
+    /*
+     * 获取类对应的序列化计划
+     */
+    static JsonClassPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /*
+     * 解析字段：过滤ignore、解析名称、按order稳定排序
+     */
+    private static Property[] resolveProperties(Class<?> type) {
+        List<Property> properties = new ArrayList<>();
+
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            JsonField jsonField = field.getAnnotation(JsonField.class);
+            if (jsonField != null && jsonField.ignore()) {
+                continue;
+            }
+            String name = (jsonField != null && !jsonField.name().isEmpty()) ?
+                            jsonField.name() : field.getName();
+            int order = (jsonField != null) ? jsonField.order() : Integer.MAX_VALUE;
+            JsonFormatter formatter = (jsonField != null && !jsonField.format().isEmpty()) ?
+                            JsonFormatter.compile(field.getType(), jsonField.format()) : null;
+
+            properties.add(new Property(field, FieldAccessors.of(field), name, order, formatter));
+        }
+
+        //按order排序
+        properties.sort(Comparator.comparingInt(Property::getOrder));
+        return properties.toArray(new Property[0]);
+    }
+
+    /*
+     * 计划中的单个字段
+     */
+    static final class Property {
+        final Field field;
+        final Class<?> type;
+        final FieldAccessor accessor;
+        final String name;
+        final JsonName jsonName;
+        final int order;
+        final JsonFormatter formatter;
+
+        Property(Field field, FieldAccessor accessor, String name, int order, JsonFormatter formatter) {
+            this.field = field;
+            this.type = field.getType();
+            this.accessor = accessor;
+            this.name = name;
+            this.jsonName = JsonName.of(name);
+            this.order = order;
+            this.formatter = formatter;
+        }
+
+        int getOrder() {
+            return order;
+        }
+    }
+}
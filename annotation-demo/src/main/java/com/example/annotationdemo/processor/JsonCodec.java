@@ -0,0 +1,140 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * JSON编解码入口 --按调用点选择引擎，两种引擎使用同一套@JsonField映射
+ * NATIVE为JsonSerializer/JsonDeserializer，JACKSON为注册了JsonFieldModule的ObjectMapper
+ */
+public interface JsonCodec {
+
+    enum Engine {
+        NATIVE,
+        JACKSON
+    }
+
+    /*
+     * 获取引擎对应的共享实例（线程安全）
+     */
+    static JsonCodec of(Engine engine) {
+        return (engine == Engine.JACKSON) ? JsonCodecs.jackson() : JsonCodecs.nativeCodec();
+    }
+
+    Engine engine();
+
+    String toJson(Object value);
+
+    byte[] toJsonBytes(Object value);
+
+    <T> T fromJson(String json, Class<T> type);
+
+    <T> T fromJson(byte[] json, Class<T> type);
+
+    /*
+     * 使用JsonSerializer/JsonDeserializer
+     */
+    final class Native implements JsonCodec {
+        private final JsonSerializer serializer;
+        private final JsonDeserializer deserializer;
+
+        public Native(JsonSerializer serializer, JsonDeserializer deserializer) {
+            this.serializer = serializer;
+            this.deserializer = deserializer;
+        }
+
+        @Override
+        public Engine engine() {
+            return Engine.NATIVE;
+        }
+
+        @Override
+        public String toJson(Object value) {
+            try {
+                return serializer.toJson(value);
+            } catch (IllegalAccessException e) {
+                //toJson的受检异常只为兼容旧签名保留，实际不会抛出
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public byte[] toJsonBytes(Object value) {
+            return serializer.toJsonBytes(value);
+        }
+
+        @Override
+        public <T> T fromJson(String json, Class<T> type) {
+            return deserializer.fromJson(json, type);
+        }
+
+        @Override
+        public <T> T fromJson(byte[] json, Class<T> type) {
+            return deserializer.fromJson(json, type);
+        }
+    }
+
+    /*
+     * 使用Jackson，mapper需要已注册JsonFieldModule
+     */
+    final class Jackson implements JsonCodec {
+        private final ObjectMapper mapper;
+
+        public Jackson(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        /*
+         * 与JsonDeserializer行为一致：忽略未知字段
+         */
+        public static ObjectMapper newMapper() {
+            return new ObjectMapper()
+                    .registerModule(new JsonFieldModule())
+                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        }
+
+        @Override
+        public Engine engine() {
+            return Engine.JACKSON;
+        }
+
+        @Override
+        public String toJson(Object value) {
+            try {
+                return mapper.writeValueAsString(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public byte[] toJsonBytes(Object value) {
+            try {
+                return mapper.writeValueAsBytes(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public <T> T fromJson(String json, Class<T> type) {
+            try {
+                return mapper.readValue(json, type);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public <T> T fromJson(byte[] json, Class<T> type) {
+            try {
+                return mapper.readValue(json, type);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.annotationdemo.processor;
+
+/*
+ * JsonCodec的共享实例 --各自在首次使用时创建，只用NATIVE时不会初始化Jackson
+ */
+final class JsonCodecs {
+
+    private JsonCodecs() {}
+
+    static JsonCodec nativeCodec() {
+        return NativeHolder.INSTANCE;
+    }
+
+    static JsonCodec jackson() {
+        return JacksonHolder.INSTANCE;
+    }
+
+    private static final class NativeHolder {
+        static final JsonCodec INSTANCE = new JsonCodec.Native(new JsonSerializer(), new JsonDeserializer());
+    }
+
+    private static final class JacksonHolder {
+        static final JsonCodec INSTANCE = new JsonCodec.Jackson(JsonCodec.Jackson.newMapper());
+    }
+}
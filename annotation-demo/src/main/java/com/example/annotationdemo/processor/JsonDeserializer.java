@@ -0,0 +1,459 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/*
+ * JSON反序列化器 --按@JsonField映射（如"id" -> userId）把JSON读回对象
+ * 基于流式JsonReader：字段名通过每个类预计算的哈希表匹配，未知字段一次扫描跳过
+ */
+public class JsonDeserializer {
+
+    /*
+     * 从字符序列读取对象
+     */
+    public <T> T fromJson(CharSequence json, Class<T> type) {
+        char[] chars = (json instanceof String) ? ((String) json).toCharArray() : json.toString().toCharArray();
+        return fromJson(new JsonReader(chars, 0, chars.length), type);
+    }
+
+    /*
+     * 从UTF-8字节读取对象
+     */
+    public <T> T fromJson(byte[] json, Class<T> type) {
+        return fromJson(ByteBuffer.wrap(json), type);
+    }
+
+    /*
+     * 从UTF-8字节缓冲读取对象（读取buffer的剩余部分，不改变其position）
+     * 字节先整体解码为char[]再解析，会额外分配与输入等长的字符数组；解析器目前只处理字符输入
+     */
+    public <T> T fromJson(ByteBuffer json, Class<T> type) {
+        return fromJson(decodeUtf8(json.duplicate()), type);
+    }
+
+    /*
+     * 从Reader流式读取对象
+     */
+    public <T> T fromJson(Reader json, Class<T> type) throws IOException {
+        JsonReader reader = new JsonReader(json);
+        T value = castResult(type, readValue(reader, type));
+        reader.expectEnd();
+        return value;
+    }
+
+    private <T> T fromJson(JsonReader reader, Class<T> type) {
+        try {
+            T value = castResult(type, readValue(reader, type));
+            reader.expectEnd();
+            return value;
+        } catch (IOException e) {
+            //内存中的数据不会抛出IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T castResult(Class<T> type, Object value) {
+        return type.isPrimitive() ? (T) value : type.cast(value);
+    }
+
+    /*
+     * 按声明类型读取一个值
+     */
+    Object readValue(JsonReader reader, Type type) throws IOException {
+        if (reader.readNullIf()) {
+            return null;
+        }
+        Class<?> raw = rawType(type);
+        if (raw == String.class) {
+            return reader.readString();
+        } else if (raw == Integer.class || raw == int.class) {
+            return toInt(reader, reader.readLong());
+        } else if (raw == Long.class || raw == long.class) {
+            return reader.readLong();
+        } else if (raw == Double.class || raw == double.class) {
+            return reader.readDouble();
+        } else if (raw == Float.class || raw == float.class) {
+            return (float) reader.readDouble();
+        } else if (raw == Short.class || raw == short.class) {
+            return (short) toInt(reader, reader.readLong());
+        } else if (raw == Byte.class || raw == byte.class) {
+            return (byte) toInt(reader, reader.readLong());
+        } else if (raw == Boolean.class || raw == boolean.class) {
+            return reader.readBoolean();
+        } else if (raw == Character.class || raw == char.class) {
+            return readChar(reader);
+        } else if (raw == BigDecimal.class) {
+            return new BigDecimal(reader.readNumberText());
+        } else if (raw == BigInteger.class) {
+            return new BigInteger(reader.readNumberText());
+        } else if (raw.isEnum()) {
+            return readEnum(reader, raw);
+        } else if (raw.isArray()) {
+            return readArray(reader, raw.getComponentType());
+        } else if (Collection.class.isAssignableFrom(raw)) {
+            return readCollection(reader, raw, typeArgument(type, 0));
+        } else if (Map.class.isAssignableFrom(raw)) {
+            return readMap(reader, typeArgument(type, 1));
+        } else if (raw == Object.class) {
+            return readNatural(reader);
+        }
+        return readObject(reader, JsonReadPlan.of(raw));
+    }
+
+    /*
+     * 读取对象：已知字段按类型直接写入，未知字段跳过
+     */
+    private Object readObject(JsonReader reader, JsonReadPlan plan) throws IOException {
+        reader.expect('{');
+        Object obj = plan.newInstance();
+        if (reader.consumeIf('}')) {
+            return obj;
+        }
+        do {
+            JsonReadPlan.Property property = reader.readKey(plan);
+            if (property == null) {
+                reader.skipValue();
+            } else {
+                readProperty(reader, property, obj);
+            }
+        } while (reader.nextElement('}'));
+        return obj;
+    }
+
+    /*
+     * 读取单个字段值，基本类型字段通过类型化setter写入避免装箱
+     */
+    private void readProperty(JsonReader reader, JsonReadPlan.Property property, Object obj) throws IOException {
+        if (reader.readNullIf()) {
+            if (!property.primitive) {
+                property.setter.set(obj, null);
+            }
+            return;
+        }
+        FieldSetter setter = property.setter;
+        if (property.formatter != null) {
+            setter.set(obj, parseFormatted(reader, property.formatter));
+            return;
+        }
+        switch (property.kind) {
+            case JsonReadPlan.KIND_STRING:
+                setter.set(obj, reader.readString());
+                break;
+            case JsonReadPlan.KIND_INT:
+                if (property.primitive) {
+                    setter.setInt(obj, toInt(reader, reader.readLong()));
+                } else {
+                    setter.set(obj, toInt(reader, reader.readLong()));
+                }
+                break;
+            case JsonReadPlan.KIND_LONG:
+                if (property.primitive) {
+                    setter.setLong(obj, reader.readLong());
+                } else {
+                    setter.set(obj, reader.readLong());
+                }
+                break;
+            case JsonReadPlan.KIND_DOUBLE:
+                if (property.primitive) {
+                    setter.setDouble(obj, reader.readDouble());
+                } else {
+                    setter.set(obj, reader.readDouble());
+                }
+                break;
+            case JsonReadPlan.KIND_FLOAT:
+                if (property.primitive) {
+                    setter.setDouble(obj, reader.readDouble());
+                } else {
+                    setter.set(obj, (float) reader.readDouble());
+                }
+                break;
+            case JsonReadPlan.KIND_SHORT:
+                if (property.primitive) {
+                    setter.setInt(obj, toInt(reader, reader.readLong()));
+                } else {
+                    setter.set(obj, (short) toInt(reader, reader.readLong()));
+                }
+                break;
+            case JsonReadPlan.KIND_BYTE:
+                if (property.primitive) {
+                    setter.setInt(obj, toInt(reader, reader.readLong()));
+                } else {
+                    setter.set(obj, (byte) toInt(reader, reader.readLong()));
+                }
+                break;
+            case JsonReadPlan.KIND_BOOLEAN:
+                //Boolean装箱使用缓存实例，不分配
+                setter.set(obj, reader.readBoolean());
+                break;
+            case JsonReadPlan.KIND_CHAR:
+                if (property.primitive) {
+                    setter.setInt(obj, readChar(reader));
+                } else {
+                    setter.set(obj, readChar(reader));
+                }
+                break;
+            default:
+                setter.set(obj, readValue(reader, property.genericType));
+                break;
+        }
+    }
+
+    private static Object parseFormatted(JsonReader reader, JsonFormatter formatter) throws IOException {
+        String text = formatter.isTextual() ? reader.readString() : reader.readNumberText();
+        try {
+            return formatter.parse(text);
+        } catch (RuntimeException e) {
+            IllegalArgumentException error = reader.error("无法按format \"" + formatter.pattern + "\"解析: " + text);
+            error.initCause(e);
+            throw error;
+        }
+    }
+
+    private Collection<Object> readCollection(JsonReader reader, Class<?> raw, Type elementType) throws IOException {
+        Collection<Object> collection = newCollection(raw);
+        reader.expect('[');
+        if (reader.consumeIf(']')) {
+            return collection;
+        }
+        do {
+            collection.add(readValue(reader, elementType));
+        } while (reader.nextElement(']'));
+        return collection;
+    }
+
+    private Object readArray(JsonReader reader, Class<?> componentType) throws IOException {
+        if (componentType == int.class) {
+            return readIntArray(reader);
+        } else if (componentType == long.class) {
+            return readLongArray(reader);
+        } else if (componentType == double.class) {
+            return readDoubleArray(reader);
+        }
+        List<Object> elements = new ArrayList<>();
+        reader.expect('[');
+        if (!reader.consumeIf(']')) {
+            do {
+                elements.add(readValue(reader, componentType));
+            } while (reader.nextElement(']'));
+        }
+        Object array = Array.newInstance(componentType, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Array.set(array, i, elements.get(i));
+        }
+        return array;
+    }
+
+    /*
+     * int/long/double数组直接读入按需扩容的基本类型数组，不经过装箱的List
+     */
+    private static int[] readIntArray(JsonReader reader) throws IOException {
+        int[] values = new int[16];
+        int size = 0;
+        reader.expect('[');
+        if (!reader.consumeIf(']')) {
+            do {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size << 1);
+                }
+                values[size++] = toInt(reader, reader.readLong());
+            } while (reader.nextElement(']'));
+        }
+        return (size == values.length) ? values : Arrays.copyOf(values, size);
+    }
+
+    private static long[] readLongArray(JsonReader reader) throws IOException {
+        long[] values = new long[16];
+        int size = 0;
+        reader.expect('[');
+        if (!reader.consumeIf(']')) {
+            do {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size << 1);
+                }
+                values[size++] = reader.readLong();
+            } while (reader.nextElement(']'));
+        }
+        return (size == values.length) ? values : Arrays.copyOf(values, size);
+    }
+
+    private static double[] readDoubleArray(JsonReader reader) throws IOException {
+        double[] values = new double[16];
+        int size = 0;
+        reader.expect('[');
+        if (!reader.consumeIf(']')) {
+            do {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size << 1);
+                }
+                values[size++] = reader.readDouble();
+            } while (reader.nextElement(']'));
+        }
+        return (size == values.length) ? values : Arrays.copyOf(values, size);
+    }
+
+    private Map<String, Object> readMap(JsonReader reader, Type valueType) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        reader.expect('{');
+        if (reader.consumeIf('}')) {
+            return map;
+        }
+        do {
+            String key = reader.readString();
+            reader.expect(':');
+            map.put(key, readValue(reader, valueType));
+        } while (reader.nextElement('}'));
+        return map;
+    }
+
+    /*
+     * 没有声明类型时按JSON自身结构读取：对象为Map，数组为List，整数为Long，小数为Double
+     */
+    private Object readNatural(JsonReader reader) throws IOException {
+        int c = reader.peek();
+        switch (c) {
+            case '{':
+                return readMap(reader, Object.class);
+            case '[':
+                return readCollection(reader, List.class, Object.class);
+            case '"':
+                return reader.readString();
+            case 't':
+            case 'f':
+                return reader.readBoolean();
+            default:
+                String text = reader.readNumberText();
+                if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                    try {
+                        return Long.parseLong(text);
+                    } catch (NumberFormatException e) {
+                        return new BigInteger(text);
+                    }
+                }
+                return Double.parseDouble(text);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readEnum(JsonReader reader, Class<?> type) throws IOException {
+        String name = reader.readString();
+        try {
+            return Enum.valueOf((Class) type, name);
+        } catch (IllegalArgumentException e) {
+            throw reader.error("未知的枚举值" + name);
+        }
+    }
+
+    private static char readChar(JsonReader reader) throws IOException {
+        String value = reader.readString();
+        if (value.length() != 1) {
+            throw reader.error("期望单个字符");
+        }
+        return value.charAt(0);
+    }
+
+    private static int toInt(JsonReader reader, long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw reader.error("整数超出int范围");
+        }
+        return (int) value;
+    }
+
+    static Collection<Object> newCollection(Class<?> raw) {
+        if (raw.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>();
+        }
+        if (raw.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet<>();
+        }
+        if (raw.isAssignableFrom(TreeSet.class)) {
+            return new TreeSet<>();
+        }
+        if (raw.isAssignableFrom(ArrayDeque.class)) {
+            return new ArrayDeque<>();
+        }
+        throw new IllegalArgumentException("不支持的集合类型: " + raw.getName());
+    }
+
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawType(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof GenericArrayType) {
+            Class<?> component = rawType(((GenericArrayType) type).getGenericComponentType());
+            return Array.newInstance(component, 0).getClass();
+        }
+        return Object.class;
+    }
+
+    static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    /*
+     * UTF-8解码为字符数组：ASCII逐字节直接转换，遇到多字节字符后剩余部分交给CharsetDecoder
+     */
+    private static JsonReader decodeUtf8(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        int start = bytes.position();
+        char[] chars = new char[length];
+        int count = 0;
+        byte[] array;
+        int offset;
+        if (bytes.hasArray()) {
+            array = bytes.array();
+            offset = bytes.arrayOffset() + start;
+        } else {
+            //直接内存（如内存映射文件）先批量拷出，比逐字节get快得多
+            array = new byte[length];
+            offset = 0;
+            bytes.get(array).position(start);
+        }
+        while (count < length && array[offset + count] >= 0) {
+            chars[count] = (char) array[offset + count];
+            count++;
+        }
+        if (count < length) {
+            bytes.position(start + count);
+            CharBuffer out = CharBuffer.wrap(chars, count, length - count);
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CoderResult result = decoder.decode(bytes, out, true);
+            if (result.isError() || result.isOverflow()) {
+                throw new IllegalArgumentException("非法的UTF-8输入");
+            }
+            decoder.flush(out);
+            count = out.position();
+        }
+        return new JsonReader(chars, 0, count);
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.annotationdemo.processor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/*
+ * 增量序列化的比较工具 --按输出结构（与JsonSerializer.writeValue一致）比较两个值或计算64位结构哈希
+ * 基本类型字段通过类型化访问器读取，基本类型数组直接比较和遍历，比较和哈希都不装箱、不序列化
+ * 哈希只依赖类名和字段值，不同JVM进程中结果相同，可以持久化
+ */
+final class JsonDiff {
+
+    private static final long NULL_HASH = 0x5A5A5A5A5A5A5A5AL;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private JsonDiff() {}
+
+    /*
+     * 是否按@JsonField字段逐个比较；JDK类型（UUID、java.time等）按equals比较，不反射其内部字段
+     */
+    static boolean isBean(Object value) {
+        return !(value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof CharSequence || value instanceof Collection || value instanceof Map
+                || value instanceof Enum || value.getClass().isArray()
+                || value.getClass().getName().startsWith("java"));
+    }
+
+    /*
+     * 两个对象的同一字段是否相同
+     */
+    static boolean sameProperty(JsonClassPlan.Property property, Object a, Object b) {
+        FieldAccessor accessor = property.accessor;
+        Class<?> type = property.type;
+        if (type == int.class) {
+            return accessor.getInt(a) == accessor.getInt(b);
+        }
+        if (type == long.class) {
+            return accessor.getLong(a) == accessor.getLong(b);
+        }
+        if (type == double.class) {
+            return Double.doubleToLongBits(accessor.getDouble(a)) == Double.doubleToLongBits(accessor.getDouble(b));
+        }
+        return sameValue(accessor.get(a), accessor.get(b));
+    }
+
+    /*
+     * 两个值的JSON输出是否相同；同一实例直接视为相同
+     */
+    static boolean sameValue(Object a, Object b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.getClass() != b.getClass()) {
+            return false;
+        }
+        if (a instanceof String || a instanceof Number || a instanceof Boolean
+                || a instanceof Character || a instanceof Enum) {
+            //包装类型、BigDecimal（含小数位数）、字符串、枚举的equals与输出一致
+            return a.equals(b);
+        }
+        if (a instanceof CharSequence) {
+            //StringBuilder等没有覆盖equals，按内容比较
+            return a.toString().equals(b.toString());
+        }
+        if (a instanceof Collection) {
+            Collection<?> left = (Collection<?>) a;
+            Collection<?> right = (Collection<?>) b;
+            if (left.size() != right.size()) {
+                return false;
+            }
+            Iterator<?> iterator = right.iterator();
+            for (Object item : left) {
+                if (!sameValue(item, iterator.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a instanceof Map) {
+            Map<?, ?> left = (Map<?, ?>) a;
+            Map<?, ?> right = (Map<?, ?>) b;
+            if (left.size() != right.size()) {
+                return false;
+            }
+            //输出按迭代顺序，顺序不同也视为不同
+            Iterator<? extends Map.Entry<?, ?>> iterator = right.entrySet().iterator();
+            for (Map.Entry<?, ?> entry : left.entrySet()) {
+                Map.Entry<?, ?> other = iterator.next();
+                if (!String.valueOf(entry.getKey()).equals(String.valueOf(other.getKey()))
+                        || !sameValue(entry.getValue(), other.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a.getClass().isArray()) {
+            return sameArray(a, b);
+        }
+        if (!isBean(a)) {
+            return a.equals(b);
+        }
+        for (JsonClassPlan.Property property : JsonClassPlan.of(a.getClass()).properties) {
+            if (!sameProperty(property, a, b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * 类型相同的两个数组：基本类型数组用Arrays.equals（double/float按位比较，与输出一致）
+     */
+    private static boolean sameArray(Object a, Object b) {
+        if (a instanceof int[]) {
+            return Arrays.equals((int[]) a, (int[]) b);
+        }
+        if (a instanceof long[]) {
+            return Arrays.equals((long[]) a, (long[]) b);
+        }
+        if (a instanceof double[]) {
+            return Arrays.equals((double[]) a, (double[]) b);
+        }
+        if (a instanceof float[]) {
+            return Arrays.equals((float[]) a, (float[]) b);
+        }
+        if (a instanceof short[]) {
+            return Arrays.equals((short[]) a, (short[]) b);
+        }
+        if (a instanceof byte[]) {
+            return Arrays.equals((byte[]) a, (byte[]) b);
+        }
+        if (a instanceof char[]) {
+            return Arrays.equals((char[]) a, (char[]) b);
+        }
+        if (a instanceof boolean[]) {
+            return Arrays.equals((boolean[]) a, (boolean[]) b);
+        }
+        Object[] left = (Object[]) a;
+        Object[] right = (Object[]) b;
+        if (left.length != right.length) {
+            return false;
+        }
+        for (int i = 0; i < left.length; i++) {
+            if (!sameValue(left[i], right[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * 字段值的64位哈希；int/long/double字段为原值的双射变换，不会冲突
+     */
+    static long propertyHash(JsonClassPlan.Property property, Object obj) {
+        FieldAccessor accessor = property.accessor;
+        Class<?> type = property.type;
+        if (type == int.class) {
+            return mix(accessor.getInt(obj));
+        }
+        if (type == long.class) {
+            return mix(accessor.getLong(obj));
+        }
+        if (type == double.class) {
+            return hashDouble(accessor.getDouble(obj));
+        }
+        return hash(accessor.get(obj));
+    }
+
+    /*
+     * 按输出结构计算64位哈希，类型不同的相等值（如1与"1"）哈希不同
+     */
+    static long hash(Object value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        if (value instanceof String) {
+            return hashChars((String) value);
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return hashDouble(((Number) value).doubleValue());
+        }
+        if (value instanceof Character) {
+            return hashChar((Character) value);
+        }
+        if (value instanceof Boolean) {
+            return hashBoolean((Boolean) value);
+        }
+        if (value instanceof Collection) {
+            long hash = 1;
+            for (Object item : (Collection<?>) value) {
+                hash = hash * MULTIPLIER + hash(item);
+            }
+            return mix(hash ^ 2);
+        }
+        if (value instanceof Map) {
+            long hash = 3;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                hash = hash * MULTIPLIER + hashChars(String.valueOf(entry.getKey()));
+                hash = hash * MULTIPLIER + hash(entry.getValue());
+            }
+            return mix(hash ^ 4);
+        }
+        if (value.getClass().isArray()) {
+            return mix(hashArray(value) ^ 6);
+        }
+        //类的hashCode是身份哈希，每次运行都不同；类名的哈希是稳定的
+        long classHash = value.getClass().getName().hashCode();
+        if (!isBean(value)) {
+            return mix(classHash * MULTIPLIER + hashChars(value.toString()));
+        }
+        long hash = classHash;
+        for (JsonClassPlan.Property property : JsonClassPlan.of(value.getClass()).properties) {
+            hash = hash * MULTIPLIER + propertyHash(property, value);
+        }
+        return mix(hash ^ 7);
+    }
+
+    /*
+     * 数组元素的组合哈希：元素哈希与对应包装类型相同，基本类型数组逐个读取不装箱
+     */
+    private static long hashArray(Object array) {
+        long hash = 5;
+        if (array instanceof int[]) {
+            for (int value : (int[]) array) {
+                hash = hash * MULTIPLIER + mix(value);
+            }
+        } else if (array instanceof long[]) {
+            for (long value : (long[]) array) {
+                hash = hash * MULTIPLIER + mix(value);
+            }
+        } else if (array instanceof double[]) {
+            for (double value : (double[]) array) {
+                hash = hash * MULTIPLIER + hashDouble(value);
+            }
+        } else if (array instanceof float[]) {
+            for (float value : (float[]) array) {
+                hash = hash * MULTIPLIER + hashDouble(value);
+            }
+        } else if (array instanceof short[]) {
+            for (short value : (short[]) array) {
+                hash = hash * MULTIPLIER + mix(value);
+            }
+        } else if (array instanceof byte[]) {
+            for (byte value : (byte[]) array) {
+                hash = hash * MULTIPLIER + mix(value);
+            }
+        } else if (array instanceof char[]) {
+            for (char value : (char[]) array) {
+                hash = hash * MULTIPLIER + hashChar(value);
+            }
+        } else if (array instanceof boolean[]) {
+            for (boolean value : (boolean[]) array) {
+                hash = hash * MULTIPLIER + hashBoolean(value);
+            }
+        } else {
+            for (Object value : (Object[]) array) {
+                hash = hash * MULTIPLIER + hash(value);
+            }
+        }
+        return hash;
+    }
+
+    private static long hashDouble(double value) {
+        return mix(Double.doubleToLongBits(value) ^ MULTIPLIER);
+    }
+
+    /*
+     * 与单字符字符串的哈希相同（char按字符串输出）
+     */
+    private static long hashChar(char value) {
+        return mix(0x100000001B3L + value);
+    }
+
+    private static long hashBoolean(boolean value) {
+        return mix(NULL_HASH ^ (value ? 1 : 2));
+    }
+
+    private static long hashChars(String text) {
+        long hash = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            hash = hash * 0x100000001B3L + text.charAt(i);
+        }
+        return mix(hash);
+    }
+
+    /*
+     * SplitMix64的终结函数，64位到64位的双射
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
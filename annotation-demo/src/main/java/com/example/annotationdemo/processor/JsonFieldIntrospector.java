@@ -0,0 +1,179 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+
+import com.example.annotationdemo.annotations.JsonField;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.introspect.VisibilityChecker;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/*
+ * 让Jackson识别@JsonField --name、ignore、order、format与JsonSerializer语义一致
+ * 带@JsonField的类改为按字段检测（与JsonSerializer相同），getter/setter不再被当作属性
+ */
+public class JsonFieldIntrospector extends NopAnnotationIntrospector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Version version() {
+        return Version.unknownVersion();
+    }
+
+    @Override
+    public PropertyName findNameForSerialization(Annotated a) {
+        return findName(a);
+    }
+
+    @Override
+    public PropertyName findNameForDeserialization(Annotated a) {
+        return findName(a);
+    }
+
+    /*
+     * 有@JsonField的字段都显式纳入，name为空时沿用字段名
+     */
+    private static PropertyName findName(Annotated a) {
+        if (!(a instanceof AnnotatedField)) {
+            return null;
+        }
+        JsonField jsonField = a.getAnnotation(JsonField.class);
+        if (jsonField == null || jsonField.ignore()) {
+            return null;
+        }
+        return jsonField.name().isEmpty() ? PropertyName.USE_DEFAULT : PropertyName.construct(jsonField.name());
+    }
+
+    @Override
+    public boolean hasIgnoreMarker(AnnotatedMember m) {
+        JsonField jsonField = m.getAnnotation(JsonField.class);
+        return jsonField != null && jsonField.ignore();
+    }
+
+    /*
+     * 属性顺序直接取JsonClassPlan的排序结果
+     */
+    @Override
+    public String[] findSerializationPropertyOrder(AnnotatedClass ac) {
+        if (!hasJsonFields(ac)) {
+            return null;
+        }
+        JsonClassPlan.Property[] properties = JsonClassPlan.of(ac.getRawType()).properties;
+        String[] names = new String[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            names[i] = properties[i].name;
+        }
+        return names;
+    }
+
+    @Override
+    public VisibilityChecker<?> findAutoDetectVisibility(AnnotatedClass ac, VisibilityChecker<?> checker) {
+        if (!hasJsonFields(ac)) {
+            return checker;
+        }
+        return checker.withFieldVisibility(JsonAutoDetect.Visibility.ANY)
+                .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                .withSetterVisibility(JsonAutoDetect.Visibility.NONE);
+    }
+
+    @Override
+    public Object findSerializer(Annotated am) {
+        JsonFormatter formatter = findFormatter(am);
+        return (formatter == null) ? null : new FormattedSerializer(formatter);
+    }
+
+    @Override
+    public Object findDeserializer(Annotated am) {
+        JsonFormatter formatter = findFormatter(am);
+        return (formatter == null) ? null : new FormattedDeserializer(am.getRawType(), formatter);
+    }
+
+    private static JsonFormatter findFormatter(Annotated am) {
+        if (!(am instanceof AnnotatedField)) {
+            return null;
+        }
+        JsonField jsonField = am.getAnnotation(JsonField.class);
+        if (jsonField == null || jsonField.format().isEmpty()) {
+            return null;
+        }
+        return JsonFormatter.compile(am.getRawType(), jsonField.format());
+    }
+
+    private static boolean hasJsonFields(AnnotatedClass ac) {
+        for (AnnotatedField field : ac.fields()) {
+            if (field.hasAnnotation(JsonField.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * 用JsonFormatter输出format字段
+     */
+    static final class FormattedSerializer extends StdScalarSerializer<Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient JsonFormatter formatter;
+
+        FormattedSerializer(JsonFormatter formatter) {
+            super(Object.class);
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if ((value instanceof Double || value instanceof Float) && !Double.isFinite(((Number) value).doubleValue())) {
+                //NaN/Infinity不格式化，交给JsonFieldModule按NonFinitePolicy输出
+                provider.findValueSerializer(value.getClass()).serialize(value, gen, provider);
+            } else if (formatter.isTextual()) {
+                gen.writeString(formatter.format(value));
+            } else {
+                gen.writeNumber(formatter.format(value));
+            }
+        }
+    }
+
+    /*
+     * 用JsonFormatter解析format字段
+     */
+    static final class FormattedDeserializer extends StdScalarDeserializer<Object> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient JsonFormatter formatter;
+
+        FormattedDeserializer(Class<?> type, JsonFormatter formatter) {
+            super(type);
+            this.formatter = formatter;
+        }
+
+        @Override
+        public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT
+                    && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                return ctxt.handleUnexpectedToken(handledType(), p);
+            }
+            String text = p.getText();
+            try {
+                return formatter.parse(text);
+            } catch (RuntimeException e) {
+                return ctxt.handleWeirdStringValue(handledType(), text, "无法按format \"%s\"解析", formatter.pattern);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/*
+ * Jackson模块 --注册JsonFieldIntrospector，同一套@JsonField类可以交给Jackson序列化
+ * 用法: new ObjectMapper().registerModule(new JsonFieldModule())
+ * NaN/Infinity按NonFinitePolicy输出（默认null，与JsonSerializer一致），不再写出非法的裸NaN
+ * double[]/float[]由Jackson的数组序列化器直接写出，不经过该策略
+ */
+public class JsonFieldModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    public JsonFieldModule() {
+        this(JsonSerializer.NonFinitePolicy.NULL);
+    }
+
+    public JsonFieldModule(JsonSerializer.NonFinitePolicy nonFinitePolicy) {
+        super("JsonFieldModule");
+        FloatingSerializer serializer = new FloatingSerializer(Objects.requireNonNull(nonFinitePolicy));
+        addSerializer(Double.class, serializer);
+        addSerializer(double.class, serializer);
+        addSerializer(Float.class, serializer);
+        addSerializer(float.class, serializer);
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        //放在Jackson自带注解之前，@JsonField优先
+        context.insertAnnotationIntrospector(new JsonFieldIntrospector());
+    }
+
+    /*
+     * Double/Float：有限值照常写出，非有限值按策略写为null、字符串或报错（FAIL时抛出JsonMappingException）
+     */
+    static final class FloatingSerializer extends StdScalarSerializer<Number> {
+        private static final long serialVersionUID = 1L;
+
+        private final JsonSerializer.NonFinitePolicy nonFinitePolicy;
+
+        FloatingSerializer(JsonSerializer.NonFinitePolicy nonFinitePolicy) {
+            super(Number.class);
+            this.nonFinitePolicy = nonFinitePolicy;
+        }
+
+        @Override
+        public void serialize(Number value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            boolean single = value instanceof Float;
+            if (Double.isFinite(value.doubleValue())) {
+                if (single) {
+                    gen.writeNumber(value.floatValue());
+                } else {
+                    gen.writeNumber(value.doubleValue());
+                }
+                return;
+            }
+            String text = single ? Float.toString(value.floatValue()) : Double.toString(value.doubleValue());
+            switch (nonFinitePolicy) {
+                case STRING:
+                    gen.writeString(text);
+                    break;
+                case FAIL:
+                    throw JsonMappingException.from(gen, "JSON不支持的数值: " + text);
+                case NULL:
+                default:
+                    gen.writeNull();
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.time.temporal.TemporalQuery;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * @JsonField(format)对应的格式化器 --每个字段只编译一次pattern，之后不可变、可在线程间共享
+ * java.time类型和Date使用缓存的DateTimeFormatter输出字符串；
+ * 数字的"0"、"0.00"这类固定小数位pattern直接写出JSON数字，其余pattern按DecimalFormat输出字符串
+ */
+public abstract class JsonFormatter {
+
+    private static final Map<Class<?>, TemporalQuery<?>> TEMPORAL_QUERIES = new HashMap<>();
+
+    static {
+        TEMPORAL_QUERIES.put(LocalDate.class, LocalDate::from);
+        TEMPORAL_QUERIES.put(LocalDateTime.class, LocalDateTime::from);
+        TEMPORAL_QUERIES.put(LocalTime.class, LocalTime::from);
+        TEMPORAL_QUERIES.put(OffsetDateTime.class, OffsetDateTime::from);
+        TEMPORAL_QUERIES.put(OffsetTime.class, OffsetTime::from);
+        TEMPORAL_QUERIES.put(ZonedDateTime.class, ZonedDateTime::from);
+        TEMPORAL_QUERIES.put(Instant.class, Instant::from);
+        TEMPORAL_QUERIES.put(YearMonth.class, YearMonth::from);
+        TEMPORAL_QUERIES.put(Year.class, Year::from);
+        TEMPORAL_QUERIES.put(MonthDay.class, MonthDay::from);
+    }
+
+    final String pattern;
+
+    JsonFormatter(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /*
+     * 为字段类型编译pattern，类型不支持或pattern非法时抛出IllegalArgumentException
+     */
+    public static JsonFormatter compile(Class<?> type, String pattern) {
+        if (TEMPORAL_QUERIES.containsKey(type)) {
+            return new TemporalFormatter(type, pattern);
+        }
+        if (type == Date.class) {
+            return new DateFormatter(pattern);
+        }
+        if (isNumber(type)) {
+            int scale = fixedScale(pattern);
+            return (scale >= 0) ? new FixedScaleFormatter(type, pattern, scale) : new DecimalPatternFormatter(type, pattern);
+        }
+        throw new IllegalArgumentException("format不支持的字段类型: " + type.getName());
+    }
+
+    /*
+     * 写入非null值
+     */
+    public abstract void write(Object value, JsonOutput out, JsonSerializer serializer) throws IOException;
+
+    /*
+     * 格式化为文本（不带引号），供Jackson等其他引擎使用；double/float的NaN、Infinity由调用方处理
+     */
+    public abstract String format(Object value);
+
+    /*
+     * 输出是否为JSON字符串（反序列化时需要parse），固定小数位的数字输出为JSON数字
+     */
+    public boolean isTextual() {
+        return true;
+    }
+
+    /*
+     * 把write的输出（去掉引号后的文本）解析回字段类型
+     */
+    abstract Object parse(String text);
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    private static boolean isNumber(Class<?> type) {
+        return type == BigDecimal.class || type == BigInteger.class
+                || type == Double.class || type == double.class || type == Float.class || type == float.class
+                || type == Long.class || type == long.class || type == Integer.class || type == int.class
+                || type == Short.class || type == short.class || type == Byte.class || type == byte.class;
+    }
+
+    private static boolean isIntegral(Class<?> type) {
+        return type == BigInteger.class || type == Long.class || type == long.class
+                || type == Integer.class || type == int.class || type == Short.class || type == short.class
+                || type == Byte.class || type == byte.class;
+    }
+
+    private static Object convert(BigDecimal number, Class<?> type) {
+        if (type == BigDecimal.class) return number;
+        if (type == BigInteger.class) return number.toBigInteger();
+        if (type == Double.class || type == double.class) return number.doubleValue();
+        if (type == Float.class || type == float.class) return number.floatValue();
+        if (type == Long.class || type == long.class) return number.longValue();
+        if (type == Integer.class || type == int.class) return number.intValue();
+        if (type == Short.class || type == short.class) return number.shortValue();
+        return number.byteValue();
+    }
+
+    /*
+     * "0"、"0.0"、"0.00"...返回小数位数，其他pattern返回-1
+     */
+    private static int fixedScale(String pattern) {
+        if (pattern.isEmpty() || pattern.charAt(0) != '0') {
+            return -1;
+        }
+        if (pattern.length() == 1) {
+            return 0;
+        }
+        if (pattern.charAt(1) != '.' || pattern.length() == 2) {
+            return -1;
+        }
+        for (int i = 2; i < pattern.length(); i++) {
+            if (pattern.charAt(i) != '0') {
+                return -1;
+            }
+        }
+        return pattern.length() - 2;
+    }
+
+    /*
+     * java.time类型：Instant没有时区，按系统默认时区格式化
+     */
+    private static final class TemporalFormatter extends JsonFormatter {
+        private final DateTimeFormatter formatter;
+        private final TemporalQuery<?> query;
+
+        TemporalFormatter(Class<?> type, String pattern) {
+            super(pattern);
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+            this.formatter = (type == Instant.class) ? formatter.withZone(ZoneId.systemDefault()) : formatter;
+            this.query = TEMPORAL_QUERIES.get(type);
+        }
+
+        @Override
+        public void write(Object value, JsonOutput out, JsonSerializer serializer) throws IOException {
+            out.writeString(format(value));
+        }
+
+        @Override
+        public String format(Object value) {
+            return formatter.format((TemporalAccessor) value);
+        }
+
+        @Override
+        Object parse(String text) {
+            return formatter.parse(text, query);
+        }
+    }
+
+    /*
+     * java.util.Date：转为Instant后用DateTimeFormatter格式化，代替非线程安全的SimpleDateFormat
+     */
+    private static final class DateFormatter extends JsonFormatter {
+        private final DateTimeFormatter formatter;
+
+        DateFormatter(String pattern) {
+            super(pattern);
+            this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(ZoneId.systemDefault());
+        }
+
+        @Override
+        public void write(Object value, JsonOutput out, JsonSerializer serializer) throws IOException {
+            out.writeString(format(value));
+        }
+
+        @Override
+        public String format(Object value) {
+            return formatter.format(((Date) value).toInstant());
+        }
+
+        @Override
+        Object parse(String text) {
+            TemporalAccessor parsed = formatter.parse(text);
+            if (parsed.isSupported(ChronoField.INSTANT_SECONDS)) {
+                return Date.from(Instant.from(parsed));
+            }
+            //pattern只有日期部分时按当天零点计算
+            LocalDate date = LocalDate.from(parsed);
+            LocalTime time = parsed.query(TemporalQueries.localTime());
+            ZonedDateTime zoned = date.atTime(time == null ? LocalTime.MIDNIGHT : time).atZone(ZoneId.systemDefault());
+            return Date.from(zoned.toInstant());
+        }
+    }
+
+    /*
+     * 固定小数位：按HALF_UP舍入后直接写出JSON数字
+     * double在精度安全范围内用整数运算，接近舍入边界或超出范围时才退回BigDecimal
+     */
+    private static final class FixedScaleFormatter extends JsonFormatter {
+        private static final double FAST_PATH_LIMIT = 1e9;
+
+        private final Class<?> type;
+        private final int scale;
+        private final long pow10;
+        private final boolean integral;
+
+        FixedScaleFormatter(Class<?> type, String pattern, int scale) {
+            super(pattern);
+            this.type = type;
+            this.scale = scale;
+            //小数位超过9时不走整数快速路径，pow10置0
+            long pow10 = (scale <= 9) ? 1 : 0;
+            for (int i = 0; i < scale && pow10 > 0; i++) {
+                pow10 *= 10;
+            }
+            this.pow10 = pow10;
+            this.integral = isIntegral(type);
+        }
+
+        @Override
+        public boolean isTextual() {
+            return false;
+        }
+
+        @Override
+        public String format(Object value) {
+            StringBuilder text = new StringBuilder();
+            JsonOutput out = JsonOutput.of(text);
+            try {
+                write(value, out, null);
+                out.flush();
+            } catch (IOException e) {
+                //StringBuilder不会抛出IOException
+                throw new UncheckedIOException(e);
+            } finally {
+                out.release();
+            }
+            return text.toString();
+        }
+
+        @Override
+        public void write(Object value, JsonOutput out, JsonSerializer serializer) throws IOException {
+            if (value instanceof BigDecimal) {
+                out.write(((BigDecimal) value).setScale(scale, RoundingMode.HALF_UP).toPlainString());
+            } else if (value instanceof BigInteger) {
+                out.write(value.toString());
+                writeZeros(out);
+            } else if (integral) {
+                out.writeLong(((Number) value).longValue());
+                writeZeros(out);
+            } else {
+                writeDouble(((Number) value).doubleValue(), out, serializer);
+            }
+        }
+
+        private void writeDouble(double value, JsonOutput out, JsonSerializer serializer) throws IOException {
+            if (!Double.isFinite(value)) {
+                serializer.writeDouble(value, out);
+                return;
+            }
+            double scaled = Math.abs(value) * pow10;
+            if (pow10 > 0 && scaled < FAST_PATH_LIMIT) {
+                double floor = Math.floor(scaled);
+                //乘法误差远小于1e-6，离.5足够远时四舍五入结果与十进制HALF_UP一致
+                if (Math.abs(scaled - floor - 0.5) > 1e-6) {
+                    long units = (long) floor + ((scaled - floor > 0.5) ? 1 : 0);
+                    if (units != 0 && value < 0) {
+                        out.write('-');
+                    }
+                    out.writeLong(units / pow10);
+                    writeFraction(units % pow10, out);
+                    return;
+                }
+            }
+            out.write(BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).toPlainString());
+        }
+
+        private void writeFraction(long fraction, JsonOutput out) throws IOException {
+            if (scale == 0) {
+                return;
+            }
+            out.write('.');
+            for (long divisor = pow10 / 10; divisor > 0; divisor /= 10) {
+                out.write((char) ('0' + (fraction / divisor) % 10));
+            }
+        }
+
+        private void writeZeros(JsonOutput out) throws IOException {
+            if (scale == 0) {
+                return;
+            }
+            out.write('.');
+            for (int i = 0; i < scale; i++) {
+                out.write('0');
+            }
+        }
+
+        @Override
+        Object parse(String text) {
+            return convert(new BigDecimal(text), type);
+        }
+    }
+
+    /*
+     * 其他数字pattern（分组、百分比等）：DecimalFormat不是线程安全的，每个线程持有一份克隆
+     */
+    private static final class DecimalPatternFormatter extends JsonFormatter {
+        private final Class<?> type;
+        private final ThreadLocal<DecimalFormat> formats;
+
+        DecimalPatternFormatter(Class<?> type, String pattern) {
+            super(pattern);
+            this.type = type;
+            DecimalFormat prototype = new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(Locale.ROOT));
+            prototype.setRoundingMode(RoundingMode.HALF_UP);
+            prototype.setParseBigDecimal(true);
+            this.formats = ThreadLocal.withInitial(() -> (DecimalFormat) prototype.clone());
+        }
+
+        @Override
+        public void write(Object value, JsonOutput out, JsonSerializer serializer) throws IOException {
+            if ((value instanceof Double || value instanceof Float) && !Double.isFinite(((Number) value).doubleValue())) {
+                serializer.writeValue(value, out);
+                return;
+            }
+            out.writeString(format(value));
+        }
+
+        @Override
+        public String format(Object value) {
+            return formats.get().format(value);
+        }
+
+        @Override
+        Object parse(String text) {
+            ParsePosition position = new ParsePosition(0);
+            BigDecimal number = (BigDecimal) formats.get().parse(text, position);
+            if (number == null || position.getIndex() != text.length()) {
+                throw new IllegalArgumentException("无法按" + pattern + "解析数字: " + text,
+                        new ParseException(text, position.getErrorIndex()));
+            }
+            return convert(number, type);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.annotationdemo.processor;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * 预编码的JSON字段名 --"name": 的字符形式和UTF-8字节形式各只生成一次
+ * 同时保存CBOR/MessagePack的键编码，二进制格式写字段名也只是一次数组拷贝
+ */
+public final class JsonName {
+
+    final String name;
+    final String text;
+    final byte[] utf8;
+    final byte[] cbor;
+    final byte[] msgpack;
+
+    private JsonName(String name) {
+        this.name = name;
+        StringBuilder sb = new StringBuilder(name.length() + 3).append('"');
+        JsonOutput.appendEscaped(sb, name);
+        this.text = sb.append("\":").toString();
+        this.utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] raw = name.getBytes(StandardCharsets.UTF_8);
+        this.cbor = CborEncoder.encodeText(raw);
+        this.msgpack = MessagePackEncoder.encodeStr(raw);
+    }
+
+    public static JsonName of(String name) {
+        return new JsonName(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
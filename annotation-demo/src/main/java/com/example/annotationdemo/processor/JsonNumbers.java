@@ -0,0 +1,312 @@
+package com.example.annotationdemo.processor;
+
+/*
+ * 数字写入工具 --整数按两位一组查表写入，浮点数走最短往返十进制的快速路径
+ * 输出与Long.toString/Double.toString/Float.toString完全一致，直接写入输出缓冲不产生临时字符串
+ * 浮点数的快速路径只覆盖部分值：绝对值在[1e-3, 1e7)之外（科学计数法）或无法精确判定时，
+ * 调用方退回Double.toString/Float.toString，仍会分配临时字符串
+ * 没有用Ryu/Schubfach等最短位数算法覆盖全部区间：JDK 19之前的Double.toString并不总是最短
+ * （如2.82879384806159008E17、9.999999999999999E22），换用这类算法后输出会与之不一致
+ */
+final class JsonNumbers {
+
+    /*
+     * 单个long最多占用的字符数（"-9223372036854775808"）
+     */
+    static final int MAX_LONG_LENGTH = 20;
+
+    /*
+     * 快速路径下double最多占用的字符数（符号 + 16位整数和小数 + 小数点）
+     */
+    static final int MAX_DOUBLE_LENGTH = 26;
+
+    private static final char[] DIGIT_TENS = new char[100];
+    private static final char[] DIGIT_ONES = new char[100];
+
+    private static final String LONG_MIN = "-9223372036854775808";
+
+    /*
+     * Double.toString在[1e-3, 1e7)区间内使用普通小数形式，快速路径只处理这个区间
+     */
+    private static final double PLAIN_MIN = 1e-3;
+    private static final double PLAIN_MAX = 1e7;
+
+    /*
+     * 可以精确表示的10的幂；尾数小于2^53时 m / 10^k 是一次正确舍入的除法
+     */
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long[] LONG_POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+        10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+        10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final long MAX_EXACT_FLOAT = 1L << 24;
+    private static final int MAX_DOUBLE_SCALE = 17;
+    private static final int MAX_FLOAT_SCALE = 10;
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (char) ('0' + i / 10);
+            DIGIT_ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
+    private JsonNumbers() {}
+
+    /*
+     * 写入long，返回写入后的位置；调用方保证至少有MAX_LONG_LENGTH个空位
+     */
+    static int writeLong(long value, char[] buf, int pos) {
+        if (value == Long.MIN_VALUE) {
+            LONG_MIN.getChars(0, LONG_MIN.length(), buf, pos);
+            return pos + LONG_MIN.length();
+        }
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int end = pos + digitCount(value);
+        writeDigits(value, buf, end);
+        return end;
+    }
+
+    static int writeLong(long value, byte[] buf, int pos) {
+        if (value == Long.MIN_VALUE) {
+            for (int i = 0; i < LONG_MIN.length(); i++) {
+                buf[pos++] = (byte) LONG_MIN.charAt(i);
+            }
+            return pos;
+        }
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int end = pos + digitCount(value);
+        writeDigits(value, buf, end);
+        return end;
+    }
+
+    /*
+     * 写入double，返回写入后的位置；不在快速路径内时返回-1，由调用方退回Double.toString（会分配）
+     * 调用方保证至少有MAX_DOUBLE_LENGTH个空位，且value是有限值
+     */
+    static int writeDouble(double value, char[] buf, int pos) {
+        long digits = 0;
+        int scale = -1;
+        if (value != 0) {
+            double abs = Math.abs(value);
+            if (abs < PLAIN_MIN || abs >= PLAIN_MAX) {
+                return -1;
+            }
+            for (int k = 0; k <= MAX_DOUBLE_SCALE; k++) {
+                double scaled = abs * POW10[k];
+                if (scaled >= MAX_EXACT_DOUBLE) {
+                    return -1;
+                }
+                long m = Math.round(scaled);
+                if (m - scaled == 0.5) {
+                    //恰好位于两个候选值中间时交给JDK决定取舍
+                    return -1;
+                }
+                if (m / POW10[k] == abs) {
+                    digits = m;
+                    scale = k;
+                    break;
+                }
+            }
+            if (scale < 0) {
+                return -1;
+            }
+        } else {
+            scale = 0;
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buf[pos++] = '-';
+        }
+        return writeDecimal(digits, scale, buf, pos);
+    }
+
+    static int writeDouble(double value, byte[] buf, int pos) {
+        long digits = 0;
+        int scale = -1;
+        if (value != 0) {
+            double abs = Math.abs(value);
+            if (abs < PLAIN_MIN || abs >= PLAIN_MAX) {
+                return -1;
+            }
+            for (int k = 0; k <= MAX_DOUBLE_SCALE; k++) {
+                double scaled = abs * POW10[k];
+                if (scaled >= MAX_EXACT_DOUBLE) {
+                    return -1;
+                }
+                long m = Math.round(scaled);
+                if (m - scaled == 0.5) {
+                    //恰好位于两个候选值中间时交给JDK决定取舍
+                    return -1;
+                }
+                if (m / POW10[k] == abs) {
+                    digits = m;
+                    scale = k;
+                    break;
+                }
+            }
+            if (scale < 0) {
+                return -1;
+            }
+        } else {
+            scale = 0;
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buf[pos++] = '-';
+        }
+        return writeDecimal(digits, scale, buf, pos);
+    }
+
+    /*
+     * 写入float，规则同writeDouble；尾数小于2^24且10^k可精确表示为float时 m / 10^k 是一次正确舍入的float除法
+     */
+    static int writeFloat(float value, char[] buf, int pos) {
+        long digits = 0;
+        int scale = 0;
+        if (value != 0) {
+            scale = floatScale(value);
+            if (scale < 0) {
+                return -1;
+            }
+            digits = Math.round(Math.abs(value) * POW10[scale]);
+        }
+        if (Float.floatToRawIntBits(value) < 0) {
+            buf[pos++] = '-';
+        }
+        return writeDecimal(digits, scale, buf, pos);
+    }
+
+    static int writeFloat(float value, byte[] buf, int pos) {
+        long digits = 0;
+        int scale = 0;
+        if (value != 0) {
+            scale = floatScale(value);
+            if (scale < 0) {
+                return -1;
+            }
+            digits = Math.round(Math.abs(value) * POW10[scale]);
+        }
+        if (Float.floatToRawIntBits(value) < 0) {
+            buf[pos++] = '-';
+        }
+        return writeDecimal(digits, scale, buf, pos);
+    }
+
+    /*
+     * 找到能往返还原float的最小小数位数，找不到返回-1
+     */
+    private static int floatScale(float value) {
+        float abs = Math.abs(value);
+        if (abs < PLAIN_MIN || abs >= PLAIN_MAX) {
+            return -1;
+        }
+        for (int k = 0; k <= MAX_FLOAT_SCALE; k++) {
+            double scaled = abs * POW10[k];
+            if (scaled >= MAX_EXACT_FLOAT) {
+                return -1;
+            }
+            long m = Math.round(scaled);
+            if (m - scaled == 0.5) {
+                return -1;
+            }
+            if ((float) m / (float) POW10[k] == abs) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * 写入 digits / 10^scale，整数时补".0"，与Double.toString格式一致
+     */
+    private static int writeDecimal(long digits, int scale, char[] buf, int pos) {
+        long integer = digits / LONG_POW10[scale];
+        pos = writeLong(integer, buf, pos);
+        buf[pos++] = '.';
+        if (scale == 0) {
+            buf[pos++] = '0';
+            return pos;
+        }
+        long fraction = digits - integer * LONG_POW10[scale];
+        int end = pos + scale;
+        int start = writeDigits(fraction, buf, end);
+        while (start > pos) {
+            buf[--start] = '0';
+        }
+        return end;
+    }
+
+    private static int writeDecimal(long digits, int scale, byte[] buf, int pos) {
+        long integer = digits / LONG_POW10[scale];
+        pos = writeLong(integer, buf, pos);
+        buf[pos++] = '.';
+        if (scale == 0) {
+            buf[pos++] = '0';
+            return pos;
+        }
+        long fraction = digits - integer * LONG_POW10[scale];
+        int end = pos + scale;
+        int start = writeDigits(fraction, buf, end);
+        while (start > pos) {
+            buf[--start] = '0';
+        }
+        return end;
+    }
+
+    /*
+     * 从end往前写入非负整数的各位数字，返回第一位数字的位置
+     */
+    private static int writeDigits(long value, char[] buf, int end) {
+        int pos = end;
+        while (value >= 100) {
+            int r = (int) (value % 100);
+            value /= 100;
+            buf[--pos] = DIGIT_ONES[r];
+            buf[--pos] = DIGIT_TENS[r];
+        }
+        int r = (int) value;
+        buf[--pos] = DIGIT_ONES[r];
+        if (r >= 10) {
+            buf[--pos] = DIGIT_TENS[r];
+        }
+        return pos;
+    }
+
+    private static int writeDigits(long value, byte[] buf, int end) {
+        int pos = end;
+        while (value >= 100) {
+            int r = (int) (value % 100);
+            value /= 100;
+            buf[--pos] = (byte) DIGIT_ONES[r];
+            buf[--pos] = (byte) DIGIT_TENS[r];
+        }
+        int r = (int) value;
+        buf[--pos] = (byte) DIGIT_ONES[r];
+        if (r >= 10) {
+            buf[--pos] = (byte) DIGIT_TENS[r];
+        }
+        return pos;
+    }
+
+    /*
+     * 非负整数的十进制位数
+     */
+    private static int digitCount(long value) {
+        for (int i = 1; i < LONG_POW10.length; i++) {
+            if (value < LONG_POW10[i]) {
+                return i;
+            }
+        }
+        return 19;
+    }
+}
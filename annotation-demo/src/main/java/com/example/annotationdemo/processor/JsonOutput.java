@@ -0,0 +1,162 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/*
+ * JSON输出缓冲 --整个序列化过程共享一个缓冲区，写满后批量刷新到目标
+ * 字符目标使用Appendable实现，字节目标直接输出UTF-8
+ */
+public abstract class JsonOutput {
+
+    static final int BUFFER_SIZE = 8192;
+
+    static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /*
+     * ASCII转义表：0表示无需转义，'u'表示输出六字符的unicode转义，其余为反斜杠后面的转义字母
+     * 覆盖全部0x00-0x1F控制字符以及引号和反斜杠
+     */
+    static final char[] ESCAPES = new char[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = 'u';
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
+    /*
+     * 输出到Appendable（StringBuilder、Writer等）
+     */
+    public static JsonOutput of(Appendable target) {
+        return new AppendableJsonOutput(target);
+    }
+
+    /*
+     * 以UTF-8字节输出到OutputStream
+     */
+    public static JsonOutput utf8(OutputStream target) {
+        return new Utf8JsonOutput(target);
+    }
+
+    /*
+     * 以UTF-8字节输出到ByteBuffer（堆内或直接内存），空间不足时抛出BufferOverflowException
+     */
+    public static JsonOutput utf8(ByteBuffer target) {
+        return new Utf8JsonOutput(target);
+    }
+
+    /*
+     * 写入单个ASCII字符（结构符号等）
+     */
+    public abstract void write(char c) throws IOException;
+
+    /*
+     * 原样写入字符串
+     */
+    public abstract void write(String str) throws IOException;
+
+    /*
+     * 写入带引号并转义的字符串
+     */
+    public abstract void writeString(String str) throws IOException;
+
+    /*
+     * 写入带引号并转义的单字符字符串，不创建String
+     */
+    public void writeString(char c) throws IOException {
+        writeString(String.valueOf(c));
+    }
+
+    /*
+     * 写入long数字
+     */
+    public abstract void writeLong(long value) throws IOException;
+
+    /*
+     * 写入int数字
+     */
+    public void writeInt(int value) throws IOException {
+        writeLong(value);
+    }
+
+    /*
+     * 写入double数字，格式与Double.toString一致（NaN/Infinity的处理由序列化器决定）
+     */
+    public abstract void writeDouble(double value) throws IOException;
+
+    /*
+     * 写入float数字，格式与Float.toString一致
+     */
+    public abstract void writeFloat(float value) throws IOException;
+
+    /*
+     * 写入预编码的字段名（含引号和冒号）
+     */
+    public abstract void writeName(JsonName name) throws IOException;
+
+    /*
+     * 写入字段名及冒号
+     */
+    public void writeName(String name) throws IOException {
+        writeString(name);
+        write(':');
+    }
+
+    /*
+     * 把缓冲区内容刷新到目标
+     */
+    public abstract void flush() throws IOException;
+
+    /*
+     * 写入values[from, to)，逗号分隔、不含方括号；实现类按缓冲区剩余空间分块写入，块内不再逐个检查容量
+     */
+    void writeInts(int[] values, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                write(',');
+            }
+            writeLong(values[i]);
+        }
+    }
+
+    void writeLongs(long[] values, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                write(',');
+            }
+            writeLong(values[i]);
+        }
+    }
+
+    /*
+     * 输出结束后归还缓冲区（不会刷新），之后不能再使用该输出
+     */
+    void release() {
+    }
+
+    /*
+     * 把字符串转义后追加到StringBuilder（用于预编码字段名等一次性场景）
+     */
+    static void appendEscaped(StringBuilder sb, String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            char escape = (c < 128) ? ESCAPES[c] : 0;
+            if (escape == 0) {
+                sb.append(c);
+            } else if (escape == 'u') {
+                sb.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                sb.append('\\').append(escape);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.annotationdemo.processor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * 类的反序列化计划 --基于JsonClassPlan的@JsonField映射，每个类只构建一次
+ * JSON字段名放入开放寻址哈希表，读取时在字符缓冲区内直接比较，不为字段名创建字符串
+ */
+final class JsonReadPlan {
+
+    static final int KIND_OTHER = 0;
+    static final int KIND_STRING = 1;
+    static final int KIND_INT = 2;
+    static final int KIND_LONG = 3;
+    static final int KIND_DOUBLE = 4;
+    static final int KIND_FLOAT = 5;
+    static final int KIND_SHORT = 6;
+    static final int KIND_BYTE = 7;
+    static final int KIND_BOOLEAN = 8;
+    static final int KIND_CHAR = 9;
+
+    private static final ClassValue<JsonReadPlan> PLANS = new ClassValue<JsonReadPlan>() {
+        @Override
+        protected JsonReadPlan computeValue(Class<?> type) {
+            return new JsonReadPlan(type);
+        }
+    };
+
+    final Class<?> type;
+    final Property[] properties;
+    private final MethodHandle constructor;
+    private final Property[] table;
+    private final int mask;
+
+    private JsonReadPlan(Class<?> type) {
+        this.type = type;
+        this.constructor = findConstructor(type);
+
+        List<Property> properties = new ArrayList<>();
+        for (JsonClassPlan.Property property : JsonClassPlan.of(type).properties) {
+            FieldSetter setter = FieldAccessors.setter(property.field);
+            if (setter != null) {
+                properties.add(new Property(property, setter));
+            }
+        }
+        this.properties = properties.toArray(new Property[0]);
+
+        //表大小取不小于字段数两倍的2的幂，保证探测序列很短
+        int size = Integer.highestOneBit(Math.max(this.properties.length, 1) * 2 - 1) << 1;
+        this.table = new Property[size];
+        this.mask = size - 1;
+        for (Property property : this.properties) {
+            int index = property.hash & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = property;
+        }
+    }
+
+    static JsonReadPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /*
+     * 按缓冲区中的字段名查找，hash与String.hashCode算法一致
+     */
+    Property find(char[] buffer, int offset, int length, int hash) {
+        int index = hash & mask;
+        Property property;
+        while ((property = table[index]) != null) {
+            if (property.hash == hash && property.matches(buffer, offset, length)) {
+                return property;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    Property find(String name) {
+        char[] chars = name.toCharArray();
+        return find(chars, 0, chars.length, name.hashCode());
+    }
+
+    /*
+     * 通过无参构造方法创建实例
+     */
+    Object newInstance() {
+        if (constructor == null) {
+            throw new IllegalStateException(type.getName() + "没有无参构造方法，无法反序列化");
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("创建" + type.getName() + "实例失败", e);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            return lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (type == String.class) return KIND_STRING;
+        if (type == int.class || type == Integer.class) return KIND_INT;
+        if (type == long.class || type == Long.class) return KIND_LONG;
+        if (type == double.class || type == Double.class) return KIND_DOUBLE;
+        if (type == float.class || type == Float.class) return KIND_FLOAT;
+        if (type == short.class || type == Short.class) return KIND_SHORT;
+        if (type == byte.class || type == Byte.class) return KIND_BYTE;
+        if (type == boolean.class || type == Boolean.class) return KIND_BOOLEAN;
+        if (type == char.class || type == Character.class) return KIND_CHAR;
+        return KIND_OTHER;
+    }
+
+    /*
+     * 计划中的单个可写字段
+     */
+    static final class Property {
+        final String name;
+        final char[] chars;
+        final int hash;
+        final FieldSetter setter;
+        final Class<?> type;
+        final Type genericType;
+        final int kind;
+        final boolean primitive;
+        final JsonFormatter formatter;
+
+        Property(JsonClassPlan.Property property, FieldSetter setter) {
+            this.name = property.name;
+            this.chars = name.toCharArray();
+            this.hash = name.hashCode();
+            this.setter = setter;
+            this.type = property.field.getType();
+            this.genericType = property.field.getGenericType();
+            this.kind = kindOf(type);
+            this.primitive = type.isPrimitive();
+            this.formatter = property.formatter;
+        }
+
+        boolean matches(char[] buffer, int offset, int length) {
+            if (length != chars.length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer[offset + i] != chars[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
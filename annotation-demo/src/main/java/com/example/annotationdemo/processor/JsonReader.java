@@ -0,0 +1,518 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/*
+ * 流式JSON词法读取器 --在字符缓冲上逐个读取token
+ * 字段名在缓冲区内直接计算哈希并与预编码名称比较，数字直接从字符解析，均不产生中间字符串
+ * 来源为Reader时按需补充缓冲，未读完的token会被整体前移后再继续扫描
+ */
+final class JsonReader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /*
+     * 可以精确表示的10的幂，用于浮点数快速路径
+     */
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private final Reader reader;
+    private char[] buffer;
+    private int pos;
+    private int limit;
+
+    /*
+     * 已经从缓冲区移走的字符数（用于错误位置）
+     */
+    private long consumed;
+
+    private StringBuilder scratch;
+
+    /*
+     * 读取完整的字符数组
+     */
+    JsonReader(char[] chars, int offset, int length) {
+        this.reader = null;
+        this.buffer = chars;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    /*
+     * 从Reader流式读取
+     */
+    JsonReader(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /*
+     * 跳过空白并返回下一个字符（不消费），到达末尾返回-1
+     */
+    int peek() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+                continue;
+            }
+            return c;
+        }
+    }
+
+    /*
+     * 跳过空白后消费指定字符
+     */
+    void expect(char expected) throws IOException {
+        int c = peek();
+        if (c != expected) {
+            throw error("期望'" + expected + "'");
+        }
+        pos++;
+    }
+
+    /*
+     * 消费对象或数组中的分隔符：遇到','返回true，遇到结束符返回false
+     */
+    boolean nextElement(char end) throws IOException {
+        int c = peek();
+        if (c == ',') {
+            pos++;
+            return true;
+        }
+        if (c == end) {
+            pos++;
+            return false;
+        }
+        throw error("期望','或'" + end + "'");
+    }
+
+    /*
+     * 对象或数组为空时消费结束符并返回true
+     */
+    boolean consumeIf(char c) throws IOException {
+        if (peek() == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /*
+     * 读取字段名及其后的冒号，在预计算的名称表中查找对应字段；未知字段返回null
+     */
+    JsonReadPlan.Property readKey(JsonReadPlan plan) throws IOException {
+        expect('"');
+        int start = pos;
+        int p = pos;
+        int hash = 0;
+        JsonReadPlan.Property property;
+        while (true) {
+            if (p == limit) {
+                int shift = pos;
+                if (!fill()) {
+                    throw error("字段名未结束");
+                }
+                start -= shift;
+                p -= shift;
+            }
+            char c = buffer[p];
+            if (c == '"') {
+                property = plan.find(buffer, start, p - start, hash);
+                pos = p + 1;
+                break;
+            }
+            if (c == '\\') {
+                //含转义的字段名较少见，解码后再查找
+                pos = start;
+                property = plan.find(readStringBody());
+                break;
+            }
+            hash = 31 * hash + c;
+            p++;
+        }
+        expect(':');
+        return property;
+    }
+
+    /*
+     * 读取字符串值
+     */
+    String readString() throws IOException {
+        expect('"');
+        return readStringBody();
+    }
+
+    /*
+     * 读取开引号之后的字符串内容；没有转义时直接从缓冲区构造字符串
+     */
+    private String readStringBody() throws IOException {
+        int p = pos;
+        while (true) {
+            if (p == limit) {
+                int shift = pos;
+                if (!fill()) {
+                    throw error("字符串未结束");
+                }
+                p -= shift;
+            }
+            char c = buffer[p];
+            if (c == '"') {
+                String value = new String(buffer, pos, p - pos);
+                pos = p + 1;
+                return value;
+            }
+            if (c == '\\') {
+                break;
+            }
+            p++;
+        }
+
+        //带转义的慢路径
+        StringBuilder sb = scratch();
+        sb.append(buffer, pos, p - pos);
+        pos = p;
+        while (true) {
+            char c = next("字符串未结束");
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char escaped = next("转义序列未结束");
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append(escaped);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next("unicode转义未结束"), 16);
+                        if (digit < 0) {
+                            throw error("非法的unicode转义");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    sb.append((char) code);
+                    break;
+                default:
+                    throw error("非法的转义字符'" + escaped + "'");
+            }
+        }
+    }
+
+    /*
+     * 直接从字符解析long
+     */
+    long readLong() throws IOException {
+        int end = scanNumber();
+        int p = pos;
+        boolean negative = buffer[p] == '-';
+        if (negative) {
+            p++;
+        }
+        if (p == end) {
+            throw error("非法的数字");
+        }
+        long value = 0;
+        for (; p < end; p++) {
+            int digit = buffer[p] - '0';
+            if (digit < 0 || digit > 9) {
+                throw error("期望整数");
+            }
+            //按负数累加，Long.MIN_VALUE也不会溢出
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw error("整数超出long范围");
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw error("整数超出long范围");
+            }
+            value = -value;
+        }
+        pos = end;
+        return value;
+    }
+
+    /*
+     * 直接从字符解析double：尾数不超过2^53且指数在±22以内时一次乘除即得正确结果，否则退回Double.parseDouble
+     */
+    double readDouble() throws IOException {
+        int end = scanNumber();
+        int start = pos;
+        int p = start;
+        boolean negative = buffer[p] == '-';
+        if (negative) {
+            p++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean exact = true;
+        boolean sawDigit = false;
+
+        for (; p < end && buffer[p] >= '0' && buffer[p] <= '9'; p++) {
+            sawDigit = true;
+            if (mantissa != 0 || buffer[p] != '0') {
+                digits++;
+            }
+            mantissa = mantissa * 10 + (buffer[p] - '0');
+            exact &= digits <= 18;
+        }
+        if (p < end && buffer[p] == '.') {
+            p++;
+            for (; p < end && buffer[p] >= '0' && buffer[p] <= '9'; p++) {
+                sawDigit = true;
+                if (mantissa != 0 || buffer[p] != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (buffer[p] - '0');
+                exponent--;
+                exact &= digits <= 18;
+            }
+        }
+        if (!sawDigit) {
+            throw error("非法的数字");
+        }
+        if (p < end && (buffer[p] == 'e' || buffer[p] == 'E')) {
+            p++;
+            boolean negativeExponent = false;
+            if (p < end && (buffer[p] == '+' || buffer[p] == '-')) {
+                negativeExponent = buffer[p] == '-';
+                p++;
+            }
+            int exp = 0;
+            boolean sawExponentDigit = false;
+            for (; p < end && buffer[p] >= '0' && buffer[p] <= '9'; p++) {
+                sawExponentDigit = true;
+                exp = Math.min(exp * 10 + (buffer[p] - '0'), 100_000);
+            }
+            if (!sawExponentDigit) {
+                throw error("非法的指数");
+            }
+            exponent += negativeExponent ? -exp : exp;
+        }
+        if (p != end) {
+            throw error("非法的数字");
+        }
+
+        double value;
+        if (exact && mantissa < MAX_EXACT_DOUBLE && exponent >= -22 && exponent <= 22) {
+            value = (exponent < 0) ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+            if (negative) {
+                value = -value;
+            }
+        } else {
+            value = Double.parseDouble(new String(buffer, start, end - start));
+        }
+        pos = end;
+        return value;
+    }
+
+    /*
+     * 读取数字的原始文本（用于BigDecimal等）
+     */
+    String readNumberText() throws IOException {
+        int end = scanNumber();
+        String text = new String(buffer, pos, end - pos);
+        pos = end;
+        return text;
+    }
+
+    /*
+     * 读取true/false
+     */
+    boolean readBoolean() throws IOException {
+        int c = peek();
+        if (c == 't' && matchLiteral("true")) {
+            return true;
+        }
+        if (c == 'f' && matchLiteral("false")) {
+            return false;
+        }
+        throw error("期望true或false");
+    }
+
+    /*
+     * 下一个值是null时消费它并返回true
+     */
+    boolean readNullIf() throws IOException {
+        return peek() == 'n' && matchLiteral("null");
+    }
+
+    /*
+     * 一次扫描跳过任意值（包括嵌套对象和数组）
+     */
+    void skipValue() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            pos++;
+            skipStringBody();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            while (true) {
+                char ch = next("对象或数组未结束");
+                if (ch == '"') {
+                    skipStringBody();
+                } else if (ch == '{' || ch == '[') {
+                    depth++;
+                } else if (ch == '}' || ch == ']') {
+                    if (--depth == 0) {
+                        return;
+                    }
+                }
+            }
+        } else if (c == 't' || c == 'f') {
+            readBoolean();
+        } else if (c == 'n') {
+            if (!readNullIf()) {
+                throw error("非法的值");
+            }
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            pos = scanNumber();
+        } else {
+            throw error("非法的值");
+        }
+    }
+
+    /*
+     * 确认输入已经结束（只剩空白）
+     */
+    void expectEnd() throws IOException {
+        if (peek() != -1) {
+            throw error("JSON之后存在多余内容");
+        }
+    }
+
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("JSON格式错误: " + message + "（位置 " + (consumed + pos) + "）");
+    }
+
+    private void skipStringBody() throws IOException {
+        while (true) {
+            char c = next("字符串未结束");
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                next("转义序列未结束");
+            }
+        }
+    }
+
+    /*
+     * 找到当前数字token的结束位置（不消费）
+     */
+    private int scanNumber() throws IOException {
+        if (peek() == -1) {
+            throw error("期望数字");
+        }
+        int p = pos;
+        while (true) {
+            if (p == limit) {
+                int shift = pos;
+                if (!fill()) {
+                    break;
+                }
+                p -= shift;
+            }
+            char c = buffer[p];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                p++;
+            } else {
+                break;
+            }
+        }
+        if (p == pos) {
+            throw error("期望数字");
+        }
+        return p;
+    }
+
+    private boolean matchLiteral(String literal) throws IOException {
+        int length = literal.length();
+        while (limit - pos < length) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[pos + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        pos += length;
+        return true;
+    }
+
+    private char next(String eofMessage) throws IOException {
+        if (pos == limit && !fill()) {
+            throw error(eofMessage);
+        }
+        return buffer[pos++];
+    }
+
+    private StringBuilder scratch() {
+        if (scratch == null) {
+            scratch = new StringBuilder();
+        } else {
+            scratch.setLength(0);
+        }
+        return scratch;
+    }
+
+    /*
+     * 从Reader补充数据：先把pos之后未读完的内容移到缓冲区开头，必要时扩容
+     * 返回false表示没有更多数据
+     */
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            consumed += pos;
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read <= 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+}
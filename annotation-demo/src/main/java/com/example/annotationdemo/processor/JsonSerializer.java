@@ -1,173 +1,655 @@
 package com.example.annotationdemo.processor;
 
-import java.lang.reflect.Field;
-
-import com.example.annotationdemo.annotations.JsonField;
-
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 /*
  * JSON序列化器 --基于注解控制序列化行为
  */
 public class JsonSerializer {
-    
+
+    /*
+     * NaN/Infinity的处理策略（JSON本身不支持这些值）
+     */
+    public enum NonFinitePolicy {
+        NULL,       // 输出null（默认）
+        STRING,     // 输出为字符串，例如"NaN"、"-Infinity"
+        FAIL        // 抛出IllegalArgumentException
+    }
+
+    private NonFinitePolicy nonFinitePolicy = NonFinitePolicy.NULL;
+
+    private volatile boolean useGeneratedWriters = true;
+
+    /*
+     * 通过registerWriter注册的自定义写入器，对注册类型及其子类型生效
+     */
+    private final Map<Class<?>, JsonValueWriter<?>> customWriters = new ConcurrentHashMap<>();
+
+    /*
+     * 类型分派表：每个运行时类只解析一次写入器，注册或切换设置后整体重建
+     */
+    private volatile ClassValue<JsonValueWriter<Object>> writers = newWriterTable();
+
+    public NonFinitePolicy getNonFinitePolicy() {
+        return nonFinitePolicy;
+    }
+
+    public void setNonFinitePolicy(NonFinitePolicy nonFinitePolicy) {
+        this.nonFinitePolicy = Objects.requireNonNull(nonFinitePolicy);
+    }
+
+    public boolean isUseGeneratedWriters() {
+        return useGeneratedWriters;
+    }
+
+    /*
+     * 是否优先使用编译期生成的写入器（关闭后始终走反射计划，便于对比）
+     */
+    public synchronized void setUseGeneratedWriters(boolean useGeneratedWriters) {
+        this.useGeneratedWriters = useGeneratedWriters;
+        this.writers = newWriterTable();
+    }
+
+    /*
+     * 为类型注册自定义写入器，对该类型及其子类型（含接口实现类）生效，优先于内置写入器
+     */
+    public synchronized <T> void registerWriter(Class<T> type, JsonValueWriter<? super T> writer) {
+        customWriters.put(Objects.requireNonNull(type), Objects.requireNonNull(writer));
+        this.writers = newWriterTable();
+    }
+
+    private ClassValue<JsonValueWriter<Object>> newWriterTable() {
+        boolean generated = useGeneratedWriters;
+        return new ClassValue<JsonValueWriter<Object>>() {
+            @Override
+            protected JsonValueWriter<Object> computeValue(Class<?> type) {
+                return JsonValueWriters.resolve(type, customWriters, generated);
+            }
+        };
+    }
+
     /*
      * 对象序列化为JSON字段串
      */
     public String toJson(Object obj) throws IllegalAccessException {
-        if (obj == null) return "null";
+        AppendableJsonOutput output = new AppendableJsonOutput(new StringBuilder());
+        try {
+            writeValue(obj, output);
+            return output.finishString();
+        } catch (IOException e) {
+            //StringBuilder不会抛出IOException
+            throw new UncheckedIOException(e);
+        } finally {
+            output.release();
+        }
+    }
 
-        Class<?> clazz = obj.getClass();
-        // StringBuilder json = new StringBuilder();
+    /*
+     * 对象序列化为JSON并直接写入目标（StringBuilder、Writer等）
+     */
+    public void toJson(Object obj, Appendable out) throws IOException {
+        JsonOutput output = JsonOutput.of(out);
+        try {
+            writeValue(obj, output);
+            output.flush();
+        } finally {
+            output.release();
+        }
+    }
 
-        if (isPrimitiveOrWrapper(obj)) {
-            //基本类型直接返回
-            return formatValue(obj);
-        } else if (obj instanceof String) {
-            //字符串类型
-            return "\"" + escapeJson(obj.toString()) + "\"";
-        } else if (obj instanceof Collection) {
-            //集合类型
-            return collectionToJson((Collection<?>) obj);
-        } else if (obj instanceof Map) {
-            return mapToJson((Map<?, ?>) obj);
-        } else {
-            //对象类型
-            return objectToJson(obj, clazz);
+    /*
+     * 按投影序列化，只读取和输出投影中的字段；集合中的元素逐个应用投影
+     */
+    public String toJson(Object obj, Projection projection) {
+        AppendableJsonOutput output = new AppendableJsonOutput(new StringBuilder());
+        try {
+            writeValue(obj, projection, output);
+            return output.finishString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            output.release();
         }
     }
+
     /*
-     * 格式化值
+     * 对象序列化为UTF-8字节数组
      */
-    private String formatValue(Object value) {
-        if (value == null) return "null";
-        if (value instanceof String) return "\"" + escapeJson(value.toString()) + "\"";
-        if (value instanceof Character) return "\"" + escapeJson(value.toString()) + "\"";
-        return value.toString();
+    public byte[] toJsonBytes(Object obj) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            toJsonBytes(obj, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
     }
 
     /*
-     * 对象转JSON
+     * 对象序列化为UTF-8字节并直接写入OutputStream
      */
-    private String objectToJson(Object obj, Class<?> clazz) throws IllegalAccessException {
-        StringBuilder json = new StringBuilder("{");
-        List<FieldEntry> fields = getSortedFields(clazz);
+    public void toJsonBytes(Object obj, OutputStream out) throws IOException {
+        JsonOutput output = JsonOutput.utf8(out);
+        try {
+            writeValue(obj, output);
+            output.flush();
+        } finally {
+            output.release();
+        }
+    }
 
-        boolean first = true;
-        for (FieldEntry entry : fields) {
-            Field field = entry.field;
-            field.setAccessible(true);
-            Object value = field.get(obj);
+    /*
+     * 对象序列化为UTF-8字节并写入ByteBuffer（堆内或直接内存），空间不足时抛出BufferOverflowException
+     */
+    public void toJsonBytes(Object obj, ByteBuffer out) {
+        JsonOutput output = JsonOutput.utf8(out);
+        try {
+            writeValue(obj, output);
+            output.flush();
+        } catch (IOException e) {
+            //ByteBuffer不会抛出IOException
+            throw new UncheckedIOException(e);
+        } finally {
+            output.release();
+        }
+    }
 
-            JsonField jsonField = field.getAnnotation(JsonField.class);
-            if (jsonField != null && jsonField.ignore()) {
-                continue;
-            }
+    /*
+     * 按投影序列化为UTF-8字节数组
+     */
+    public byte[] toJsonBytes(Object obj, Projection projection) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonOutput output = JsonOutput.utf8(bytes);
+        try {
+            writeValue(obj, projection, output);
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            output.release();
+        }
+        return bytes.toByteArray();
+    }
 
-            if (!first) {
-                json.append(",");
-            }
-            first = false;
+    /*
+     * 列表序列化为JSON数组，元素较多时在公共ForkJoin池上分块并行序列化，结果保持原顺序
+     */
+    public String toJsonArray(List<?> items) {
+        return toJsonArray(items, ForkJoinPool.commonPool());
+    }
 
-            //字段名
-            String fieldName = (jsonField != null && !jsonField.name().isEmpty()) ? 
-                                jsonField.name() : field.getName();
-            json.append("\"").append(fieldName).append("\":");
+    /*
+     * 列表序列化为JSON数组，分块在指定executor上并行执行
+     * 并行度由executor推断（ForkJoinPool、ThreadPoolExecutor），无法推断时顺序写入
+     */
+    public String toJsonArray(List<?> items, Executor executor) {
+        return toJsonArray(items, (Projection) null, executor);
+    }
 
-            //字段值
-            json.append(toJson(value));
+    public String toJsonArray(List<?> items, Projection projection) {
+        return toJsonArray(items, projection, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * 列表按投影序列化为JSON数组，分块在指定executor上并行执行；projection为null时输出全部字段
+     */
+    public String toJsonArray(List<?> items, Projection projection, Executor executor) {
+        StringBuilder json = new StringBuilder();
+        try {
+            new BulkJsonWriter(this, executor, BulkJsonWriter.parallelism(executor), false, projection)
+                    .write(items, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        json.append("}");
         return json.toString();
     }
 
     /*
-     * 获取排序后的字段列表
+     * 列表序列化为JSON数组并以UTF-8字节写入OutputStream，各块按顺序直接写出
+     */
+    public void toJsonArray(List<?> items, OutputStream out, Executor executor) throws IOException {
+        toJsonArray(items, out, executor, BulkJsonWriter.parallelism(executor));
+    }
+
+    /*
+     * 同上，显式指定executor的并行度（同时在途的块数按其两倍计算），不大于1时顺序写入
      */
-    private List<FieldEntry> getSortedFields(Class<?> clazz) {
-        List<FieldEntry> fields = new ArrayList<>();
+    public void toJsonArray(List<?> items, OutputStream out, Executor executor, int parallelism) throws IOException {
+        new BulkJsonWriter(this, executor, parallelism, false, null).write(items, out);
+    }
 
-        for (Field field : clazz.getDeclaredFields()) {
-            JsonField jsonField = field.getAnnotation(JsonField.class);
-            int order = (jsonField != null) ? jsonField.order() : Integer.MAX_VALUE;
-            fields.add(new FieldEntry(field, order));
+    /*
+     * 列表序列化为NDJSON（每行一个JSON对象，以换行结尾）
+     */
+    public String toNdjson(List<?> items) {
+        return toNdjson(items, ForkJoinPool.commonPool());
+    }
+
+    public String toNdjson(List<?> items, Executor executor) {
+        StringBuilder json = new StringBuilder();
+        try {
+            new BulkJsonWriter(this, executor, BulkJsonWriter.parallelism(executor), true, null).write(items, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+        return json.toString();
+    }
 
-        //按order排序
-        fields.sort(Comparator.comparingInt(FieldEntry::getOrder));
-        return fields;
+    /*
+     * 列表序列化为NDJSON并以UTF-8字节写入OutputStream
+     */
+    public void toNdjson(List<?> items, OutputStream out, Executor executor) throws IOException {
+        toNdjson(items, out, executor, BulkJsonWriter.parallelism(executor));
     }
 
     /*
-     * 集合转JSON
+     * 同上，显式指定executor的并行度
      */
-    private String collectionToJson(Collection<?> collection) throws IllegalAccessException {
-        StringBuilder json = new StringBuilder();
-        boolean first = true;
+    public void toNdjson(List<?> items, OutputStream out, Executor executor, int parallelism) throws IOException {
+        new BulkJsonWriter(this, executor, parallelism, true, null).write(items, out);
+    }
 
-        for (Object item : collection) {
-            if (!first) {
-                json.append(",");
+    /*
+     * 为对象（或Map）生成字段哈希快照，作为toJsonPatch/writePatch的基准
+     */
+    public JsonSnapshot snapshot(Object obj) {
+        return JsonSnapshot.of(obj, this);
+    }
+
+    /*
+     * 生成current相对baseline的JSON Merge Patch（RFC 7396），只包含变化的字段
+     * 嵌套对象和Map递归生成补丁，集合与数组整体替换；baseline为null时输出完整对象
+     */
+    public String toJsonPatch(Object baseline, Object current) {
+        AppendableJsonOutput output = new AppendableJsonOutput(new StringBuilder());
+        try {
+            writePatch(baseline, current, output);
+            return output.finishString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            output.release();
+        }
+    }
+
+    /*
+     * 生成current相对快照的补丁，快照随后更新为current的状态；快照为null时输出完整对象
+     */
+    public String toJsonPatch(JsonSnapshot baseline, Object current) {
+        AppendableJsonOutput output = new AppendableJsonOutput(new StringBuilder());
+        try {
+            writePatch(baseline, current, output);
+            return output.finishString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            output.release();
+        }
+    }
+
+    /*
+     * 写出补丁，返回是否有变化（没有变化时写出"{}"）
+     */
+    public boolean writePatch(Object baseline, Object current, JsonOutput out) throws IOException {
+        if (baseline != null && current != null && baseline.getClass() == current.getClass()) {
+            if (current instanceof Map) {
+                return writeMapPatch((Map<?, ?>) baseline, (Map<?, ?>) current, out);
+            }
+            if (isMergeable(current)) {
+                return writeObjectPatch(baseline, current, out);
             }
-            first = false;
-            json.append(toJson(item));
         }
-        json.append("]");
-        return json.toString();
+        //类型不同或不是对象时无法合并，只能整体替换
+        writeValue(current, out);
+        return !JsonDiff.sameValue(baseline, current);
+    }
+
+    public boolean writePatch(JsonSnapshot baseline, Object current, JsonOutput out) throws IOException {
+        if (baseline == null) {
+            writeValue(current, out);
+            return true;
+        }
+        if (!baseline.accepts(current)) {
+            throw new IllegalArgumentException("快照类型为" + baseline.getType().getName() + "，不能与"
+                    + (current == null ? "null" : current.getClass().getName()) + "比较");
+        }
+        return (baseline.plan == null) ? writeMapPatch(baseline, (Map<?, ?>) current, out)
+                : writeObjectPatch(baseline, current, out);
+    }
+
+    private boolean writeObjectPatch(JsonSnapshot baseline, Object current, JsonOutput out) throws IOException {
+        JsonClassPlan.Property[] properties = baseline.plan.properties;
+        long[] hashes = baseline.hashes;
+        JsonSnapshot[] children = baseline.children;
+        boolean changed = false;
+        out.write('{');
+        for (int i = 0; i < properties.length; i++) {
+            long hash = JsonDiff.propertyHash(properties[i], current);
+            if (hash == hashes[i]) {
+                continue;
+            }
+            hashes[i] = hash;
+            if (changed) {
+                out.write(',');
+            }
+            changed = true;
+            JsonClassPlan.Property property = properties[i];
+            if (property.type.isPrimitive() || property.formatter != null) {
+                writeProperty(property, property.accessor.get(current), out);
+            } else {
+                Object value = property.accessor.get(current);
+                out.writeName(property.jsonName);
+                children[i] = writeChildPatch(children[i], value, out);
+            }
+        }
+        out.write('}');
+        return changed;
     }
 
     /*
-     * Map转Json
+     * Map补丁：按键比较哈希，删除的键输出null
      */
-    private String mapToJson(Map<?, ?> map) throws IllegalAccessException {
-        StringBuilder json = new StringBuilder("{");
-        boolean first = true;
+    private boolean writeMapPatch(JsonSnapshot baseline, Map<?, ?> current, JsonOutput out) throws IOException {
+        String[] keys = new String[current.size()];
+        long[] hashes = new long[keys.length];
+        JsonSnapshot[] children = new JsonSnapshot[keys.length];
+        boolean[] kept = new boolean[baseline.keys.length];
+        boolean changed = false;
+        out.write('{');
+        int i = 0;
+        for (Map.Entry<?, ?> entry : current.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            Object value = entry.getValue();
+            long hash = JsonDiff.hash(value);
+            int previous = baseline.indexOf(key);
+            keys[i] = key;
+            hashes[i] = hash;
+            if (previous >= 0) {
+                kept[previous] = true;
+                if (baseline.hashes[previous] == hash) {
+                    children[i++] = baseline.children[previous];
+                    continue;
+                }
+            }
+            if (changed) {
+                out.write(',');
+            }
+            changed = true;
+            out.writeName(key);
+            children[i++] = writeChildPatch((previous >= 0) ? baseline.children[previous] : null, value, out);
+        }
+        for (int j = 0; j < kept.length; j++) {
+            if (!kept[j]) {
+                if (changed) {
+                    out.write(',');
+                }
+                changed = true;
+                out.writeName(baseline.keys[j]);
+                out.write("null");
+            }
+        }
+        out.write('}');
+        baseline.reset(keys, hashes, children);
+        return changed;
+    }
+
+    /*
+     * 子快照能合并时递归写出补丁，否则整体写出值并重建子快照
+     */
+    private JsonSnapshot writeChildPatch(JsonSnapshot child, Object value, JsonOutput out) throws IOException {
+        if (child != null && child.accepts(value)) {
+            if (child.plan == null) {
+                writeMapPatch(child, (Map<?, ?>) value, out);
+            } else {
+                writeObjectPatch(child, value, out);
+            }
+            return child;
+        }
+        writeValue(value, out);
+        return JsonSnapshot.child(value, this);
+    }
+
+    private boolean writeObjectPatch(Object baseline, Object current, JsonOutput out) throws IOException {
+        boolean changed = false;
+        out.write('{');
+        for (JsonClassPlan.Property property : JsonClassPlan.of(current.getClass()).properties) {
+            if (JsonDiff.sameProperty(property, baseline, current)) {
+                continue;
+            }
+            if (changed) {
+                out.write(',');
+            }
+            changed = true;
+            Object value = property.accessor.get(current);
+            Object previous = property.accessor.get(baseline);
+            if (property.formatter == null && previous != null && value != null
+                    && previous.getClass() == value.getClass() && isMergeable(value)) {
+                out.writeName(property.jsonName);
+                writePatch(previous, value, out);
+            } else {
+                writeProperty(property, value, out);
+            }
+        }
+        out.write('}');
+        return changed;
+    }
+
+    /*
+     * Map补丁：新增或变化的键输出新值，删除的键输出null
+     */
+    private boolean writeMapPatch(Map<?, ?> baseline, Map<?, ?> current, JsonOutput out) throws IOException {
+        boolean changed = false;
+        out.write('{');
+        for (Map.Entry<?, ?> entry : current.entrySet()) {
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            Object previous = baseline.get(key);
+            if ((previous != null || baseline.containsKey(key)) && JsonDiff.sameValue(previous, value)) {
+                continue;
+            }
+            if (changed) {
+                out.write(',');
+            }
+            changed = true;
+            out.writeName(String.valueOf(key));
+            if (previous != null && value != null && previous.getClass() == value.getClass()
+                    && isMergeable(value)) {
+                writePatch(previous, value, out);
+            } else {
+                writeValue(value, out);
+            }
+        }
+        for (Object key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                if (changed) {
+                    out.write(',');
+                }
+                changed = true;
+                out.writeName(String.valueOf(key));
+                out.write("null");
+            }
+        }
+        out.write('}');
+        return changed;
+    }
 
+    /*
+     * 把任意值写入共享的输出缓冲，每个值只需一次分派表查找
+     */
+    public void writeValue(Object obj, JsonOutput out) throws IOException {
+        if (obj == null) {
+            out.write("null");
+        } else {
+            writers.get(obj.getClass()).write(obj, out, this);
+        }
+    }
+
+    /*
+     * 分派表中类型对应的写入器
+     */
+    JsonValueWriter<Object> writerFor(Class<?> type) {
+        return writers.get(type);
+    }
+
+    /*
+     * 按投影写入值：@JsonField对象只写所选字段，集合和数组逐个元素应用投影，Map按键过滤
+     * projection为null时与writeValue相同
+     */
+    public void writeValue(Object obj, Projection projection, JsonOutput out) throws IOException {
+        if (projection == null || obj == null) {
+            writeValue(obj, out);
+            return;
+        }
+        Projection.Plan plan = projection.lastPlan(obj.getClass());
+        if (plan != null) {
+            writeProjectedObject(obj, plan, out);
+        } else if (obj instanceof Collection) {
+            out.write('[');
+            boolean first = true;
+            for (Object item : (Collection<?>) obj) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                writeValue(item, projection, out);
+            }
+            out.write(']');
+        } else if (obj instanceof Object[]) {
+            Object[] array = (Object[]) obj;
+            out.write('[');
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeValue(array[i], projection, out);
+            }
+            out.write(']');
+        } else if (obj instanceof Map) {
+            writeProjectedMap((Map<?, ?>) obj, projection, out);
+        } else if (isMergeable(obj)) {
+            writeProjectedObject(obj, projection.plan(obj.getClass()), out);
+        } else {
+            //标量值没有字段可选，整体输出
+            writeValue(obj, out);
+        }
+    }
+
+    private void writeProjectedObject(Object obj, Projection.Plan plan, JsonOutput out) throws IOException {
+        JsonClassPlan.Property[] properties = plan.properties;
+        Projection[] children = plan.children;
+        out.write('{');
+        for (int i = 0; i < properties.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            JsonClassPlan.Property property = properties[i];
+            if (children[i] == null) {
+                writeProperty(property, property.accessor.get(obj), out);
+            } else {
+                out.writeName(property.jsonName);
+                writeValue(property.accessor.get(obj), children[i], out);
+            }
+        }
+        out.write('}');
+    }
+
+    private void writeProjectedMap(Map<?, ?> map, Projection projection, JsonOutput out) throws IOException {
+        out.write('{');
+        boolean first = true;
         for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            if (!projection.includes(key)) {
+                continue;
+            }
             if (!first) {
-                json.append(",");
+                out.write(',');
             }
             first = false;
-            json.append("\"").append(entry.getKey()).append("\":").append(toJson(entry.getValue()));
+            out.writeName(key);
+            writeValue(entry.getValue(), projection.child(key), out);
         }
-        json.append("}");
-        return json.toString();
+        out.write('}');
     }
 
     /*
-     * 转义JSON特殊字符串
+     * 写入double，非有限值按nonFinitePolicy处理
      */
-    private String escapeJson(String str) {
-        return str.replace("\\", "\\\\")
-                    .replace("\"", "\\\"")
-                    .replace("\b", "\\b")
-                    .replace("\f", "\\f")
-                    .replace("\n", "\\n")
-                    .replace("\r", "\\r")
-                    .replace("\t", "\\t");            
+    public void writeDouble(double value, JsonOutput out) throws IOException {
+        if (Double.isFinite(value)) {
+            out.writeDouble(value);
+        } else {
+            writeNonFinite(Double.toString(value), out);
+        }
     }
+
     /*
-     * 判断是否是基本类型或包装类型
+     * 写入float，非有限值按nonFinitePolicy处理
      */
-    private boolean isPrimitiveOrWrapper(Object obj) {
-        return obj instanceof Number ||
-                obj instanceof Boolean ||
-                obj instanceof Character;
+    public void writeFloat(float value, JsonOutput out) throws IOException {
+        if (Float.isFinite(value)) {
+            out.writeFloat(value);
+        } else {
+            writeNonFinite(Float.toString(value), out);
+        }
+    }
+
+    private void writeNonFinite(String text, JsonOutput out) throws IOException {
+        switch (nonFinitePolicy) {
+            case STRING:
+                out.writeString(text);
+                break;
+            case FAIL:
+                throw new IllegalArgumentException("JSON不支持的数值: " + text);
+            case NULL:
+            default:
+                out.write("null");
+                break;
+        }
     }
 
     /*
-     * 字段条目（用于排序）
+     * 按反射计划把对象写为JSON对象
      */
-    private static class FieldEntry {
-        Field field;
-        int order;
+    void writePlan(Object obj, JsonClassPlan plan, JsonOutput out) throws IOException {
+        out.write('{');
+        boolean first = true;
+        for (JsonClassPlan.Property property : plan.properties) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            writeProperty(property, property.accessor.get(obj), out);
+        }
+        out.write('}');
+    }
 
-        FieldEntry(Field field, int order) {
-            this.field = field;
-            this.order = order;
+    /*
+     * 值是否按@JsonField字段输出（生成写入器或反射计划），这类值以及Map可以递归生成补丁
+     */
+    boolean isMergeable(Object value) {
+        if (value instanceof Map) {
+            return true;
         }
+        JsonValueWriter<Object> writer = writers.get(value.getClass());
+        return writer instanceof JsonValueWriters.PlanWriter || writer instanceof ClassJsonWriter;
+    }
 
-        int getOrder() {
-            return order;
+    /*
+     * 写入字段名和字段值，声明了format的字段使用预编译的格式化器
+     */
+    private void writeProperty(JsonClassPlan.Property property, Object value, JsonOutput out) throws IOException {
+        out.writeName(property.jsonName);
+        if (property.formatter != null && value != null) {
+            property.formatter.write(value, out, this);
+        } else {
+            writeValue(value, out);
         }
     }
 }
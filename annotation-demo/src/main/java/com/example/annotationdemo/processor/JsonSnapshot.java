@@ -0,0 +1,118 @@
+package com.example.annotationdemo.processor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * 对象的字段哈希快照 --作为增量序列化的基准，每个@JsonField字段只保存一个64位哈希
+ * 字段值为对象或Map时额外保存子快照（Map按键保存），这样补丁可以递归合并并正确表达删除的键
+ * JsonSerializer.writePatch写出补丁后会把快照更新为当前状态，可直接用于下一次比较；不是线程安全的
+ */
+public final class JsonSnapshot {
+
+    /*
+     * 对象快照为类计划，Map快照为null
+     */
+    final JsonClassPlan plan;
+    /*
+     * Map快照的键（按迭代顺序），对象快照为null
+     */
+    String[] keys;
+    long[] hashes;
+    JsonSnapshot[] children;
+    private Map<String, Integer> index;
+
+    private JsonSnapshot(JsonClassPlan plan, String[] keys, long[] hashes, JsonSnapshot[] children) {
+        this.plan = plan;
+        this.keys = keys;
+        this.hashes = hashes;
+        this.children = children;
+    }
+
+    /*
+     * 为对象或Map创建快照
+     */
+    static JsonSnapshot of(Object value, JsonSerializer serializer) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            String[] keys = new String[map.size()];
+            long[] hashes = new long[keys.length];
+            JsonSnapshot[] children = new JsonSnapshot[keys.length];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                keys[i] = String.valueOf(entry.getKey());
+                hashes[i] = JsonDiff.hash(entry.getValue());
+                children[i] = child(entry.getValue(), serializer);
+                i++;
+            }
+            return new JsonSnapshot(null, keys, hashes, children);
+        }
+        if (value == null || !serializer.isMergeable(value)) {
+            throw new IllegalArgumentException("只能为对象或Map创建快照: " + (value == null ? "null" : value.getClass().getName()));
+        }
+        JsonClassPlan plan = JsonClassPlan.of(value.getClass());
+        JsonClassPlan.Property[] properties = plan.properties;
+        long[] hashes = new long[properties.length];
+        JsonSnapshot[] children = new JsonSnapshot[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            hashes[i] = JsonDiff.propertyHash(properties[i], value);
+            if (!properties[i].type.isPrimitive() && properties[i].formatter == null) {
+                children[i] = child(properties[i].accessor.get(value), serializer);
+            }
+        }
+        return new JsonSnapshot(plan, null, hashes, children);
+    }
+
+    /*
+     * 可以递归合并的值（对象、Map）创建子快照，其余返回null
+     */
+    static JsonSnapshot child(Object value, JsonSerializer serializer) {
+        return (value != null && serializer.isMergeable(value)) ? of(value, serializer) : null;
+    }
+
+    /*
+     * 快照能否作为value的合并基准
+     */
+    boolean accepts(Object value) {
+        return (plan == null) ? value instanceof Map : value != null && value.getClass() == plan.type;
+    }
+
+    /*
+     * Map快照中键的位置，不存在返回-1；键较多时按需建立索引
+     */
+    int indexOf(String key) {
+        if (keys.length <= 8) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (index == null) {
+            index = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                index.put(keys[i], i);
+            }
+        }
+        Integer position = index.get(key);
+        return (position == null) ? -1 : position;
+    }
+
+    /*
+     * 用新的键集合替换Map快照的内容
+     */
+    void reset(String[] keys, long[] hashes, JsonSnapshot[] children) {
+        this.keys = keys;
+        this.hashes = hashes;
+        this.children = children;
+        this.index = null;
+    }
+
+    /*
+     * 快照对应的类型，Map快照返回Map.class
+     */
+    public Class<?> getType() {
+        return (plan == null) ? Map.class : plan.type;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+
+/*
+ * 值写入器 --JsonSerializer按运行时类型为每个类解析一次写入器，之后每个值只需一次查表
+ * 可通过JsonSerializer.registerWriter为自定义类型注册
+ */
+@FunctionalInterface
+public interface JsonValueWriter<T> {
+
+    /*
+     * 写入非null值，嵌套值交给serializer.writeValue处理
+     */
+    void write(T value, JsonOutput out, JsonSerializer serializer) throws IOException;
+}
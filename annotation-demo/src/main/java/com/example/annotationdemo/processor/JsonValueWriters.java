@@ -0,0 +1,412 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/*
+ * 内置值写入器及按类型解析 --JsonSerializer的分派表为每个运行时类调用一次resolve
+ * 解析顺序：自定义写入器（本类、父类、接口）> 内置类型 > 编译期生成的写入器 > 反射计划
+ */
+final class JsonValueWriters {
+
+    static final JsonValueWriter<Object> STRING = (value, out, serializer) -> out.writeString((String) value);
+
+    static final JsonValueWriter<Object> INTEGRAL = (value, out, serializer) -> out.writeLong(((Number) value).longValue());
+
+    static final JsonValueWriter<Object> DOUBLE = (value, out, serializer) -> serializer.writeDouble((Double) value, out);
+
+    static final JsonValueWriter<Object> FLOAT = (value, out, serializer) -> serializer.writeFloat((Float) value, out);
+
+    static final JsonValueWriter<Object> BOOLEAN = (value, out, serializer) -> out.write((Boolean) value ? "true" : "false");
+
+    /*
+     * BigDecimal、BigInteger等其他数字按toString原样写出
+     */
+    static final JsonValueWriter<Object> NUMBER = (value, out, serializer) -> out.write(value.toString());
+
+    /*
+     * CharSequence、UUID、URI、java.time类型写为字符串（java.time为ISO-8601格式）
+     */
+    static final JsonValueWriter<Object> TO_STRING = (value, out, serializer) -> out.writeString(value.toString());
+
+    /*
+     * Character写为单字符字符串，不经过toString
+     */
+    static final JsonValueWriter<Object> CHARACTER = (value, out, serializer) -> out.writeString((char) (Character) value);
+
+    /*
+     * Date写为毫秒时间戳（与Jackson默认一致），声明format的字段由格式化器处理
+     */
+    static final JsonValueWriter<Object> DATE = (value, out, serializer) -> out.writeLong(((Date) value).getTime());
+
+    /*
+     * 集合和对象数组：相邻元素类型相同时复用上一次查到的写入器
+     */
+    static final JsonValueWriter<Object> COLLECTION = (value, out, serializer) -> {
+        ElementWriter elements = new ElementWriter(serializer);
+        out.write('[');
+        boolean first = true;
+        for (Object item : (Collection<?>) value) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            elements.write(item, out);
+        }
+        out.write(']');
+    };
+
+    /*
+     * 可随机访问的List按下标遍历，不创建迭代器
+     */
+    static final JsonValueWriter<Object> LIST = (value, out, serializer) -> {
+        List<?> list = (List<?>) value;
+        ElementWriter elements = new ElementWriter(serializer);
+        out.write('[');
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            elements.write(list.get(i), out);
+        }
+        out.write(']');
+    };
+
+    static final JsonValueWriter<Object> OBJECT_ARRAY = (value, out, serializer) -> {
+        Object[] array = (Object[]) value;
+        ElementWriter elements = new ElementWriter(serializer);
+        out.write('[');
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            elements.write(array[i], out);
+        }
+        out.write(']');
+    };
+
+    /*
+     * 基本类型数组：数字直接写入输出缓冲，不装箱；int/long按缓冲区剩余空间分块批量写入
+     */
+    static final JsonValueWriter<Object> INT_ARRAY = (value, out, serializer) -> {
+        int[] array = (int[]) value;
+        out.write('[');
+        out.writeInts(array, 0, array.length);
+        out.write(']');
+    };
+
+    static final JsonValueWriter<Object> LONG_ARRAY = (value, out, serializer) -> {
+        long[] array = (long[]) value;
+        out.write('[');
+        out.writeLongs(array, 0, array.length);
+        out.write(']');
+    };
+
+    static final JsonValueWriter<Object> DOUBLE_ARRAY = (value, out, serializer) -> {
+        double[] array = (double[]) value;
+        out.write('[');
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            serializer.writeDouble(array[i], out);
+        }
+        out.write(']');
+    };
+
+    static final JsonValueWriter<Object> FLOAT_ARRAY = (value, out, serializer) -> {
+        float[] array = (float[]) value;
+        out.write('[');
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            serializer.writeFloat(array[i], out);
+        }
+        out.write(']');
+    };
+
+    static final JsonValueWriter<Object> SHORT_ARRAY = (value, out, serializer) -> {
+        short[] array = (short[]) value;
+        out.write('[');
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeInt(array[i]);
+        }
+        out.write(']');
+    };
+
+    /*
+     * byte[]写为数字数组（与JsonDeserializer读取数组的方式一致），不做Base64
+     */
+    static final JsonValueWriter<Object> BYTE_ARRAY = (value, out, serializer) -> {
+        byte[] array = (byte[]) value;
+        out.write('[');
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeInt(array[i]);
+        }
+        out.write(']');
+    };
+
+    static final JsonValueWriter<Object> BOOLEAN_ARRAY = (value, out, serializer) -> {
+        boolean[] array = (boolean[]) value;
+        out.write('[');
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(array[i] ? "true" : "false");
+        }
+        out.write(']');
+    };
+
+    /*
+     * char[]写为单字符字符串数组，与char字段的写法一致
+     */
+    static final JsonValueWriter<Object> CHAR_ARRAY = (value, out, serializer) -> {
+        char[] array = (char[]) value;
+        out.write('[');
+        for (int i = 0; i < array.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeString(array[i]);
+        }
+        out.write(']');
+    };
+
+    static final JsonValueWriter<Object> MAP = (value, out, serializer) -> {
+        out.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            out.writeName(String.valueOf(entry.getKey()));
+            serializer.writeValue(entry.getValue(), out);
+        }
+        out.write('}');
+    };
+
+    private JsonValueWriters() {}
+
+    /*
+     * 为运行时类解析写入器
+     */
+    @SuppressWarnings("unchecked")
+    static JsonValueWriter<Object> resolve(Class<?> type, Map<Class<?>, JsonValueWriter<?>> custom,
+                                           boolean useGeneratedWriters) {
+        JsonValueWriter<?> registered = findCustom(type, custom);
+        if (registered != null) {
+            return (JsonValueWriter<Object>) registered;
+        }
+        JsonValueWriter<Object> builtin = builtin(type);
+        if (builtin != null) {
+            return builtin;
+        }
+        if (useGeneratedWriters) {
+            ClassJsonWriter<?> generated = JsonWriterRegistry.find(type);
+            if (generated != null) {
+                return (JsonValueWriter<Object>) generated;
+            }
+        }
+        return new PlanWriter(JsonClassPlan.of(type));
+    }
+
+    /*
+     * 按本类、父类链、接口的顺序查找自定义写入器
+     */
+    private static JsonValueWriter<?> findCustom(Class<?> type, Map<Class<?>, JsonValueWriter<?>> custom) {
+        if (custom.isEmpty()) {
+            return null;
+        }
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            JsonValueWriter<?> writer = custom.get(c);
+            if (writer != null) {
+                return writer;
+            }
+        }
+        ArrayDeque<Class<?>> pending = new ArrayDeque<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Class<?> face : c.getInterfaces()) {
+                pending.add(face);
+            }
+        }
+        while (!pending.isEmpty()) {
+            Class<?> face = pending.poll();
+            JsonValueWriter<?> writer = custom.get(face);
+            if (writer != null) {
+                return writer;
+            }
+            for (Class<?> parent : face.getInterfaces()) {
+                pending.add(parent);
+            }
+        }
+        return null;
+    }
+
+    private static JsonValueWriter<Object> builtin(Class<?> type) {
+        if (type == String.class) {
+            return STRING;
+        }
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+            return INTEGRAL;
+        }
+        if (type == Double.class) {
+            return DOUBLE;
+        }
+        if (type == Float.class) {
+            return FLOAT;
+        }
+        if (type == Boolean.class) {
+            return BOOLEAN;
+        }
+        if (Number.class.isAssignableFrom(type)) {
+            return NUMBER;
+        }
+        if (Enum.class.isAssignableFrom(type)) {
+            //带常量体的枚举常量是匿名子类
+            return new EnumWriter(type.isEnum() ? type : type.getSuperclass());
+        }
+        if (type == Character.class) {
+            return CHARACTER;
+        }
+        if (isStringValue(type)) {
+            return TO_STRING;
+        }
+        if (Date.class.isAssignableFrom(type)) {
+            return DATE;
+        }
+        if (List.class.isAssignableFrom(type) && RandomAccess.class.isAssignableFrom(type)) {
+            return LIST;
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return COLLECTION;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            return MAP;
+        }
+        if (type.isArray()) {
+            return arrayWriter(type.getComponentType());
+        }
+        return null;
+    }
+
+    private static JsonValueWriter<Object> arrayWriter(Class<?> component) {
+        if (!component.isPrimitive()) {
+            return OBJECT_ARRAY;
+        }
+        if (component == int.class) {
+            return INT_ARRAY;
+        }
+        if (component == long.class) {
+            return LONG_ARRAY;
+        }
+        if (component == double.class) {
+            return DOUBLE_ARRAY;
+        }
+        if (component == float.class) {
+            return FLOAT_ARRAY;
+        }
+        if (component == short.class) {
+            return SHORT_ARRAY;
+        }
+        if (component == byte.class) {
+            return BYTE_ARRAY;
+        }
+        if (component == boolean.class) {
+            return BOOLEAN_ARRAY;
+        }
+        return CHAR_ARRAY;
+    }
+
+    /*
+     * 按toString写为字符串的叶子类型，ObjectEncoder的二进制格式使用同一判断
+     */
+    static boolean isStringValue(Class<?> type) {
+        return CharSequence.class.isAssignableFrom(type) || type == UUID.class || type == URI.class || isJavaTime(type);
+    }
+
+    private static boolean isJavaTime(Class<?> type) {
+        return (TemporalAccessor.class.isAssignableFrom(type) || TemporalAmount.class.isAssignableFrom(type))
+                && type.getName().startsWith("java.time.");
+    }
+
+    /*
+     * 容器元素写入：记住上一个元素的类型和写入器，同类型的连续元素不再查表
+     */
+    static final class ElementWriter {
+        private final JsonSerializer serializer;
+        private Class<?> type;
+        private JsonValueWriter<Object> writer;
+
+        ElementWriter(JsonSerializer serializer) {
+            this.serializer = serializer;
+        }
+
+        void write(Object item, JsonOutput out) throws IOException {
+            if (item == null) {
+                out.write("null");
+                return;
+            }
+            if (item.getClass() != type) {
+                type = item.getClass();
+                writer = serializer.writerFor(type);
+            }
+            writer.write(item, out, serializer);
+        }
+    }
+
+    /*
+     * 枚举：每个常量预先生成转义后的"NAME"，按ordinal取用
+     */
+    static final class EnumWriter implements JsonValueWriter<Object> {
+        private final String[] names;
+
+        EnumWriter(Class<?> enumType) {
+            Object[] constants = enumType.getEnumConstants();
+            this.names = new String[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                StringBuilder sb = new StringBuilder().append('"');
+                JsonOutput.appendEscaped(sb, ((Enum<?>) constants[i]).name());
+                names[i] = sb.append('"').toString();
+            }
+        }
+
+        @Override
+        public void write(Object value, JsonOutput out, JsonSerializer serializer) throws IOException {
+            out.write(names[((Enum<?>) value).ordinal()]);
+        }
+    }
+
+    /*
+     * 按@JsonField反射计划逐个字段写出，计划在解析时绑定，写入时不再查找
+     */
+    static final class PlanWriter implements JsonValueWriter<Object> {
+        private final JsonClassPlan plan;
+
+        PlanWriter(JsonClassPlan plan) {
+            this.plan = plan;
+        }
+
+        @Override
+        public void write(Object value, JsonOutput out, JsonSerializer serializer) throws IOException {
+            serializer.writePlan(value, plan, out);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.annotationdemo.processor;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*
+ * 生成写入器注册表 --每个类加载器只用ServiceLoader扫描一次，记录目标类名到写入器类名的映射
+ * 之后按类的类加载器查表，每个类只创建一次写入器，结果保存在该类的ClassValue中
+ * 某个服务条目无法加载时记录警告并跳过，对应的类继续使用反射序列化
+ */
+final class JsonWriterRegistry {
+
+    private static final Logger LOG = LogManager.getLogger(JsonWriterRegistry.class);
+
+    /*
+     * 没有生成写入器时的占位值
+     */
+    private static final Object NONE = new Object();
+
+    /*
+     * 单个类加载器扫描时最多容忍的错误数：无法读取配置文件时迭代器会反复抛出同一个错误
+     */
+    private static final int MAX_PROVIDER_ERRORS = 64;
+
+    /*
+     * 类加载器到"目标类名 -> 写入器类名"的映射；值只含字符串，不引用类加载器定义的类，
+     * 弱引用键因此不会被值间接持有，类加载器可以被卸载
+     */
+    private static final Map<ClassLoader, Map<String, String>> LOADERS = new WeakHashMap<>();
+
+    private static final ClassValue<Object> WRITERS = new ClassValue<Object>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            ClassLoader loader = loader(type);
+            String writerName = writers(loader).get(type.getName());
+            if (writerName == null) {
+                return NONE;
+            }
+            ClassJsonWriter<?> writer = newWriter(writerName, loader);
+            return (writer != null && writer.type() == type) ? writer : NONE;
+        }
+    };
+
+    private JsonWriterRegistry() {}
+
+    /*
+     * 查找类对应的生成写入器，没有时返回null
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ClassJsonWriter<T> find(Class<T> type) {
+        Object writer = WRITERS.get(type);
+        return (writer == NONE) ? null : (ClassJsonWriter<T>) writer;
+    }
+
+    /*
+     * 启动类加载器的类与ServiceLoader的约定一致，按系统类加载器扫描
+     */
+    private static ClassLoader loader(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        return (loader != null) ? loader : ClassLoader.getSystemClassLoader();
+    }
+
+    private static Map<String, String> writers(ClassLoader loader) {
+        synchronized (LOADERS) {
+            Map<String, String> writers = LOADERS.get(loader);
+            if (writers == null) {
+                writers = scan(loader);
+                LOADERS.put(loader, writers);
+            }
+            return writers;
+        }
+    }
+
+    /*
+     * 逐个加载服务条目，单个条目失败不影响其他条目
+     */
+    private static Map<String, String> scan(ClassLoader loader) {
+        Map<String, String> writers = new HashMap<>();
+        Iterator<ClassJsonWriter> providers = ServiceLoader.load(ClassJsonWriter.class, loader).iterator();
+        int errors = 0;
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+                ClassJsonWriter<?> writer = providers.next();
+                writers.putIfAbsent(writer.type().getName(), writer.getClass().getName());
+            } catch (ServiceConfigurationError e) {
+                LOG.warn("跳过无法加载的ClassJsonWriter服务条目，相关类使用反射序列化: {}", e.toString());
+                if (++errors >= MAX_PROVIDER_ERRORS) {
+                    LOG.warn("ClassJsonWriter服务条目错误过多，停止扫描");
+                    break;
+                }
+            }
+        }
+        return writers;
+    }
+
+    private static ClassJsonWriter<?> newWriter(String name, ClassLoader loader) {
+        try {
+            return Class.forName(name, true, loader).asSubclass(ClassJsonWriter.class)
+                    .getConstructor().newInstance();
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            LOG.warn("创建写入器{}失败，使用反射序列化: {}", name, e.toString());
+            return null;
+        }
+    }
+}
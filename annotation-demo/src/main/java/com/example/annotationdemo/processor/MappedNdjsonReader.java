@@ -0,0 +1,190 @@
+package com.example.annotationdemo.processor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/*
+ * NDJSON文件读取 --文件以只读方式内存映射，按换行边界切分成若干视图
+ * 切分和逐行读取都只是ByteBuffer视图，不拷贝文件内容，各部分可以交给不同线程解析
+ */
+public class MappedNdjsonReader implements Closeable {
+
+    /*
+     * 单个映射段的上限（MappedByteBuffer最大2GB），段边界同样落在换行处
+     */
+    private static final int SEGMENT_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final JsonDeserializer deserializer;
+    private final int segmentSize;
+    private final List<ByteBuffer> segments = new ArrayList<>();
+
+    public MappedNdjsonReader(Path path, JsonDeserializer deserializer) throws IOException {
+        this(path, deserializer, SEGMENT_SIZE);
+    }
+
+    /*
+     * 测试用：较小的段上限，让普通大小的文件也跨越段边界
+     */
+    MappedNdjsonReader(Path path, JsonDeserializer deserializer, int segmentSize) throws IOException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize必须为正数: " + segmentSize);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.deserializer = deserializer;
+        this.segmentSize = segmentSize;
+        try {
+            mapSegments(channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /*
+     * 把文件切成最多parts个部分，每部分都以完整的行结束
+     */
+    public List<ByteBuffer> split(int parts) {
+        if (parts <= 0) {
+            throw new IllegalArgumentException("parts必须为正数: " + parts);
+        }
+        long total = 0;
+        for (ByteBuffer segment : segments) {
+            total += segment.remaining();
+        }
+        long target = Math.max(1, (total + parts - 1) / parts);
+
+        List<ByteBuffer> result = new ArrayList<>(parts);
+        for (ByteBuffer segment : segments) {
+            int start = 0;
+            int limit = segment.limit();
+            while (start < limit) {
+                int end = (int) Math.min(limit, start + target);
+                end = (end == limit) ? limit : lineEnd(segment, end);
+                result.add(slice(segment, start, end));
+                start = end;
+            }
+        }
+        return result;
+    }
+
+    /*
+     * 依次读取每条记录
+     */
+    public <T> void forEach(Class<T> type, Consumer<? super T> action) {
+        for (ByteBuffer segment : segments) {
+            forEachLine(segment, line -> action.accept(deserializer.fromJson(line, type)));
+        }
+    }
+
+    /*
+     * 在公共ForkJoin池上并行读取全部记录，结果保持文件中的顺序
+     */
+    public <T> List<T> readAll(Class<T> type) {
+        return readAll(type, ForkJoinPool.commonPool());
+    }
+
+    public <T> List<T> readAll(Class<T> type, Executor executor) {
+        int parallelism = (executor instanceof ForkJoinPool) ?
+                ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        for (ByteBuffer part : split(parallelism * 4)) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                List<T> records = new ArrayList<>();
+                forEachLine(part, line -> records.add(deserializer.fromJson(line, type)));
+                return records;
+            }, executor));
+        }
+        List<T> result = new ArrayList<>();
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                result.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            for (CompletableFuture<List<T>> future : futures) {
+                future.cancel(false);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return result;
+    }
+
+    /*
+     * 把buffer中的每一行（不含换行符）作为视图交给action，空行跳过
+     */
+    public static void forEachLine(ByteBuffer buffer, Consumer<ByteBuffer> action) {
+        int limit = buffer.limit();
+        int start = buffer.position();
+        while (start < limit) {
+            int end = start;
+            while (end < limit && buffer.get(end) != '\n') {
+                end++;
+            }
+            int contentEnd = (end > start && buffer.get(end - 1) == '\r') ? end - 1 : end;
+            if (contentEnd > start) {
+                action.accept(slice(buffer, start, contentEnd));
+            }
+            start = end + 1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        segments.clear();
+        channel.close();
+    }
+
+    /*
+     * 按segmentSize映射文件，除最后一段外每段截到最后一个换行之后
+     */
+    private void mapSegments(long size) throws IOException {
+        long position = 0;
+        while (position < size) {
+            int length = (int) Math.min(segmentSize, size - position);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int end = length;
+            if (position + length < size) {
+                while (end > 0 && mapped.get(end - 1) != '\n') {
+                    end--;
+                }
+                if (end == 0) {
+                    throw new IOException("单行超过映射段上限" + segmentSize + "字节");
+                }
+            }
+            segments.add(slice(mapped, 0, end));
+            position += end;
+        }
+    }
+
+    /*
+     * 从from开始找到下一个换行之后的位置
+     */
+    private static int lineEnd(ByteBuffer buffer, int from) {
+        int limit = buffer.limit();
+        while (from < limit && buffer.get(from - 1) != '\n') {
+            from++;
+        }
+        return from;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int end) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(end).position(start);
+        return view.slice();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.annotationdemo.processor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * NDJSON文件写入 --记录按@JsonField映射序列化后直接写进内存映射区域
+ * 当前区域写满时在记录起点重新映射下一段，区域大小按需翻倍；关闭时把文件截断到实际长度
+ */
+public class MappedNdjsonWriter implements Closeable {
+
+    static final int DEFAULT_REGION_SIZE = 16 << 20;
+    private static final int MAX_REGION_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final JsonSerializer serializer;
+    private int regionSize;
+    private long regionStart;
+    private MappedByteBuffer region;
+    private JsonOutput output;
+
+    public MappedNdjsonWriter(Path path, JsonSerializer serializer) throws IOException {
+        this(path, serializer, DEFAULT_REGION_SIZE);
+    }
+
+    /*
+     * regionSize为初始映射区域大小，单条记录放不下时自动扩大
+     */
+    public MappedNdjsonWriter(Path path, JsonSerializer serializer, int regionSize) throws IOException {
+        if (regionSize <= 0) {
+            throw new IllegalArgumentException("regionSize必须为正数: " + regionSize);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.serializer = serializer;
+        this.regionSize = regionSize;
+        map(0);
+    }
+
+    /*
+     * 写入一条记录（一行JSON加换行）
+     */
+    public void write(Object record) throws IOException {
+        while (true) {
+            int start = region.position();
+            try {
+                serializer.writeValue(record, output);
+                output.write('\n');
+                output.flush();
+                return;
+            } catch (BufferOverflowException e) {
+                //记录写到一半区域满了：从记录起点重新映射，仍放不下说明区域太小
+                if (start == 0) {
+                    if (regionSize >= MAX_REGION_SIZE) {
+                        map(regionStart);
+                        throw new IOException("单条记录超过映射区域上限" + MAX_REGION_SIZE + "字节");
+                    }
+                    regionSize = Math.min(MAX_REGION_SIZE, regionSize * 2);
+                }
+                map(regionStart + start);
+            } catch (IOException | RuntimeException e) {
+                //丢弃写了一半的记录，保证后续记录不受影响
+                region.position(start);
+                output.release();
+                output = JsonOutput.utf8(region);
+                throw e;
+            }
+        }
+    }
+
+    public void writeAll(Iterable<?> records) throws IOException {
+        for (Object record : records) {
+            write(record);
+        }
+    }
+
+    /*
+     * 已写入的字节数
+     */
+    public long size() {
+        return regionStart + region.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            long size = size();
+            region.force();
+            region = null;
+            output.release();
+            channel.truncate(size);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /*
+     * 从文件偏移position开始映射新区域，输出缓冲随区域一起重建
+     */
+    private void map(long position) throws IOException {
+        if (output != null) {
+            output.release();
+        }
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, regionSize);
+        regionStart = position;
+        output = JsonOutput.utf8(region);
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.annotationdemo.processor;
+
+import java.nio.ByteBuffer;
+
+/*
+ * MessagePack解码 --扩展类型(ext)读取时作为未知值跳过
+ */
+final class MessagePackDecoder extends BinaryDecoder {
+
+    private static final int FIXEXT1 = 0xD4;
+    private static final int FIXEXT16 = 0xD8;
+    private static final int EXT8 = 0xC7;
+    private static final int EXT16 = 0xC8;
+    private static final int EXT32 = 0xC9;
+
+    MessagePackDecoder(ByteBuffer in) {
+        super(in);
+    }
+
+    @Override
+    int peek() {
+        if (pos >= in.limit()) {
+            throw error("数据不完整");
+        }
+        int b = in.get(pos) & 0xFF;
+        if (b <= 0x7F || b >= 0xE0) {
+            return INTEGER;
+        }
+        if (b <= 0x8F) {
+            return MAP;
+        }
+        if (b <= 0x9F) {
+            return ARRAY;
+        }
+        if (b <= 0xBF) {
+            return STRING;
+        }
+        switch (b) {
+            case MessagePackEncoder.NIL:
+                return NULL;
+            case MessagePackEncoder.FALSE:
+            case MessagePackEncoder.TRUE:
+                return BOOLEAN;
+            case MessagePackEncoder.BIN8:
+            case MessagePackEncoder.BIN16:
+            case MessagePackEncoder.BIN32:
+                return BINARY;
+            case MessagePackEncoder.FLOAT32:
+            case MessagePackEncoder.FLOAT64:
+                return FLOAT;
+            case MessagePackEncoder.UINT8:
+            case MessagePackEncoder.UINT16:
+            case MessagePackEncoder.UINT32:
+            case MessagePackEncoder.UINT64:
+            case MessagePackEncoder.INT8:
+            case MessagePackEncoder.INT16:
+            case MessagePackEncoder.INT32:
+            case MessagePackEncoder.INT64:
+                return INTEGER;
+            case MessagePackEncoder.STR8:
+            case MessagePackEncoder.STR16:
+            case MessagePackEncoder.STR32:
+                return STRING;
+            case MessagePackEncoder.ARRAY16:
+            case MessagePackEncoder.ARRAY32:
+                return ARRAY;
+            case MessagePackEncoder.MAP16:
+            case MessagePackEncoder.MAP32:
+                return MAP;
+            default:
+                //ext / fixext，以及保留的0xC1
+                return BINARY;
+        }
+    }
+
+    @Override
+    void readNull() {
+        if (u8() != MessagePackEncoder.NIL) {
+            throw error("期望null");
+        }
+    }
+
+    @Override
+    boolean readBoolean() {
+        int b = u8();
+        if (b == MessagePackEncoder.TRUE) {
+            return true;
+        }
+        if (b == MessagePackEncoder.FALSE) {
+            return false;
+        }
+        throw error("期望布尔值");
+    }
+
+    @Override
+    long readLong() {
+        if (peek() == FLOAT) {
+            double value = readDouble();
+            long integral = (long) value;
+            if (integral != value) {
+                throw error("期望整数: " + value);
+            }
+            return integral;
+        }
+        int b = u8();
+        if (b <= 0x7F) {
+            return b;
+        }
+        if (b >= 0xE0) {
+            return (byte) b;
+        }
+        switch (b) {
+            case MessagePackEncoder.UINT8:
+                return u8();
+            case MessagePackEncoder.UINT16:
+                return u16();
+            case MessagePackEncoder.UINT32:
+                return i32() & 0xFFFFFFFFL;
+            case MessagePackEncoder.UINT64:
+                long value = i64();
+                if (value < 0) {
+                    throw error("整数超出long范围");
+                }
+                return value;
+            case MessagePackEncoder.INT8:
+                return (byte) u8();
+            case MessagePackEncoder.INT16:
+                return (short) u16();
+            case MessagePackEncoder.INT32:
+                return i32();
+            case MessagePackEncoder.INT64:
+                return i64();
+            default:
+                pos--;
+                throw error("期望整数");
+        }
+    }
+
+    @Override
+    double readDouble() {
+        int kind = peek();
+        if (kind == INTEGER) {
+            return readLong();
+        }
+        if (kind != FLOAT) {
+            throw error("期望数字");
+        }
+        return (u8() == MessagePackEncoder.FLOAT32) ? Float.intBitsToFloat(i32()) : Double.longBitsToDouble(i64());
+    }
+
+    @Override
+    String readString() {
+        if (peek() != STRING) {
+            throw error("期望字符串");
+        }
+        int length = readStringLength();
+        int start = pos;
+        skipBytes(length);
+        return utf8(start, length);
+    }
+
+    @Override
+    byte[] readBinary() {
+        int b = u8();
+        long length;
+        switch (b) {
+            case MessagePackEncoder.BIN8:
+                length = u8();
+                break;
+            case MessagePackEncoder.BIN16:
+                length = u16();
+                break;
+            case MessagePackEncoder.BIN32:
+                length = i32() & 0xFFFFFFFFL;
+                break;
+            default:
+                pos--;
+                throw error("期望字节串");
+        }
+        int size = length(length);
+        int start = pos;
+        skipBytes(size);
+        return bytes(start, size);
+    }
+
+    @Override
+    int readStringLength() {
+        int b = u8();
+        if (b >= 0xA0 && b <= 0xBF) {
+            return b & 0x1F;
+        }
+        switch (b) {
+            case MessagePackEncoder.STR8:
+                return u8();
+            case MessagePackEncoder.STR16:
+                return u16();
+            case MessagePackEncoder.STR32:
+                return length(i32() & 0xFFFFFFFFL);
+            default:
+                pos--;
+                throw error("期望字符串");
+        }
+    }
+
+    @Override
+    int readArrayHeader() {
+        int b = u8();
+        if (b >= 0x90 && b <= 0x9F) {
+            return b & 0x0F;
+        }
+        if (b == MessagePackEncoder.ARRAY16) {
+            return u16();
+        }
+        if (b == MessagePackEncoder.ARRAY32) {
+            return length(i32() & 0xFFFFFFFFL);
+        }
+        pos--;
+        throw error("期望数组");
+    }
+
+    @Override
+    int readMapHeader() {
+        int b = u8();
+        if (b >= 0x80 && b <= 0x8F) {
+            return b & 0x0F;
+        }
+        if (b == MessagePackEncoder.MAP16) {
+            return u16();
+        }
+        if (b == MessagePackEncoder.MAP32) {
+            return length(i32() & 0xFFFFFFFFL);
+        }
+        pos--;
+        throw error("期望对象");
+    }
+
+    @Override
+    void skipValue() {
+        switch (peek()) {
+            case NULL:
+            case BOOLEAN:
+                pos++;
+                break;
+            case INTEGER:
+                readLongBits();
+                break;
+            case FLOAT:
+                skipBytes((u8() == MessagePackEncoder.FLOAT32) ? 4 : 8);
+                break;
+            case STRING:
+                skipBytes(readStringLength());
+                break;
+            case ARRAY:
+                for (int i = readArrayHeader(); i > 0; i--) {
+                    skipValue();
+                }
+                break;
+            case MAP:
+                for (int i = readMapHeader(); i > 0; i--) {
+                    skipValue();
+                    skipValue();
+                }
+                break;
+            default:
+                skipBinaryOrExt();
+                break;
+        }
+    }
+
+    /*
+     * 跳过整数，uint64超出long范围也不报错
+     */
+    private void readLongBits() {
+        int b = u8();
+        switch (b) {
+            case MessagePackEncoder.UINT8:
+            case MessagePackEncoder.INT8:
+                skipBytes(1);
+                break;
+            case MessagePackEncoder.UINT16:
+            case MessagePackEncoder.INT16:
+                skipBytes(2);
+                break;
+            case MessagePackEncoder.UINT32:
+            case MessagePackEncoder.INT32:
+                skipBytes(4);
+                break;
+            case MessagePackEncoder.UINT64:
+            case MessagePackEncoder.INT64:
+                skipBytes(8);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void skipBinaryOrExt() {
+        int b = u8();
+        switch (b) {
+            case MessagePackEncoder.BIN8:
+                skipBytes(u8());
+                break;
+            case MessagePackEncoder.BIN16:
+                skipBytes(u16());
+                break;
+            case MessagePackEncoder.BIN32:
+                skipBytes(i32() & 0xFFFFFFFFL);
+                break;
+            case EXT8:
+                skipBytes(u8() + 1L);
+                break;
+            case EXT16:
+                skipBytes(u16() + 1L);
+                break;
+            case EXT32:
+                skipBytes((i32() & 0xFFFFFFFFL) + 1);
+                break;
+            default:
+                if (b >= FIXEXT1 && b <= FIXEXT16) {
+                    //类型字节 + 1/2/4/8/16字节数据
+                    skipBytes(1 + (1 << (b - FIXEXT1)));
+                    break;
+                }
+                pos--;
+                throw error("非法的MessagePack格式字节: " + b);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/*
+ * MessagePack编码器 --整数选用最短的fixint/intN/uintN，字符串和容器使用定长头部
+ * 能用float精确表示的double写为float32，其余写为float64
+ */
+public class MessagePackEncoder extends BinaryEncoder {
+
+    static final int NIL = 0xC0;
+    static final int FALSE = 0xC2;
+    static final int TRUE = 0xC3;
+    static final int BIN8 = 0xC4;
+    static final int BIN16 = 0xC5;
+    static final int BIN32 = 0xC6;
+    static final int FLOAT32 = 0xCA;
+    static final int FLOAT64 = 0xCB;
+    static final int UINT8 = 0xCC;
+    static final int UINT16 = 0xCD;
+    static final int UINT32 = 0xCE;
+    static final int UINT64 = 0xCF;
+    static final int INT8 = 0xD0;
+    static final int INT16 = 0xD1;
+    static final int INT32 = 0xD2;
+    static final int INT64 = 0xD3;
+    static final int STR8 = 0xD9;
+    static final int STR16 = 0xDA;
+    static final int STR32 = 0xDB;
+    static final int ARRAY16 = 0xDC;
+    static final int ARRAY32 = 0xDD;
+    static final int MAP16 = 0xDE;
+    static final int MAP32 = 0xDF;
+
+    public MessagePackEncoder(OutputStream stream) {
+        super(stream);
+    }
+
+    public MessagePackEncoder(ByteBuffer byteBuffer) {
+        super(byteBuffer);
+    }
+
+    @Override
+    public void writeNull() throws IOException {
+        put(NIL);
+    }
+
+    @Override
+    public void writeBoolean(boolean value) throws IOException {
+        put(value ? TRUE : FALSE);
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException {
+        ensure(9);
+        if (value >= 0) {
+            if (value < 0x80) {
+                put1((int) value);
+            } else if (value <= 0xFF) {
+                put1(UINT8);
+                put1((int) value);
+            } else if (value <= 0xFFFF) {
+                put1(UINT16);
+                put2((int) value);
+            } else if (value <= 0xFFFFFFFFL) {
+                put1(UINT32);
+                put4((int) value);
+            } else {
+                put1(UINT64);
+                put8(value);
+            }
+        } else if (value >= -32) {
+            put1((int) value);
+        } else if (value >= Byte.MIN_VALUE) {
+            put1(INT8);
+            put1((int) value);
+        } else if (value >= Short.MIN_VALUE) {
+            put1(INT16);
+            put2((int) value);
+        } else if (value >= Integer.MIN_VALUE) {
+            put1(INT32);
+            put4((int) value);
+        } else {
+            put1(INT64);
+            put8(value);
+        }
+    }
+
+    @Override
+    public void writeDouble(double value) throws IOException {
+        float single = (float) value;
+        if (single == value) {
+            writeFloat(single);
+            return;
+        }
+        ensure(9);
+        put1(FLOAT64);
+        put8(Double.doubleToLongBits(value));
+    }
+
+    @Override
+    public void writeFloat(float value) throws IOException {
+        ensure(5);
+        put1(FLOAT32);
+        put4(Float.floatToIntBits(value));
+    }
+
+    @Override
+    public void writeStartArray(int size) throws IOException {
+        ensure(5);
+        if (size < 16) {
+            put1(0x90 | size);
+        } else if (size <= 0xFFFF) {
+            put1(ARRAY16);
+            put2(size);
+        } else {
+            put1(ARRAY32);
+            put4(size);
+        }
+    }
+
+    @Override
+    public void writeStartObject(int size) throws IOException {
+        ensure(5);
+        if (size < 16) {
+            put1(0x80 | size);
+        } else if (size <= 0xFFFF) {
+            put1(MAP16);
+            put2(size);
+        } else {
+            put1(MAP32);
+            put4(size);
+        }
+    }
+
+    @Override
+    public void writeName(JsonName name) throws IOException {
+        putBytes(name.msgpack);
+    }
+
+    @Override
+    public void writeName(String name) throws IOException {
+        writeString(name);
+    }
+
+    @Override
+    void writeStringHeader(int length) throws IOException {
+        ensure(5);
+        if (length < 32) {
+            put1(0xA0 | length);
+        } else if (length <= 0xFF) {
+            put1(STR8);
+            put1(length);
+        } else if (length <= 0xFFFF) {
+            put1(STR16);
+            put2(length);
+        } else {
+            put1(STR32);
+            put4(length);
+        }
+    }
+
+    /*
+     * 字段名的完整编码（头部加UTF-8），由JsonName预先生成
+     */
+    static byte[] encodeStr(byte[] utf8) {
+        int length = utf8.length;
+        int header = (length < 32) ? 1 : (length <= 0xFF) ? 2 : (length <= 0xFFFF) ? 3 : 5;
+        byte[] encoded = new byte[header + length];
+        switch (header) {
+            case 1:
+                encoded[0] = (byte) (0xA0 | length);
+                break;
+            case 2:
+                encoded[0] = (byte) STR8;
+                encoded[1] = (byte) length;
+                break;
+            case 3:
+                encoded[0] = (byte) STR16;
+                encoded[1] = (byte) (length >> 8);
+                encoded[2] = (byte) length;
+                break;
+            default:
+                encoded[0] = (byte) STR32;
+                encoded[1] = (byte) (length >> 24);
+                encoded[2] = (byte) (length >> 16);
+                encoded[3] = (byte) (length >> 8);
+                encoded[4] = (byte) length;
+                break;
+        }
+        System.arraycopy(utf8, 0, encoded, header, length);
+        return encoded;
+    }
+}
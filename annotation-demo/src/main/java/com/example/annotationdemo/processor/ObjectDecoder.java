@@ -0,0 +1,335 @@
+package com.example.annotationdemo.processor;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 格式无关的对象解码 --与ObjectEncoder对应，按JsonReadPlan把CBOR/MessagePack读回@JsonField模型
+ * 字段名在字节上直接匹配计划中的哈希表，不为字段名创建字符串
+ */
+public class ObjectDecoder {
+
+    private final JsonDeserializer deserializer;
+
+    public ObjectDecoder() {
+        this(new JsonDeserializer());
+    }
+
+    /*
+     * deserializer用于JSON格式
+     */
+    public ObjectDecoder(JsonDeserializer deserializer) {
+        this.deserializer = deserializer;
+    }
+
+    public <T> T decode(byte[] data, Class<T> type, DataFormat format) {
+        return decode(ByteBuffer.wrap(data), type, format);
+    }
+
+    /*
+     * 读取buffer的剩余部分，不改变其position
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T decode(ByteBuffer data, Class<T> type, DataFormat format) {
+        if (format == DataFormat.JSON) {
+            return deserializer.fromJson(data, type);
+        }
+        BinaryDecoder decoder = (format == DataFormat.CBOR) ? new CborDecoder(data) : new MessagePackDecoder(data);
+        Object value = readValue(decoder, type);
+        decoder.expectEnd();
+        return type.isPrimitive() ? (T) value : type.cast(value);
+    }
+
+    /*
+     * 按声明类型读取一个值
+     */
+    private Object readValue(BinaryDecoder in, Type type) {
+        if (in.peek() == BinaryDecoder.NULL) {
+            in.readNull();
+            return null;
+        }
+        Class<?> raw = JsonDeserializer.rawType(type);
+        if (raw == String.class) {
+            return in.readString();
+        } else if (raw == Integer.class || raw == int.class) {
+            return toInt(in, in.readLong());
+        } else if (raw == Long.class || raw == long.class) {
+            return in.readLong();
+        } else if (raw == Double.class || raw == double.class) {
+            return in.readDouble();
+        } else if (raw == Float.class || raw == float.class) {
+            return (float) in.readDouble();
+        } else if (raw == Short.class || raw == short.class) {
+            return (short) toInt(in, in.readLong());
+        } else if (raw == Byte.class || raw == byte.class) {
+            return (byte) toInt(in, in.readLong());
+        } else if (raw == Boolean.class || raw == boolean.class) {
+            return in.readBoolean();
+        } else if (raw == Character.class || raw == char.class) {
+            return readChar(in);
+        } else if (raw == BigDecimal.class) {
+            return new BigDecimal(readNumberText(in));
+        } else if (raw == BigInteger.class) {
+            return new BigInteger(readNumberText(in));
+        } else if (raw.isEnum()) {
+            return readEnum(in, raw);
+        } else if (raw.isArray()) {
+            return readArray(in, raw.getComponentType());
+        } else if (Collection.class.isAssignableFrom(raw)) {
+            return readCollection(in, JsonDeserializer.newCollection(raw), JsonDeserializer.typeArgument(type, 0));
+        } else if (Map.class.isAssignableFrom(raw)) {
+            return readMap(in, JsonDeserializer.typeArgument(type, 1));
+        } else if (raw == Object.class) {
+            return readNatural(in);
+        }
+        return readObject(in, JsonReadPlan.of(raw));
+    }
+
+    /*
+     * 读取对象：已知字段按类型直接写入，未知字段跳过
+     */
+    private Object readObject(BinaryDecoder in, JsonReadPlan plan) {
+        int size = in.readMapHeader();
+        Object obj = plan.newInstance();
+        for (int i = 0; size < 0 ? !in.readBreakIf() : i < size; i++) {
+            JsonReadPlan.Property property = in.readKey(plan);
+            if (property == null) {
+                in.skipValue();
+            } else {
+                readProperty(in, property, obj);
+            }
+        }
+        return obj;
+    }
+
+    /*
+     * 读取单个字段值，基本类型字段通过类型化setter写入避免装箱
+     */
+    private void readProperty(BinaryDecoder in, JsonReadPlan.Property property, Object obj) {
+        if (in.peek() == BinaryDecoder.NULL) {
+            in.readNull();
+            if (!property.primitive) {
+                property.setter.set(obj, null);
+            }
+            return;
+        }
+        FieldSetter setter = property.setter;
+        if (property.formatter != null) {
+            setter.set(obj, parseFormatted(in, property.formatter));
+            return;
+        }
+        switch (property.kind) {
+            case JsonReadPlan.KIND_STRING:
+                setter.set(obj, in.readString());
+                break;
+            case JsonReadPlan.KIND_INT:
+                if (property.primitive) {
+                    setter.setInt(obj, toInt(in, in.readLong()));
+                } else {
+                    setter.set(obj, toInt(in, in.readLong()));
+                }
+                break;
+            case JsonReadPlan.KIND_LONG:
+                if (property.primitive) {
+                    setter.setLong(obj, in.readLong());
+                } else {
+                    setter.set(obj, in.readLong());
+                }
+                break;
+            case JsonReadPlan.KIND_DOUBLE:
+                if (property.primitive) {
+                    setter.setDouble(obj, in.readDouble());
+                } else {
+                    setter.set(obj, in.readDouble());
+                }
+                break;
+            case JsonReadPlan.KIND_FLOAT:
+                if (property.primitive) {
+                    setter.setDouble(obj, in.readDouble());
+                } else {
+                    setter.set(obj, (float) in.readDouble());
+                }
+                break;
+            case JsonReadPlan.KIND_SHORT:
+                if (property.primitive) {
+                    setter.setInt(obj, toInt(in, in.readLong()));
+                } else {
+                    setter.set(obj, (short) toInt(in, in.readLong()));
+                }
+                break;
+            case JsonReadPlan.KIND_BYTE:
+                if (property.primitive) {
+                    setter.setInt(obj, toInt(in, in.readLong()));
+                } else {
+                    setter.set(obj, (byte) toInt(in, in.readLong()));
+                }
+                break;
+            case JsonReadPlan.KIND_BOOLEAN:
+                //Boolean装箱使用缓存实例，不分配
+                setter.set(obj, in.readBoolean());
+                break;
+            case JsonReadPlan.KIND_CHAR:
+                if (property.primitive) {
+                    setter.setInt(obj, readChar(in));
+                } else {
+                    setter.set(obj, readChar(in));
+                }
+                break;
+            default:
+                setter.set(obj, readValue(in, property.genericType));
+                break;
+        }
+    }
+
+    /*
+     * 固定小数位格式写出的是数字，NaN/Infinity按原值写出，都不经过formatter.parse
+     */
+    private static Object parseFormatted(BinaryDecoder in, JsonFormatter formatter) {
+        if (in.peek() == BinaryDecoder.FLOAT) {
+            double value = in.readDouble();
+            if (!Double.isFinite(value)) {
+                return value;
+            }
+            return formatter.parse(BigDecimal.valueOf(value).toPlainString());
+        }
+        String text = (in.peek() == BinaryDecoder.STRING) ? in.readString() : readNumberText(in);
+        try {
+            return formatter.parse(text);
+        } catch (RuntimeException e) {
+            IllegalArgumentException error = in.error("无法按format \"" + formatter.pattern + "\"解析: " + text);
+            error.initCause(e);
+            throw error;
+        }
+    }
+
+    /*
+     * 数字读成十进制文本：整数原样，浮点按最短表示，字符串（超出long的大数）原样
+     */
+    private static String readNumberText(BinaryDecoder in) {
+        switch (in.peek()) {
+            case BinaryDecoder.INTEGER:
+                return Long.toString(in.readLong());
+            case BinaryDecoder.FLOAT:
+                return BigDecimal.valueOf(in.readDouble()).toString();
+            case BinaryDecoder.STRING:
+                return in.readString();
+            default:
+                throw in.error("期望数字");
+        }
+    }
+
+    private Collection<Object> readCollection(BinaryDecoder in, Collection<Object> collection, Type elementType) {
+        int size = in.readArrayHeader();
+        for (int i = 0; size < 0 ? !in.readBreakIf() : i < size; i++) {
+            collection.add(readValue(in, elementType));
+        }
+        return collection;
+    }
+
+    private Object readArray(BinaryDecoder in, Class<?> componentType) {
+        int size = in.readArrayHeader();
+        if (size < 0) {
+            List<Object> elements = new ArrayList<>();
+            readCollection(in, elements, componentType);
+            Object array = Array.newInstance(componentType, elements.size());
+            for (int i = 0; i < elements.size(); i++) {
+                Array.set(array, i, elements.get(i));
+            }
+            return array;
+        }
+        //定长数组直接按元素个数分配，基本类型数组不经过装箱
+        if (componentType == int.class) {
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = toInt(in, in.readLong());
+            }
+            return values;
+        }
+        if (componentType == long.class) {
+            long[] values = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = in.readLong();
+            }
+            return values;
+        }
+        if (componentType == double.class) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = in.readDouble();
+            }
+            return values;
+        }
+        Object array = Array.newInstance(componentType, size);
+        for (int i = 0; i < size; i++) {
+            Array.set(array, i, readValue(in, componentType));
+        }
+        return array;
+    }
+
+    private Map<String, Object> readMap(BinaryDecoder in, Type valueType) {
+        int size = in.readMapHeader();
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; size < 0 ? !in.readBreakIf() : i < size; i++) {
+            String key = in.readString();
+            map.put(key, readValue(in, valueType));
+        }
+        return map;
+    }
+
+    /*
+     * 没有声明类型时按数据自身结构读取：对象为Map，数组为List，整数为Long，小数为Double
+     */
+    private Object readNatural(BinaryDecoder in) {
+        switch (in.peek()) {
+            case BinaryDecoder.MAP:
+                return readMap(in, Object.class);
+            case BinaryDecoder.ARRAY:
+                return readCollection(in, new ArrayList<>(), Object.class);
+            case BinaryDecoder.STRING:
+                return in.readString();
+            case BinaryDecoder.BOOLEAN:
+                return in.readBoolean();
+            case BinaryDecoder.INTEGER:
+                return in.readLong();
+            case BinaryDecoder.FLOAT:
+                return in.readDouble();
+            case BinaryDecoder.BINARY:
+                return in.readBinary();
+            default:
+                throw in.error("意外的数据");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readEnum(BinaryDecoder in, Class<?> type) {
+        String name = in.readString();
+        try {
+            return Enum.valueOf((Class) type, name);
+        } catch (IllegalArgumentException e) {
+            throw in.error("未知的枚举值" + name);
+        }
+    }
+
+    private static char readChar(BinaryDecoder in) {
+        String value = in.readString();
+        if (value.length() != 1) {
+            throw in.error("期望单个字符");
+        }
+        return value.charAt(0);
+    }
+
+    private static int toInt(BinaryDecoder in, long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw in.error("整数超出int范围");
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.annotationdemo.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/*
+ * 格式无关的对象编码 --按JsonClassPlan（名称、顺序、ignore、format）遍历对象，交给Encoder写出
+ * 同一个@JsonField模型可以输出为JSON、CBOR或MessagePack
+ * 叶子类型与JsonValueWriters一致：UUID、URI、CharSequence、java.time写为字符串，Date写为毫秒时间戳
+ */
+public class ObjectEncoder {
+
+    private final JsonSerializer serializer;
+
+    public ObjectEncoder() {
+        this(new JsonSerializer());
+    }
+
+    /*
+     * serializer用于JSON格式（生成写入器、NaN策略）
+     */
+    public ObjectEncoder(JsonSerializer serializer) {
+        this.serializer = serializer;
+    }
+
+    public byte[] encode(Object value, DataFormat format) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            encode(value, format, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public void encode(Object value, DataFormat format, OutputStream out) throws IOException {
+        if (format == DataFormat.JSON) {
+            serializer.toJsonBytes(value, out);
+            return;
+        }
+        Encoder encoder = (format == DataFormat.CBOR) ? new CborEncoder(out) : new MessagePackEncoder(out);
+        encodeAndFlush(value, encoder);
+    }
+
+    /*
+     * 直接写入ByteBuffer（堆内或直接内存），空间不足时抛出BufferOverflowException
+     */
+    public void encode(Object value, DataFormat format, ByteBuffer out) {
+        if (format == DataFormat.JSON) {
+            serializer.toJsonBytes(value, out);
+            return;
+        }
+        Encoder encoder = (format == DataFormat.CBOR) ? new CborEncoder(out) : new MessagePackEncoder(out);
+        try {
+            encodeAndFlush(value, encoder);
+        } catch (IOException e) {
+            //ByteBuffer不会抛出IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void encodeAndFlush(Object value, Encoder encoder) throws IOException {
+        try {
+            encode(value, encoder);
+            encoder.flush();
+        } finally {
+            encoder.release();
+        }
+    }
+
+    /*
+     * 把任意值写入encoder
+     */
+    public void encode(Object value, Encoder out) throws IOException {
+        if (value == null) {
+            out.writeNull();
+        } else if (value instanceof String) {
+            out.writeString((String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeFloat((Float) value);
+        } else if (value instanceof Number) {
+            out.writeNumber(value.toString());
+        } else if (value instanceof Boolean) {
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            out.writeString(value.toString());
+        } else if (value instanceof Enum) {
+            out.writeString(((Enum<?>) value).name());
+        } else if (value instanceof Collection) {
+            encodeCollection((Collection<?>) value, out);
+        } else if (value instanceof Map) {
+            encodeMap((Map<?, ?>) value, out);
+        } else if (value.getClass().isArray()) {
+            encodeArray(value, out);
+        } else if (JsonValueWriters.isStringValue(value.getClass())) {
+            out.writeString(value.toString());
+        } else if (value instanceof Date) {
+            out.writeLong(((Date) value).getTime());
+        } else {
+            encodeObject(value, out);
+        }
+    }
+
+    private void encodeObject(Object obj, Encoder out) throws IOException {
+        JsonClassPlan.Property[] properties = JsonClassPlan.of(obj.getClass()).properties;
+        out.writeStartObject(properties.length);
+        for (JsonClassPlan.Property property : properties) {
+            out.writeName(property.jsonName);
+            Object value = property.accessor.get(obj);
+            if (property.formatter != null && value != null) {
+                encodeFormatted(property.formatter, value, out);
+            } else {
+                encode(value, out);
+            }
+        }
+        out.writeEndObject();
+    }
+
+    /*
+     * format字段：文本格式写为字符串，数字格式写为数字（NaN/Infinity保持原值）
+     */
+    private void encodeFormatted(JsonFormatter formatter, Object value, Encoder out) throws IOException {
+        if (formatter.isTextual()) {
+            out.writeString(formatter.format(value));
+        } else if ((value instanceof Double || value instanceof Float) && !Double.isFinite(((Number) value).doubleValue())) {
+            out.writeDouble(((Number) value).doubleValue());
+        } else {
+            out.writeNumber(formatter.format(value));
+        }
+    }
+
+    private void encodeCollection(Collection<?> collection, Encoder out) throws IOException {
+        out.writeStartArray(collection.size());
+        for (Object item : collection) {
+            encode(item, out);
+        }
+        out.writeEndArray();
+    }
+
+    private void encodeMap(Map<?, ?> map, Encoder out) throws IOException {
+        out.writeStartObject(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            out.writeName(String.valueOf(entry.getKey()));
+            encode(entry.getValue(), out);
+        }
+        out.writeEndObject();
+    }
+
+    private void encodeArray(Object array, Encoder out) throws IOException {
+        if (array instanceof Object[]) {
+            Object[] values = (Object[]) array;
+            out.writeStartArray(values.length);
+            for (Object value : values) {
+                encode(value, out);
+            }
+        } else if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            out.writeStartArray(values.length);
+            for (int value : values) {
+                out.writeLong(value);
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            out.writeStartArray(values.length);
+            for (long value : values) {
+                out.writeLong(value);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            out.writeStartArray(values.length);
+            for (double value : values) {
+                out.writeDouble(value);
+            }
+        } else {
+            int length = Array.getLength(array);
+            out.writeStartArray(length);
+            for (int i = 0; i < length; i++) {
+                encode(Array.get(array, i), out);
+            }
+        }
+        out.writeEndArray();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.annotationdemo.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * 字段投影（稀疏字段集） --按@JsonField输出名选择要序列化的字段，嵌套字段用点号表示，如"owner.username"
+ * 每个类首次使用时编译为只含所选字段的计划并缓存，未选中的字段不会被读取；投影不可变，可在线程间共享
+ * 集合、数组中的元素逐个应用投影，Map按键过滤
+ */
+public final class Projection {
+
+    /*
+     * 字段名 -> 子投影，子投影为null表示整个字段值
+     */
+    private final Map<String, Projection> fields;
+
+    /*
+     * 每个类的计划保存在ClassValue中，不阻止类被卸载；字段名不存在时computeValue抛出异常，不缓存结果
+     */
+    private final ClassValue<Plan> plans = new ClassValue<Plan>() {
+        @Override
+        protected Plan computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+    private volatile Plan last;
+
+    private Projection(Map<String, Projection> fields) {
+        this.fields = fields;
+    }
+
+    /*
+     * 由字段路径创建投影，例如 of("id", "username", "owner.email")
+     */
+    public static Projection of(String... paths) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        for (String path : paths) {
+            addPath(tree, path.trim());
+        }
+        return build(tree);
+    }
+
+    /*
+     * 解析逗号分隔的字段列表（如请求参数 fields=id,username,owner.email）
+     */
+    public static Projection parse(String spec) {
+        return of(spec.split(","));
+    }
+
+    /*
+     * 投影中的顶层字段名
+     */
+    public Set<String> getFields() {
+        return Collections.unmodifiableSet(fields.keySet());
+    }
+
+    /*
+     * 获取类对应的投影计划，首次使用时编译并按@JsonField元数据校验字段名
+     */
+    Plan plan(Class<?> type) {
+        Plan plan = last;
+        if (plan != null && plan.type == type) {
+            return plan;
+        }
+        plan = plans.get(type);
+        last = plan;
+        return plan;
+    }
+
+    /*
+     * 最近一次使用的计划，列表中元素类型相同，通常只需比较一次类型
+     */
+    Plan lastPlan(Class<?> type) {
+        Plan plan = last;
+        return (plan != null && plan.type == type) ? plan : null;
+    }
+
+    boolean includes(String name) {
+        return fields.containsKey(name);
+    }
+
+    Projection child(String name) {
+        return fields.get(name);
+    }
+
+    private Plan compile(Class<?> type) {
+        JsonClassPlan classPlan = JsonClassPlan.of(type);
+        List<JsonClassPlan.Property> selected = new ArrayList<>();
+        List<Projection> children = new ArrayList<>();
+        for (JsonClassPlan.Property property : classPlan.properties) {
+            if (fields.containsKey(property.name)) {
+                selected.add(property);
+                children.add(fields.get(property.name));
+            }
+        }
+        if (selected.size() != fields.size()) {
+            List<String> unknown = new ArrayList<>(fields.keySet());
+            for (JsonClassPlan.Property property : selected) {
+                unknown.remove(property.name);
+            }
+            throw new IllegalArgumentException(type.getName() + "没有可输出的字段" + unknown);
+        }
+        return new Plan(type, selected.toArray(new JsonClassPlan.Property[0]), children.toArray(new Projection[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addPath(Map<String, Object> tree, String path) {
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("投影字段不能为空");
+        }
+        int dot = path.indexOf('.');
+        String name = (dot < 0) ? path : path.substring(0, dot);
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("非法的投影字段: " + path);
+        }
+        if (dot < 0) {
+            //选中整个字段，覆盖之前的子字段选择
+            tree.put(name, null);
+            return;
+        }
+        if (tree.containsKey(name) && tree.get(name) == null) {
+            return;
+        }
+        Map<String, Object> child = (Map<String, Object>) tree.computeIfAbsent(name, key -> new LinkedHashMap<>());
+        addPath(child, path.substring(dot + 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Projection build(Map<String, Object> tree) {
+        Map<String, Projection> fields = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : tree.entrySet()) {
+            Object child = entry.getValue();
+            fields.put(entry.getKey(), (child == null) ? null : build((Map<String, Object>) child));
+        }
+        return new Projection(fields);
+    }
+
+    @Override
+    public String toString() {
+        List<String> paths = new ArrayList<>();
+        collectPaths("", paths);
+        return String.join(",", paths);
+    }
+
+    private void collectPaths(String prefix, List<String> paths) {
+        for (Map.Entry<String, Projection> entry : fields.entrySet()) {
+            if (entry.getValue() == null) {
+                paths.add(prefix + entry.getKey());
+            } else {
+                entry.getValue().collectPaths(prefix + entry.getKey() + ".", paths);
+            }
+        }
+    }
+
+    /*
+     * 投影在某个类上的计划：按输出顺序排列的所选字段及其子投影
+     */
+    static final class Plan {
+        final Class<?> type;
+        final JsonClassPlan.Property[] properties;
+        final Projection[] children;
+
+        Plan(Class<?> type, JsonClassPlan.Property[] properties, Projection[] children) {
+            this.type = type;
+            this.properties = properties;
+            this.children = children;
+        }
+    }
+}
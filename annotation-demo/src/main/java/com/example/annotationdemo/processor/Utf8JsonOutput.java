@@ -0,0 +1,266 @@
+package com.example.annotationdemo.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/*
+ * UTF-8字节输出 --字符直接编码进字节缓冲，写满后批量写入OutputStream或ByteBuffer
+ * ASCII字符单字节写入，不经过String到byte[]的编码器
+ */
+final class Utf8JsonOutput extends JsonOutput {
+
+    private final OutputStream stream;
+    private final ByteBuffer byteBuffer;
+    private byte[] buffer = JsonBuffers.takeBytes();
+    private int position;
+
+    Utf8JsonOutput(OutputStream stream) {
+        this.stream = stream;
+        this.byteBuffer = null;
+    }
+
+    Utf8JsonOutput(ByteBuffer byteBuffer) {
+        this.stream = null;
+        this.byteBuffer = byteBuffer;
+    }
+
+    @Override
+    public void write(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) c;
+    }
+
+    @Override
+    public void write(String str) throws IOException {
+        writeChars(str, false);
+    }
+
+    @Override
+    public void writeString(String str) throws IOException {
+        write('"');
+        writeChars(str, true);
+        write('"');
+    }
+
+    /*
+     * 与writeString(String.valueOf(c))输出相同；单个代理字符必然不成对，输出unicode转义
+     */
+    @Override
+    public void writeString(char c) throws IOException {
+        if (position + 8 > buffer.length) {
+            flushBuffer();
+        }
+        byte[] buf = buffer;
+        buf[position++] = '"';
+        char escaped = (c < 0x80) ? ESCAPES[c] : (Character.isSurrogate(c) ? 'u' : 0);
+        if (escaped == 'u') {
+            buf[position++] = '\\';
+            buf[position++] = 'u';
+            buf[position++] = (byte) HEX[c >> 12];
+            buf[position++] = (byte) HEX[(c >> 8) & 0xF];
+            buf[position++] = (byte) HEX[(c >> 4) & 0xF];
+            buf[position++] = (byte) HEX[c & 0xF];
+        } else if (escaped != 0) {
+            buf[position++] = '\\';
+            buf[position++] = (byte) escaped;
+        } else if (c < 0x80) {
+            buf[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[position++] = (byte) (0xC0 | (c >> 6));
+            buf[position++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+            buf[position++] = (byte) (0xE0 | (c >> 12));
+            buf[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        buf[position++] = '"';
+    }
+
+    @Override
+    public void writeLong(long value) throws IOException {
+        if (position + JsonNumbers.MAX_LONG_LENGTH > buffer.length) {
+            flushBuffer();
+        }
+        position = JsonNumbers.writeLong(value, buffer, position);
+    }
+
+    @Override
+    void writeInts(int[] values, int from, int to) throws IOException {
+        int i = from;
+        while (i < to) {
+            int end = Math.min(to, i + (buffer.length - position) / (JsonNumbers.MAX_LONG_LENGTH + 1));
+            if (end == i) {
+                flushBuffer();
+                continue;
+            }
+            byte[] buf = buffer;
+            int pos = position;
+            for (; i < end; i++) {
+                if (i > from) {
+                    buf[pos++] = ',';
+                }
+                pos = JsonNumbers.writeLong(values[i], buf, pos);
+            }
+            position = pos;
+        }
+    }
+
+    @Override
+    void writeLongs(long[] values, int from, int to) throws IOException {
+        int i = from;
+        while (i < to) {
+            int end = Math.min(to, i + (buffer.length - position) / (JsonNumbers.MAX_LONG_LENGTH + 1));
+            if (end == i) {
+                flushBuffer();
+                continue;
+            }
+            byte[] buf = buffer;
+            int pos = position;
+            for (; i < end; i++) {
+                if (i > from) {
+                    buf[pos++] = ',';
+                }
+                pos = JsonNumbers.writeLong(values[i], buf, pos);
+            }
+            position = pos;
+        }
+    }
+
+    @Override
+    public void writeDouble(double value) throws IOException {
+        if (position + JsonNumbers.MAX_DOUBLE_LENGTH > buffer.length) {
+            flushBuffer();
+        }
+        int end = JsonNumbers.writeDouble(value, buffer, position);
+        if (end < 0) {
+            write(Double.toString(value));
+        } else {
+            position = end;
+        }
+    }
+
+    @Override
+    public void writeFloat(float value) throws IOException {
+        if (position + JsonNumbers.MAX_DOUBLE_LENGTH > buffer.length) {
+            flushBuffer();
+        }
+        int end = JsonNumbers.writeFloat(value, buffer, position);
+        if (end < 0) {
+            write(Float.toString(value));
+        } else {
+            position = end;
+        }
+    }
+
+    @Override
+    public void writeName(JsonName name) throws IOException {
+        writeBytes(name.utf8);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if (stream != null) {
+            stream.flush();
+        }
+    }
+
+    @Override
+    void release() {
+        if (buffer != null) {
+            JsonBuffers.releaseBytes(buffer);
+            buffer = null;
+        }
+    }
+
+    /*
+     * 批量写入已编码字节
+     */
+    void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                writeToTarget(bytes, 0, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    /*
+     * 逐字符编码为UTF-8，escape为true时同时转义JSON特殊字符
+     */
+    private void writeChars(String str, boolean escape) throws IOException {
+        int length = str.length();
+        byte[] buf = buffer;
+        for (int i = 0; i < length; i++) {
+            //每个字符最多占6个字节（unicode转义）
+            if (position + 6 > buf.length) {
+                flushBuffer();
+            }
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                char escaped = escape ? ESCAPES[c] : 0;
+                if (escaped == 0) {
+                    buf[position++] = (byte) c;
+                } else if (escaped == 'u') {
+                    buf[position++] = '\\';
+                    buf[position++] = 'u';
+                    buf[position++] = '0';
+                    buf[position++] = '0';
+                    buf[position++] = (byte) HEX[c >> 4];
+                    buf[position++] = (byte) HEX[c & 0xF];
+                } else {
+                    buf[position++] = '\\';
+                    buf[position++] = (byte) escaped;
+                }
+            } else if (c < 0x800) {
+                buf[position++] = (byte) (0xC0 | (c >> 6));
+                buf[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                    buf[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buf[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buf[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buf[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (escape) {
+                    //不成对的代理字符无法编码为UTF-8，字符串内输出unicode转义，读回后仍是原字符
+                    buf[position++] = '\\';
+                    buf[position++] = 'u';
+                    buf[position++] = (byte) HEX[c >> 12];
+                    buf[position++] = (byte) HEX[(c >> 8) & 0xF];
+                    buf[position++] = (byte) HEX[(c >> 4) & 0xF];
+                    buf[position++] = (byte) HEX[c & 0xF];
+                } else {
+                    //原样写入时与String.getBytes一致替换为'?'
+                    buf[position++] = '?';
+                }
+            } else {
+                buf[position++] = (byte) (0xE0 | (c >> 12));
+                buf[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        writeToTarget(buffer, 0, position);
+        position = 0;
+    }
+
+    private void writeToTarget(byte[] bytes, int offset, int length) throws IOException {
+        if (stream != null) {
+            stream.write(bytes, offset, length);
+        } else {
+            byteBuffer.put(bytes, offset, length);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.annotationdemo.processor;
+
+import com.example.annotationdemo.annotations.Validate;
+
+/*
+ * 验证错误 --对应类中的一条@Validate规则，每条规则只有一个实例，验证失败时直接复用
+ * 消息文本在第一次读取时才拼接
+ */
+public final class ValidationError {
+
+    private final Class<?> type;
+    private final ValidationRule rule;
+    private final int index;
+    private String message;
+    private String text;
+
+    ValidationError(Class<?> type, ValidationRule rule, int index) {
+        this.type = type;
+        this.rule = rule;
+        this.index = index;
+    }
+
+    /*
+     * 被验证的类
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    public String getField() {
+        return rule.field;
+    }
+
+    public Validate.Type getRule() {
+        return rule.type;
+    }
+
+    /*
+     * 规则在类中的序号，即validateToMask结果中的位
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /*
+     * 自定义消息，没有时为默认消息
+     */
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            result = rule.message.isEmpty() ? rule.defaultMessage() : rule.message;
+            message = result;
+        }
+        return result;
+    }
+
+    /*
+     * "字段名: 消息"，与validate返回的字符串一致
+     */
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            result = rule.field + ": " + getMessage();
+            text = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.annotationdemo.processor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/*
+ * 验证用的文本匹配 --EMAIL/PHONE为手写匹配，接受的输入与原正则完全一致，不分配对象
+ * 自定义正则按表达式缓存编译结果，缓存有上限
+ */
+public final class ValidationMatchers {
+
+    /*
+     * 缓存的正则数量上限，超过后新表达式照常编译但不再缓存
+     */
+    static final int MAX_CACHED_PATTERNS = 256;
+
+    private static final ConcurrentMap<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    private ValidationMatchers() {}
+
+    /*
+     * 等价于Pattern.matches("^[A-Za-z0-9+_.-]+@(.+)$", text)
+     * 本地部分不含'@'，所以第一个'@'之前必须全是允许字符；'.'不匹配行终止符
+     */
+    public static boolean isEmail(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length && isLocalChar(text.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i >= length - 1 || text.charAt(i) != '@') {
+            return false;
+        }
+        for (i++; i < length; i++) {
+            if (isLineTerminator(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * 等价于Pattern.matches("^1[3-9]\\d{9}$", text)，\d只匹配ASCII数字
+     */
+    public static boolean isPhone(CharSequence text) {
+        if (text.length() != 11 || text.charAt(0) != '1') {
+            return false;
+        }
+        char second = text.charAt(1);
+        if (second < '3' || second > '9') {
+            return false;
+        }
+        for (int i = 2; i < 11; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * 等价于text.toString().trim().isEmpty()：trim去掉首尾不大于' '的字符，结果为空即所有字符都不大于' '
+     * 直接扫描，不创建trim后的新字符串
+     */
+    public static boolean isBlank(CharSequence text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * 取得编译好的正则，相同表达式共享一个Pattern（Pattern本身线程安全）
+     */
+    public static Pattern pattern(String regex) {
+        Pattern pattern = PATTERNS.get(regex);
+        if (pattern != null) {
+            return pattern;
+        }
+        pattern = Pattern.compile(regex);
+        if (PATTERNS.size() < MAX_CACHED_PATTERNS) {
+            Pattern existing = PATTERNS.putIfAbsent(regex, pattern);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return pattern;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        //U+2028/U+2029的转义写法在源码中会被当作换行，这里用数值比较
+        return c == '\n' || c == '\r' || c == 0x85 || c == 0x2028 || c == 0x2029;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.annotationdemo.processor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * 批量验证选项 --不可变，每个设置方法返回新的实例
+ */
+public final class ValidationOptions {
+
+    private static final ValidationOptions DEFAULTS = new ValidationOptions(false, Long.MAX_VALUE, ForkJoinPool.commonPool());
+
+    private final boolean failFast;
+    private final long maxErrors;
+    private final Executor executor;
+
+    private ValidationOptions(boolean failFast, long maxErrors, Executor executor) {
+        this.failFast = failFast;
+        this.maxErrors = maxErrors;
+        this.executor = executor;
+    }
+
+    /*
+     * 默认：验证全部行，不限错误数，使用公共ForkJoin池
+     */
+    public static ValidationOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /*
+     * 发现第一行无效数据后停止（并行时已在处理的块会完成当前行）
+     */
+    public ValidationOptions failFast(boolean failFast) {
+        return new ValidationOptions(failFast, maxErrors, executor);
+    }
+
+    /*
+     * 失败的规则累计达到maxErrors后停止，并行时统计结果可能略超上限
+     */
+    public ValidationOptions maxErrors(long maxErrors) {
+        if (maxErrors <= 0) {
+            throw new IllegalArgumentException("maxErrors必须大于0: " + maxErrors);
+        }
+        return new ValidationOptions(failFast, maxErrors, executor);
+    }
+
+    /*
+     * 执行分块验证的线程池
+     */
+    public ValidationOptions executor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor不能为空");
+        }
+        return new ValidationOptions(failFast, maxErrors, executor);
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    public long getMaxErrors() {
+        return maxErrors;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /*
+     * 是否需要在验证途中检查停止条件
+     */
+    boolean isBounded() {
+        return failFast || maxErrors != Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.annotationdemo.processor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.annotationdemo.annotations.Validate;
+
+/*
+ * 每个类的验证计划 --首次使用时解析@Validate，之后验证只遍历字段访问器和规则数组
+ * 没有@Validate的字段不进入计划；规则按字段顺序连续编号
+ * 计划本身就是解释执行的验证器，也是编译生成验证器的输入
+ * 整数/浮点基本类型字段用getLong/getDouble读取并交给testLong/testFloat/testDouble，数值规则不装箱
+ */
+final class ValidationPlan implements Validator<Object> {
+
+    private static final ClassValue<ValidationPlan> PLANS = new ClassValue<ValidationPlan>() {
+        @Override
+        protected ValidationPlan computeValue(Class<?> type) {
+            return new ValidationPlan(type);
+        }
+    };
+
+    final Class<?> type;
+    final FieldRules[] fields;
+    final int ruleCount;
+
+    /*
+     * 按规则序号排列的错误对象
+     */
+    final ValidationError[] errors;
+
+    private ValidationPlan(Class<?> type) {
+        this.type = type;
+        List<FieldRules> fields = new ArrayList<>();
+        List<ValidationError> errors = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            //getAnnotationsByType同时展开@Validates容器
+            Validate[] validations = field.getAnnotationsByType(Validate.class);
+            List<ValidationRule> rules = new ArrayList<>(validations.length);
+            for (Validate validate : validations) {
+                ValidationRule rule = ValidationRule.of(field.getName(), validate);
+                if (rule != null) {
+                    rules.add(rule);
+                    errors.add(new ValidationError(type, rule, errors.size()));
+                }
+            }
+            if (rules.isEmpty()) {
+                continue;
+            }
+            int offset = errors.size() - rules.size();
+            fields.add(new FieldRules(field, FieldAccessors.of(field), rules.toArray(new ValidationRule[0]), offset));
+        }
+        this.fields = fields.toArray(new FieldRules[0]);
+        this.errors = errors.toArray(new ValidationError[0]);
+        this.ruleCount = this.errors.length;
+    }
+
+    static ValidationPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /*
+     * 以下为解释执行：逐字段读取一次值，逐条检查规则
+     */
+    @Override
+    public boolean isValid(Object obj) {
+        for (FieldRules field : fields) {
+            if (field.failures(obj, true) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long validateToMask(Object obj) {
+        long mask = 0;
+        for (FieldRules field : fields) {
+            if (field.offset >= Long.SIZE) {
+                break;
+            }
+            mask |= field.failures(obj, false) << field.offset;
+        }
+        return mask;
+    }
+
+    @Override
+    public int countFailures(Object obj, long[] counts) {
+        int failures = 0;
+        for (FieldRules field : fields) {
+            long failed = field.failures(obj, false);
+            if (failed == 0) {
+                continue;
+            }
+            failures += Long.bitCount(failed);
+            if (counts != null) {
+                for (long bits = failed; bits != 0; bits &= bits - 1) {
+                    counts[field.offset + Long.numberOfTrailingZeros(bits)]++;
+                }
+            }
+        }
+        return failures;
+    }
+
+    /*
+     * 字段值的读取方式
+     */
+    enum ValueKind {
+        OBJECT, LONG, FLOAT, DOUBLE;
+
+        static ValueKind of(Class<?> type) {
+            if (type == int.class || type == long.class || type == short.class || type == byte.class) {
+                return LONG;
+            }
+            if (type == float.class) {
+                return FLOAT;
+            }
+            if (type == double.class) {
+                return DOUBLE;
+            }
+            return OBJECT;
+        }
+    }
+
+    /*
+     * 字段及其规则，offset为第一条规则的序号
+     */
+    static final class FieldRules {
+        final Field field;
+        final String name;
+        final FieldAccessor accessor;
+        final ValidationRule[] rules;
+        final ValueKind kind;
+        final int offset;
+
+        FieldRules(Field field, FieldAccessor accessor, ValidationRule[] rules, int offset) {
+            if (rules.length > Long.SIZE) {
+                throw new IllegalArgumentException("字段" + field.getName() + "的验证规则超过" + Long.SIZE + "条");
+            }
+            this.field = field;
+            this.name = field.getName();
+            this.accessor = accessor;
+            this.rules = rules;
+            this.kind = ValueKind.of(field.getType());
+            this.offset = offset;
+        }
+
+        /*
+         * 字段值只读取一次；第j条规则失败时结果的第j位为1，first为true时遇到第一条失败即返回
+         */
+        long failures(Object obj, boolean first) {
+            long failed = 0;
+            switch (kind) {
+                case LONG: {
+                    long value = accessor.getLong(obj);
+                    for (int j = 0; j < rules.length; j++) {
+                        if (!rules[j].testLong(value)) {
+                            failed |= 1L << j;
+                            if (first) {
+                                break;
+                            }
+                        }
+                    }
+                    break;
+                }
+                case FLOAT: {
+                    float value = (float) accessor.getDouble(obj);
+                    for (int j = 0; j < rules.length; j++) {
+                        if (!rules[j].testFloat(value)) {
+                            failed |= 1L << j;
+                            if (first) {
+                                break;
+                            }
+                        }
+                    }
+                    break;
+                }
+                case DOUBLE: {
+                    double value = accessor.getDouble(obj);
+                    for (int j = 0; j < rules.length; j++) {
+                        if (!rules[j].testDouble(value)) {
+                            failed |= 1L << j;
+                            if (first) {
+                                break;
+                            }
+                        }
+                    }
+                    break;
+                }
+                default: {
+                    Object value = accessor.get(obj);
+                    for (int j = 0; j < rules.length; j++) {
+                        if (!rules[j].test(value)) {
+                            failed |= 1L << j;
+                            if (first) {
+                                break;
+                            }
+                        }
+                    }
+                    break;
+                }
+            }
+            return failed;
+        }
+    }
+}
@@ -1,110 +1,163 @@
 package com.example.annotationdemo.processor;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
-import com.example.annotationdemo.annotations.Validate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * 验证处理器 - 基于注解进行数据验证
  */
 public class ValidationProcessor {
+
+    private static final Logger LOG = LogManager.getLogger(ValidationProcessor.class);
+
+    /*
+     * 掩码能表示的规则数
+     */
+    public static final int MAX_MASK_RULES = 64;
+
+    /*
+     * 是否为每个类在运行时编译专用验证器（默认关闭，首次编译一个类需要数百毫秒）
+     */
+    private volatile boolean compileValidators;
+
     /*
-     * 验证对象
+     * 验证对象：规则来自每个类缓存的ValidationPlan，预热后不再访问反射元数据
      */
     public List<String> validate(Object obj) throws IllegalAccessException {
-        List<String> errors = new ArrayList<>();
         Class<?> clazz = obj.getClass();
 
-        System.out.println("\n🔍 验证对象: " + clazz.getSimpleName());
-        Field[] fields = clazz.getDeclaredFields();
-        for (Field field : fields) {
-            field.setAccessible(true);
-            Object value = field.get(obj);
-
-            //获取字段上的所有validate注解
-            Validate[] validations = field.getAnnotationsByType(Validate.class);
-            for (Validate validate : validations) {
-                String error = validateField(field.getName(), value, validate);
-                if (error != null) {
-                    errors.add(error);
-                }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("🔍 验证对象: {}", clazz.getSimpleName());
+        }
+        List<ValidationError> failed = validateErrors(obj);
+        List<String> errors = new ArrayList<>(failed.size());
+        for (ValidationError error : failed) {
+            errors.add(error.toString());
+        }
+        return errors;
+    }
+
+    /*
+     * 只判断是否有效：遇到第一条失败的规则即返回，不分配对象
+     */
+    public boolean isValid(Object obj) {
+        return validator(obj.getClass()).isValid(obj);
+    }
+
+    /*
+     * 验证所有规则，第i条规则失败时结果的第i位为1，全部通过返回0
+     * 规则超过64条的类请使用validateErrors
+     */
+    public long validateToMask(Object obj) {
+        ValidationPlan plan = ValidationPlan.of(obj.getClass());
+        if (plan.ruleCount > MAX_MASK_RULES) {
+            throw new IllegalArgumentException(plan.type.getName() + "的验证规则超过" + MAX_MASK_RULES + "条，无法用掩码表示");
+        }
+        return validator(plan.type).validateToMask(obj);
+    }
+
+    /*
+     * 验证并返回结构化错误，全部通过时返回空列表（规则不超过64条时不分配对象）
+     */
+    public List<ValidationError> validateErrors(Object obj) {
+        ValidationPlan plan = ValidationPlan.of(obj.getClass());
+        Validator<Object> validator = validator(plan.type);
+        if (plan.ruleCount <= MAX_MASK_RULES) {
+            return errors(plan, validator.validateToMask(obj));
+        }
+        long[] counts = new long[plan.ruleCount];
+        if (validator.countFailures(obj, counts) == 0) {
+            return Collections.emptyList();
+        }
+        List<ValidationError> errors = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                errors.add(plan.errors[i]);
             }
         }
         return errors;
     }
 
-    private String validateField(String fieldName, Object value, Validate validate) {
-        switch (validate.type()) {
-            case NOT_NULL:
-                if (value == null) {
-                    return getErrorMessage(fieldName, validate.message(), "不能为空");
-                }
-                break;
-            case NOT_EMPTY:
-                if (value == null || value.toString().trim().isEmpty()) {
-                    return getErrorMessage(fieldName, validate.message(), "不能为空");
-                }
-                break;
-            case EMAIL:
-                if (value != null && !value.toString().isEmpty()) {
-                    String emailRegex = "^[A-Za-z0-9+_.-]+@(.+)$";
-                    if (!Pattern.matches(emailRegex, value.toString())) {
-                        return getErrorMessage(fieldName, validate.message(), "游戏格式不正确");
-                    }
-                }
-                break;
-            case PHONE:
-                if (value != null && !value.toString().isEmpty()) {
-                    String phoneRegex = "^1[3-9]\\d{9}$";
-                    if (!Pattern.matches(phoneRegex, value.toString())) {
-                        return getErrorMessage(fieldName, validate.message(), "手机号格式不正确");
-                    }
-                }
-                break;
-            case MIN:
-                if (value instanceof Number) {
-                    double num = ((Number) value).doubleValue();
-                    if (num < validate.min()) {
-                        return getErrorMessage(fieldName, validate.message(), "不能小于" + validate.min());
-                    }
-                }
-                break;
-            case MAX:
-                if (value instanceof Number) {
-                    double num = ((Number) value).doubleValue();
-                    if (num < validate.min()) {
-                        return getErrorMessage(fieldName, validate.message(), "不能大于" + validate.max());
-                    }
-                }
-                break;
-            case LENGTH:
-                if (value != null) {
-                    int length = value.toString().length();
-                    if (length < validate.min() || length > validate.max()) {
-                        return getErrorMessage(fieldName, validate.message(), "长度必须在" + validate.min() + "-" + validate.max() + "之间");
-                    }
-                }
-                break;
-            case PATTERN:
-                if (value != null && !value.toString().isEmpty() && !validate.pattern().isEmpty()) {
-                    if (!Pattern.matches(validate.pattern(), value.toString())) {
-                        return getErrorMessage(fieldName, validate.message(), "格式不正确");   
-                    }
-                }
-                break;
-            default:
-                break;
+    /*
+     * 开启后，每个类第一次验证时用JavaCompiler生成并编译专用验证器；
+     * 没有编译器或类的字段无法访问时自动使用解释执行
+     */
+    public void setCompileValidators(boolean compileValidators) {
+        this.compileValidators = compileValidators;
+    }
+
+    public boolean isCompileValidators() {
+        return compileValidators;
+    }
+
+    /*
+     * 类当前使用的验证器：编译模式下优先使用生成的验证器，否则为解释执行的计划
+     */
+    public Validator<Object> validator(Class<?> type) {
+        if (compileValidators) {
+            Validator<Object> compiled = ValidatorCompiler.find(type);
+            if (compiled != null) {
+                return compiled;
+            }
         }
-        return null;
+        return ValidationPlan.of(type);
     }
 
-    private String getErrorMessage(String fieldName, String customMessage, String defaultMessage) {
-        if (!customMessage.isEmpty()) {
-            return fieldName + ": " + customMessage;
+    /*
+     * 把validateToMask的结果还原为错误列表
+     */
+    public List<ValidationError> errors(Class<?> type, long mask) {
+        return errors(ValidationPlan.of(type), mask);
+    }
+
+    private static List<ValidationError> errors(ValidationPlan plan, long mask) {
+        if (mask == 0) {
+            return Collections.emptyList();
+        }
+        ValidationError[] all = plan.errors;
+        List<ValidationError> errors = new ArrayList<>(Long.bitCount(mask));
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            int index = Long.numberOfTrailingZeros(bits);
+            if (index >= all.length) {
+                throw new IllegalArgumentException("掩码包含不存在的规则: " + index);
+            }
+            errors.add(all[index]);
         }
-        return fieldName + ": " + defaultMessage;
+        return errors;
+    }
+
+    /*
+     * 批量验证，行数较多时在公共ForkJoin池上分块并行
+     */
+    public ValidationReport validateAll(Collection<?> rows) {
+        return validateAll(rows, ValidationOptions.defaults());
+    }
+
+    public ValidationReport validateAll(Collection<?> rows, ValidationOptions options) {
+        return new BulkValidator(this, options).validate(rows.toArray());
+    }
+
+    /*
+     * 批量验证流：先按遇到顺序收集元素引用，行下标即流中的位置
+     */
+    public ValidationReport validateAll(Stream<?> rows) {
+        return validateAll(rows, ValidationOptions.defaults());
+    }
+
+    public ValidationReport validateAll(Stream<?> rows, ValidationOptions options) {
+        return new BulkValidator(this, options).validate(rows.toArray());
+    }
+
+    /*
+     * 类的全部规则，按序号排列
+     */
+    public List<ValidationError> rules(Class<?> type) {
+        return List.of(ValidationPlan.of(type).errors);
     }
 }
@@ -0,0 +1,92 @@
+package com.example.annotationdemo.processor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * 批量验证结果 --只保存统计和无效行的下标，不保存每行的错误列表
+ * 某行的具体错误可以用ValidationProcessor.validateErrors重新取得
+ */
+public final class ValidationReport {
+
+    private final long rows;
+    private final int[] invalidRows;
+    private final long errorCount;
+    private final Map<ValidationError, Long> failures;
+    private final boolean stopped;
+
+    ValidationReport(long rows, int[] invalidRows, long errorCount, Map<ValidationError, Long> failures, boolean stopped) {
+        this.rows = rows;
+        this.invalidRows = invalidRows;
+        this.errorCount = errorCount;
+        this.failures = Collections.unmodifiableMap(failures);
+        this.stopped = stopped;
+    }
+
+    /*
+     * 实际验证的行数（提前停止时少于输入行数）
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public boolean isValid() {
+        return invalidRows.length == 0;
+    }
+
+    public int getInvalidRowCount() {
+        return invalidRows.length;
+    }
+
+    /*
+     * 无效行在输入中的下标，升序
+     */
+    public int[] getInvalidRows() {
+        return invalidRows.clone();
+    }
+
+    /*
+     * 失败的规则总数
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /*
+     * 每条规则的失败次数，只包含失败过的规则
+     */
+    public Map<ValidationError, Long> getFailures() {
+        return failures;
+    }
+
+    /*
+     * 按字段名汇总的失败次数（不同类的同名字段合并计数）
+     */
+    public Map<String, Long> getFailuresByField() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<ValidationError, Long> entry : failures.entrySet()) {
+            result.merge(entry.getKey().getField(), entry.getValue(), Long::sum);
+        }
+        return result;
+    }
+
+    /*
+     * 是否因failFast或maxErrors提前停止
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    @Override
+    public String toString() {
+        int shown = Math.min(invalidRows.length, 10);
+        String rowsText = Arrays.toString(Arrays.copyOf(invalidRows, shown));
+        if (shown < invalidRows.length) {
+            rowsText = rowsText.substring(0, rowsText.length() - 1) + ", ...]";
+        }
+        return "ValidationReport{rows=" + rows + ", invalidRows=" + invalidRows.length + " " + rowsText
+                + ", errors=" + errorCount + ", stopped=" + stopped + ", failures=" + failures + "}";
+    }
+}
@@ -0,0 +1,489 @@
+package com.example.annotationdemo.processor;
+
+import java.math.BigDecimal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.example.annotationdemo.annotations.Validate;
+
+/*
+ * 验证规则 --由@Validate注解解析而来，min/max/pattern和自定义消息在创建时一次取出
+ * 验证时只调用test，不再访问注解代理；默认消息只在读取错误信息时才拼接
+ * 基本类型数值字段走testLong/testFloat/testDouble，数值规则读取和比较都不装箱
+ */
+abstract class ValidationRule {
+
+    final Validate.Type type;
+    final String field;
+    final String message;
+
+    ValidationRule(Validate.Type type, String field, String message) {
+        this.type = type;
+        this.field = field;
+        this.message = message;
+    }
+
+    /*
+     * 值满足规则时返回true
+     */
+    abstract boolean test(Object value);
+
+    /*
+     * 整数基本类型字段的值（byte/short/int/long），默认装箱后调用test
+     */
+    boolean testLong(long value) {
+        return test(value);
+    }
+
+    /*
+     * float基本类型字段的值，默认装箱为Float后调用test，文本规则因此看到"0.1"而不是double展开后的值
+     */
+    boolean testFloat(float value) {
+        return test(value);
+    }
+
+    /*
+     * double基本类型字段的值，默认装箱后调用test
+     */
+    boolean testDouble(double value) {
+        return test(value);
+    }
+
+    /*
+     * 没有自定义消息时使用的默认消息
+     */
+    abstract String defaultMessage();
+
+    /*
+     * 生成验证器用：与test等价的Java布尔表达式，value为字段值的表达式，valueType为字段的声明类型
+     * 返回null表示无法内联，生成的代码回调test
+     */
+    String source(String value, Class<?> valueType) {
+        return null;
+    }
+
+    static boolean isText(Class<?> type) {
+        return CharSequence.class.isAssignableFrom(type);
+    }
+
+    static boolean isIntegral(Class<?> type) {
+        return type == int.class || type == long.class || type == short.class || type == byte.class
+                || type == Integer.class || type == Long.class || type == Short.class || type == Byte.class;
+    }
+
+    static boolean isFloating(Class<?> type) {
+        return type == double.class || type == float.class || type == Double.class || type == Float.class;
+    }
+
+    /*
+     * 数值规则对对象值的检查：Integer/Long/Short/Byte按long比较，Double/Float按double比较
+     * 其他Number按doubleValue比较，非Number的值总是通过
+     */
+    static boolean testNumber(ValidationRule rule, Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return rule.testLong(((Number) value).longValue());
+        }
+        return !(value instanceof Number) || rule.testDouble(((Number) value).doubleValue());
+    }
+
+    /*
+     * 数值规则的内联表达式，比较方式与testNumber相同：整数类型和long边界比较，浮点类型和double边界比较，NaN总是通过
+     * boolean/char基本类型不是Number，与test一样总是通过；声明为其他Number类型时回调test
+     */
+    static String numberSource(String value, Class<?> valueType, String operator, NumberBound bound) {
+        if (valueType == boolean.class || valueType == char.class) {
+            return "true";
+        }
+        String compare;
+        if (isIntegral(valueType)) {
+            String read = valueType.isPrimitive() ? value : value + ".longValue()";
+            compare = bound.integralNever ? "false" : read + " " + operator + " " + bound.integral + "L";
+        } else if (isFloating(valueType)) {
+            String read = valueType.isPrimitive() ? value : value + ".doubleValue()";
+            compare = "Double.isNaN(" + read + ") || " + read + " " + operator + " " + doubleLiteral(bound.real);
+        } else {
+            return null;
+        }
+        return valueType.isPrimitive() ? compare : value + " == null || " + compare;
+    }
+
+    private static String doubleLiteral(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+        }
+        return Double.toString(value);
+    }
+
+    /*
+     * MIN/MAX的边界 --整数值与integral比较，浮点值与real比较，两种形式在创建规则时算好
+     * 与原来只在值小于/大于边界时失败一致，NaN不小于也不大于任何边界，总是通过
+     * 浮点边界对整数值取整：下界向上取整，上界向下取整；没有long能满足时integralNever为true
+     */
+    static final class NumberBound {
+        final long integral;
+        final boolean integralNever;
+        final double real;
+        private final boolean floating;
+
+        private NumberBound(long integral, boolean integralNever, double real, boolean floating) {
+            this.integral = integral;
+            this.integralNever = integralNever;
+            this.real = real;
+            this.floating = floating;
+        }
+
+        /*
+         * 优先级：minDouble、minLong、min
+         */
+        static NumberBound lower(Validate validate) {
+            double bound = validate.minDouble();
+            if (!Double.isNaN(bound)) {
+                //(long)对超出范围的值取饱和值，-Infinity等得到Long.MIN_VALUE，全部通过
+                return new NumberBound((long) Math.ceil(bound), bound >= 0x1p63, bound, true);
+            }
+            return integral(validate.minLong() != Long.MIN_VALUE ? validate.minLong() : validate.min());
+        }
+
+        /*
+         * 优先级：maxDouble、maxLong、max
+         */
+        static NumberBound upper(Validate validate) {
+            double bound = validate.maxDouble();
+            if (!Double.isNaN(bound)) {
+                return new NumberBound((long) Math.floor(bound), bound < -0x1p63, bound, true);
+            }
+            return integral(validate.maxLong() != Long.MAX_VALUE ? validate.maxLong() : validate.max());
+        }
+
+        private static NumberBound integral(long bound) {
+            return new NumberBound(bound, false, bound, false);
+        }
+
+        @Override
+        public String toString() {
+            if (!floating) {
+                return Long.toString(integral);
+            }
+            if (Double.isInfinite(real)) {
+                return Double.toString(real);
+            }
+            return BigDecimal.valueOf(real).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    /*
+     * 按注解创建规则
+     */
+    static ValidationRule of(String field, Validate validate) {
+        String message = validate.message();
+        switch (validate.type()) {
+            case NOT_NULL:
+                return new NotNull(field, message);
+            case NOT_EMPTY:
+                return new NotEmpty(field, message);
+            case EMAIL:
+                return new Email(field, message);
+            case PHONE:
+                return new Phone(field, message);
+            case MIN:
+                return new Min(field, message, NumberBound.lower(validate));
+            case MAX:
+                return new Max(field, message, NumberBound.upper(validate));
+            case LENGTH:
+                return new Length(field, message, validate.min(), validate.max());
+            case PATTERN:
+                if (validate.pattern().isEmpty()) {
+                    return null;
+                }
+                return new Matches(field, message, ValidationMatchers.pattern(validate.pattern()));
+            default:
+                return null;
+        }
+    }
+
+    private static final class NotNull extends ValidationRule {
+        NotNull(String field, String message) {
+            super(Validate.Type.NOT_NULL, field, message);
+        }
+
+        @Override
+        boolean test(Object value) {
+            return value != null;
+        }
+
+        @Override
+        boolean testLong(long value) {
+            return true;
+        }
+
+        @Override
+        boolean testFloat(float value) {
+            return testDouble(value);
+        }
+
+        @Override
+        boolean testDouble(double value) {
+            return true;
+        }
+
+        @Override
+        String defaultMessage() {
+            return "不能为空";
+        }
+
+        @Override
+        String source(String value, Class<?> valueType) {
+            return valueType.isPrimitive() ? "true" : value + " != null";
+        }
+    }
+
+    private static final class NotEmpty extends ValidationRule {
+        NotEmpty(String field, String message) {
+            super(Validate.Type.NOT_EMPTY, field, message);
+        }
+
+        @Override
+        boolean test(Object value) {
+            return value != null && !ValidationMatchers.isBlank(text(value));
+        }
+
+        @Override
+        boolean testLong(long value) {
+            return true;
+        }
+
+        @Override
+        boolean testFloat(float value) {
+            return testDouble(value);
+        }
+
+        @Override
+        boolean testDouble(double value) {
+            return true;
+        }
+
+        @Override
+        String defaultMessage() {
+            return "不能为空";
+        }
+
+        @Override
+        String source(String value, Class<?> valueType) {
+            if (valueType.isPrimitive()) {
+                return "true";
+            }
+            String text = isText(valueType) ? value : value + ".toString()";
+            return value + " != null && !ValidationMatchers.isBlank(" + text + ")";
+        }
+    }
+
+    /*
+     * 待匹配的文本：CharSequence直接使用，其他值取toString
+     */
+    static CharSequence text(Object value) {
+        return (value instanceof CharSequence) ? (CharSequence) value : value.toString();
+    }
+
+    /*
+     * EMAIL/PHONE：null和空字符串视为通过
+     */
+    private static final class Email extends ValidationRule {
+        Email(String field, String message) {
+            super(Validate.Type.EMAIL, field, message);
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (value == null) {
+                return true;
+            }
+            CharSequence text = text(value);
+            return text.length() == 0 || ValidationMatchers.isEmail(text);
+        }
+
+        @Override
+        String defaultMessage() {
+            return "游戏格式不正确";
+        }
+
+        @Override
+        String source(String value, Class<?> valueType) {
+            if (!isText(valueType)) {
+                return null;
+            }
+            return value + " == null || " + value + ".length() == 0 || ValidationMatchers.isEmail(" + value + ")";
+        }
+    }
+
+    private static final class Phone extends ValidationRule {
+        Phone(String field, String message) {
+            super(Validate.Type.PHONE, field, message);
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (value == null) {
+                return true;
+            }
+            CharSequence text = text(value);
+            return text.length() == 0 || ValidationMatchers.isPhone(text);
+        }
+
+        @Override
+        String defaultMessage() {
+            return "手机号格式不正确";
+        }
+
+        @Override
+        String source(String value, Class<?> valueType) {
+            if (!isText(valueType)) {
+                return null;
+            }
+            return value + " == null || " + value + ".length() == 0 || ValidationMatchers.isPhone(" + value + ")";
+        }
+    }
+
+    /*
+     * 自定义正则：Pattern来自共享缓存；Matcher不是线程安全的，每个线程复用自己的一个
+     * 匹配后reset到空串，不让线程持有被验证的数据
+     */
+    private static final class Matches extends ValidationRule {
+        private final ThreadLocal<Matcher> matchers;
+
+        Matches(String field, String message, Pattern pattern) {
+            super(Validate.Type.PATTERN, field, message);
+            this.matchers = ThreadLocal.withInitial(() -> pattern.matcher(""));
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (value == null) {
+                return true;
+            }
+            CharSequence text = text(value);
+            if (text.length() == 0) {
+                return true;
+            }
+            Matcher matcher = matchers.get();
+            boolean matches = matcher.reset(text).matches();
+            matcher.reset("");
+            return matches;
+        }
+
+        @Override
+        String defaultMessage() {
+            return "格式不正确";
+        }
+    }
+
+    private static final class Min extends ValidationRule {
+        private final NumberBound min;
+
+        Min(String field, String message, NumberBound min) {
+            super(Validate.Type.MIN, field, message);
+            this.min = min;
+        }
+
+        @Override
+        boolean test(Object value) {
+            return testNumber(this, value);
+        }
+
+        @Override
+        boolean testLong(long value) {
+            return !min.integralNever && value >= min.integral;
+        }
+
+        @Override
+        boolean testFloat(float value) {
+            return testDouble(value);
+        }
+
+        @Override
+        boolean testDouble(double value) {
+            return Double.isNaN(value) || value >= min.real;
+        }
+
+        @Override
+        String defaultMessage() {
+            return "不能小于" + min;
+        }
+
+        @Override
+        String source(String value, Class<?> valueType) {
+            return numberSource(value, valueType, ">=", min);
+        }
+    }
+
+    private static final class Max extends ValidationRule {
+        private final NumberBound max;
+
+        Max(String field, String message, NumberBound max) {
+            super(Validate.Type.MAX, field, message);
+            this.max = max;
+        }
+
+        @Override
+        boolean test(Object value) {
+            return testNumber(this, value);
+        }
+
+        @Override
+        boolean testLong(long value) {
+            return !max.integralNever && value <= max.integral;
+        }
+
+        @Override
+        boolean testFloat(float value) {
+            return testDouble(value);
+        }
+
+        @Override
+        boolean testDouble(double value) {
+            return Double.isNaN(value) || value <= max.real;
+        }
+
+        @Override
+        String defaultMessage() {
+            return "不能大于" + max;
+        }
+
+        @Override
+        String source(String value, Class<?> valueType) {
+            return numberSource(value, valueType, "<=", max);
+        }
+    }
+
+    private static final class Length extends ValidationRule {
+        private final int min;
+        private final int max;
+
+        Length(String field, String message, int min, int max) {
+            super(Validate.Type.LENGTH, field, message);
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        boolean test(Object value) {
+            if (value == null) {
+                return true;
+            }
+            int length = text(value).length();
+            return length >= min && length <= max;
+        }
+
+        @Override
+        String defaultMessage() {
+            return "长度必须在" + min + "-" + max + "之间";
+        }
+
+        @Override
+        String source(String value, Class<?> valueType) {
+            if (!isText(valueType)) {
+                return null;
+            }
+            return value + " == null || (" + value + ".length() >= " + min + " && " + value + ".length() <= " + max + ")";
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.annotationdemo.processor;
+
+/*
+ * 单个类的验证器 --规则按ValidationPlan的序号编号
+ * 解释执行的ValidationPlan和运行时编译生成的验证器都实现此接口，结果完全一致
+ */
+public interface Validator<T> {
+
+    /*
+     * 全部规则通过时返回true，遇到第一条失败的规则即返回
+     */
+    boolean isValid(T obj);
+
+    /*
+     * 第i条规则失败时结果的第i位为1，只包含前64条规则
+     */
+    long validateToMask(T obj);
+
+    /*
+     * 返回失败的规则数；counts不为null时把失败的规则计入counts[规则序号]
+     */
+    int countFailures(T obj, long[] counts);
+}
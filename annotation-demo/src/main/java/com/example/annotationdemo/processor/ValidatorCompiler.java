@@ -0,0 +1,346 @@
+package com.example.annotationdemo.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Predicate;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*
+ * 运行时验证器编译 --按ValidationPlan为类生成逐条展开的Java源码，用JavaCompiler在内存中编译
+ * 生成的类定义在被验证类的包和类加载器中：非private字段直接读取，private字段通过getter读取
+ * 规则能内联的直接写成表达式，不能内联的（如PATTERN）回调规则对象
+ * 没有编译器（只有JRE）、字段无法访问或编译失败时返回null，调用方继续使用解释执行
+ */
+final class ValidatorCompiler {
+
+    private static final Logger LOG = LogManager.getLogger(ValidatorCompiler.class);
+
+    /*
+     * 无法生成验证器时的占位值
+     */
+    private static final Object NONE = new Object();
+
+    private static final String SUFFIX = "$$Validator";
+
+    /*
+     * 每个类一个编译任务：并发时computeValue可能被调用多次，但所有线程取得的是同一个任务，
+     * 只有一个线程执行编译，其他线程等待结果，不会重复编译或重复定义类
+     */
+    private static final ClassValue<FutureTask<Object>> VALIDATORS = new ClassValue<FutureTask<Object>>() {
+        @Override
+        protected FutureTask<Object> computeValue(Class<?> type) {
+            return new FutureTask<>(() -> {
+                Validator<Object> validator = compile(ValidationPlan.of(type));
+                return (validator == null) ? NONE : validator;
+            });
+        }
+    };
+
+    private ValidatorCompiler() {}
+
+    /*
+     * 取得类的编译验证器，每个类只尝试编译一次（并发调用时也只编译一次），失败时返回null
+     */
+    @SuppressWarnings("unchecked")
+    static Validator<Object> find(Class<?> type) {
+        FutureTask<Object> task = VALIDATORS.get(type);
+        //任务已在执行或已完成时run直接返回
+        task.run();
+        Object validator;
+        try {
+            validator = task.get();
+        } catch (InterruptedException e) {
+            //本次使用解释执行，编译仍由执行任务的线程完成
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("生成" + type.getName() + "的验证器失败", cause);
+        }
+        return (validator == NONE) ? null : (Validator<Object>) validator;
+    }
+
+    static Validator<Object> compile(ValidationPlan plan) {
+        Class<?> type = plan.type;
+        if (plan.ruleCount == 0) {
+            return plan;
+        }
+        if (Modifier.isPrivate(type.getModifiers()) || type.getCanonicalName() == null) {
+            LOG.debug("{}不是可访问的具名类，使用解释执行的验证", type.getName());
+            return null;
+        }
+        String[] reads = new String[plan.fields.length];
+        for (int i = 0; i < reads.length; i++) {
+            reads[i] = readExpression(type, plan.fields[i].field);
+            if (reads[i] == null) {
+                LOG.debug("{}.{}没有可访问的getter，使用解释执行的验证", type.getName(), plan.fields[i].name);
+                return null;
+            }
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            LOG.debug("运行环境没有Java编译器，使用解释执行的验证");
+            return null;
+        }
+        String packageName = type.getPackageName();
+        String simpleName = type.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1) + SUFFIX;
+        String className = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        String source = render(packageName, simpleName, type, plan, reads);
+        try {
+            byte[] bytes = compileSource(compiler, type, className, source);
+            if (bytes == null) {
+                return null;
+            }
+            Class<?> generated = MethodHandles.privateLookupIn(type, MethodHandles.lookup()).defineClass(bytes);
+            @SuppressWarnings("unchecked")
+            Validator<Object> validator = (Validator<Object>) generated
+                    .getConstructor(Predicate[].class)
+                    .newInstance((Object) predicates(plan));
+            LOG.debug("已生成{}", className);
+            return validator;
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            LOG.warn("加载生成的验证器{}失败，使用解释执行的验证: {}", className, e.toString());
+            return null;
+        }
+    }
+
+    /*
+     * 规则按序号排列的回调，供不能内联的规则使用
+     */
+    private static Predicate<?>[] predicates(ValidationPlan plan) {
+        Predicate<?>[] predicates = new Predicate<?>[plan.ruleCount];
+        int index = 0;
+        for (ValidationPlan.FieldRules field : plan.fields) {
+            for (ValidationRule rule : field.rules) {
+                predicates[index++] = (Predicate<Object>) rule::test;
+            }
+        }
+        return predicates;
+    }
+
+    /*
+     * 读取字段的表达式：非private字段直接读取，否则使用返回类型相同的非private getter
+     */
+    private static String readExpression(Class<?> type, Field field) {
+        if (!Modifier.isPrivate(field.getModifiers())) {
+            return "obj." + field.getName();
+        }
+        String name = field.getName();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        Method getter = findGetter(type, "get" + suffix, field.getType());
+        if (getter == null && (field.getType() == boolean.class || field.getType() == Boolean.class)) {
+            getter = findGetter(type, "is" + suffix, field.getType());
+        }
+        return (getter == null) ? null : "obj." + getter.getName() + "()";
+    }
+
+    private static Method findGetter(Class<?> type, String name, Class<?> returnType) {
+        try {
+            Method method = type.getDeclaredMethod(name);
+            int modifiers = method.getModifiers();
+            if (!Modifier.isPrivate(modifiers) && !Modifier.isStatic(modifiers) && method.getReturnType() == returnType) {
+                return method;
+            }
+        } catch (NoSuchMethodException e) {
+            //没有此getter
+        }
+        return null;
+    }
+
+    /*
+     * 生成源码：三个方法对每条规则各展开一次，字段值读入局部变量后依次判断
+     */
+    static String render(String packageName, String simpleName, Class<?> type, ValidationPlan plan, String[] reads) {
+        String typeName = type.getCanonicalName();
+        StringBuilder sb = new StringBuilder(4096);
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("import com.example.annotationdemo.processor.ValidationMatchers;\n");
+        sb.append("import com.example.annotationdemo.processor.Validator;\n\n");
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(simpleName).append(" implements Validator<Object> {\n\n");
+        sb.append("    private final java.util.function.Predicate[] rules;\n\n");
+        sb.append("    public ").append(simpleName).append("(java.util.function.Predicate[] rules) {\n");
+        sb.append("        this.rules = rules;\n");
+        sb.append("    }\n\n");
+
+        sb.append("    @Override\n");
+        sb.append("    public boolean isValid(Object target) {\n");
+        sb.append("        ").append(typeName).append(" obj = (").append(typeName).append(") target;\n");
+        renderRules(sb, plan, reads, (index, condition) -> "if (!(" + condition + ")) return false;");
+        sb.append("        return true;\n");
+        sb.append("    }\n\n");
+
+        sb.append("    @Override\n");
+        sb.append("    public long validateToMask(Object target) {\n");
+        sb.append("        ").append(typeName).append(" obj = (").append(typeName).append(") target;\n");
+        sb.append("        long mask = 0L;\n");
+        renderRules(sb, plan, reads, (index, condition) -> (index < Long.SIZE) ?
+                "if (!(" + condition + ")) mask |= " + (1L << index) + "L;" : null);
+        sb.append("        return mask;\n");
+        sb.append("    }\n\n");
+
+        sb.append("    @Override\n");
+        sb.append("    public int countFailures(Object target, long[] counts) {\n");
+        sb.append("        ").append(typeName).append(" obj = (").append(typeName).append(") target;\n");
+        sb.append("        int failures = 0;\n");
+        renderRules(sb, plan, reads, (index, condition) ->
+                "if (!(" + condition + ")) { failures++; if (counts != null) counts[" + index + "]++; }");
+        sb.append("        return failures;\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    private interface RuleStatement {
+        String render(int index, String condition);
+    }
+
+    private static void renderRules(StringBuilder sb, ValidationPlan plan, String[] reads, RuleStatement statement) {
+        int index = 0;
+        for (int i = 0; i < plan.fields.length; i++) {
+            ValidationPlan.FieldRules field = plan.fields[i];
+            Class<?> valueType = field.field.getType();
+            sb.append("        {\n");
+            sb.append("            ").append(valueType.getCanonicalName()).append(" v = ").append(reads[i]).append(";\n");
+            for (ValidationRule rule : field.rules) {
+                String condition = rule.source("v", valueType);
+                if (condition == null) {
+                    condition = "rules[" + index + "].test(v)";
+                }
+                String line = statement.render(index, condition);
+                if (line != null) {
+                    sb.append("            ").append(line).append('\n');
+                }
+                index++;
+            }
+            sb.append("        }\n");
+        }
+    }
+
+    /*
+     * 在内存中编译，返回类文件字节；编译失败时记录诊断信息并返回null
+     */
+    private static byte[] compileSource(JavaCompiler compiler, Class<?> type, String className, String source) {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+        MemoryFileManager files = new MemoryFileManager(standard, className);
+        List<String> options = List.of("-classpath", classPath(type), "-proc:none", "-g:none", "-nowarn");
+        List<JavaFileObject> units = List.of(new SourceFile(className, source));
+        boolean success = compiler.getTask(null, files, diagnostics, options, null, units).call();
+        if (!success || files.output == null) {
+            if (LOG.isWarnEnabled()) {
+                StringBuilder messages = new StringBuilder();
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    messages.append('\n').append(diagnostic.getMessage(null));
+                }
+                LOG.warn("编译{}失败，使用解释执行的验证:{}", className, messages);
+            }
+            return null;
+        }
+        return files.output.toByteArray();
+    }
+
+    /*
+     * 编译类路径：java.class.path加上被验证类和本类所在的位置（应用服务器等场景下它们不一定在java.class.path中）
+     */
+    private static String classPath(Class<?> type) {
+        Set<String> entries = new LinkedHashSet<>();
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                entries.add(entry);
+            }
+        }
+        addLocation(entries, type);
+        addLocation(entries, Validator.class);
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void addLocation(Set<String> entries, Class<?> type) {
+        try {
+            CodeSource source = type.getProtectionDomain().getCodeSource();
+            if (source != null && source.getLocation() != null) {
+                entries.add(new File(source.getLocation().toURI()).getPath());
+            }
+        } catch (Exception e) {
+            //位置不是本地文件时忽略
+        }
+    }
+
+    /*
+     * 内存中的源文件
+     */
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    /*
+     * 把目标类的输出收集到内存，其余文件操作交给标准文件管理器
+     */
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final String className;
+        ByteArrayOutputStream output;
+
+        MemoryFileManager(StandardJavaFileManager standard, String className) {
+            super(standard);
+            this.className = className;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(JavaFileManager.Location location, String name,
+                JavaFileObject.Kind kind, FileObject sibling) {
+            URI uri = URI.create("memory:///" + name.replace('.', '/') + kind.extension);
+            return new SimpleJavaFileObject(uri, kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+                    if (name.equals(className)) {
+                        output = stream;
+                    }
+                    return stream;
+                }
+            };
+        }
+    }
+}
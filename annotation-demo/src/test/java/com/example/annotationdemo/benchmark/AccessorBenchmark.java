@@ -0,0 +1,79 @@
+package com.example.annotationdemo.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import com.example.annotationdemo.annotations.JsonField;
+import com.example.annotationdemo.models.Product;
+import com.example.annotationdemo.models.User;
+import com.example.annotationdemo.processor.FieldAccessor;
+import com.example.annotationdemo.processor.FieldAccessors;
+
+/*
+ * 字段访问基准 --对比Field.get、MethodHandle与LambdaMetafactory访问器
+ * 可传入策略名只测单个策略（例如 LAMBDA），避免不同策略在同一JVM中互相污染类型profile
+ */
+public class AccessorBenchmark {
+
+    private static final int OBJECTS = 1_000;
+    private static final int REPEAT = 1_000;
+
+    public static void main(String[] args) {
+        User[] users = new User[OBJECTS];
+        Product[] products = new Product[OBJECTS];
+        for (int i = 0; i < OBJECTS; i++) {
+            users[i] = new User((long) i, "user" + i, "user" + i + "@example.com", 20 + i % 50, "13812345678");
+            products[i] = new Product((long) i, "product" + i, 10.0 + i, i % 100);
+        }
+
+        FieldAccessors.Strategy[] strategies = FieldAccessors.Strategy.values();
+        if (args.length > 0) {
+            strategies = new FieldAccessors.Strategy[] {FieldAccessors.Strategy.valueOf(args[0])};
+        }
+        for (FieldAccessors.Strategy strategy : strategies) {
+            BenchmarkSupport.header("访问策略: " + strategy);
+            bench("User", users, accessors(User.class, strategy));
+            bench("Product", products, accessors(Product.class, strategy));
+        }
+    }
+
+    private static FieldAccessor[] accessors(Class<?> type, FieldAccessors.Strategy strategy) {
+        Field[] fields = type.getDeclaredFields();
+        int count = 0;
+        FieldAccessor[] accessors = new FieldAccessor[fields.length];
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(JsonField.class)) {
+                accessors[count++] = FieldAccessors.of(field, strategy);
+            }
+        }
+        return Arrays.copyOf(accessors, count);
+    }
+
+    private static void bench(String name, Object[] objects, FieldAccessor[] accessors) {
+        FieldAccessor single = accessors[0];
+        BenchmarkSupport.run(name + " 单字段getLong", (long) OBJECTS * REPEAT, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (Object obj : objects) {
+                    sum += single.getLong(obj);
+                }
+            }
+            return sum;
+        });
+        long reads = (long) OBJECTS * REPEAT * accessors.length;
+        BenchmarkSupport.run(name + " 字段读取", reads, () -> {
+            long hash = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (Object obj : objects) {
+                    for (FieldAccessor accessor : accessors) {
+                        Object value = accessor.get(obj);
+                        if (value != null) {
+                            hash += 1;
+                        }
+                    }
+                }
+            }
+            return hash;
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.annotationdemo.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.LongSupplier;
+
+/*
+ * 简易基准测试工具 --预热后多轮计时，输出每次操作的平均耗时和分配字节数
+ * 运行方式: mvn -q test-compile && java -cp target/test-classes:target/classes:<依赖> com.example.annotationdemo.benchmark.XxxBenchmark
+ */
+final class BenchmarkSupport {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+
+    /*
+     * 防止JIT消除被测代码
+     */
+    static volatile long sink;
+
+    /*
+     * HotSpot提供的线程分配计数，不可用时不输出分配数据
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private BenchmarkSupport() {}
+
+    /*
+     * 运行基准：operation每次调用执行batch次操作，返回值累加到sink
+     * 返回平均每次操作耗时（纳秒）
+     */
+    static double run(String name, long batch, LongSupplier operation) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += operation.getAsLong();
+        }
+        long best = Long.MAX_VALUE;
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += operation.getAsLong();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        double nsPerOp = (double) best / batch;
+        if (allocatedBefore < 0) {
+            System.out.printf("  %-40s %10.2f ns/op %14.0f ops/s%n", name, nsPerOp, 1e9 / nsPerOp);
+        } else {
+            double bytesPerOp = (double) allocated / (batch * MEASURE_ROUNDS);
+            System.out.printf("  %-40s %10.2f ns/op %14.0f ops/s %10.1f B/op%n", name, nsPerOp, 1e9 / nsPerOp, bytesPerOp);
+        }
+        return nsPerOp;
+    }
+
+    /*
+     * 当前线程累计分配的字节数，不支持时返回-1（并行基准只统计调用线程）
+     */
+    private static long allocatedBytes() {
+        return (THREADS == null) ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) bean;
+        }
+        return null;
+    }
+
+    /*
+     * 打印分组标题
+     */
+    static void header(String title) {
+        System.out.println();
+        System.out.println(title);
+        System.out.println("-".repeat(72));
+    }
+}
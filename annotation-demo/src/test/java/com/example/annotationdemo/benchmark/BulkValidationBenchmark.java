@@ -0,0 +1,46 @@
+package com.example.annotationdemo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.example.annotationdemo.models.User;
+import com.example.annotationdemo.processor.ValidationOptions;
+import com.example.annotationdemo.processor.ValidationProcessor;
+
+/*
+ * 批量验证基准 --几十万行User分别用1、2、4...个线程验证，观察吞吐随线程数的变化
+ * 约5%的行无效
+ */
+public class BulkValidationBenchmark {
+
+    private static final int ROWS = 200_000;
+
+    public static void main(String[] args) {
+        List<User> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            boolean valid = i % 20 != 0;
+            rows.add(new User((long) i, "user" + i, valid ? "user" + i + "@example.com" : "invalid",
+                    20 + i % 50, "138" + String.format("%08d", i)));
+        }
+        ValidationProcessor validator = new ValidationProcessor();
+        int cores = Runtime.getRuntime().availableProcessors();
+        BenchmarkSupport.header("批量验证（" + ROWS + "行，" + cores + "核）");
+        BenchmarkSupport.run("isValid 逐行", ROWS, () -> {
+            long valid = 0;
+            for (User row : rows) {
+                if (validator.isValid(row)) {
+                    valid++;
+                }
+            }
+            return valid;
+        });
+        for (int threads = 1; threads <= Math.max(4, cores); threads <<= 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ValidationOptions options = ValidationOptions.defaults().executor(pool);
+            BenchmarkSupport.run("validateAll " + threads + "线程", ROWS,
+                    () -> validator.validateAll(rows, options).getInvalidRowCount());
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.annotationdemo.benchmark;
+
+import java.nio.charset.StandardCharsets;
+
+import com.example.annotationdemo.models.Product;
+import com.example.annotationdemo.models.User;
+import com.example.annotationdemo.processor.JsonDeserializer;
+import com.example.annotationdemo.processor.JsonSerializer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * 反序列化基准 --JsonDeserializer对比jackson-databind
+ * Jackson通过mixin获得与@JsonField相同的字段映射，保证两边做的是同样的工作
+ */
+public class DeserializerBenchmark {
+
+    private static final int OBJECTS = 1_000;
+    private static final int REPEAT = 200;
+
+    abstract static class UserMixin {
+        @JsonProperty("id") Long userId;
+        @JsonIgnore String phone;
+    }
+
+    abstract static class ProductMixin {
+        @JsonProperty("productId") Long id;
+    }
+
+    public static void main(String[] args) throws Exception {
+        JsonSerializer serializer = new JsonSerializer();
+        JsonDeserializer deserializer = new JsonDeserializer();
+        ObjectMapper mapper = new ObjectMapper()
+                .addMixIn(User.class, UserMixin.class)
+                .addMixIn(Product.class, ProductMixin.class)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        String[] users = new String[OBJECTS];
+        String[] products = new String[OBJECTS];
+        byte[][] userBytes = new byte[OBJECTS][];
+        for (int i = 0; i < OBJECTS; i++) {
+            users[i] = serializer.toJson(new User((long) i * 7919, "user" + i, "user" + i + "@example.com", 20 + i % 50, null));
+            products[i] = serializer.toJson(new Product((long) i, "产品" + i, 10.25 + i, i % 100));
+            userBytes[i] = users[i].getBytes(StandardCharsets.UTF_8);
+        }
+        long batch = (long) OBJECTS * REPEAT;
+
+        BenchmarkSupport.header("User反序列化");
+        BenchmarkSupport.run("JsonDeserializer String", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (String json : users) {
+                    sum += deserializer.fromJson(json, User.class).getUserId();
+                }
+            }
+            return sum;
+        });
+        BenchmarkSupport.run("Jackson String", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (String json : users) {
+                    sum += readJackson(mapper, json, User.class).getUserId();
+                }
+            }
+            return sum;
+        });
+        BenchmarkSupport.run("JsonDeserializer byte[]", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (byte[] json : userBytes) {
+                    sum += deserializer.fromJson(json, User.class).getUserId();
+                }
+            }
+            return sum;
+        });
+        BenchmarkSupport.run("Jackson byte[]", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (byte[] json : userBytes) {
+                    sum += readJackson(mapper, json, User.class).getUserId();
+                }
+            }
+            return sum;
+        });
+
+        BenchmarkSupport.header("Product反序列化");
+        BenchmarkSupport.run("JsonDeserializer String", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (String json : products) {
+                    sum += deserializer.fromJson(json, Product.class).getStock();
+                }
+            }
+            return sum;
+        });
+        BenchmarkSupport.run("Jackson String", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (String json : products) {
+                    sum += readJackson(mapper, json, Product.class).getStock();
+                }
+            }
+            return sum;
+        });
+    }
+
+    private static <T> T readJackson(ObjectMapper mapper, Object json, Class<T> type) {
+        try {
+            return (json instanceof String) ? mapper.readValue((String) json, type) : mapper.readValue((byte[]) json, type);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.annotationdemo.benchmark;
+
+import com.example.annotationdemo.models.Product;
+import com.example.annotationdemo.models.User;
+import com.example.annotationdemo.processor.JsonCodec;
+
+/*
+ * 引擎对比基准 --同一批@JsonField模型分别用NATIVE与JACKSON引擎编解码
+ * 输出吞吐和每次操作的分配字节数，用于决定各接口使用哪个引擎
+ */
+public class EngineBenchmark {
+
+    private static final int OBJECTS = 1_000;
+    private static final int REPEAT = 200;
+
+    public static void main(String[] args) {
+        User[] users = new User[OBJECTS];
+        Product[] products = new Product[OBJECTS];
+        for (int i = 0; i < OBJECTS; i++) {
+            users[i] = new User((long) i * 7919, "user" + i, "user" + i + "@example.com", 20 + i % 50, null);
+            products[i] = new Product((long) i, "产品" + i, 10.25 + i, i % 100);
+        }
+        for (JsonCodec.Engine engine : JsonCodec.Engine.values()) {
+            JsonCodec codec = JsonCodec.of(engine);
+            BenchmarkSupport.header("引擎: " + engine);
+            bench(codec, "User", users);
+            bench(codec, "Product", products);
+        }
+    }
+
+    private static void bench(JsonCodec codec, String name, Object[] values) {
+        long batch = (long) values.length * REPEAT;
+        String[] json = new String[values.length];
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            json[i] = codec.toJson(values[i]);
+            bytes[i] = codec.toJsonBytes(values[i]);
+        }
+        Class<?> type = values[0].getClass();
+
+        BenchmarkSupport.run(name + " toJson", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (Object value : values) {
+                    sum += codec.toJson(value).length();
+                }
+            }
+            return sum;
+        });
+        BenchmarkSupport.run(name + " toJsonBytes", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (Object value : values) {
+                    sum += codec.toJsonBytes(value).length;
+                }
+            }
+            return sum;
+        });
+        BenchmarkSupport.run(name + " fromJson String", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (String text : json) {
+                    sum += codec.fromJson(text, type).hashCode();
+                }
+            }
+            return sum;
+        });
+        BenchmarkSupport.run(name + " fromJson byte[]", batch, () -> {
+            long sum = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (byte[] data : bytes) {
+                    sum += codec.fromJson(data, type).hashCode();
+                }
+            }
+            return sum;
+        });
+    }
+}
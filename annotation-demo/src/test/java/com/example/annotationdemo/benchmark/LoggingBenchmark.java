@@ -0,0 +1,89 @@
+package com.example.annotationdemo.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+
+import com.example.annotationdemo.models.User;
+import com.example.annotationdemo.processor.ValidationProcessor;
+
+/*
+ * 日志开销基准 --多线程验证时，每个对象打印一行到控制台（原实现）与log4j2安静模式的吞吐对比
+ * 控制台用与System.out相同结构的PrintStream（自动刷新、128字节缓冲、UTF-8编码）写入空输出流，只保留加锁和编码的开销
+ */
+public class LoggingBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        List<User> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new User((long) i, "user" + i, "user" + i + "@example.com", 20 + i % 50, "13812345678"));
+        }
+        ValidationProcessor validator = new ValidationProcessor();
+        PrintStream console = new PrintStream(new BufferedOutputStream(OutputStream.nullOutputStream(), 128),
+                true, StandardCharsets.UTF_8);
+        Configurator.setLevel(ValidationProcessor.class.getName(), Level.WARN);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(4, cores); threads <<= 1) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            int count = threads;
+            BenchmarkSupport.header("多线程验证（" + threads + "线程，" + cores + "核）");
+            BenchmarkSupport.run("System.out逐对象（原实现）", ROWS, () -> runParallel(pool, count, rows, row -> {
+                console.println("\n🔍 验证对象: " + row.getClass().getSimpleName());
+                return validator.validate(row).size();
+            }));
+            BenchmarkSupport.run("log4j2安静模式", ROWS, () -> runParallel(pool, count, rows,
+                    row -> validator.validate(row).size()));
+            pool.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowTask {
+        int apply(User row) throws Exception;
+    }
+
+    /*
+     * 把行平均分给threads个线程，返回错误总数
+     */
+    private static long runParallel(ExecutorService pool, int threads, List<User> rows, RowTask task) {
+        List<Callable<Long>> parts = new ArrayList<>(threads);
+        int chunk = (rows.size() + threads - 1) / threads;
+        for (int t = 0; t < threads; t++) {
+            int from = t * chunk;
+            int to = Math.min(rows.size(), from + chunk);
+            parts.add(() -> {
+                long errors = 0;
+                for (int i = from; i < to; i++) {
+                    errors += task.apply(rows.get(i));
+                }
+                return errors;
+            });
+        }
+        try {
+            long errors = 0;
+            for (Future<Long> future : pool.invokeAll(parts)) {
+                errors += future.get();
+            }
+            return errors;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.annotationdemo.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.annotationdemo.models.User;
+import com.example.annotationdemo.processor.JsonDeserializer;
+import com.example.annotationdemo.processor.JsonSerializer;
+import com.example.annotationdemo.processor.MappedNdjsonReader;
+import com.example.annotationdemo.processor.MappedNdjsonWriter;
+
+/*
+ * NDJSON文件导出/导入基准 --内存映射读写对比BufferedWriter/BufferedReader逐行处理
+ */
+public class NdjsonFileBenchmark {
+
+    private static final int USERS = 200_000;
+
+    public static void main(String[] args) throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        JsonDeserializer deserializer = new JsonDeserializer();
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User((long) i * 7919, "user" + i, "user" + i + "@example.com", 20 + i % 50, null));
+        }
+        Path mapped = Files.createTempFile("users-mapped", ".ndjson");
+        Path buffered = Files.createTempFile("users-buffered", ".ndjson");
+        try {
+            BenchmarkSupport.header("导出" + USERS + "个User");
+            BenchmarkSupport.run("MappedNdjsonWriter", USERS, () -> {
+                try (MappedNdjsonWriter writer = new MappedNdjsonWriter(mapped, serializer)) {
+                    writer.writeAll(users);
+                    return writer.size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            BenchmarkSupport.run("BufferedWriter + toJson", USERS, () -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(buffered, StandardCharsets.UTF_8)) {
+                    for (User user : users) {
+                        writer.write(serializer.toJson(user));
+                        writer.write('\n');
+                    }
+                } catch (IOException | IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+                return buffered.toFile().length();
+            });
+
+            BenchmarkSupport.header("导入" + USERS + "个User");
+            BenchmarkSupport.run("MappedNdjsonReader forEach", USERS, () -> {
+                long[] sum = new long[1];
+                try (MappedNdjsonReader reader = new MappedNdjsonReader(mapped, deserializer)) {
+                    reader.forEach(User.class, user -> sum[0] += user.getUserId());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return sum[0];
+            });
+            BenchmarkSupport.run("MappedNdjsonReader readAll", USERS, () -> {
+                try (MappedNdjsonReader reader = new MappedNdjsonReader(mapped, deserializer)) {
+                    return reader.readAll(User.class).size();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            BenchmarkSupport.run("BufferedReader + fromJson", USERS, () -> {
+                long sum = 0;
+                try (BufferedReader reader = Files.newBufferedReader(buffered, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        sum += deserializer.fromJson(line, User.class).getUserId();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return sum;
+            });
+        } finally {
+            Files.deleteIfExists(mapped);
+            Files.deleteIfExists(buffered);
+        }
+    }
+}
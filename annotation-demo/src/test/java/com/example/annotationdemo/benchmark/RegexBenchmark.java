@@ -0,0 +1,73 @@
+package com.example.annotationdemo.benchmark;
+
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.example.annotationdemo.processor.ValidationMatchers;
+
+/*
+ * 验证规则匹配基准 --按规则类型对比每次Pattern.matches（原实现）、缓存的Pattern、复用Matcher和手写匹配
+ * 输入一半合法一半不合法
+ */
+public class RegexBenchmark {
+
+    private static final int INPUTS = 1_000;
+    private static final int REPEAT = 200;
+
+    private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@(.+)$";
+    private static final String PHONE_REGEX = "^1[3-9]\\d{9}$";
+    private static final String CUSTOM_REGEX = "^[A-Z]{2}-\\d{4,6}$";
+
+    public static void main(String[] args) {
+        String[] emails = new String[INPUTS];
+        String[] phones = new String[INPUTS];
+        String[] codes = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            boolean valid = (i & 1) == 0;
+            emails[i] = valid ? "user" + i + "@example.com" : "user " + i + "@example.com";
+            phones[i] = valid ? "138" + String.format("%08d", i) : "12" + String.format("%09d", i);
+            codes[i] = valid ? "AB-" + (1000 + i) : "ab-" + i;
+        }
+
+        BenchmarkSupport.header("EMAIL");
+        run("Pattern.matches", emails, s -> Pattern.matches(EMAIL_REGEX, s));
+        run("缓存Pattern", emails, cached(EMAIL_REGEX));
+        run("复用Matcher", emails, reused(EMAIL_REGEX));
+        run("手写匹配", emails, ValidationMatchers::isEmail);
+
+        BenchmarkSupport.header("PHONE");
+        run("Pattern.matches", phones, s -> Pattern.matches(PHONE_REGEX, s));
+        run("缓存Pattern", phones, cached(PHONE_REGEX));
+        run("复用Matcher", phones, reused(PHONE_REGEX));
+        run("手写匹配", phones, ValidationMatchers::isPhone);
+
+        BenchmarkSupport.header("PATTERN（自定义正则）");
+        run("Pattern.matches", codes, s -> Pattern.matches(CUSTOM_REGEX, s));
+        run("缓存Pattern", codes, cached(CUSTOM_REGEX));
+        run("复用Matcher", codes, reused(CUSTOM_REGEX));
+    }
+
+    private static Predicate<String> cached(String regex) {
+        return s -> ValidationMatchers.pattern(regex).matcher(s).matches();
+    }
+
+    private static Predicate<String> reused(String regex) {
+        Matcher matcher = ValidationMatchers.pattern(regex).matcher("");
+        return s -> matcher.reset(s).matches();
+    }
+
+    private static void run(String name, String[] inputs, Predicate<String> rule) {
+        BenchmarkSupport.run(name, (long) INPUTS * REPEAT, () -> {
+            long valid = 0;
+            for (int r = 0; r < REPEAT; r++) {
+                for (String input : inputs) {
+                    if (rule.test(input)) {
+                        valid++;
+                    }
+                }
+            }
+            return valid;
+        });
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.JsonField;
+import com.example.annotationdemo.models.Product;
+import com.example.annotationdemo.models.User;
+
+/*
+ * CBOR/MessagePack编解码 --往返一致，并与规范中的编码逐字节对照
+ */
+public class BinaryFormatTest {
+
+    public static class Sample {
+        @JsonField(name = "i", order = 1)
+        public int small;
+        public long big;
+        public double real;
+        public float single;
+        public boolean flag;
+        public char letter;
+        public String text;
+        public BigDecimal amount;
+        public int[] ints;
+        public List<String> names;
+        public Map<String, Long> counts;
+        public Sample child;
+    }
+
+    public static class Leaves {
+        public UUID id;
+        public LocalDate day;
+        public Instant at;
+        public Duration timeout;
+        public Date created;
+        public URI home;
+        public StringBuilder note;
+        public AtomicLong hits;
+        public List<UUID> ids;
+    }
+
+    private static final DataFormat[] BINARY = {DataFormat.CBOR, DataFormat.MESSAGE_PACK};
+
+    private final ObjectEncoder encoder = new ObjectEncoder();
+    private final ObjectDecoder decoder = new ObjectDecoder();
+
+    @Test
+    public void roundTripsModels() {
+        User user = new User(7L, "张三", "zs@example.com", 30, "13812345678");
+        Product product = new Product(9L, "book", 12.5, null);
+        for (DataFormat format : BINARY) {
+            User userCopy = decoder.decode(encoder.encode(user, format), User.class, format);
+            assertEquals(user.getUserId(), userCopy.getUserId());
+            assertEquals(user.getUsername(), userCopy.getUsername());
+            assertEquals(user.getEmail(), userCopy.getEmail());
+            assertEquals(user.getAge(), userCopy.getAge());
+            assertNull(userCopy.getPhone());
+
+            Product productCopy = decoder.decode(encoder.encode(product, format), Product.class, format);
+            assertEquals(product.getId(), productCopy.getId());
+            assertEquals(product.getName(), productCopy.getName());
+            assertEquals(product.getPrice(), productCopy.getPrice());
+            assertNull(productCopy.getStock());
+        }
+    }
+
+    @Test
+    public void encodesLeafTypesLikeJson() {
+        //UUID、java.time等叶子类型不能当作bean展开，二进制格式的结果与JSON一致
+        Leaves value = new Leaves();
+        value.id = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        value.day = LocalDate.of(2024, 2, 29);
+        value.at = Instant.ofEpochSecond(1_700_000_000L, 5);
+        value.timeout = Duration.ofMillis(1500);
+        value.created = new Date(1_700_000_000_123L);
+        value.home = URI.create("https://example.com/a?b=c");
+        value.note = new StringBuilder("备注");
+        value.hits = new AtomicLong(42);
+        value.ids = Arrays.asList(value.id, null);
+        Map<?, ?> json = decoder.decode(encoder.encode(value, DataFormat.JSON), Map.class, DataFormat.JSON);
+        assertEquals("123e4567-e89b-12d3-a456-426614174000", json.get("id"));
+        assertEquals("2024-02-29", json.get("day"));
+        assertEquals("2023-11-14T22:13:20.000000005Z", json.get("at"));
+        assertEquals("PT1.5S", json.get("timeout"));
+        assertEquals(1_700_000_000_123L, ((Number) json.get("created")).longValue());
+        for (DataFormat format : BINARY) {
+            Map<?, ?> copy = decoder.decode(encoder.encode(value, format), Map.class, format);
+            assertEquals(format.name(), json, copy);
+        }
+    }
+
+    @Test
+    public void roundTripsEveryWidth() {
+        long[] longs = {0, 1, 23, 24, 255, 256, 65535, 65536, 0xFFFFFFFFL, 0x100000000L, Long.MAX_VALUE,
+            -1, -24, -25, -32, -33, -128, -129, -32768, -32769, Integer.MIN_VALUE, Integer.MIN_VALUE - 1L,
+            Long.MIN_VALUE};
+        double[] doubles = {0.0, -0.0, 1.5, 0.1, -1e300, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY};
+        for (DataFormat format : BINARY) {
+            for (long value : longs) {
+                Sample sample = new Sample();
+                sample.big = value;
+                sample.small = (int) value;
+                Sample copy = roundTrip(sample, format);
+                assertEquals(format + " " + value, value, copy.big);
+                assertEquals(format + " " + value, (int) value, copy.small);
+            }
+            for (double value : doubles) {
+                Sample sample = new Sample();
+                sample.real = value;
+                sample.single = (float) value;
+                Sample copy = roundTrip(sample, format);
+                assertEquals(format + " " + value, Double.doubleToLongBits(value), Double.doubleToLongBits(copy.real));
+                assertEquals(Float.floatToIntBits((float) value), Float.floatToIntBits(copy.single));
+            }
+        }
+    }
+
+    @Test
+    public void roundTripsNestedValues() {
+        Sample sample = new Sample();
+        sample.flag = true;
+        sample.letter = 'é';
+        sample.text = longText();
+        sample.amount = new BigDecimal("12345678901234567890.125");
+        sample.ints = new int[] {1, -1, 1000000};
+        sample.names = Arrays.asList("a", null, "😀");
+        sample.counts = new LinkedHashMap<>();
+        sample.counts.put("x", 1L);
+        sample.counts.put("y", null);
+        sample.child = new Sample();
+        sample.child.text = "";
+        for (DataFormat format : BINARY) {
+            Sample copy = roundTrip(sample, format);
+            assertEquals(sample.flag, copy.flag);
+            assertEquals(sample.letter, copy.letter);
+            assertEquals(sample.text, copy.text);
+            assertEquals(sample.amount, copy.amount);
+            assertArrayEquals(sample.ints, copy.ints);
+            assertEquals(sample.names, copy.names);
+            assertEquals(sample.counts, copy.counts);
+            assertEquals("", copy.child.text);
+            assertNull(copy.child.child);
+        }
+    }
+
+    private static String longText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            text.append((char) ('a' + i % 26)).append(i % 100 == 0 ? "中" : "");
+        }
+        return text.toString();
+    }
+
+    private Sample roundTrip(Sample sample, DataFormat format) {
+        byte[] bytes = encoder.encode(sample, format);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length * 2);
+        encoder.encode(sample, format, direct);
+        direct.flip();
+        Sample fromDirect = decoder.decode(direct, Sample.class, format);
+        assertEquals(bytes.length, direct.remaining());
+        assertEquals(sample.text, fromDirect.text);
+        return decoder.decode(bytes, Sample.class, format);
+    }
+
+    @Test
+    public void cborMatchesSpecEncodings() throws IOException {
+        assertBytes(cbor(0L), 0x00);
+        assertBytes(cbor(23L), 0x17);
+        assertBytes(cbor(24L), 0x18, 0x18);
+        assertBytes(cbor(500L), 0x19, 0x01, 0xF4);
+        assertBytes(cbor(-1L), 0x20);
+        assertBytes(cbor(-500L), 0x39, 0x01, 0xF3);
+        assertBytes(cbor("a"), 0x61, 0x61);
+        assertBytes(cbor(1.5), 0xFA, 0x3F, 0xC0, 0x00, 0x00);
+        assertBytes(cbor(null), 0xF6);
+        assertBytes(cbor(true), 0xF5);
+    }
+
+    @Test
+    public void messagePackMatchesSpecEncodings() throws IOException {
+        assertBytes(messagePack(0L), 0x00);
+        assertBytes(messagePack(127L), 0x7F);
+        assertBytes(messagePack(128L), 0xCC, 0x80);
+        assertBytes(messagePack(-1L), 0xFF);
+        assertBytes(messagePack(-32L), 0xE0);
+        assertBytes(messagePack(-33L), 0xD0, 0xDF);
+        assertBytes(messagePack(65536L), 0xCE, 0x00, 0x01, 0x00, 0x00);
+        assertBytes(messagePack("a"), 0xA1, 0x61);
+        assertBytes(messagePack(null), 0xC0);
+        assertBytes(messagePack(false), 0xC2);
+    }
+
+    private static byte[] cbor(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(new CborEncoder(bytes), value);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] messagePack(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(new MessagePackEncoder(bytes), value);
+        return bytes.toByteArray();
+    }
+
+    private static void write(Encoder encoder, Object value) throws IOException {
+        if (value == null) {
+            encoder.writeNull();
+        } else if (value instanceof Long) {
+            encoder.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            encoder.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            encoder.writeBoolean((Boolean) value);
+        } else {
+            encoder.writeString((String) value);
+        }
+        encoder.flush();
+    }
+
+    private static void assertBytes(byte[] actual, int... expected) {
+        byte[] bytes = new byte[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            bytes[i] = (byte) expected[i];
+        }
+        assertArrayEquals(bytes, actual);
+    }
+
+    @Test
+    public void rejectsTruncatedAndMistypedData() {
+        Sample sample = new Sample();
+        sample.text = "hello";
+        for (DataFormat format : BINARY) {
+            byte[] bytes = encoder.encode(sample, format);
+            for (int length = 0; length < bytes.length; length++) {
+                try {
+                    decoder.decode(Arrays.copyOf(bytes, length), Sample.class, format);
+                    fail(format + " 截断到" + length + "字节仍被接受");
+                } catch (IllegalArgumentException expected) {
+                    //数据不完整
+                }
+            }
+            byte[] trailing = Arrays.copyOf(bytes, bytes.length + 1);
+            try {
+                decoder.decode(trailing, Sample.class, format);
+                fail(format + " 尾部多余数据被接受");
+            } catch (IllegalArgumentException expected) {
+                //多余数据
+            }
+            try {
+                decoder.decode(encoder.encode("text", format), Sample.class, format);
+                fail(format + " 字符串被当作对象读取");
+            } catch (IllegalArgumentException expected) {
+                //类型不符
+            }
+        }
+    }
+}
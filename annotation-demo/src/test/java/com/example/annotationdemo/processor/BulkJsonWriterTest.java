@@ -0,0 +1,122 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.models.User;
+
+public class BulkJsonWriterTest {
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User((long) i, "user" + i, "user" + i + "@example.com", i % 100, null));
+        }
+        return users;
+    }
+
+    private String sequentialArray(List<User> users) throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < users.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(serializer.toJson(users.get(i)));
+        }
+        return json.append(']').toString();
+    }
+
+    private String sequentialNdjson(List<User> users) throws Exception {
+        StringBuilder json = new StringBuilder();
+        for (User user : users) {
+            json.append(serializer.toJson(user)).append('\n');
+        }
+        return json.toString();
+    }
+
+    @Test
+    public void parallelOutputKeepsOrder() throws Exception {
+        List<User> users = users(20_000);
+        String array = sequentialArray(users);
+        String ndjson = sequentialNdjson(users);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ExecutorService fixed = Executors.newFixedThreadPool(3);
+        try {
+            assertEquals(array, serializer.toJsonArray(users, pool));
+            assertEquals(array, serializer.toJsonArray(users, fixed));
+            assertEquals(ndjson, serializer.toNdjson(users, pool));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            serializer.toJsonArray(users, bytes, fixed);
+            assertEquals(array, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+            bytes.reset();
+            serializer.toNdjson(users, bytes, pool);
+            assertEquals(ndjson, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+        } finally {
+            pool.shutdown();
+            fixed.shutdown();
+        }
+    }
+
+    @Test
+    public void smallListsAndEmptyLists() throws Exception {
+        List<User> users = users(3);
+        assertEquals(sequentialArray(users), serializer.toJsonArray(users));
+        assertEquals("[]", serializer.toJsonArray(new ArrayList<>()));
+        assertEquals("", serializer.toNdjson(new ArrayList<>()));
+    }
+
+    @Test
+    public void inferredParallelism() {
+        assertEquals(5, BulkJsonWriter.parallelism(new ForkJoinPool(5)));
+        ExecutorService fixed = Executors.newFixedThreadPool(3);
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(3, BulkJsonWriter.parallelism(fixed));
+            assertEquals(1, BulkJsonWriter.parallelism(single));
+            assertEquals(1, BulkJsonWriter.parallelism(Runnable::run));
+        } finally {
+            fixed.shutdown();
+            single.shutdown();
+        }
+    }
+
+    @Test
+    public void unknownExecutorWritesSequentially() throws Exception {
+        List<User> users = users(10_000);
+        AtomicInteger tasks = new AtomicInteger();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.toJsonArray(users, bytes, task -> {
+            tasks.incrementAndGet();
+            task.run();
+        });
+        assertEquals(0, tasks.get());
+        assertEquals(sequentialArray(users), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void explicitParallelismUsesExecutor() throws Exception {
+        List<User> users = users(10_000);
+        AtomicInteger tasks = new AtomicInteger();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serializer.toNdjson(users, bytes, task -> {
+            tasks.incrementAndGet();
+            task.run();
+        }, 4);
+        assertTrue(tasks.get() > 1);
+        assertEquals(sequentialNdjson(users), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.example.annotationdemo.models.Product;
+import com.example.annotationdemo.models.User;
+
+public class BulkValidatorTest {
+
+    /*
+     * 固定并行度，单核环境下也走分块并行
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private final ValidationProcessor processor = new ValidationProcessor();
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private static List<Object> rows(int size) {
+        List<Object> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            switch (i % 7) {
+                case 0:
+                    rows.add(new User(null, "ab", "bad", 200, "123"));
+                    break;
+                case 1:
+                    rows.add(new Product((long) i, "p", -1.0, -i));
+                    break;
+                case 2:
+                    rows.add(null);
+                    break;
+                case 3:
+                    rows.add(new Product((long) i, "p", 1.0, i));
+                    break;
+                default:
+                    rows.add(new User((long) i, "zhang", i % 2 == 0 ? "z@example.com" : "z", 30, "13812345678"));
+                    break;
+            }
+        }
+        return rows;
+    }
+
+    /*
+     * 逐行用validateErrors得到的期望结果
+     */
+    private void assertMatchesRowByRow(List<Object> rows, ValidationReport report) {
+        List<Integer> invalid = new ArrayList<>();
+        Map<ValidationError, Long> failures = new LinkedHashMap<>();
+        long errors = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) == null) {
+                continue;
+            }
+            List<ValidationError> rowErrors = processor.validateErrors(rows.get(i));
+            if (!rowErrors.isEmpty()) {
+                invalid.add(i);
+                errors += rowErrors.size();
+                for (ValidationError error : rowErrors) {
+                    failures.merge(error, 1L, Long::sum);
+                }
+            }
+        }
+        assertEquals(rows.size(), report.getRows());
+        assertFalse(report.isStopped());
+        assertArrayEquals(invalid.stream().mapToInt(Integer::intValue).toArray(), report.getInvalidRows());
+        assertEquals(errors, report.getErrorCount());
+        assertEquals(failures, report.getFailures());
+    }
+
+    @Test
+    public void sequentialReportMatchesRowByRow() {
+        List<Object> rows = rows(BulkValidator.PARALLEL_THRESHOLD - 1);
+        assertMatchesRowByRow(rows, processor.validateAll(rows));
+    }
+
+    @Test
+    public void parallelReportMatchesRowByRow() {
+        List<Object> rows = rows(20_000);
+        assertMatchesRowByRow(rows, processor.validateAll(rows, ValidationOptions.defaults().executor(POOL)));
+        assertMatchesRowByRow(rows, processor.validateAll(rows.stream(), ValidationOptions.defaults().executor(POOL)));
+    }
+
+    @Test
+    public void failuresByFieldMergesClasses() {
+        List<Object> rows = Arrays.asList(new User(null, "zhang", null, 30, null),
+                new Product(null, "p", 1.0, 1), new Product(null, "p", 1.0, 1));
+        Map<String, Long> byField = processor.validateAll(rows).getFailuresByField();
+        assertEquals(Long.valueOf(1), byField.get("userId"));
+        assertEquals(Long.valueOf(2), byField.get("id"));
+    }
+
+    @Test
+    public void failFastStopsAtFirstInvalidRow() {
+        List<Object> rows = rows(100);
+        ValidationReport report = processor.validateAll(rows, ValidationOptions.defaults().failFast(true));
+        assertTrue(report.isStopped());
+        assertEquals(1, report.getRows());
+        assertArrayEquals(new int[] {0}, report.getInvalidRows());
+    }
+
+    @Test
+    public void maxErrorsStopsOnceReached() {
+        List<Object> rows = rows(100);
+        //第0行5个错误，第1行2个错误（价格和库存）
+        ValidationReport report = processor.validateAll(rows, ValidationOptions.defaults().maxErrors(6));
+        assertTrue(report.isStopped());
+        assertEquals(2, report.getRows());
+        assertEquals(7, report.getErrorCount());
+    }
+
+    @Test
+    public void parallelFailFastReportsOnlyInvalidRows() {
+        List<Object> rows = rows(20_000);
+        ValidationReport report = processor.validateAll(rows, ValidationOptions.defaults().failFast(true).executor(POOL));
+        assertTrue(report.isStopped());
+        assertTrue(report.getRows() < rows.size());
+        assertTrue(report.getInvalidRowCount() > 0);
+        for (int row : report.getInvalidRows()) {
+            assertFalse(processor.isValid(rows.get(row)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveMaxErrors() {
+        ValidationOptions.defaults().maxErrors(0);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+public class FieldAccessorsTest {
+
+    public static class Primitives {
+        private short s = -12345;
+        private byte b = -7;
+        private char c = '中';
+        private float f = 1.1f;
+        private int i = Integer.MIN_VALUE;
+        private long l = Long.MAX_VALUE;
+        private double d = Double.NaN;
+        private boolean z = true;
+
+        public short getS() {
+            return s;
+        }
+
+        public byte getB() {
+            return b;
+        }
+
+        public char getC() {
+            return c;
+        }
+
+        public float getF() {
+            return f;
+        }
+
+        public int getI() {
+            return i;
+        }
+
+        public long getL() {
+            return l;
+        }
+
+        public double getD() {
+            return d;
+        }
+
+        public boolean isZ() {
+            return z;
+        }
+    }
+
+    public static class Masked {
+        private String secret = "s3cr3t";
+
+        public String getSecret() {
+            return "***";
+        }
+    }
+
+    private static FieldAccessor lambda(String name) throws Exception {
+        return FieldAccessors.of(Primitives.class.getDeclaredField(name), FieldAccessors.Strategy.LAMBDA);
+    }
+
+    @Test
+    public void primitiveGettersUseTypedLambdas() throws Exception {
+        assertEquals("ShortLambdaAccessor", lambda("s").getClass().getSimpleName());
+        assertEquals("ByteLambdaAccessor", lambda("b").getClass().getSimpleName());
+        assertEquals("CharLambdaAccessor", lambda("c").getClass().getSimpleName());
+        assertEquals("FloatLambdaAccessor", lambda("f").getClass().getSimpleName());
+        assertEquals("IntLambdaAccessor", lambda("i").getClass().getSimpleName());
+        assertEquals("LongLambdaAccessor", lambda("l").getClass().getSimpleName());
+        assertEquals("DoubleLambdaAccessor", lambda("d").getClass().getSimpleName());
+        assertEquals("LambdaAccessor", lambda("z").getClass().getSimpleName());
+    }
+
+    @Test
+    public void strategiesReadTheSameValues() throws Exception {
+        Primitives target = new Primitives();
+        for (Field field : Primitives.class.getDeclaredFields()) {
+            FieldAccessor reflection = FieldAccessors.of(field, FieldAccessors.Strategy.REFLECTION);
+            Object expected = reflection.get(target);
+            for (FieldAccessors.Strategy strategy : FieldAccessors.Strategy.values()) {
+                FieldAccessor accessor = FieldAccessors.of(field, strategy);
+                String name = field.getName() + " " + strategy;
+                //装箱后的类型与字段类型一致
+                assertEquals(name, expected, accessor.get(target));
+                if (expected instanceof Number) {
+                    Number number = (Number) expected;
+                    assertEquals(name, Double.valueOf(number.doubleValue()), Double.valueOf(accessor.getDouble(target)));
+                    if (!(expected instanceof Float || expected instanceof Double)) {
+                        assertEquals(name, number.longValue(), accessor.getLong(target));
+                    }
+                    if (expected instanceof Short || expected instanceof Byte || expected instanceof Integer) {
+                        assertEquals(name, number.intValue(), accessor.getInt(target));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void charReadsAsCodeUnit() throws Exception {
+        Primitives target = new Primitives();
+        for (FieldAccessors.Strategy strategy : new FieldAccessors.Strategy[] {
+                FieldAccessors.Strategy.METHOD_HANDLE, FieldAccessors.Strategy.LAMBDA}) {
+            FieldAccessor accessor = FieldAccessors.of(Primitives.class.getDeclaredField("c"), strategy);
+            assertEquals(0x4e2d, accessor.getInt(target));
+            assertEquals(0x4e2dL, accessor.getLong(target));
+            assertEquals(0x4e2d, accessor.getDouble(target), 0.0);
+        }
+    }
+
+    @Test
+    public void lambdaReadsTheGetterWhileMethodHandleReadsTheField() throws Exception {
+        Field field = Masked.class.getDeclaredField("secret");
+        Masked target = new Masked();
+        assertEquals("***", FieldAccessors.of(field).get(target));
+        assertEquals("s3cr3t", FieldAccessors.of(field, FieldAccessors.Strategy.METHOD_HANDLE).get(target));
+        assertEquals("s3cr3t", FieldAccessors.of(field, FieldAccessors.Strategy.REFLECTION).get(target));
+    }
+}
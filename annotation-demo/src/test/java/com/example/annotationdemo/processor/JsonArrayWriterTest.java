@@ -0,0 +1,67 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/*
+ * 基本类型数组 --字符输出和UTF-8输出与逐元素写出的结果一致，跨越缓冲区的大数组也一样
+ */
+public class JsonArrayWriterTest {
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    private void assertJson(String expected, Object value) throws Exception {
+        assertEquals(expected, serializer.toJson(value));
+        assertEquals(expected, new String(serializer.toJsonBytes(value), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writesEveryPrimitiveArray() throws Exception {
+        assertJson("[]", new int[0]);
+        assertJson("[1,-2,2147483647,-2147483648]", new int[] {1, -2, Integer.MAX_VALUE, Integer.MIN_VALUE});
+        assertJson("[9223372036854775807,-9223372036854775808,0]", new long[] {Long.MAX_VALUE, Long.MIN_VALUE, 0});
+        assertJson("[0.5,-0.0,1.0E-300]", new double[] {0.5, -0.0, 1e-300});
+        assertJson("[1.5,3.4028235E38]", new float[] {1.5f, Float.MAX_VALUE});
+        assertJson("[-32768,7]", new short[] {Short.MIN_VALUE, 7});
+        assertJson("[-128,127]", new byte[] {-128, 127});
+        assertJson("[true,false]", new boolean[] {true, false});
+        assertJson("[\"a\",\"\\\"\",\"\\n\",\"中\",\"\\uD800\"]", new char[] {'a', '"', '\n', '中', '\uD800'});
+        assertJson("[\"x\",\"\\u0001\"]", new Character[] {'x', '\u0001'});
+    }
+
+    @Test
+    public void largeArraysSpanBuffers() throws Exception {
+        int[] ints = IntStream.range(-50_000, 50_000).map(i -> i * 40_000).toArray();
+        long[] longs = Arrays.stream(ints).asLongStream().map(i -> i * 1_000_000_007L).toArray();
+        char[] chars = new char[30_000];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (i % 3 == 0 ? '\t' : 'a' + i % 26);
+        }
+        assertJson(Arrays.stream(ints).mapToObj(String::valueOf).collect(Collectors.joining(",", "[", "]")), ints);
+        assertJson(Arrays.stream(longs).mapToObj(String::valueOf).collect(Collectors.joining(",", "[", "]")), longs);
+        StringBuilder expected = new StringBuilder("[");
+        for (int i = 0; i < chars.length; i++) {
+            expected.append(i > 0 ? "," : "").append(chars[i] == '\t' ? "\"\\t\"" : "\"" + chars[i] + "\"");
+        }
+        assertJson(expected.append(']').toString(), chars);
+    }
+
+    @Test
+    public void readsPrimitiveArraysBack() throws Exception {
+        JsonDeserializer deserializer = new JsonDeserializer();
+        int[] ints = {3, -1, 0};
+        long[] longs = {Long.MIN_VALUE, 5};
+        double[] doubles = {0.1, -2.5e10};
+        assertEquals(Arrays.toString(ints), Arrays.toString(deserializer.fromJson(serializer.toJson(ints), int[].class)));
+        assertEquals(Arrays.toString(longs),
+                Arrays.toString(deserializer.fromJson(serializer.toJson(longs), long[].class)));
+        assertEquals(Arrays.toString(doubles),
+                Arrays.toString(deserializer.fromJson(serializer.toJson(doubles), double[].class)));
+    }
+}
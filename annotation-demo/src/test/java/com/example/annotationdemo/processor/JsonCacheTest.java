@@ -0,0 +1,132 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/*
+ * 序列化结果缓存 --命中/未命中、按字节容量淘汰、TinyLFU准入、版本变化后失效
+ */
+public class JsonCacheTest {
+
+    public static class Doc {
+        public long version;
+        public String text;
+
+        Doc(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final JsonSerializer SERIALIZER = new JsonSerializer();
+
+    private static long version(Object obj) {
+        return ((Doc) obj).version;
+    }
+
+    private static int size(Doc doc) {
+        return SERIALIZER.toJsonBytes(doc).length;
+    }
+
+    @Test
+    public void hitsUntilTheVersionChanges() {
+        JsonCache cache = new JsonCache(SERIALIZER, 1 << 16, JsonCacheTest::version);
+        Doc doc = new Doc("a");
+        assertEquals("{\"version\":0,\"text\":\"a\"}", cache.toJson(doc));
+        assertEquals("{\"version\":0,\"text\":\"a\"}", new String(cache.toJsonBytes(doc), StandardCharsets.UTF_8));
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getHits());
+
+        //版本函数决定是否失效：不改版本时仍返回旧结果
+        doc.text = "b";
+        assertEquals("{\"version\":0,\"text\":\"a\"}", cache.toJson(doc));
+        doc.version++;
+        assertEquals("{\"version\":1,\"text\":\"b\"}", cache.toJson(doc));
+        assertEquals(2, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getEntries());
+
+        cache.invalidate(doc);
+        assertEquals(0, cache.stats().getEntries());
+        assertEquals(0, cache.stats().getBytes());
+        cache.toJson(doc);
+        assertEquals(3, cache.stats().getMisses());
+    }
+
+    @Test
+    public void contentHashDetectsEveryChange() {
+        JsonCache cache = new JsonCache(SERIALIZER, 1 << 16, JsonDiff::hash);
+        Doc doc = new Doc("a");
+        cache.toJson(doc);
+        doc.text = "b";
+        assertEquals("{\"version\":0,\"text\":\"b\"}", cache.toJson(doc));
+        assertEquals(2, cache.stats().getMisses());
+    }
+
+    @Test
+    public void doesNotCacheScalarsOrOversizedResults() {
+        Doc big = new Doc("xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx");
+        JsonCache cache = new JsonCache(SERIALIZER, size(big) - 1, JsonCache.IMMUTABLE);
+        assertEquals("\"text\"", cache.toJson("text"));
+        assertEquals(0, cache.stats().getMisses());
+        cache.toJson(big);
+        cache.toJson(big);
+        assertEquals(2, cache.stats().getRejections());
+        assertEquals(0, cache.stats().getEntries());
+    }
+
+    @Test
+    public void oneHitWondersDoNotEvictFrequentEntries() {
+        Doc a = new Doc("aaaa");
+        Doc b = new Doc("bbbb");
+        JsonCache cache = new JsonCache(SERIALIZER, size(a) + size(b), JsonCache.IMMUTABLE);
+        for (int i = 0; i < 3; i++) {
+            cache.toJson(a);
+            cache.toJson(b);
+        }
+        for (int i = 0; i < 10; i++) {
+            cache.toJson(new Doc("cccc"));
+        }
+        JsonCache.Stats stats = cache.stats();
+        assertEquals(10, stats.getRejections());
+        assertEquals(0, stats.getEvictions());
+        assertEquals(2, stats.getEntries());
+        long hits = stats.getHits();
+        cache.toJson(a);
+        cache.toJson(b);
+        assertEquals(hits + 2, cache.stats().getHits());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedWhenAFrequentEntryNeedsRoom() {
+        Doc a = new Doc("aaaa");
+        Doc b = new Doc("bbbb");
+        Doc c = new Doc("cccc");
+        long maxBytes = size(a) + size(b);
+        JsonCache cache = new JsonCache(SERIALIZER, maxBytes, JsonCache.IMMUTABLE);
+        cache.toJson(a);
+        cache.toJson(b);
+        cache.toJson(a);
+        cache.toJson(b);
+        cache.toJson(b);
+        //c的访问频率超过LRU端的a之后才被接纳，a被淘汰
+        int requests = 0;
+        while (cache.stats().getEvictions() == 0) {
+            cache.toJson(c);
+            assertTrue(++requests < 10);
+        }
+        JsonCache.Stats stats = cache.stats();
+        assertEquals(2, stats.getEntries());
+        assertTrue(stats.getBytes() <= maxBytes);
+        assertEquals(1, stats.getEvictions());
+
+        long misses = stats.getMisses();
+        cache.toJson(b);
+        cache.toJson(c);
+        assertEquals(misses, cache.stats().getMisses());
+        cache.toJson(a);
+        assertEquals(misses + 1, cache.stats().getMisses());
+    }
+}
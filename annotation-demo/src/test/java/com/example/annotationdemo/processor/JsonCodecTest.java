@@ -0,0 +1,148 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.JsonField;
+import com.example.annotationdemo.models.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/*
+ * 两种引擎的一致性 --同一个@JsonField类（name、ignore、order、format）经NATIVE和JACKSON得到相同的JSON，可以互相读取
+ */
+public class JsonCodecTest {
+
+    public static class Order {
+        @JsonField(name = "total", order = 3, format = "0.00")
+        private double amount;
+
+        @JsonField(name = "order_id", order = 1)
+        private long id;
+
+        @JsonField(ignore = true)
+        private String secret;
+
+        @JsonField(order = 2, format = "yyyy/MM/dd")
+        private LocalDate day;
+
+        private List<String> tags;
+
+        private Double ratio;
+    }
+
+    private static final JsonCodec NATIVE = JsonCodec.of(JsonCodec.Engine.NATIVE);
+    private static final JsonCodec JACKSON = JsonCodec.of(JsonCodec.Engine.JACKSON);
+
+    private static Order order() {
+        Order order = new Order();
+        order.amount = 12.345;
+        order.id = 42;
+        order.secret = "s3cret";
+        order.day = LocalDate.of(2024, 2, 29);
+        order.tags = Arrays.asList("a", "中");
+        order.ratio = 0.25;
+        return order;
+    }
+
+    private static JsonCodec codecs(JsonSerializer.NonFinitePolicy policy, boolean jackson) {
+        if (jackson) {
+            return new JsonCodec.Jackson(new ObjectMapper().registerModule(new JsonFieldModule(policy)));
+        }
+        JsonSerializer serializer = new JsonSerializer();
+        serializer.setNonFinitePolicy(policy);
+        return new JsonCodec.Native(serializer, new JsonDeserializer());
+    }
+
+    @Test
+    public void sharedInstancesMatchEngine() {
+        assertSame(JsonCodec.Engine.NATIVE, NATIVE.engine());
+        assertSame(JsonCodec.Engine.JACKSON, JACKSON.engine());
+        assertSame(JACKSON, JsonCodec.of(JsonCodec.Engine.JACKSON));
+    }
+
+    @Test
+    public void enginesWriteTheSameJson() {
+        String expected = "{\"order_id\":42,\"day\":\"2024/02/29\",\"total\":12.35,\"tags\":[\"a\",\"中\"],\"ratio\":0.25}";
+        assertEquals(expected, NATIVE.toJson(order()));
+        assertEquals(expected, JACKSON.toJson(order()));
+        assertEquals(expected, new String(JACKSON.toJsonBytes(order()), StandardCharsets.UTF_8));
+        assertEquals(expected, new String(NATIVE.toJsonBytes(order()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void enginesReadEachOther() {
+        for (JsonCodec writer : new JsonCodec[] {NATIVE, JACKSON}) {
+            for (JsonCodec reader : new JsonCodec[] {NATIVE, JACKSON}) {
+                String message = writer.engine() + " -> " + reader.engine();
+                Order copy = reader.fromJson(writer.toJsonBytes(order()), Order.class);
+                assertEquals(message, 42, copy.id);
+                assertEquals(message, 12.35, copy.amount, 0);
+                assertEquals(message, LocalDate.of(2024, 2, 29), copy.day);
+                assertEquals(message, Arrays.asList("a", "中"), copy.tags);
+                assertNull(message, copy.secret);
+            }
+        }
+        //ignore字段即使出现在输入中也不读取
+        String json = "{\"order_id\":1,\"secret\":\"x\",\"amount\":9,\"id\":7}";
+        for (JsonCodec codec : new JsonCodec[] {NATIVE, JACKSON}) {
+            Order copy = codec.fromJson(json, Order.class);
+            assertEquals(1, copy.id);
+            assertNull(copy.secret);
+            assertEquals(0, copy.amount, 0);
+        }
+    }
+
+    @Test
+    public void modelsRoundTripThroughJackson() {
+        User user = new User(7L, "张三", "zs@example.com", 30, "13812345678");
+        assertEquals(NATIVE.toJson(user), JACKSON.toJson(user));
+        User copy = JACKSON.fromJson(NATIVE.toJson(user), User.class);
+        assertEquals(user.getUsername(), copy.getUsername());
+        assertEquals(user.getAge(), copy.getAge());
+        assertNull(copy.getPhone());
+    }
+
+    @Test
+    public void enginesAgreeOnNonFiniteValues() {
+        Order order = order();
+        order.amount = Double.NaN;
+        order.ratio = Double.NEGATIVE_INFINITY;
+        //默认策略：两种引擎都写null，不会出现非法的裸NaN
+        String nulls = "{\"order_id\":42,\"day\":\"2024/02/29\",\"total\":null,\"tags\":[\"a\",\"中\"],\"ratio\":null}";
+        assertEquals(nulls, NATIVE.toJson(order));
+        assertEquals(nulls, JACKSON.toJson(order));
+        assertEquals("[1.5,null,null]", JACKSON.toJson(Arrays.asList(1.5, Double.NaN, Float.POSITIVE_INFINITY)));
+        assertEquals(NATIVE.toJson(Arrays.asList(1.5, Double.NaN, Float.POSITIVE_INFINITY)),
+                JACKSON.toJson(Arrays.asList(1.5, Double.NaN, Float.POSITIVE_INFINITY)));
+
+        String strings = "{\"order_id\":42,\"day\":\"2024/02/29\",\"total\":\"NaN\",\"tags\":[\"a\",\"中\"],\"ratio\":\"-Infinity\"}";
+        assertEquals(strings, codecs(JsonSerializer.NonFinitePolicy.STRING, false).toJson(order));
+        assertEquals(strings, codecs(JsonSerializer.NonFinitePolicy.STRING, true).toJson(order));
+
+        try {
+            codecs(JsonSerializer.NonFinitePolicy.FAIL, false).toJson(order);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            codecs(JsonSerializer.NonFinitePolicy.FAIL, true).toJson(order);
+            fail();
+        } catch (UncheckedIOException expected) {
+        }
+    }
+
+    @Test
+    public void floatsKeepTheirShortForm() {
+        assertEquals(NATIVE.toJson(Arrays.asList(0.1f, 1.0E10f)), JACKSON.toJson(Arrays.asList(0.1f, 1.0E10f)));
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.JsonField;
+import com.example.annotationdemo.models.User;
+
+public class JsonDeserializerTest {
+
+    public enum Level { LOW, HIGH }
+
+    public static class Bean {
+        @JsonField(name = "n", order = 1)
+        public int count;
+        public long big;
+        public double ratio;
+        public boolean flag;
+        public char letter;
+        public String text;
+        public Level level;
+        public int[] ints;
+        public long[] longs;
+        public double[] doubles;
+        public List<String> names;
+        public Map<String, Integer> scores;
+        public Bean child;
+    }
+
+    public static class Narrow {
+        public short s;
+        public byte b;
+        public float f;
+        public boolean z;
+        public char c;
+        public Short boxedS;
+        public Byte boxedB;
+        public Float boxedF;
+        public Boolean boxedZ;
+        public Character boxedC;
+    }
+
+    private final JsonSerializer serializer = new JsonSerializer();
+    private final JsonDeserializer deserializer = new JsonDeserializer();
+
+    @Test
+    public void roundTripsUserThroughEveryInput() throws Exception {
+        User user = new User(42L, "zhang\"san\n", "zs@example.com", 30, "13812345678");
+        String json = serializer.toJson(user);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        assertUser(deserializer.fromJson(json, User.class));
+        assertUser(deserializer.fromJson(new StringBuilder(json), User.class));
+        assertUser(deserializer.fromJson(bytes, User.class));
+        assertUser(deserializer.fromJson(new StringReader(json), User.class));
+    }
+
+    private static void assertUser(User user) {
+        assertEquals(Long.valueOf(42L), user.getUserId());
+        assertEquals("zhang\"san\n", user.getUsername());
+        assertEquals("zs@example.com", user.getEmail());
+        assertEquals(Integer.valueOf(30), user.getAge());
+        //phone为@JsonField(ignore = true)，不输出也不读取
+        assertNull(user.getPhone());
+    }
+
+    @Test
+    public void roundTripsNestedBean() throws Exception {
+        Bean bean = new Bean();
+        bean.count = -7;
+        bean.big = Long.MIN_VALUE;
+        bean.ratio = 0.1;
+        bean.flag = true;
+        bean.letter = '中';
+        bean.text = "tab\t emoji \uD83D\uDE00 ctl \u0001";
+        bean.level = Level.HIGH;
+        bean.ints = new int[] {Integer.MIN_VALUE, 0, Integer.MAX_VALUE};
+        bean.longs = new long[] {Long.MAX_VALUE, -1};
+        bean.doubles = new double[] {1.5, -0.0, 1e-300};
+        bean.names = Arrays.asList("a", null, "c");
+        bean.scores = new LinkedHashMap<>();
+        bean.scores.put("x", 1);
+        bean.scores.put("y", null);
+        bean.child = new Bean();
+        bean.child.text = "inner";
+
+        String json = serializer.toJson(bean);
+        Bean copy = deserializer.fromJson(json, Bean.class);
+
+        assertEquals(bean.count, copy.count);
+        assertEquals(bean.big, copy.big);
+        assertEquals(bean.ratio, copy.ratio, 0.0);
+        assertEquals(bean.flag, copy.flag);
+        assertEquals(bean.letter, copy.letter);
+        assertEquals(bean.text, copy.text);
+        assertEquals(bean.level, copy.level);
+        assertArrayEquals(bean.ints, copy.ints);
+        assertArrayEquals(bean.longs, copy.longs);
+        assertArrayEquals(bean.doubles, copy.doubles, 0.0);
+        assertEquals(bean.names, copy.names);
+        assertEquals(bean.scores, copy.scores);
+        assertEquals("inner", copy.child.text);
+        assertNull(copy.child.child);
+        assertEquals(json, serializer.toJson(copy));
+    }
+
+    @Test
+    public void skipsUnknownFieldsAndReadsEscapes() {
+        String json = "{\"extra\":{\"a\":[1,2,{\"b\":null}],\"s\":\"}\\\"\"},\"n\":5,"
+                + "\"text\":\"\\u4E2D\\n\\/\\uD83D\\uDE00\\uD800\",\"more\":[true,false,null,-1.5e3]}";
+        Bean bean = deserializer.fromJson(json, Bean.class);
+        assertEquals(5, bean.count);
+        assertEquals("中\n/\uD83D\uDE00\uD800", bean.text);
+    }
+
+    @Test
+    public void readsNullAndEmptyContainers() {
+        Bean bean = deserializer.fromJson(" { \"text\" : null , \"ints\" : [ ] , \"names\" : [] , \"scores\" : {} } ",
+                Bean.class);
+        assertNull(bean.text);
+        assertEquals(0, bean.ints.length);
+        assertEquals(0, bean.names.size());
+        assertEquals(0, bean.scores.size());
+        assertNull(deserializer.fromJson("null", Bean.class));
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        String[] inputs = {
+            "",
+            "{",
+            "{\"n\":1",
+            "{\"n\":1,}",
+            "{\"n\" 1}",
+            "{\"n\":1}}",
+            "{\"n\":1} x",
+            "{\"n\":}",
+            "{\"n\":\"1\"}",
+            "{\"n\":1.5}",
+            "{\"n\":2147483648}",
+            "{\"big\":9223372036854775808}",
+            "{\"n\":-}",
+            "{\"flag\":tru}",
+            "{\"flag\":nul}",
+            "{\"text\":\"abc}",
+            "{\"text\":\"a\\x\"}",
+            "{\"text\":\"\\u12G4\"}",
+            "{\"ints\":[1,2}",
+            "{\"ints\":[1,,2]}",
+            "{\"level\":\"MIDDLE\"}",
+            "{\"letter\":\"ab\"}",
+            "[1]",
+        };
+        for (String input : inputs) {
+            try {
+                deserializer.fromJson(input, Bean.class);
+                fail("应拒绝: " + input);
+            } catch (IllegalArgumentException expected) {
+                //格式错误统一报告为IllegalArgumentException
+            }
+        }
+    }
+
+    @Test
+    public void replacesMalformedUtf8LikeStringDecoding() {
+        byte[][] inputs = {
+            {'{', '"', 't', 'e', 'x', 't', '"', ':', '"', 'a', (byte) 0xC3, '"', '}'},
+            {'{', '"', 't', 'e', 'x', 't', '"', ':', '"', (byte) 0xFF, 'b', '"', '}'},
+            {'{', '"', 't', 'e', 'x', 't', '"', ':', '"', (byte) 0xE4, (byte) 0xB8, (byte) 0xAD, '"', '}'},
+        };
+        for (byte[] input : inputs) {
+            String expected = new String(input, StandardCharsets.UTF_8);
+            expected = expected.substring(expected.indexOf(":\"") + 2, expected.length() - 2);
+            assertEquals(expected, deserializer.fromJson(input, Bean.class).text);
+        }
+    }
+
+    @Test
+    public void readerInputReportsMalformedJson() throws IOException {
+        try {
+            deserializer.fromJson(new StringReader("{\"n\":1"), Bean.class);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            //与内存输入相同
+        }
+    }
+
+    @Test
+    public void roundTripsNarrowPrimitivesInEveryFormat() {
+        Narrow value = new Narrow();
+        value.s = Short.MIN_VALUE;
+        value.b = Byte.MAX_VALUE;
+        value.f = 0.1f;
+        value.z = true;
+        value.c = '中';
+        value.boxedS = -2;
+        value.boxedB = -128;
+        value.boxedF = Float.MAX_VALUE;
+        value.boxedZ = false;
+        value.boxedC = '"';
+        ObjectEncoder encoder = new ObjectEncoder();
+        ObjectDecoder decoder = new ObjectDecoder();
+        for (DataFormat format : DataFormat.values()) {
+            Narrow copy = decoder.decode(encoder.encode(value, format), Narrow.class, format);
+            assertEquals(format.name(), value.s, copy.s);
+            assertEquals(value.b, copy.b);
+            assertEquals(Float.valueOf(value.f), Float.valueOf(copy.f));
+            assertEquals(value.z, copy.z);
+            assertEquals(value.c, copy.c);
+            assertEquals(value.boxedS, copy.boxedS);
+            assertEquals(value.boxedB, copy.boxedB);
+            assertEquals(value.boxedF, copy.boxedF);
+            assertEquals(value.boxedZ, copy.boxedZ);
+            assertEquals(value.boxedC, copy.boxedC);
+        }
+    }
+
+    @Test
+    public void narrowFieldsTruncateLikeCasts() {
+        //超出short/byte/float范围的值与(short)/(byte)/(float)强制转换结果一致
+        Narrow value = deserializer.fromJson("{\"s\":70000,\"b\":300,\"f\":1e300,\"boxedS\":70000,\"boxedF\":0.1}",
+                Narrow.class);
+        assertEquals((short) 70000, value.s);
+        assertEquals((byte) 300, value.b);
+        assertEquals(Float.valueOf((float) 1e300), Float.valueOf(value.f));
+        assertEquals(Short.valueOf((short) 70000), value.boxedS);
+        assertEquals(Float.valueOf(0.1f), value.boxedF);
+        assertNull(value.boxedB);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.JsonField;
+import com.example.annotationdemo.models.User;
+
+public class JsonDiffTest {
+
+    public static class Doc {
+        @JsonField(order = 1)
+        public String title;
+        @JsonField(order = 2)
+        public int[] ints;
+        @JsonField(order = 3)
+        public double[] doubles;
+        @JsonField(order = 4)
+        public char[] chars;
+        @JsonField(order = 5)
+        public Map<String, Object> meta = new LinkedHashMap<>();
+        @JsonField(order = 6)
+        public User owner;
+    }
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    private static Doc doc() {
+        Doc doc = new Doc();
+        doc.title = "t";
+        doc.ints = new int[] {1, 2, 3};
+        doc.doubles = new double[] {0.5, Double.NaN};
+        doc.chars = new char[] {'a', 'b'};
+        doc.meta.put("a", 1);
+        doc.meta.put("b", "x");
+        doc.owner = new User(1L, "owner", "o@example.com", 20, null);
+        return doc;
+    }
+
+    @Test
+    public void unchangedObjectsGiveEmptyPatch() {
+        Doc before = doc();
+        Doc after = doc();
+        assertEquals("{}", serializer.toJsonPatch(before, after));
+        assertEquals("{}", serializer.toJsonPatch(serializer.snapshot(before), after));
+        assertTrue(JsonDiff.sameValue(before, after));
+        assertEquals(JsonDiff.hash(before), JsonDiff.hash(after));
+    }
+
+    @Test
+    public void patchContainsOnlyChangedFields() {
+        User before = new User(1L, "zhang", "z@example.com", 30, null);
+        User after = new User(1L, "li", null, 31, "13800000000");
+        //phone不输出，改变它不产生补丁；设为null的字段输出null
+        assertEquals("{\"username\":\"li\",\"email\":null,\"age\":31}", serializer.toJsonPatch(before, after));
+    }
+
+    @Test
+    public void nestedObjectsAndMapsAreMerged() {
+        Doc before = doc();
+        Doc after = doc();
+        after.meta.remove("a");
+        after.meta.put("b", "y");
+        after.meta.put("c", true);
+        after.owner.setAge(21);
+        after.ints[2] = 4;
+        String expected = "{\"ints\":[1,2,4],\"meta\":{\"b\":\"y\",\"c\":true,\"a\":null},\"owner\":{\"age\":21}}";
+        assertEquals(expected, serializer.toJsonPatch(before, after));
+        assertEquals(expected, serializer.toJsonPatch(serializer.snapshot(before), after));
+    }
+
+    @Test
+    public void snapshotFollowsWrittenPatches() {
+        Doc doc = doc();
+        JsonSnapshot snapshot = serializer.snapshot(doc);
+        doc.title = "u";
+        assertEquals("{\"title\":\"u\"}", serializer.toJsonPatch(snapshot, doc));
+        assertEquals("{}", serializer.toJsonPatch(snapshot, doc));
+        doc.doubles = new double[] {0.5, Double.NaN};
+        assertEquals("{}", serializer.toJsonPatch(snapshot, doc));
+        doc.chars = new char[] {'a', 'c'};
+        assertEquals("{\"chars\":[\"a\",\"c\"]}", serializer.toJsonPatch(snapshot, doc));
+    }
+
+    @Test
+    public void primitiveArraysCompareByContent() {
+        assertTrue(JsonDiff.sameValue(new int[] {1, 2}, new int[] {1, 2}));
+        assertFalse(JsonDiff.sameValue(new int[] {1, 2}, new int[] {1, 2, 3}));
+        assertTrue(JsonDiff.sameValue(new long[] {Long.MIN_VALUE}, new long[] {Long.MIN_VALUE}));
+        assertTrue(JsonDiff.sameValue(new double[] {Double.NaN}, new double[] {Double.NaN}));
+        assertFalse(JsonDiff.sameValue(new double[] {0.0}, new double[] {-0.0}));
+        assertFalse(JsonDiff.sameValue(new int[] {1}, new long[] {1}));
+        assertTrue(JsonDiff.sameValue(new String[] {"a", null}, new String[] {"a", null}));
+    }
+
+    @Test
+    public void primitiveArraysHashLikeBoxedArrays() {
+        assertEquals(JsonDiff.hash(new Integer[] {1, -2}), JsonDiff.hash(new int[] {1, -2}));
+        assertEquals(JsonDiff.hash(new Long[] {1L, -2L}), JsonDiff.hash(new long[] {1, -2}));
+        assertEquals(JsonDiff.hash(new Double[] {0.5, Double.NaN}), JsonDiff.hash(new double[] {0.5, Double.NaN}));
+        assertEquals(JsonDiff.hash(new Character[] {'x'}), JsonDiff.hash(new char[] {'x'}));
+        assertEquals(JsonDiff.hash(new Boolean[] {true}), JsonDiff.hash(new boolean[] {true}));
+        assertNotEquals(JsonDiff.hash(new int[] {1, 2}), JsonDiff.hash(new int[] {2, 1}));
+        assertEquals(JsonDiff.hash("x"), JsonDiff.hash('x'));
+    }
+
+    @Test
+    public void hashIsStableAcrossRuns() {
+        //固定值：哈希只依赖类名和字段值，不依赖身份哈希，持久化的快照在新进程中仍能匹配
+        assertEquals(5920018801035113444L, JsonDiff.hash(new User(1L, "zhang", "z@example.com", 30, null)));
+        assertEquals(8084246270157148416L, JsonDiff.hash(java.time.LocalDate.of(2024, 1, 2)));
+    }
+}
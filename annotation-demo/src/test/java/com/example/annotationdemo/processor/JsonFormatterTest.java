@@ -0,0 +1,75 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.JsonField;
+
+public class JsonFormatterTest {
+
+    public static class Priced {
+        @JsonField(order = 1, format = "0.00")
+        public Double price;
+        @JsonField(order = 2, format = "0.0")
+        public BigDecimal rate;
+        @JsonField(order = 3, format = "yyyy/MM/dd")
+        public LocalDate day;
+        @JsonField(order = 4, format = "#,##0")
+        public long total;
+    }
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    @Test
+    public void writesFormattedValues() throws Exception {
+        Priced priced = new Priced();
+        priced.price = 2.345;
+        priced.rate = new BigDecimal("-0.05");
+        priced.day = LocalDate.of(2024, 3, 9);
+        priced.total = 1234567;
+        assertEquals("{\"price\":2.35,\"rate\":-0.1,\"day\":\"2024/03/09\",\"total\":\"1,234,567\"}",
+                serializer.toJson(priced));
+
+        priced.price = null;
+        priced.rate = null;
+        priced.day = null;
+        priced.total = 0;
+        assertEquals("{\"price\":null,\"rate\":null,\"day\":null,\"total\":\"0\"}", serializer.toJson(priced));
+    }
+
+    @Test
+    public void fixedScaleRoundsHalfUpOnDecimalValue() throws Exception {
+        Priced priced = new Priced();
+        double[] values = {0, -0.0, 0.005, 0.015, 1.005, 2.675, -2.675, 99999999.995, 1e15 + 0.5, 123456.785};
+        for (double value : values) {
+            priced.price = value;
+            String expected = BigDecimal.valueOf(value).setScale(2, java.math.RoundingMode.HALF_UP).toPlainString();
+            String json = serializer.toJson(priced);
+            String written = json.substring("{\"price\":".length(), json.indexOf(','));
+            assertEquals(String.valueOf(value), new BigDecimal(expected), new BigDecimal(written));
+        }
+    }
+
+    @Test
+    public void readsFormattedValuesBack() throws Exception {
+        Priced priced = new Priced();
+        priced.price = 10.5;
+        priced.rate = new BigDecimal("3.25");
+        priced.day = LocalDate.of(1999, 12, 31);
+        priced.total = 42_000;
+        Priced copy = new JsonDeserializer().fromJson(serializer.toJson(priced), Priced.class);
+        assertEquals(Double.valueOf(10.5), copy.price);
+        assertEquals(new BigDecimal("3.3"), copy.rate);
+        assertEquals(priced.day, copy.day);
+        assertEquals(42_000, copy.total);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsupportedType() {
+        JsonFormatter.compile(Object.class, "0.00");
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class JsonNumbersTest {
+
+    /*
+     * 快速路径写出的内容与JDK一致，不在快速路径内时返回-1
+     */
+    private static void assertDouble(double value) {
+        char[] chars = new char[JsonNumbers.MAX_DOUBLE_LENGTH];
+        byte[] bytes = new byte[JsonNumbers.MAX_DOUBLE_LENGTH];
+        int end = JsonNumbers.writeDouble(value, chars, 0);
+        assertEquals(end, JsonNumbers.writeDouble(value, bytes, 0));
+        if (end >= 0) {
+            assertEquals(Double.toString(value), new String(chars, 0, end));
+            assertEquals(Double.toString(value), new String(bytes, 0, end, StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static void assertFloat(float value) {
+        char[] chars = new char[JsonNumbers.MAX_DOUBLE_LENGTH];
+        int end = JsonNumbers.writeFloat(value, chars, 0);
+        if (end >= 0) {
+            assertEquals(Float.toString(value), new String(chars, 0, end));
+        }
+    }
+
+    @Test
+    public void longsMatchLongToString() {
+        char[] buf = new char[JsonNumbers.MAX_LONG_LENGTH];
+        long[] values = {0, 1, -1, 9, 10, 99, 100, Long.MAX_VALUE, Long.MIN_VALUE, Integer.MIN_VALUE, 1234567890123L};
+        for (long value : values) {
+            assertEquals(Long.toString(value), new String(buf, 0, JsonNumbers.writeLong(value, buf, 0)));
+        }
+    }
+
+    @Test
+    public void fastPathMatchesJdk() {
+        double[] values = {0.0, -0.0, 1.0, 0.1, 0.001, 9999999.999999998, 123.456, 1.0 / 3, 2.0 / 3, 0.3, -42.5};
+        for (double value : values) {
+            assertDouble(value);
+            assertFloat((float) value);
+        }
+        Random random = new Random(6);
+        for (int i = 0; i < 500_000; i++) {
+            assertDouble(random.nextDouble() * Math.pow(10, random.nextInt(11) - 3));
+            assertDouble(Double.longBitsToDouble(random.nextLong()));
+            assertFloat(Float.intBitsToFloat(random.nextInt()));
+            assertFloat((float) (random.nextInt(1_000_000) / 1000.0));
+        }
+    }
+
+    @Test
+    public void scientificRangeFallsBackToJdk() throws Exception {
+        char[] buf = new char[JsonNumbers.MAX_DOUBLE_LENGTH];
+        for (double value : new double[] {1e7, 9.999e-4, 2.82879384806159E17, 1e23, Double.MIN_VALUE, Double.MAX_VALUE}) {
+            assertEquals(-1, JsonNumbers.writeDouble(value, buf, 0));
+        }
+        assertEquals(-1, JsonNumbers.writeFloat(1e7f, buf, 0));
+        //回退后整体输出仍与Double.toString一致
+        StringBuilder out = new StringBuilder();
+        AppendableJsonOutput json = new AppendableJsonOutput(out);
+        json.writeDouble(2.82879384806159E17);
+        json.flush();
+        assertEquals(Double.toString(2.82879384806159E17), out.toString());
+    }
+}
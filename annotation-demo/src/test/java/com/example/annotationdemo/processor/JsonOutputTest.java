@@ -0,0 +1,114 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/*
+ * 字符串转义 --字符输出和UTF-8输出必须得到相同的JSON文本
+ */
+public class JsonOutputTest {
+
+    private static String appendable(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        JsonOutput out = JsonOutput.of(writer);
+        out.writeString(value);
+        out.flush();
+        return writer.toString();
+    }
+
+    private static String utf8(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonOutput out = JsonOutput.utf8(bytes);
+        out.writeString(value);
+        out.flush();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void assertEscaped(String expected, String value) throws IOException {
+        assertEquals(expected, appendable(value));
+        assertEquals(expected, utf8(value));
+    }
+
+    @Test
+    public void escapesEveryControlCharacter() throws IOException {
+        for (char c = 0; c < 0x20; c++) {
+            String expected;
+            switch (c) {
+                case '\b': expected = "\\b"; break;
+                case '\f': expected = "\\f"; break;
+                case '\n': expected = "\\n"; break;
+                case '\r': expected = "\\r"; break;
+                case '\t': expected = "\\t"; break;
+                default: expected = String.format("\\u%04X", (int) c);
+            }
+            assertEscaped("\"a" + expected + "b\"", "a" + c + "b");
+        }
+    }
+
+    @Test
+    public void escapesQuoteAndBackslash() throws IOException {
+        assertEscaped("\"\\\"\"", "\"");
+        assertEscaped("\"\\\\\"", "\\");
+        assertEscaped("\"x\\\"y\\\\z\"", "x\"y\\z");
+    }
+
+    @Test
+    public void leavesOtherCharactersUnescaped() throws IOException {
+        assertEscaped("\"/ ~\u007F\u00E9\u4E2D\"", "/ ~\u007F\u00E9\u4E2D");
+    }
+
+    @Test
+    public void keepsSurrogatePairs() throws IOException {
+        String emoji = "a\uD83D\uDE00b\uD834\uDD1E";
+        assertEscaped("\"" + emoji + "\"", emoji);
+    }
+
+    @Test
+    public void escapesLoneSurrogates() throws IOException {
+        assertEscaped("\"\\uD83D\"", "\uD83D");
+        assertEscaped("\"\\uDE00\"", "\uDE00");
+        assertEscaped("\"a\\uD83Db\"", "a\uD83Db");
+        assertEscaped("\"\\uDE00\\uD83D\"", "\uDE00\uD83D");
+        assertEscaped("\"\\uD83D\uD83D\uDE00\"", "\uD83D\uD83D\uDE00");
+    }
+
+    @Test
+    public void escapesAcrossBufferBoundaries() throws IOException {
+        StringBuilder value = new StringBuilder();
+        StringBuilder expected = new StringBuilder("\"");
+        for (int i = 0; i < JsonOutput.BUFFER_SIZE; i++) {
+            value.append("x\n\uD83D\uDE00");
+            expected.append("x\\n\uD83D\uDE00");
+        }
+        expected.append('"');
+        assertEscaped(expected.toString(), value.toString());
+    }
+
+    @Test
+    public void singleCharMatchesStringForEveryChar() throws IOException {
+        StringWriter chars = new StringWriter();
+        StringWriter strings = new StringWriter();
+        ByteArrayOutputStream charBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        JsonOutput[] outputs = {JsonOutput.of(chars), JsonOutput.of(strings),
+            JsonOutput.utf8(charBytes), JsonOutput.utf8(stringBytes)};
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            outputs[0].writeString((char) c);
+            outputs[1].writeString(String.valueOf((char) c));
+            outputs[2].writeString((char) c);
+            outputs[3].writeString(String.valueOf((char) c));
+        }
+        for (JsonOutput out : outputs) {
+            out.flush();
+        }
+        assertEquals(strings.toString(), chars.toString());
+        assertEquals(new String(stringBytes.toByteArray(), StandardCharsets.UTF_8),
+                new String(charBytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
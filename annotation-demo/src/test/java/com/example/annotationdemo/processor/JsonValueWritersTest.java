@@ -0,0 +1,110 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.Test;
+
+/*
+ * 值写入器分派 --自定义写入器覆盖内置类型，枚举和UUID走内置写入器，子类按父类和接口查找
+ */
+public class JsonValueWritersTest {
+
+    public enum Color {
+        RED,
+        GREEN {
+            @Override
+            public String toString() {
+                return "green";
+            }
+        }
+    }
+
+    public interface Named {
+        String name();
+    }
+
+    public interface Titled extends Named {
+    }
+
+    public static class Animal {
+        public String sound = "...";
+    }
+
+    public static class Dog extends Animal {
+        public int legs = 4;
+    }
+
+    public static class Book implements Titled {
+        public String title = "三体";
+
+        @Override
+        public String name() {
+            return title;
+        }
+    }
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    @Test
+    public void registeredWriterOverridesBuiltin() throws Exception {
+        UUID id = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+        assertEquals("\"123e4567-e89b-12d3-a456-426614174000\"", serializer.toJson(id));
+        //注册后分派表重建，已经解析过的类型也改用自定义写入器
+        serializer.registerWriter(UUID.class, (value, out, s) -> out.writeLong(value.getLeastSignificantBits()));
+        assertEquals(String.valueOf(id.getLeastSignificantBits()), serializer.toJson(id));
+        assertEquals("[" + id.getLeastSignificantBits() + ",null]", serializer.toJson(Arrays.asList(id, null)));
+
+        serializer.registerWriter(String.class, (value, out, s) -> out.writeString(value.toUpperCase()));
+        assertEquals("\"ABC\"", serializer.toJson("abc"));
+    }
+
+    @Test
+    public void enumsWriteNameIncludingConstantBodies() throws Exception {
+        assertTrue(serializer.writerFor(Color.class) instanceof JsonValueWriters.EnumWriter);
+        //带常量体的常量是匿名子类，仍按name写出而不是toString
+        assertTrue(Color.GREEN.getClass() != Color.class);
+        assertTrue(serializer.writerFor(Color.GREEN.getClass()) instanceof JsonValueWriters.EnumWriter);
+        assertEquals("[\"RED\",\"GREEN\"]", serializer.toJson(Color.values()));
+    }
+
+    @Test
+    public void leafTypesUseStringWriters() throws Exception {
+        assertSame(JsonValueWriters.TO_STRING, serializer.writerFor(UUID.class));
+        assertSame(JsonValueWriters.TO_STRING, serializer.writerFor(LocalDate.class));
+        assertSame(JsonValueWriters.TO_STRING, serializer.writerFor(StringBuilder.class));
+        assertSame(JsonValueWriters.STRING, serializer.writerFor(String.class));
+        assertEquals("\"2024-02-29\"", serializer.toJson(LocalDate.of(2024, 2, 29)));
+    }
+
+    @Test
+    public void subclassesFindWritersThroughSuperclassesAndInterfaces() throws Exception {
+        JsonValueWriter<Animal> animal = (value, out, s) -> out.writeString("animal");
+        JsonValueWriter<Named> named = (value, out, s) -> out.writeString("named:" + value.name());
+        serializer.registerWriter(Animal.class, animal);
+        serializer.registerWriter(Named.class, named);
+
+        assertSame(animal, serializer.writerFor(Dog.class));
+        assertSame(named, serializer.writerFor(Book.class));
+        assertEquals("\"animal\"", serializer.toJson(new Dog()));
+        assertEquals("\"named:三体\"", serializer.toJson(new Book()));
+
+        //每个类只解析一次，之后从ClassValue表中取出同一个写入器
+        JsonValueWriter<Object> first = serializer.writerFor(Dog.class);
+        assertSame(first, serializer.writerFor(Dog.class));
+
+        //本类的注册优先于父类
+        JsonValueWriter<Dog> dog = (value, out, s) -> out.writeLong(value.legs);
+        serializer.registerWriter(Dog.class, dog);
+        assertSame(dog, serializer.writerFor(Dog.class));
+        assertNotSame(first, serializer.writerFor(Dog.class));
+        assertEquals("4", serializer.toJson(new Dog()));
+        assertEquals("\"animal\"", serializer.toJson(new Animal()));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.models.Product;
+import com.example.annotationdemo.models.User;
+
+public class JsonWriterRegistryTest {
+
+    public static class Isolated {
+    }
+
+    public static class IsolatedWriter implements ClassJsonWriter<Isolated> {
+        @Override
+        public Class<Isolated> type() {
+            return Isolated.class;
+        }
+
+        @Override
+        public void write(Isolated value, JsonOutput out, JsonSerializer serializer) throws IOException {
+            out.write("{}");
+        }
+    }
+
+    /*
+     * 自己定义Isolated和IsolatedWriter的类加载器，服务文件由测试提供
+     */
+    private static final class IsolatedLoader extends ClassLoader {
+        private static final String SERVICES = "META-INF/services/" + ClassJsonWriter.class.getName();
+        private final Set<String> names = Set.of(Isolated.class.getName(), IsolatedWriter.class.getName());
+        private final URL services;
+
+        IsolatedLoader(URL services) {
+            super(JsonWriterRegistryTest.class.getClassLoader());
+            this.services = services;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!names.contains(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    byte[] bytes = in.readAllBytes();
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            return SERVICES.equals(name) ? Collections.enumeration(Set.of(services)) : super.getResources(name);
+        }
+    }
+
+    @Test
+    public void findsGeneratedWriters() {
+        ClassJsonWriter<User> writer = JsonWriterRegistry.find(User.class);
+        assertNotNull(writer);
+        assertSame(User.class, writer.type());
+        assertSame(writer, JsonWriterRegistry.find(User.class));
+        assertSame(Product.class, JsonWriterRegistry.find(Product.class).type());
+    }
+
+    @Test
+    public void returnsNullWithoutWriter() {
+        assertNull(JsonWriterRegistry.find(String.class));
+        assertNull(JsonWriterRegistry.find(ArrayList.class));
+        assertNull(JsonWriterRegistry.find(JsonWriterRegistryTest.class));
+    }
+
+    private static URL servicesFile() throws IOException {
+        Path file = Files.createTempFile("json-writers", ".services");
+        file.toFile().deleteOnExit();
+        Files.write(file, ("does.not.Exist\n# 注释\n" + IsolatedWriter.class.getName() + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        return file.toUri().toURL();
+    }
+
+    /*
+     * 返回类加载器的弱引用，调用结束后测试不再持有任何强引用
+     */
+    private static WeakReference<ClassLoader> findInIsolatedLoader(URL services) throws Exception {
+        IsolatedLoader loader = new IsolatedLoader(services);
+        Class<?> isolated = loader.loadClass(Isolated.class.getName());
+        ClassJsonWriter<?> writer = JsonWriterRegistry.find(isolated);
+        assertNotNull(writer);
+        assertSame(isolated, writer.type());
+        assertSame(loader, writer.getClass().getClassLoader());
+        assertSame(writer, JsonWriterRegistry.find(isolated));
+        return new WeakReference<>(loader);
+    }
+
+    @Test
+    public void skipsBrokenProviderEntries() throws Exception {
+        assertNotNull(findInIsolatedLoader(servicesFile()));
+    }
+
+    @Test
+    public void doesNotRetainClassLoaders() throws Exception {
+        WeakReference<ClassLoader> loader = findInIsolatedLoader(servicesFile());
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(null, loader.get());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * 内存映射NDJSON读写 --小区域强制重新映射，记录跨越区域和段边界时内容不变，关闭后文件截断到实际长度
+ */
+public class MappedNdjsonTest {
+
+    public static class Rec {
+        public int id;
+        public String text;
+
+        public Rec() {
+        }
+
+        Rec(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    private final JsonSerializer serializer = new JsonSerializer();
+    private final JsonDeserializer deserializer = new JsonDeserializer();
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("mapped", ".ndjson");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static List<Rec> records(int count) {
+        List<Rec> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            //长度不一的记录，含多字节字符
+            records.add(new Rec(i, "记录-" + "x".repeat(i % 17)));
+        }
+        return records;
+    }
+
+    private String expected(List<Rec> records) {
+        StringBuilder sb = new StringBuilder();
+        for (Rec record : records) {
+            sb.append(serializer.toJson(record, (Projection) null)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameRecords(List<Rec> expected, List<Rec> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).id, actual.get(i).id);
+            assertEquals(expected.get(i).text, actual.get(i).text);
+        }
+    }
+
+    @Test
+    public void recordsStraddlingRegionsAreRemappedAndFileIsTruncated() throws IOException {
+        List<Rec> records = records(200);
+        String text = expected(records);
+        long size;
+        //64字节的区域每一两条记录就写满，记录从中间被截断后在记录起点重新映射
+        try (MappedNdjsonWriter writer = new MappedNdjsonWriter(file, serializer, 64)) {
+            writer.writeAll(records);
+            size = writer.size();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(size, bytes.length);
+        assertEquals(text, new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void regionGrowsForRecordsLargerThanIt() throws IOException {
+        List<Rec> records = Arrays.asList(new Rec(1, "a"), new Rec(2, "长".repeat(1000)), new Rec(3, "b"));
+        try (MappedNdjsonWriter writer = new MappedNdjsonWriter(file, serializer, 16)) {
+            writer.writeAll(records);
+        }
+        assertEquals(expected(records), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void emptyWriterLeavesEmptyFile() throws IOException {
+        Files.write(file, new byte[100]);
+        try (MappedNdjsonWriter writer = new MappedNdjsonWriter(file, serializer, 64)) {
+            assertEquals(0, writer.size());
+        }
+        assertEquals(0, Files.size(file));
+    }
+
+    @Test
+    public void readerSplitsSegmentsOnLineBoundaries() throws IOException {
+        List<Rec> records = records(300);
+        try (MappedNdjsonWriter writer = new MappedNdjsonWriter(file, serializer)) {
+            writer.writeAll(records);
+        }
+        //100字节的段上限让大部分行跨越原始段边界，段需要退回到上一个换行
+        try (MappedNdjsonReader reader = new MappedNdjsonReader(file, deserializer, 100)) {
+            List<Rec> read = new ArrayList<>();
+            reader.forEach(Rec.class, read::add);
+            assertSameRecords(records, read);
+
+            ForkJoinPool pool = new ForkJoinPool(3);
+            try {
+                assertSameRecords(records, reader.readAll(Rec.class, pool));
+            } finally {
+                pool.shutdown();
+            }
+
+            StringBuilder joined = new StringBuilder();
+            for (ByteBuffer part : reader.split(7)) {
+                assertEquals('\n', part.get(part.limit() - 1));
+                joined.append(StandardCharsets.UTF_8.decode(part));
+            }
+            assertEquals(expected(records), joined.toString());
+        }
+    }
+
+    @Test
+    public void rejectsLinesLongerThanASegment() throws IOException {
+        Files.write(file, ("{\"id\":1}\n{\"id\":2,\"text\":\"" + "x".repeat(200) + "\"}\n").getBytes(StandardCharsets.UTF_8));
+        try (MappedNdjsonReader reader = new MappedNdjsonReader(file, deserializer, 64)) {
+            throw new AssertionError("应当拒绝超过段上限的行");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("64"));
+        }
+    }
+
+    @Test
+    public void forEachLineSkipsBlankLinesAndCarriageReturns() {
+        ByteBuffer buffer = ByteBuffer.wrap("a\r\n\nbc\n\r\nd".getBytes(StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+        MappedNdjsonReader.forEachLine(buffer, line -> lines.add(StandardCharsets.UTF_8.decode(line).toString()));
+        assertEquals(Arrays.asList("a", "bc", "d"), lines);
+    }
+}
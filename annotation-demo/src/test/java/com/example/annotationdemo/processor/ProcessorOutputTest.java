@@ -0,0 +1,65 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.example.annotationdemo.models.Product;
+import com.example.annotationdemo.models.User;
+
+/*
+ * 处理器只通过log4j2输出，不直接写System.out
+ */
+public class ProcessorOutputTest {
+
+    private final ByteArrayOutputStream captured = new ByteArrayOutputStream();
+    private PrintStream original;
+
+    @BeforeClass
+    public static void initLogging() {
+        //先初始化日志，Console追加器持有原来的System.out，之后的替换只捕获直接打印
+        LogManager.getLogger(ValidationProcessor.class);
+        LogManager.getLogger(AnnotationProcessor.class);
+    }
+
+    @Before
+    public void capture() {
+        original = System.out;
+        System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void restore() {
+        System.setOut(original);
+    }
+
+    private String output() {
+        return captured.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void validationDoesNotPrint() throws Exception {
+        ValidationProcessor processor = new ValidationProcessor();
+        User invalid = new User(null, "ab", "bad", 200, "123");
+        processor.validate(invalid);
+        processor.isValid(invalid);
+        processor.validateErrors(invalid);
+        processor.validateAll(Arrays.asList(invalid, new Product(1L, "p", 1.0, 1)));
+        assertEquals("", output());
+    }
+
+    @Test
+    public void annotationScanDoesNotPrint() {
+        new AnnotationProcessor().scanAndProcess("com.example.annotationdemo.models");
+        assertEquals("", output());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.JsonField;
+
+/*
+ * 字段投影 --按输出名选择字段，嵌套路径逐层应用，字段名不存在时报错
+ */
+public class ProjectionTest {
+
+    public static class Owner {
+        @JsonField(name = "user_name")
+        public String username = "zhang";
+        public String email = "z@example.com";
+    }
+
+    public static class Item {
+        public long id = 7;
+        public String title = "book";
+        @JsonField(ignore = true)
+        public String secret = "s";
+        private String expensive = "x";
+        public Owner owner = new Owner();
+        public List<Owner> owners = Arrays.asList(new Owner(), null);
+        public Map<String, Object> attrs = new LinkedHashMap<>();
+
+        Item() {
+            attrs.put("color", "red");
+            attrs.put("size", 3);
+        }
+
+        /*
+         * 未选中的字段不会被读取
+         */
+        public String getExpensive() {
+            throw new AssertionError("读取了未选中的字段");
+        }
+    }
+
+    public static class Tag {
+        public long id = 1;
+        public String label = "t";
+    }
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    @Test
+    public void includesOnlySelectedFieldsInDeclarationOrder() {
+        assertEquals("{\"id\":7,\"title\":\"book\"}", serializer.toJson(new Item(), Projection.of("title", "id")));
+        assertEquals("{\"id\":7}", serializer.toJson(new Item(), Projection.parse(" id ")));
+    }
+
+    @Test
+    public void appliesNestedPathsToObjectsCollectionsAndMaps() {
+        Projection projection = Projection.parse("owner.user_name,owners.email,attrs.size");
+        assertEquals("{\"owner\":{\"user_name\":\"zhang\"},\"owners\":[{\"email\":\"z@example.com\"},null],"
+                + "\"attrs\":{\"size\":3}}", serializer.toJson(new Item(), projection));
+        assertEquals("owner.user_name,owners.email,attrs.size", projection.toString());
+    }
+
+    @Test
+    public void wholeFieldOverridesNestedSelection() {
+        Projection projection = Projection.of("owner.email", "owner", "owner.user_name");
+        assertEquals("owner", projection.toString());
+        assertEquals("{\"owner\":{\"user_name\":\"zhang\",\"email\":\"z@example.com\"}}",
+                serializer.toJson(new Item(), projection));
+    }
+
+    @Test
+    public void rejectsUnknownAndIgnoredFieldNames() {
+        //Java字段名被@JsonField改名后不能再用于投影，ignore字段不可选
+        String[] invalid = {"nope", "secret", "owner.username"};
+        for (String path : invalid) {
+            Projection projection = Projection.of(path);
+            try {
+                serializer.toJson(new Item(), projection);
+                fail(path);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(path.substring(path.lastIndexOf('.') + 1)));
+            }
+            //失败的计划不缓存，再次使用仍然报错
+            try {
+                serializer.toJson(new Item(), projection);
+                fail(path);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        String[] malformed = {"", "a..b", ".a", "a."};
+        for (String path : malformed) {
+            try {
+                Projection.of(path);
+                fail(path);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void plansAreCachedPerClass() {
+        Projection projection = Projection.of("id");
+        Projection.Plan plan = projection.plan(Item.class);
+        //交替使用两个类时lastPlan缓存失效，仍从每个类的计划表中取回同一个计划
+        Projection.Plan tagPlan = projection.plan(Tag.class);
+        assertSame(plan, projection.plan(Item.class));
+        assertSame(tagPlan, projection.plan(Tag.class));
+        assertEquals("[{\"id\":7},{\"id\":1}]", serializer.toJson(Arrays.asList(new Item(), new Tag()), projection));
+        assertEquals(1, plan.properties.length);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.Validate;
+
+/*
+ * 手写的EMAIL/PHONE匹配必须与原正则接受完全相同的输入
+ */
+public class ValidationMatchersTest {
+
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+    private static final Pattern PHONE = Pattern.compile("^1[3-9]\\d{9}$");
+
+    /*
+     * 覆盖各个字符类别的边界：允许字符、'@'、行终止符、非ASCII数字和其他字符
+     */
+    public static class Patterned {
+        @Validate(type = Validate.Type.PATTERN, pattern = "[a-c]+\\d?")
+        String code;
+    }
+
+    private static final char[] ALPHABET = {
+        'a', 'Z', '0', '9', '+', '_', '.', '-', '@', ' ', '#', '\n', '\r', (char) 0x85, (char) 0x2028,
+        (char) 0x2029, 'é', '١', '１', '1', '3', '2',
+    };
+
+    private static void assertSameAsRegex(String text) {
+        assertEquals(text, EMAIL.matcher(text).matches(), ValidationMatchers.isEmail(text));
+        assertEquals(text, PHONE.matcher(text).matches(), ValidationMatchers.isPhone(text));
+    }
+
+    @Test
+    public void matchesRegexOnAllShortStrings() {
+        char[] chars = new char[4];
+        for (int length = 0; length <= chars.length; length++) {
+            int combinations = (int) Math.pow(ALPHABET.length, length);
+            for (int n = 0; n < combinations; n++) {
+                for (int i = 0, rest = n; i < length; i++, rest /= ALPHABET.length) {
+                    chars[i] = ALPHABET[rest % ALPHABET.length];
+                }
+                assertSameAsRegex(new String(chars, 0, length));
+            }
+        }
+    }
+
+    @Test
+    public void matchesRegexOnRandomStrings() {
+        Random random = new Random(20);
+        String[] phones = {"13812345678", "19900000000", "12812345678", "1381234567", "138123456789"};
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder text = new StringBuilder();
+            if (random.nextInt(4) == 0) {
+                text.append(phones[random.nextInt(phones.length)]);
+            }
+            int length = random.nextInt(14);
+            for (int j = 0; j < length; j++) {
+                text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            if (random.nextInt(3) == 0 && text.length() > 0) {
+                text.setCharAt(random.nextInt(text.length()), (char) ('0' + random.nextInt(10)));
+            }
+            assertSameAsRegex(text.toString());
+        }
+    }
+
+    @Test
+    public void knownCases() {
+        assertTrue(ValidationMatchers.isEmail("a.b+c_d-e@example.com"));
+        assertTrue(ValidationMatchers.isEmail("a@@"));
+        assertTrue(ValidationMatchers.isEmail(new StringBuilder("x@y")));
+        assertEquals(false, ValidationMatchers.isEmail("@example.com"));
+        assertEquals(false, ValidationMatchers.isEmail("a@"));
+        assertEquals(false, ValidationMatchers.isEmail("a@b\nc"));
+        assertEquals(false, ValidationMatchers.isEmail("a b@c"));
+        assertTrue(ValidationMatchers.isPhone("13000000000"));
+        assertEquals(false, ValidationMatchers.isPhone("12000000000"));
+        assertEquals(false, ValidationMatchers.isPhone("1300000000١"));
+    }
+
+    @Test
+    public void blankMatchesTrimIsEmpty() {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            String text = "  " + (char) c + "\t";
+            assertEquals(text.trim().isEmpty(), ValidationMatchers.isBlank(text));
+        }
+        assertTrue(ValidationMatchers.isBlank(""));
+        assertTrue(ValidationMatchers.isBlank(new StringBuilder("\u0000\u001F ")));
+    }
+
+    @Test
+    public void patternsAreSharedUpToTheCacheLimit() {
+        assertSame(ValidationMatchers.pattern("[a-z]+\\d"), ValidationMatchers.pattern("[a-z]+\\d"));
+        for (int i = 0; i < ValidationMatchers.MAX_CACHED_PATTERNS; i++) {
+            ValidationMatchers.pattern("fill" + i);
+        }
+        //缓存已满：新表达式照常编译但不缓存，已缓存的仍共享
+        assertNotSame(ValidationMatchers.pattern("uncached"), ValidationMatchers.pattern("uncached"));
+        assertSame(ValidationMatchers.pattern("[a-z]+\\d"), ValidationMatchers.pattern("[a-z]+\\d"));
+    }
+
+    @Test
+    public void patternRuleMatchesRegex() {
+        Pattern regex = Pattern.compile("[a-c]+\\d?");
+        ValidationPlan plan = ValidationPlan.of(Patterned.class);
+        Patterned value = new Patterned();
+        for (String text : new String[] {null, "", "a", "abc1", "abc12", "d", "a\n", "1", "cab9"}) {
+            value.code = text;
+            boolean expected = text == null || text.isEmpty() || regex.matcher(text).matches();
+            assertEquals(text, expected, plan.isValid(value));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.Validate;
+import com.example.annotationdemo.models.User;
+
+public class ValidationPlanTest {
+
+    public static class Annotated {
+        @Validate(type = Validate.Type.NOT_NULL)
+        static String ignoredStatic;
+
+        String unannotated;
+
+        @Validate(type = Validate.Type.PATTERN)
+        String emptyPattern;
+
+        @Validate(type = Validate.Type.NOT_EMPTY)
+        @Validate(type = Validate.Type.LENGTH, min = 2, max = 4)
+        String text;
+
+        @Validate(type = Validate.Type.MIN, min = 1)
+        @Validate(type = Validate.Type.MAX, max = 9)
+        int number;
+    }
+
+    private final ValidationProcessor processor = new ValidationProcessor();
+
+    @Test
+    public void planIsBuiltOncePerClass() {
+        assertSame(ValidationPlan.of(User.class), ValidationPlan.of(User.class));
+    }
+
+    @Test
+    public void rulesAreNumberedInFieldOrder() {
+        List<String> rules = new ArrayList<>();
+        for (ValidationError error : processor.rules(User.class)) {
+            assertEquals(rules.size(), error.getIndex());
+            rules.add(error.getField() + " " + error.getRule());
+        }
+        assertEquals(Arrays.asList("userId NOT_NULL", "username NOT_EMPTY", "username LENGTH", "email EMAIL",
+                "age MIN", "age MAX", "phone PHONE"), rules);
+    }
+
+    @Test
+    public void skipsStaticUnannotatedAndEmptyPatternFields() {
+        ValidationPlan plan = ValidationPlan.of(Annotated.class);
+        assertEquals(2, plan.fields.length);
+        assertEquals("text", plan.fields[0].name);
+        assertEquals("number", plan.fields[1].name);
+        assertEquals(4, plan.ruleCount);
+    }
+
+    @Test
+    public void reportsDefaultAndCustomMessages() throws Exception {
+        Annotated value = new Annotated();
+        value.text = " ";
+        value.number = 0;
+        assertEquals(Arrays.asList("text: 不能为空", "text: 长度必须在2-4之间", "number: 不能小于1"),
+                processor.validate(value));
+
+        User user = new User(null, "ab", "bad", 200, "123");
+        assertEquals(Arrays.asList("userId: 用户ID不能为空", "username: 用户名长度3-20位", "email: 邮箱格式不正确",
+                "age: 年龄不能大于150", "phone: 手机号格式不正确"), processor.validate(user));
+        assertTrue(processor.validate(new User(1L, "zhang", "z@example.com", 30, "13812345678")).isEmpty());
+    }
+
+    @Test
+    public void validatesPrivateFieldsThroughGetters() throws Exception {
+        User user = new User(1L, "   ", "", null, "");
+        //空白用户名不为空串，长度仍为3；空邮箱和空手机号视为通过
+        assertEquals(Arrays.asList("username: 用户名不能为空"), processor.validate(user));
+    }
+}
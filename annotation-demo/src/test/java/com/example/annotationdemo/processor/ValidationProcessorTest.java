@@ -0,0 +1,238 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.Validate;
+import com.example.annotationdemo.models.User;
+
+public class ValidationProcessorTest {
+
+    /*
+     * 65条规则，超出掩码能表示的范围
+     */
+    public static class ManyRules {
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        String f0;
+
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        String f1;
+
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        String f2;
+
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        String f3;
+
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        String f4;
+    }
+
+    public static class TooManyOnOneField {
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.NOT_NULL)
+        String value;
+    }
+
+    private final ValidationProcessor processor = new ValidationProcessor();
+
+    private static final User VALID = new User(1L, "zhang", "z@example.com", 30, "13812345678");
+    private static final User INVALID = new User(null, "ab", "bad", 200, "123");
+
+    @Test
+    public void isValidAgreesWithValidate() throws Exception {
+        assertTrue(processor.isValid(VALID));
+        assertFalse(processor.isValid(INVALID));
+        assertFalse(processor.isValid(new User(1L, "zhang", "z@example.com", -1, "13812345678")));
+    }
+
+    @Test
+    public void maskBitsAreRuleIndexes() {
+        assertEquals(0L, processor.validateToMask(VALID));
+        //userId NOT_NULL=0, username LENGTH=2, email EMAIL=3, age MAX=5, phone PHONE=6
+        long mask = processor.validateToMask(INVALID);
+        assertEquals(1L | 1L << 2 | 1L << 3 | 1L << 5 | 1L << 6, mask);
+        assertEquals(processor.validateErrors(INVALID), processor.errors(User.class, mask));
+    }
+
+    @Test
+    public void validateErrorsReusesRuleInstances() throws Exception {
+        assertSame(Collections.emptyList(), processor.validateErrors(VALID));
+        List<ValidationError> errors = processor.validateErrors(INVALID);
+        List<ValidationError> rules = processor.rules(User.class);
+        assertEquals(Arrays.asList(rules.get(0), rules.get(2), rules.get(3), rules.get(5), rules.get(6)), errors);
+        for (int i = 0; i < errors.size(); i++) {
+            assertSame(rules.get(errors.get(i).getIndex()), errors.get(i));
+            assertEquals(processor.validate(INVALID).get(i), errors.get(i).toString());
+        }
+        ValidationError age = errors.get(3);
+        assertEquals(User.class, age.getType());
+        assertEquals("age", age.getField());
+        assertEquals(Validate.Type.MAX, age.getRule());
+        assertEquals("年龄不能大于150", age.getMessage());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void errorsRejectsUnknownRuleBits() {
+        processor.errors(User.class, 1L << 7);
+    }
+
+    @Test
+    public void moreThanSixtyFourRules() {
+        ManyRules value = new ManyRules();
+        assertEquals(65, processor.rules(ManyRules.class).size());
+        assertFalse(processor.isValid(value));
+        List<ValidationError> errors = processor.validateErrors(value);
+        assertEquals(65, errors.size());
+        assertEquals(64, errors.get(64).getIndex());
+
+        value.f0 = value.f1 = value.f2 = value.f3 = "x";
+        errors = processor.validateErrors(value);
+        assertEquals(13, errors.size());
+        assertEquals("f4", errors.get(0).getField());
+        assertEquals(52, errors.get(0).getIndex());
+        try {
+            processor.validateToMask(value);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            //超过64条规则只能用validateErrors
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMoreThanSixtyFourRulesOnOneField() {
+        processor.isValid(new TooManyOnOneField());
+    }
+}
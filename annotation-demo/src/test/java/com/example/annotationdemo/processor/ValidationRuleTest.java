@@ -0,0 +1,213 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.Validate;
+
+/*
+ * MIN/MAX/LENGTH的边界值，解释执行与编译生成的验证器结果一致
+ */
+public class ValidationRuleTest {
+
+    /*
+     * 默认值全部通过，测试逐个字段改为边界值
+     */
+    public static class Bounds {
+        @Validate(type = Validate.Type.MIN, min = 1)
+        @Validate(type = Validate.Type.MAX, max = 9)
+        int small = 5;
+
+        @Validate(type = Validate.Type.MIN, minLong = -5_000_000_000L)
+        @Validate(type = Validate.Type.MAX, maxLong = 5_000_000_000L)
+        long big;
+
+        @Validate(type = Validate.Type.MIN, minLong = -5_000_000_000L)
+        @Validate(type = Validate.Type.MAX, maxLong = 5_000_000_000L)
+        Long boxedBig;
+
+        @Validate(type = Validate.Type.MIN, minDouble = 0.5)
+        @Validate(type = Validate.Type.MAX, maxDouble = 2.5)
+        int rounded = 1;
+
+        @Validate(type = Validate.Type.MIN, minDouble = 0.0)
+        @Validate(type = Validate.Type.MAX, maxDouble = 1.0)
+        double ratio;
+
+        @Validate(type = Validate.Type.MIN, minDouble = 0.0)
+        @Validate(type = Validate.Type.MAX, maxDouble = 1.0)
+        float floatRatio;
+
+        @Validate(type = Validate.Type.MIN, minDouble = 0.0)
+        @Validate(type = Validate.Type.MAX, maxDouble = 1.0)
+        Double boxedRatio;
+
+        @Validate(type = Validate.Type.MIN, minDouble = 0.0)
+        @Validate(type = Validate.Type.MAX, maxDouble = 1.0)
+        Float boxedFloatRatio;
+
+        @Validate(type = Validate.Type.MIN, minDouble = Double.NEGATIVE_INFINITY)
+        @Validate(type = Validate.Type.MAX, maxDouble = Double.POSITIVE_INFINITY)
+        long unbounded;
+
+        @Validate(type = Validate.Type.LENGTH, min = 2, max = 4)
+        String text = "abc";
+
+        @Validate(type = Validate.Type.LENGTH, min = 2, max = 4)
+        StringBuilder builder;
+    }
+
+    /*
+     * 浮点边界超出long范围：没有整数值能满足，浮点值照常比较
+     */
+    public static class Never {
+        @Validate(type = Validate.Type.MIN, minDouble = 1e19)
+        long low = Long.MAX_VALUE;
+
+        @Validate(type = Validate.Type.MIN, minDouble = 1e19)
+        Long boxedLow = Long.MAX_VALUE;
+
+        @Validate(type = Validate.Type.MAX, maxDouble = -1e19)
+        long high = Long.MIN_VALUE;
+
+        @Validate(type = Validate.Type.MIN, minDouble = 1e19)
+        double real = 1e19;
+    }
+
+    private final ValidationProcessor processor = new ValidationProcessor();
+
+    /*
+     * 失败的规则（"字段 规则"），同时检查编译生成的验证器结果相同
+     */
+    private List<String> failed(Object value) {
+        ValidatorCompilerTest.assertSameResults(ValidatorCompiler.find(value.getClass()),
+                ValidationPlan.of(value.getClass()), value);
+        List<String> failed = new ArrayList<>();
+        for (ValidationError error : processor.validateErrors(value)) {
+            failed.add(error.getField() + " " + error.getRule());
+        }
+        return failed;
+    }
+
+    private static List<String> none() {
+        return List.of();
+    }
+
+    @Test
+    public void defaultsPass() {
+        assertEquals(none(), failed(new Bounds()));
+    }
+
+    @Test
+    public void intBounds() {
+        Bounds value = new Bounds();
+        value.small = 1;
+        assertEquals(none(), failed(value));
+        value.small = 9;
+        assertEquals(none(), failed(value));
+        value.small = 0;
+        assertEquals(Arrays.asList("small MIN"), failed(value));
+        value.small = 10;
+        assertEquals(Arrays.asList("small MAX"), failed(value));
+    }
+
+    @Test
+    public void longBounds() {
+        Bounds value = new Bounds();
+        value.big = -5_000_000_000L;
+        value.boxedBig = 5_000_000_000L;
+        assertEquals(none(), failed(value));
+        value.big = -5_000_000_001L;
+        value.boxedBig = 5_000_000_001L;
+        assertEquals(Arrays.asList("big MIN", "boxedBig MAX"), failed(value));
+        value.big = Long.MAX_VALUE;
+        value.boxedBig = Long.MIN_VALUE;
+        assertEquals(Arrays.asList("big MAX", "boxedBig MIN"), failed(value));
+    }
+
+    @Test
+    public void doubleBoundsRoundTowardTheValidRangeForIntegers() {
+        Bounds value = new Bounds();
+        value.rounded = 2;
+        assertEquals(none(), failed(value));
+        value.rounded = 0;
+        assertEquals(Arrays.asList("rounded MIN"), failed(value));
+        value.rounded = 3;
+        assertEquals(Arrays.asList("rounded MAX"), failed(value));
+    }
+
+    @Test
+    public void floatingBounds() {
+        Bounds value = new Bounds();
+        value.ratio = 1.0;
+        value.floatRatio = 1.0f;
+        value.boxedRatio = 0.0;
+        value.boxedFloatRatio = -0.0f;
+        assertEquals(none(), failed(value));
+        value.ratio = Math.nextUp(1.0);
+        value.floatRatio = -Float.MIN_VALUE;
+        value.boxedRatio = Double.POSITIVE_INFINITY;
+        value.boxedFloatRatio = Float.NEGATIVE_INFINITY;
+        assertEquals(Arrays.asList("ratio MAX", "floatRatio MIN", "boxedRatio MAX", "boxedFloatRatio MIN"),
+                failed(value));
+    }
+
+    @Test
+    public void nanPassesMinAndMax() {
+        //与原实现一致：只有小于下界或大于上界时失败，NaN两者都不是
+        Bounds value = new Bounds();
+        value.ratio = Double.NaN;
+        value.floatRatio = Float.NaN;
+        value.boxedRatio = Double.NaN;
+        value.boxedFloatRatio = Float.NaN;
+        assertEquals(none(), failed(value));
+    }
+
+    @Test
+    public void infiniteBoundsAcceptEveryLong() {
+        Bounds value = new Bounds();
+        value.unbounded = Long.MIN_VALUE;
+        assertEquals(none(), failed(value));
+        value.unbounded = Long.MAX_VALUE;
+        assertEquals(none(), failed(value));
+    }
+
+    @Test
+    public void boundsOutsideTheLongRangeRejectEveryInteger() {
+        Never value = new Never();
+        assertEquals(Arrays.asList("low MIN", "boxedLow MIN", "high MAX"), failed(value));
+        value.boxedLow = null;
+        value.real = Math.nextDown(1e19);
+        assertEquals(Arrays.asList("low MIN", "high MAX", "real MIN"), failed(value));
+        assertEquals("low: 不能小于10000000000000000000", processor.validateErrors(value).get(0).toString());
+    }
+
+    @Test
+    public void lengthBounds() {
+        Bounds value = new Bounds();
+        value.text = null;
+        assertEquals(none(), failed(value));
+        value.text = "ab";
+        value.builder = new StringBuilder("abcd");
+        assertEquals(none(), failed(value));
+        value.text = "a";
+        value.builder = new StringBuilder("abcde");
+        assertEquals(Arrays.asList("text LENGTH", "builder LENGTH"), failed(value));
+        value.text = "";
+        value.builder = new StringBuilder("😀");
+        assertEquals(Arrays.asList("text LENGTH"), failed(value));
+    }
+
+    @Test
+    public void defaultMessagesShowTheBounds() throws Exception {
+        Bounds value = new Bounds();
+        value.rounded = 0;
+        value.ratio = 2;
+        assertEquals(Arrays.asList("rounded: 不能小于0.5", "ratio: 不能大于1"), processor.validate(value));
+    }
+}
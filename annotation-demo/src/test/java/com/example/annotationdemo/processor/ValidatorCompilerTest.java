@@ -0,0 +1,216 @@
+package com.example.annotationdemo.processor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.Test;
+
+import com.example.annotationdemo.annotations.Validate;
+import com.example.annotationdemo.models.Product;
+import com.example.annotationdemo.models.User;
+
+public class ValidatorCompilerTest {
+
+    /*
+     * 只在并发测试中使用，保证第一次编译发生在多个线程同时请求时
+     */
+    public static class Concurrent {
+        @Validate(type = Validate.Type.NOT_NULL)
+        String name;
+    }
+
+    public static class Mixed {
+        @Validate(type = Validate.Type.NOT_EMPTY)
+        @Validate(type = Validate.Type.LENGTH, min = 2, max = 5)
+        @Validate(type = Validate.Type.PATTERN, pattern = "[a-z ]*")
+        String text;
+
+        @Validate(type = Validate.Type.EMAIL)
+        StringBuilder email;
+
+        @Validate(type = Validate.Type.PHONE)
+        String phone;
+
+        @Validate(type = Validate.Type.MIN, min = -3)
+        @Validate(type = Validate.Type.MAX, max = 3)
+        int small;
+
+        @Validate(type = Validate.Type.MIN, minLong = -5_000_000_000L)
+        @Validate(type = Validate.Type.MAX, maxLong = 5_000_000_000L)
+        Long big;
+
+        @Validate(type = Validate.Type.MIN, minDouble = -0.5)
+        @Validate(type = Validate.Type.MAX, maxDouble = 0.5)
+        double ratio;
+
+        @Validate(type = Validate.Type.NOT_NULL)
+        @Validate(type = Validate.Type.MIN, minDouble = 1.5)
+        Float weight;
+    }
+
+    public static class FloatText {
+        @Validate(type = Validate.Type.NOT_EMPTY)
+        @Validate(type = Validate.Type.LENGTH, min = 1, max = 5)
+        @Validate(type = Validate.Type.PATTERN, pattern = "\\d\\.\\d")
+        @Validate(type = Validate.Type.MIN, minDouble = 0.1)
+        @Validate(type = Validate.Type.MAX, maxDouble = 0.5)
+        float value;
+    }
+
+    /*
+     * 收集ValidatorCompiler的警告（如重复定义类导致的LinkageError）
+     */
+    private static final class Warnings extends AbstractAppender {
+        final List<String> messages = new ArrayList<>();
+
+        Warnings() {
+            super("Warnings", null, null, true, Property.EMPTY_ARRAY);
+        }
+
+        @Override
+        public synchronized void append(LogEvent event) {
+            if (event.getLevel().isMoreSpecificThan(Level.WARN)) {
+                messages.add(event.getMessage().getFormattedMessage());
+            }
+        }
+    }
+
+    @Test
+    public void concurrentFirstUseInstallsOneCompiledValidator() throws Exception {
+        ValidationProcessor processor = new ValidationProcessor();
+        processor.setCompileValidators(true);
+        Logger logger = (Logger) LogManager.getLogger(ValidatorCompiler.class);
+        Warnings warnings = new Warnings();
+        warnings.start();
+        logger.addAppender(warnings);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Validator<Object>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<Validator<Object>> task = () -> {
+                    start.await();
+                    return processor.validator(Concurrent.class);
+                };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+            Validator<Object> first = results.get(0).get();
+            assertTrue(first.getClass().getName(), first.getClass().getName().endsWith("$Concurrent$$Validator"));
+            for (Future<Validator<Object>> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            pool.shutdown();
+            logger.removeAppender(warnings);
+        }
+        assertEquals(List.of(), warnings.messages);
+        assertSame(ValidatorCompiler.find(Concurrent.class), processor.validator(Concurrent.class));
+        assertEquals(1L, processor.validateToMask(new Concurrent()));
+    }
+
+    private static Validator<Object> compiled(Class<?> type) {
+        Validator<Object> validator = ValidatorCompiler.find(type);
+        assertNotNull(validator);
+        assertTrue(validator.getClass().getName().endsWith("$$Validator"));
+        return validator;
+    }
+
+    /*
+     * 三个方法的结果与解释执行逐项相同
+     */
+    static void assertSameResults(Validator<Object> compiled, ValidationPlan plan, Object value) {
+        assertEquals(plan.isValid(value), compiled.isValid(value));
+        assertEquals(plan.validateToMask(value), compiled.validateToMask(value));
+        long[] expected = new long[plan.ruleCount];
+        long[] actual = new long[plan.ruleCount];
+        assertEquals(plan.countFailures(value, expected), compiled.countFailures(value, actual));
+        assertArrayEquals(expected, actual);
+        assertEquals(plan.countFailures(value, null), compiled.countFailures(value, null));
+    }
+
+    @Test
+    public void compiledModelValidatorsMatchPlan() {
+        Validator<Object> user = compiled(User.class);
+        Validator<Object> product = compiled(Product.class);
+        Object[] users = {
+            new User(1L, "zhang", "z@example.com", 30, "13812345678"),
+            new User(null, "ab", "bad", 200, "123"),
+            new User(1L, "   ", "", null, ""),
+            new User(1L, "zhang", "a@b\n", -1, "1381234567١"),
+        };
+        for (Object value : users) {
+            assertSameResults(user, ValidationPlan.of(User.class), value);
+        }
+        Object[] products = {
+            new Product(1L, "p", 1.0, 1),
+            new Product(null, " ", -0.01, -1),
+            new Product(1L, null, null, null),
+        };
+        for (Object value : products) {
+            assertSameResults(product, ValidationPlan.of(Product.class), value);
+        }
+    }
+
+    @Test
+    public void compiledMixedValidatorMatchesPlan() {
+        Validator<Object> compiled = compiled(Mixed.class);
+        ValidationPlan plan = ValidationPlan.of(Mixed.class);
+        String[] texts = {null, "", " ", "a", "ab", "abcde", "abcdef", "AB", "a b", "a\n"};
+        String[] emails = {null, "", "a@b", "@b", "a@", "a b@c"};
+        String[] phones = {null, "", "13812345678", "12812345678", "1381234567"};
+        long[] longs = {Long.MIN_VALUE, -5_000_000_001L, -5_000_000_000L, -4, -3, 0, 3, 4, 5_000_000_000L,
+            5_000_000_001L, Long.MAX_VALUE};
+        double[] doubles = {Double.NaN, Double.NEGATIVE_INFINITY, -0.51, -0.5, -0.0, 0.0, 0.5, 0.51, 1.49, 1.5,
+            Double.POSITIVE_INFINITY};
+        Random random = new Random(24);
+        for (int i = 0; i < 5000; i++) {
+            Mixed value = new Mixed();
+            value.text = texts[random.nextInt(texts.length)];
+            String email = emails[random.nextInt(emails.length)];
+            value.email = (email == null) ? null : new StringBuilder(email);
+            value.phone = phones[random.nextInt(phones.length)];
+            value.small = (int) longs[random.nextInt(longs.length)];
+            value.big = random.nextInt(8) == 0 ? null : longs[random.nextInt(longs.length)];
+            value.ratio = doubles[random.nextInt(doubles.length)];
+            value.weight = random.nextInt(8) == 0 ? null : (float) doubles[random.nextInt(doubles.length)];
+            assertSameResults(compiled, plan, value);
+        }
+    }
+
+    @Test
+    public void floatFieldsMatchTextOfTheFloat() {
+        //文本规则看到的是Float.toString，不是按double展开的0.10000000149011612
+        Validator<Object> compiled = compiled(FloatText.class);
+        ValidationPlan plan = ValidationPlan.of(FloatText.class);
+        FloatText value = new FloatText();
+        value.value = 0.1f;
+        assertTrue(plan.isValid(value));
+        assertTrue(compiled.isValid(value));
+        float[] floats = {Float.NaN, Float.NEGATIVE_INFINITY, -0.1f, 0.0f, 0.09999999f, 0.1f, 0.3f, 0.5f, 0.50000006f,
+            1.5f, 12.5f, Float.MAX_VALUE};
+        for (float f : floats) {
+            value.value = f;
+            assertSameResults(compiled, plan, value);
+        }
+    }
+}